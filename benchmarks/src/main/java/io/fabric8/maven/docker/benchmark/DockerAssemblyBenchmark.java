@@ -0,0 +1,193 @@
+package io.fabric8.maven.docker.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.maven.docker.access.BuildContextWriter;
+import io.fabric8.maven.docker.access.BuildOptions;
+import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.access.hc.DockerAccessWithHcClient;
+import io.fabric8.maven.docker.assembly.DockerAssemblyManager;
+import io.fabric8.maven.docker.config.BuildImageConfiguration;
+import io.fabric8.maven.docker.util.MojoParameters;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.bootstrap.HttpServer;
+import org.apache.http.impl.bootstrap.ServerBootstrap;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.archiver.manager.ArchiverManager;
+import org.codehaus.plexus.archiver.tar.TarArchiver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Creation of the build context tar with {@link DockerAssemblyManager} in Dockerfile mode over a synthetic
+ * context directory, either written to a file or streamed.
+ * <p>
+ * The <code>upload</code> benchmarks measure the whole build request against a local stand-in for the Docker
+ * daemon which reads the build context and answers with a build result: the context is either written to
+ * a file first and then sent with its length, or sent chunked while it is created.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DockerAssemblyBenchmark {
+
+    @Param({"2000"})
+    public int files;
+
+    @Param({"8192"})
+    public int fileSize;
+
+    @Param({"none", "gzip"})
+    public String compression;
+
+    private File root;
+    private DockerAssemblyManager assemblyManager;
+    private MojoParameters params;
+    private BuildImageConfiguration buildConfig;
+
+    private HttpServer daemon;
+    private DockerAccessWithHcClient access;
+
+    @Setup
+    public void setup() throws IOException, ReflectiveOperationException {
+        root = Files.createTempDirectory("dmp-benchmark").toFile();
+        File context = new File(root, "context");
+        Fixtures.fileTree(context, files, fileSize);
+        File dockerFile = new File(context, "Dockerfile");
+        Files.write(dockerFile.toPath(), "FROM scratch\nCOPY . /app\n".getBytes(StandardCharsets.UTF_8));
+
+        MavenProject project = new MavenProject();
+        project.setFile(new File(root, "pom.xml"));
+        params = new MojoParameters(null, project, null, null, null, null,
+                                    "src/main/docker", new File(root, "target/docker").getAbsolutePath(), null);
+
+        buildConfig = new BuildImageConfiguration.Builder()
+            .dockerFile(dockerFile.getAbsolutePath())
+            .contextDir(context.getAbsolutePath())
+            .filter("false")
+            .compression(compression)
+            .build();
+        buildConfig.initAndValidate(new NoopLogger());
+
+        assemblyManager = new DockerAssemblyManager();
+        Field field = DockerAssemblyManager.class.getDeclaredField("archiverManager");
+        field.setAccessible(true);
+        field.set(assemblyManager, tarArchiverManager());
+
+        daemon = startDaemon();
+        access = new DockerAccessWithHcClient("http://" + daemon.getInetAddress().getHostAddress() + ":" + daemon.getLocalPort(),
+                                              null, 2, new NoopLogger());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        access.shutdown();
+        daemon.shutdown(0, TimeUnit.SECONDS);
+        Fixtures.delete(root);
+    }
+
+    @Benchmark
+    public File createArchive() throws MojoExecutionException {
+        return assemblyManager.createDockerTarArchive("benchmark:latest", params, buildConfig, new NoopLogger());
+    }
+
+    @Benchmark
+    public void streamArchive(Blackhole blackhole) throws MojoExecutionException, IOException {
+        BuildContextWriter writer = assemblyManager.createDockerTarStream("benchmark:latest", params, buildConfig, new NoopLogger(), null);
+        writer.writeTo(new BlackholeOutputStream(blackhole));
+    }
+
+    @Benchmark
+    public void uploadArchive() throws MojoExecutionException, DockerAccessException {
+        File archive = assemblyManager.createDockerTarArchive("benchmark:latest", params, buildConfig, new NoopLogger());
+        access.buildImage("benchmark:latest", archive, new BuildOptions());
+    }
+
+    @Benchmark
+    public void uploadStream() throws MojoExecutionException, DockerAccessException {
+        BuildContextWriter writer = assemblyManager.createDockerTarStream("benchmark:latest", params, buildConfig, new NoopLogger(), null);
+        access.buildImage("benchmark:latest", writer, new BuildOptions());
+    }
+
+    // Stand-in for the Docker daemon reading the whole build context before answering
+    private static HttpServer startDaemon() throws IOException {
+        HttpServer server = ServerBootstrap.bootstrap()
+            .setLocalAddress(InetAddress.getLoopbackAddress())
+            .registerHandler("*", (request, response, context) -> {
+                if (request instanceof HttpEntityEnclosingRequest) {
+                    consume(((HttpEntityEnclosingRequest) request).getEntity().getContent());
+                    response.setEntity(new StringEntity("{\"stream\":\"Successfully built 0123456789ab\\n\"}"));
+                } else {
+                    response.setEntity(new StringEntity("{\"ApiVersion\":\"1.40\",\"Os\":\"linux\",\"Arch\":\"amd64\"}"));
+                }
+            })
+            .create();
+        server.start();
+        return server;
+    }
+
+    private static void consume(InputStream in) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream stream = in) {
+            while (stream.read(buffer) != -1) {
+                // Discard the build context
+            }
+        }
+    }
+
+    // Only the tar archiver is needed, so avoid setting up a Plexus container
+    private static ArchiverManager tarArchiverManager() {
+        return (ArchiverManager) Proxy.newProxyInstance(
+            DockerAssemblyBenchmark.class.getClassLoader(), new Class<?>[] { ArchiverManager.class },
+            (proxy, method, args) -> {
+                if (method.getName().equals("getArchiver")) {
+                    return new TarArchiver();
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    private static class BlackholeOutputStream extends OutputStream {
+
+        private final Blackhole blackhole;
+
+        BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+        }
+    }
+}
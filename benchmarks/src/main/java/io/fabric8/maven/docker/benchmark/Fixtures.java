@@ -0,0 +1,302 @@
+package io.fabric8.maven.docker.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+
+/**
+ * Synthetic fixtures for the benchmarks. All data is generated with a fixed seed, so that runs are comparable.
+ */
+final class Fixtures {
+
+    private static final long SEED = 4711L;
+
+    private Fixtures() { }
+
+    /**
+     * Create a multiplexed log stream as returned by the Docker daemon for <code>/containers/{id}/logs</code>
+     * with timestamps enabled. Every frame holds one line, alternating between stdout and stderr.
+     *
+     * @param lines number of log lines
+     * @param lineLength length of the text of each line in characters (without timestamp)
+     * @param unicode whether the text contains multi-byte UTF-8 characters
+     * @return stream content
+     */
+    static byte[] logFrames(int lines, int lineLength, boolean unicode) {
+        Random random = new Random(SEED);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(lines * (lineLength + 48));
+        Instant start = Instant.parse("2024-05-01T10:15:30.123456789Z");
+        ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i < lines; i++) {
+            String line = DateTimeFormatter.ISO_INSTANT.format(start.plusNanos(i * 1_234_567L)) + " " +
+                          (unicode ? unicodeText(random, lineLength) : text(random, lineLength)) + "\n";
+            byte[] payload = line.getBytes(StandardCharsets.UTF_8);
+            header.clear();
+            header.put((byte) (i % 2 + 1)).put((byte) 0).put((byte) 0).put((byte) 0).putInt(payload.length);
+            out.write(header.array(), 0, 8);
+            out.write(payload, 0, payload.length);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Create plain log lines as passed to a log callback
+     *
+     * @param lines number of log lines
+     * @param lineLength length of each line in characters
+     * @return log lines
+     */
+    static String[] logLines(int lines, int lineLength) {
+        Random random = new Random(SEED);
+        String[] ret = new String[lines];
+        for (int i = 0; i < lines; i++) {
+            ret[i] = text(random, lineLength);
+        }
+        return ret;
+    }
+
+    /**
+     * Create the JSON stream returned for an image build
+     *
+     * @param steps number of output lines
+     * @return stream content
+     */
+    static byte[] buildStream(int steps) {
+        Random random = new Random(SEED);
+        StringBuilder json = new StringBuilder();
+        for (int i = 0; i < steps; i++) {
+            json.append("{\"stream\":\"Step ").append(i + 1).append('/').append(steps)
+                .append(" : RUN ").append(text(random, 60)).append("\\n\"}\r\n");
+            json.append("{\"stream\":\" ---> Running in ").append(hex(random, 12)).append("\\n\"}\r\n");
+        }
+        json.append("{\"aux\":{\"ID\":\"sha256:").append(hex(random, 64)).append("\"}}\r\n");
+        json.append("{\"stream\":\"Successfully built ").append(hex(random, 12)).append("\\n\"}\r\n");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Create the JSON stream returned for an image pull with progress updates for each layer
+     *
+     * @param layers number of layers
+     * @param updates number of progress updates per layer
+     * @return stream content
+     */
+    static byte[] pullStream(int layers, int updates) {
+        Random random = new Random(SEED);
+        StringBuilder json = new StringBuilder();
+        json.append("{\"status\":\"Pulling from library/benchmark\",\"id\":\"latest\"}\r\n");
+        String[] ids = new String[layers];
+        for (int l = 0; l < layers; l++) {
+            ids[l] = hex(random, 12);
+            json.append("{\"status\":\"Pulling fs layer\",\"progressDetail\":{},\"id\":\"").append(ids[l]).append("\"}\r\n");
+        }
+        long total = 50_000_000L;
+        for (int u = 1; u <= updates; u++) {
+            for (int l = 0; l < layers; l++) {
+                long current = total * u / updates;
+                json.append("{\"status\":\"Downloading\",\"progressDetail\":{\"current\":").append(current)
+                    .append(",\"total\":").append(total).append("},\"progress\":\"[")
+                    .append(progressBar(u, updates)).append("]  ").append(current / 1000).append("kB/")
+                    .append(total / 1000).append("kB\",\"id\":\"").append(ids[l]).append("\"}\r\n");
+            }
+        }
+        for (int l = 0; l < layers; l++) {
+            json.append("{\"status\":\"Pull complete\",\"progressDetail\":{},\"id\":\"").append(ids[l]).append("\"}\r\n");
+        }
+        json.append("{\"status\":\"Digest: sha256:").append(hex(random, 64)).append("\"}\r\n");
+        json.append("{\"status\":\"Status: Downloaded newer image for benchmark:latest\"}\r\n");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write an image archive in the format of <code>docker save</code>: layer tarballs first, followed by the
+     * image configuration and the manifest.
+     *
+     * @param file file to write
+     * @param layers number of layers
+     * @param layerSize size of each layer in bytes
+     * @param gzip whether to compress the archive
+     * @throws IOException if writing fails
+     */
+    static void imageArchive(File file, int layers, int layerSize, boolean gzip) throws IOException {
+        Random random = new Random(SEED);
+        try (OutputStream fileOut = new FileOutputStream(file);
+             OutputStream out = gzip ? new GzipCompressorOutputStream(fileOut) : fileOut;
+             TarArchiveOutputStream tar = new TarArchiveOutputStream(out)) {
+            tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            StringBuilder layerList = new StringBuilder();
+            byte[] layer = new byte[layerSize];
+            for (int i = 0; i < layers; i++) {
+                String id = hex(random, 64);
+                random.nextBytes(layer);
+                addEntry(tar, id + "/layer.tar", layer);
+                addEntry(tar, id + "/json", ("{\"id\":\"" + id + "\"}").getBytes(StandardCharsets.UTF_8));
+                layerList.append(i > 0 ? "," : "").append('"').append(id).append("/layer.tar\"");
+            }
+            String config = hex(random, 64) + ".json";
+            addEntry(tar, config, imageConfig());
+            addEntry(tar, "manifest.json", ("[{\"Config\":\"" + config + "\",\"RepoTags\":[\"benchmark:latest\"]," +
+                                            "\"Layers\":[" + layerList + "]}]").getBytes(StandardCharsets.UTF_8));
+            addEntry(tar, "repositories", "{\"benchmark\":{\"latest\":\"0\"}}".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Write an image archive as OCI image layout: all blobs followed by <code>index.json</code>.
+     *
+     * @param file file to write
+     * @param layers number of layers
+     * @param layerSize size of each layer in bytes
+     * @param gzip whether to compress the archive
+     * @throws IOException if writing fails
+     */
+    static void ociImageArchive(File file, int layers, int layerSize, boolean gzip) throws IOException {
+        Random random = new Random(SEED);
+        try (OutputStream fileOut = new FileOutputStream(file);
+             OutputStream out = gzip ? new GzipCompressorOutputStream(fileOut) : fileOut;
+             TarArchiveOutputStream tar = new TarArchiveOutputStream(out)) {
+            tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            StringBuilder layerList = new StringBuilder();
+            byte[] layer = new byte[layerSize];
+            for (int i = 0; i < layers; i++) {
+                String digest = hex(random, 64);
+                random.nextBytes(layer);
+                addEntry(tar, "blobs/sha256/" + digest, layer);
+                layerList.append(i > 0 ? "," : "").append("{\"digest\":\"sha256:").append(digest).append("\"}");
+            }
+            String config = hex(random, 64);
+            addEntry(tar, "blobs/sha256/" + config, imageConfig());
+            String manifest = hex(random, 64);
+            addEntry(tar, "blobs/sha256/" + manifest, ("{\"schemaVersion\":2,\"config\":{\"digest\":\"sha256:" + config + "\"}," +
+                                                       "\"layers\":[" + layerList + "]}").getBytes(StandardCharsets.UTF_8));
+            addEntry(tar, "index.json", ("{\"schemaVersion\":2,\"manifests\":[{\"digest\":\"sha256:" + manifest + "\"," +
+                                         "\"annotations\":{\"io.containerd.image.name\":\"docker.io/library/benchmark:latest\"}}]}")
+                                            .getBytes(StandardCharsets.UTF_8));
+            addEntry(tar, "oci-layout", "{\"imageLayoutVersion\":\"1.0.0\"}".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Create a directory tree with random file content, like a Docker build context
+     *
+     * @param root directory to create the files in
+     * @param files number of files
+     * @param fileSize size of each file in bytes
+     * @throws IOException if writing fails
+     */
+    static void fileTree(File root, int files, int fileSize) throws IOException {
+        Random random = new Random(SEED);
+        byte[] content = new byte[fileSize];
+        for (int i = 0; i < files; i++) {
+            File dir = new File(root, "dir" + (i % 16) + File.separator + "sub" + (i % 5));
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Cannot create " + dir);
+            }
+            random.nextBytes(content);
+            Files.write(new File(dir, "file" + i + ".bin").toPath(), content);
+        }
+    }
+
+    /**
+     * Delete a directory with all its content
+     *
+     * @param dir directory to delete
+     * @throws IOException if deleting fails
+     */
+    static void delete(File dir) throws IOException {
+        if (!dir.exists()) {
+            return;
+        }
+        Files.walkFileTree(dir.toPath(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void addEntry(TarArchiveOutputStream tar, String name, byte[] content) throws IOException {
+        TarArchiveEntry entry = new TarArchiveEntry(name);
+        entry.setSize(content.length);
+        tar.putArchiveEntry(entry);
+        tar.write(content);
+        tar.closeArchiveEntry();
+    }
+
+    private static byte[] imageConfig() {
+        return ("{\"architecture\":\"amd64\",\"os\":\"linux\",\"config\":{\"Env\":[\"PATH=/usr/bin\"]}," +
+                "\"rootfs\":{\"type\":\"layers\"}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            int c = random.nextInt(28);
+            text.append(c < 26 ? (char) ('a' + c) : ' ');
+        }
+        return text.toString();
+    }
+
+    // Latin text with umlauts, greek letters and symbols which take two to four bytes in UTF-8
+    private static String unicodeText(Random random, int length) {
+        String special = "\u00e4\u00f6\u00fc\u00df\u03b1\u03b2\u20ac\u2192";
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            int c = random.nextInt(40);
+            if (c < 26) {
+                text.append((char) ('a' + c));
+            } else if (c < 30) {
+                text.append(' ');
+            } else if (c < 38) {
+                text.append(special.charAt(c - 30));
+            } else {
+                // Emoji outside of the basic multilingual plane
+                text.appendCodePoint(0x1f600 + random.nextInt(16));
+                i++;
+            }
+        }
+        return text.toString();
+    }
+
+    private static String hex(Random random, int length) {
+        StringBuilder hex = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            hex.append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return hex.toString();
+    }
+
+    private static String progressBar(int step, int steps) {
+        int width = 50;
+        int done = width * step / steps;
+        StringBuilder bar = new StringBuilder(width);
+        for (int i = 0; i < width; i++) {
+            bar.append(i < done ? '=' : i == done ? '>' : ' ');
+        }
+        return bar.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package io.fabric8.maven.docker.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.maven.docker.model.ImageArchiveManifest;
+import io.fabric8.maven.docker.util.ImageArchiveUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading the manifest of an image archive with {@link ImageArchiveUtil#readManifest(File)}. The archive is
+ * laid out like the output of <code>docker save</code> with the manifest after all layers, or as OCI image
+ * layout with <code>index.json</code> after all blobs. Uncompressed archives are read by seeking over the
+ * layers, compressed archives and streams only up to the manifest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ImageArchiveBenchmark {
+
+    @Param({"8"})
+    public int layers;
+
+    @Param({"16777216"})
+    public int layerSize;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    @Param({"docker", "oci"})
+    public String layout;
+
+    private File dir;
+    private File archive;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("dmp-benchmark").toFile();
+        archive = new File(dir, gzip ? "image.tar.gz" : "image.tar");
+        if ("oci".equals(layout)) {
+            Fixtures.ociImageArchive(archive, layers, layerSize, gzip);
+        } else {
+            Fixtures.imageArchive(archive, layers, layerSize, gzip);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Fixtures.delete(dir);
+    }
+
+    @Benchmark
+    public ImageArchiveManifest readManifest() throws IOException {
+        return ImageArchiveUtil.readManifest(archive);
+    }
+
+    @Benchmark
+    public ImageArchiveManifest readManifestFromStream() throws IOException {
+        try (InputStream in = new FileInputStream(archive)) {
+            return ImageArchiveUtil.readManifest(in);
+        }
+    }
+}
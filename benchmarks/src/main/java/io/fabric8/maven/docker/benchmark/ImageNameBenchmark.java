@@ -0,0 +1,54 @@
+package io.fabric8.maven.docker.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.maven.docker.util.ImageName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parsing of image references with {@link ImageName}, which happens for every image, tag and base image
+ * of a build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageNameBenchmark {
+
+    private static final String[] NAMES = {
+        "alpine",
+        "library/alpine:3.19",
+        "acme/service-backend:1.2.3-SNAPSHOT",
+        "docker.io/library/eclipse-temurin:17-jre",
+        "registry.example.com:5000/team/project/service:2024.05.01",
+        "ghcr.io/acme/tool@sha256:3b9ce7d2bb5ab9e6c1a0e3d43a55b1fa2bff4d8d12b7edbc1e3d8f22dfd8c471",
+        "localhost:5000/app:latest@sha256:3b9ce7d2bb5ab9e6c1a0e3d43a55b1fa2bff4d8d12b7edbc1e3d8f22dfd8c471"
+    };
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String name : NAMES) {
+            blackhole.consume(new ImageName(name));
+        }
+    }
+
+    @Benchmark
+    public void parseAndFormat(Blackhole blackhole) {
+        for (String name : NAMES) {
+            ImageName imageName = new ImageName(name);
+            blackhole.consume(imageName.getFullName());
+            blackhole.consume(imageName.getNameWithoutTag());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package io.fabric8.maven.docker.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.maven.docker.access.chunked.BuildJsonResponseHandler;
+import io.fabric8.maven.docker.access.chunked.EntityStreamReaderUtil;
+import io.fabric8.maven.docker.access.chunked.PullOrPushResponseJsonHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Processing of the chunked JSON responses of build and pull requests by
+ * {@link EntityStreamReaderUtil#processJsonStream(EntityStreamReaderUtil.JsonEntityResponseHandler, java.io.InputStream)}.
+ * The messages are either read directly from the token stream by the current handlers (<code>streaming</code>) or
+ * parsed into a JSON tree for every message and handled by the previous handlers (<code>tree</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonStreamBenchmark {
+
+    @Param({"500"})
+    public int buildSteps;
+
+    @Param({"10"})
+    public int pullLayers;
+
+    @Param({"200"})
+    public int pullUpdates;
+
+    @Param({"streaming", "tree"})
+    public String parser;
+
+    private byte[] buildStream;
+    private byte[] pullStream;
+    private NoopLogger log;
+
+    @Setup
+    public void setup() {
+        buildStream = Fixtures.buildStream(buildSteps);
+        pullStream = Fixtures.pullStream(pullLayers, pullUpdates);
+        log = new NoopLogger();
+    }
+
+    @Benchmark
+    public void buildResponse() throws IOException {
+        EntityStreamReaderUtil.JsonEntityResponseHandler handler =
+            isTree() ? new TreeResponseHandlers.Build(log) : new BuildJsonResponseHandler(log);
+        EntityStreamReaderUtil.processJsonStream(handler, new ByteArrayInputStream(buildStream));
+    }
+
+    @Benchmark
+    public void pullResponse() throws IOException {
+        EntityStreamReaderUtil.JsonEntityResponseHandler handler =
+            isTree() ? new TreeResponseHandlers.PullOrPush(log) : new PullOrPushResponseJsonHandler(log);
+        EntityStreamReaderUtil.processJsonStream(handler, new ByteArrayInputStream(pullStream));
+    }
+
+    @Benchmark
+    public void interleavedPullResponse() throws IOException {
+        EntityStreamReaderUtil.JsonEntityResponseHandler handler = isTree() ?
+            new TreeResponseHandlers.PullOrPush(log, "benchmark:latest", () -> true) :
+            new PullOrPushResponseJsonHandler(log, "benchmark:latest", () -> true);
+        EntityStreamReaderUtil.processJsonStream(handler, new ByteArrayInputStream(pullStream));
+    }
+
+    private boolean isTree() {
+        return parser.equals("tree");
+    }
+}
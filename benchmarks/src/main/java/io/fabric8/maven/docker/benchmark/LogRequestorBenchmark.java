@@ -0,0 +1,135 @@
+package io.fabric8.maven.docker.benchmark;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.maven.docker.access.UrlBuilder;
+import io.fabric8.maven.docker.access.log.LogCallback;
+import io.fabric8.maven.docker.access.log.LogRequestor;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Decoding of the multiplexed log stream by {@link LogRequestor}. The HTTP client is replaced by a stub which
+ * returns a pre-generated stream, so only the frame decoding and the line parsing are measured. The throughput
+ * is given in streams per second, with either plain ASCII text or text with multi-byte UTF-8 characters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogRequestorBenchmark {
+
+    @Param({"10000"})
+    public int lines;
+
+    @Param({"80", "400"})
+    public int lineLength;
+
+    @Param({"false", "true"})
+    public boolean unicode;
+
+    private byte[] frames;
+    private UrlBuilder urlBuilder;
+
+    @Setup
+    public void setup() {
+        frames = Fixtures.logFrames(lines, lineLength, unicode);
+        urlBuilder = new UrlBuilder("http://localhost:2375", "v1.40");
+    }
+
+    @Benchmark
+    public void decodeFrames(Blackhole blackhole) {
+        new LogRequestor(new StubHttpClient(frames), urlBuilder, "benchmark", new BlackholeCallback(blackhole)).fetchLogs();
+    }
+
+    private static class BlackholeCallback implements LogCallback {
+
+        private final Blackhole blackhole;
+
+        BlackholeCallback(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void log(int type, ZonedDateTime timestamp, String txt) {
+            blackhole.consume(timestamp);
+            blackhole.consume(txt);
+        }
+
+        @Override
+        public void error(String error) {
+            throw new IllegalStateException(error);
+        }
+
+        @Override
+        public void open() { }
+
+        @Override
+        public void close() { }
+    }
+
+    // HTTP client which answers every request with the given body
+    @SuppressWarnings("deprecation")
+    static class StubHttpClient extends CloseableHttpClient {
+
+        private final byte[] body;
+
+        StubHttpClient(byte[] body) {
+            this.body = body;
+        }
+
+        @Override
+        protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context) {
+            StubResponse response = new StubResponse();
+            response.setEntity(new ByteArrayEntity(body));
+            return response;
+        }
+
+        @Override
+        public void close() { }
+
+        @Override
+        public HttpParams getParams() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ClientConnectionManager getConnectionManager() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class StubResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+        StubResponse() {
+            super(HttpVersion.HTTP_1_1, 200, "OK");
+        }
+
+        @Override
+        public void close() throws IOException { }
+    }
+}
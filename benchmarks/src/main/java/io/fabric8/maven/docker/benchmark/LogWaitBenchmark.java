@@ -0,0 +1,103 @@
+package io.fabric8.maven.docker.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.maven.docker.access.DockerAccess;
+import io.fabric8.maven.docker.access.log.LogCallback;
+import io.fabric8.maven.docker.wait.LogWaitChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Matching of the log output by a {@link LogWaitChecker}, with the patterns only matching at the very last line.
+ * The start of the multi-line pattern is repeated throughout the log, so that it is always within the sliding
+ * window. The time per run should grow linearly with the number of lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogWaitBenchmark {
+
+    private static final String READY = "database system is ready to accept connections";
+    private static final String STARTING = "starting database";
+
+    @Param({"1000", "10000", "100000"})
+    public int lines;
+
+    @Param({"line", "multiline", "alternatives"})
+    public String patterns;
+
+    private String[] log;
+    private List<String> logPatterns;
+
+    @Setup
+    public void setup() {
+        log = Fixtures.logLines(lines, 80);
+        for (int i = 0; i < lines; i += 100) {
+            log[i] = STARTING;
+        }
+        switch (patterns) {
+            case "line":
+                logPatterns = Collections.singletonList("ready to accept connections");
+                break;
+            case "multiline":
+                logPatterns = Collections.singletonList("(?s)starting database.*ready to accept connections");
+                break;
+            default:
+                logPatterns = Arrays.asList("listening on port \\d+",
+                                            "(?s)starting database.*ready to accept connections",
+                                            "ready to accept connections");
+        }
+    }
+
+    @Benchmark
+    public boolean matchLog() throws LogCallback.DoneException {
+        CapturingDockerAccess access = new CapturingDockerAccess();
+        LogWaitChecker checker = new LogWaitChecker(logPatterns, 0, 0, access.proxy(), "benchmark", new NoopLogger());
+        ZonedDateTime timestamp = ZonedDateTime.now();
+        for (String line : log) {
+            access.callback.log(1, timestamp, line);
+        }
+        try {
+            access.callback.log(1, timestamp, READY);
+        } catch (LogCallback.DoneException e) {
+            return checker.check();
+        }
+        throw new IllegalStateException("Pattern didn't match");
+    }
+
+    // Only following the log is needed, and the callback is fed directly
+    private static class CapturingDockerAccess {
+
+        private LogCallback callback;
+
+        DockerAccess proxy() {
+            return (DockerAccess) Proxy.newProxyInstance(
+                LogWaitBenchmark.class.getClassLoader(), new Class<?>[] { DockerAccess.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getLogAsync")) {
+                        callback = (LogCallback) args[1];
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        }
+    }
+}
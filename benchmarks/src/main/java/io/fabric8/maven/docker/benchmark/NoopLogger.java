@@ -0,0 +1,48 @@
+package io.fabric8.maven.docker.benchmark;
+
+import io.fabric8.maven.docker.util.Logger;
+
+/**
+ * Logger which swallows all output, so that benchmarks measure the parsing and not the console.
+ */
+class NoopLogger implements Logger {
+
+    @Override
+    public void debug(String format, Object... params) { }
+
+    @Override
+    public void info(String format, Object... params) { }
+
+    @Override
+    public void verbose(LogVerboseCategory logVerboseCategory, String format, Object... params) { }
+
+    @Override
+    public void warn(String format, Object... params) { }
+
+    @Override
+    public void error(String format, Object... params) { }
+
+    @Override
+    public String errorMessage(String message) {
+        return message;
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isVerboseEnabled() {
+        return false;
+    }
+
+    @Override
+    public void progressStart() { }
+
+    @Override
+    public void progressUpdate(String layerId, String status, String progressMessage) { }
+
+    @Override
+    public void progressFinished() { }
+}
@@ -0,0 +1,77 @@
+package io.fabric8.maven.docker.benchmark;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.maven.docker.access.PortMapping;
+import io.fabric8.maven.docker.model.Container;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Resolution of port mappings with {@link PortMapping}: parsing the specifications, filling in the dynamically
+ * assigned ports and creating the JSON for the container creation request. Only IP literals are used, so no
+ * name resolution happens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PortMappingBenchmark {
+
+    private static final List<String> SPECS = Arrays.asList(
+        "8080:8080",
+        "9090:90/udp",
+        "127.0.0.1:5005:5005",
+        "jolokia.port:8778",
+        "${db.port}:5432",
+        "+host.ip:http.port:80",
+        "+host.ip:https.port:443/tcp",
+        "127.0.0.1:metrics.port:9100"
+    );
+
+    private Properties properties;
+    private Map<String, Container.PortBinding> dynamicBindings;
+
+    @Setup
+    public void setup() {
+        properties = new Properties();
+        properties.setProperty("db.port", "15432");
+        properties.setProperty("host.ip", "127.0.0.1");
+
+        dynamicBindings = new HashMap<>();
+        dynamicBindings.put("8778/tcp", new Container.PortBinding(32768, "0.0.0.0"));
+        dynamicBindings.put("80/tcp", new Container.PortBinding(32769, "127.0.0.1"));
+        dynamicBindings.put("443/tcp", new Container.PortBinding(32770, "127.0.0.1"));
+        dynamicBindings.put("9100/tcp", new Container.PortBinding(32771, "127.0.0.1"));
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        blackhole.consume(new PortMapping(SPECS, properties));
+    }
+
+    @Benchmark
+    public void resolve(Blackhole blackhole) {
+        PortMapping mapping = new PortMapping(SPECS, properties);
+        if (mapping.needsPropertiesUpdate()) {
+            mapping.updateProperties(dynamicBindings);
+        }
+        blackhole.consume(mapping.toJson());
+    }
+}
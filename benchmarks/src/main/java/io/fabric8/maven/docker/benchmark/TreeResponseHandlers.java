@@ -0,0 +1,177 @@
+package io.fabric8.maven.docker.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import com.google.gson.JsonObject;
+import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.access.chunked.EntityStreamReaderUtil;
+import io.fabric8.maven.docker.util.Logger;
+
+/**
+ * The build and pull response handlers as they were before the progress messages were read from the token
+ * stream. They get a JSON tree for every message and pick out the fields from it, so they are the baseline
+ * for the streaming handlers.
+ */
+class TreeResponseHandlers {
+
+    private TreeResponseHandlers() { }
+
+    static class Build implements EntityStreamReaderUtil.JsonEntityResponseHandler {
+
+        private final Logger log;
+
+        Build(Logger log) {
+            this.log = log;
+        }
+
+        @Override
+        public void process(JsonObject json) throws DockerAccessException {
+            if (json.has("error")) {
+                String msg = json.get("error").getAsString();
+                String detailMsg = "";
+                if (json.has("errorDetail")) {
+                    JsonObject details = json.getAsJsonObject("errorDetail");
+                    detailMsg = details.get("message").getAsString();
+                }
+                throw new DockerAccessException("%s %s", json.get("error"),
+                        (msg.equals(detailMsg) || "".equals(detailMsg) ? "" : "(" + detailMsg + ")"));
+            } else if (json.has("stream")) {
+                String message = json.get("stream").getAsString();
+                log.verbose(Logger.LogVerboseCategory.BUILD,"%s", message.trim());
+            } else if (json.has("status")) {
+                String status = json.get("status").getAsString().trim();
+                String id = json.has("id") ? json.get("id").getAsString() : null;
+                if (status.matches("^.*(Download|Pulling).*")) {
+                    log.info("  %s%s",id != null ? id + " " : "",status);
+                }
+            }
+        }
+
+        @Override
+        public void start() { }
+
+        @Override
+        public void stop() { }
+    }
+
+    static class PullOrPush implements EntityStreamReaderUtil.JsonEntityResponseHandler {
+
+        private static final String[] LAYER_DONE_STATES = { "Pull complete", "Already exists", "Pushed", "Layer already exists" };
+
+        private final Logger log;
+        private final String image;
+        private final BooleanSupplier interleaved;
+
+        private boolean progressBar;
+        private final Map<String, String> layerStates = new HashMap<>();
+
+        PullOrPush(Logger log) {
+            this(log, null, () -> false);
+        }
+
+        PullOrPush(Logger log, String image, BooleanSupplier interleaved) {
+            this.log = log;
+            this.image = image;
+            this.interleaved = interleaved;
+        }
+
+        @Override
+        public void process(JsonObject json) throws DockerAccessException {
+            if (json.has("progressDetail")) {
+                String layerId = getStringOrEmpty(json, "id");
+                String status = getStringOrEmpty(json, "status");
+                if (interleaved.getAsBoolean()) {
+                    stopProgressBar();
+                    logLayerProgress(layerId, status);
+                } else {
+                    startProgressBar();
+                    log.progressUpdate(layerId, status, getStringOrEmpty(json, "progress"));
+                }
+            } else if (json.has("error")) {
+                throwDockerAccessException(json);
+            } else {
+                boolean restart = stopProgressBar();
+                logInfoMessage(json);
+                if (restart) {
+                    startProgressBar();
+                }
+            }
+        }
+
+        private void startProgressBar() {
+            if (!progressBar) {
+                log.progressStart();
+                progressBar = true;
+            }
+        }
+
+        private boolean stopProgressBar() {
+            if (progressBar) {
+                log.progressFinished();
+                progressBar = false;
+                return true;
+            }
+            return false;
+        }
+
+        private void logLayerProgress(String layerId, String status) {
+            if (layerId.isEmpty()) {
+                return;
+            }
+            String previous = layerStates.put(layerId, status);
+            if (isLayerDone(status) && !status.equals(previous)) {
+                long done = layerStates.values().stream().filter(PullOrPush::isLayerDone).count();
+                log.info("%s: %s %s (%d/%d layers)", image, layerId, status, done, layerStates.size());
+            }
+        }
+
+        private static boolean isLayerDone(String status) {
+            for (String doneState : LAYER_DONE_STATES) {
+                if (doneState.equals(status)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void logInfoMessage(JsonObject json) {
+            String value;
+            if (json.has("stream")) {
+                value = json.get("stream").getAsString().replaceFirst("\n$", "");
+            } else if (json.has("status")) {
+                value = json.get("status").getAsString();
+            } else {
+                value = json.toString();
+            }
+            if (image != null && interleaved.getAsBoolean()) {
+                log.info("%s: %s", image, value);
+            } else {
+                log.info("%s", value);
+            }
+        }
+
+        private void throwDockerAccessException(JsonObject json) throws DockerAccessException {
+            String msg = json.get("error").getAsString().trim();
+            String details = json.getAsJsonObject("errorDetail").get("message").getAsString().trim();
+            throw new DockerAccessException("%s %s", msg, (msg.equals(details) ? "" : "(" + details + ")"));
+        }
+
+        private String getStringOrEmpty(JsonObject json, String what) {
+            return json.has(what) ? json.get(what).getAsString() : "";
+        }
+
+        @Override
+        public void start() {
+            if (!interleaved.getAsBoolean()) {
+                startProgressBar();
+            }
+        }
+
+        @Override
+        public void stop() {
+            stopProgressBar();
+        }
+    }
+}
@@ -7,7 +7,6 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -15,6 +14,7 @@ import java.util.stream.Collectors;
 import io.fabric8.maven.docker.access.DockerAccess;
 import io.fabric8.maven.docker.access.DockerAccessException;
 import io.fabric8.maven.docker.access.ExecException;
+import io.fabric8.maven.docker.access.ecr.EcrTokenCache;
 import io.fabric8.maven.docker.config.BuildImageConfiguration;
 import io.fabric8.maven.docker.config.ConfigHelper;
 import io.fabric8.maven.docker.config.DockerMachineConfiguration;
@@ -28,13 +28,16 @@ import io.fabric8.maven.docker.log.LogOutputSpecFactory;
 import io.fabric8.maven.docker.model.Container;
 import io.fabric8.maven.docker.service.BuildService;
 import io.fabric8.maven.docker.service.DockerAccessFactory;
+import io.fabric8.maven.docker.service.DockerAccessRegistry;
 import io.fabric8.maven.docker.service.ImagePullManager;
+import io.fabric8.maven.docker.service.JibBuildService;
 import io.fabric8.maven.docker.service.QueryService;
 import io.fabric8.maven.docker.service.RegistryService;
 import io.fabric8.maven.docker.service.RegistryService.RegistryConfig;
 import io.fabric8.maven.docker.service.ServiceHub;
 import io.fabric8.maven.docker.service.ServiceHubFactory;
 import io.fabric8.maven.docker.util.AnsiLogger;
+import io.fabric8.maven.docker.util.AuthConfigCache;
 import io.fabric8.maven.docker.util.AuthConfigFactory;
 import io.fabric8.maven.docker.util.EnvUtil;
 import io.fabric8.maven.docker.util.GavLabel;
@@ -150,6 +153,10 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
     @Parameter(property = "docker.logStdout", defaultValue = "false")
     private boolean logStdout;
 
+    // Time in ms for which log file entries are held back to write them ordered by timestamp
+    @Parameter(property = "docker.logReorderWindow", defaultValue = "0")
+    private long logReorderWindow;
+
     // Whether to skip docker altogether
     @Parameter(property = "docker.skip", defaultValue = "false")
     private boolean skip;
@@ -182,12 +189,28 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
     @Parameter(property = "docker.maxConnections", defaultValue = "100")
     private int maxConnections;
 
+    // Whether to share the connection to the docker host between all goals and modules of a Maven session
+    @Parameter(property = "docker.shareConnection", defaultValue = "false")
+    private boolean shareConnection;
+
+    // Time in seconds for which resolved registry credentials are cached within the Maven session, 0 to disable
+    @Parameter(property = "docker.authCacheTtl", defaultValue = "300")
+    private int authCacheTtl;
+
+    // Whether to store ECR authorization tokens encrypted in the user's home, so that later builds can reuse them
+    @Parameter(property = "docker.ecrTokenCache", defaultValue = "false")
+    private boolean ecrTokenCache;
+
     @Parameter(property = "docker.build.jib", defaultValue = "false")
     public boolean jib;
 
     @Parameter(property = "docker.build.jib.imageFormat", defaultValue = "docker")
     public String jibImageFormat;
 
+    // Where to build JIB images to: "tar", "registry" or "docker"
+    @Parameter(property = "docker.build.jib.target", defaultValue = "tar")
+    public String jibTarget;
+
     @Parameter(property = "docker.source.dir", defaultValue="src/main/docker")
     public String sourceDirectory;
 
@@ -281,19 +304,25 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
 
             try {
                 authConfigFactory.setLog(log);
+                authConfigFactory.setEcrTokenCache(
+                    EcrTokenCache.forSession(session, ecrTokenCache ? EcrTokenCache.getDefaultFile() : null, log));
                 imageConfigResolver.setLog(log);
 
-                LogOutputSpecFactory logSpecFactory = new LogOutputSpecFactory(useColor, logStdout, logDate);
+                LogOutputSpecFactory logSpecFactory = new LogOutputSpecFactory(useColor, logStdout, logDate, logReorderWindow);
 
                 ConfigHelper.validateExternalPropertyActivation(project, getAllImages());
 
                 DockerAccess access = null;
+                DockerAccessRegistry accessRegistry = null;
                 try {
                     // The 'real' images configuration to use (configured images + externally resolved images)
                     this.minimalApiVersion = initImageConfiguration(getBuildTimestamp());
                     if (isDockerAccessRequired()) {
                         DockerAccessFactory.DockerAccessContext dockerAccessContext = getDockerAccessContext();
-                        access = dockerAccessFactory.createDockerAccess(dockerAccessContext);
+                        accessRegistry = getDockerAccessRegistry();
+                        access = accessRegistry != null ?
+                            dockerAccessFactory.createDockerAccess(dockerAccessContext, accessRegistry) :
+                            dockerAccessFactory.createDockerAccess(dockerAccessContext);
                     }
                     ServiceHub serviceHub = serviceHubFactory.createServiceHub(project, session, access, log, logSpecFactory);
                     executeInternal(serviceHub);
@@ -304,7 +333,11 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
                     logException(exp);
                     throw exp;
                 } finally {
-                    if (access != null) {
+                    // Shared accesses are shut down when the Maven session ends
+                    if (accessRegistry != null) {
+                        accessRegistry.unbindLog();
+                    }
+                    if (access != null && (accessRegistry == null || !accessRegistry.isShared(access))) {
                         access.shutdown();
                     }
                 }
@@ -348,11 +381,22 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
                 .build();
     }
 
+    // Environment for the docker CLI which JIB uses for the Docker daemon, pointing to the daemon configured for the plugin
+    protected Map<String, String> getJibDockerEnvironment() {
+        return JibBuildService.getDockerEnvironment(dockerHost, certPath);
+    }
+
+    // Registry for sharing docker accesses within the Maven session or null if sharing is switched off
+    private DockerAccessRegistry getDockerAccessRegistry() {
+        return shareConnection ? DockerAccessRegistry.forSession(session) : null;
+    }
+
     protected RegistryService.RegistryConfig getRegistryConfig(String specificRegistry) {
         return new RegistryService.RegistryConfig.Builder()
                 .settings(settings)
                 .authConfig(authConfig != null ? authConfig.toMap() : null)
                 .authConfigFactory(authConfigFactory)
+                .authConfigCache(authCacheTtl > 0 ? AuthConfigCache.forSession(session, authCacheTtl * 1000L) : null)
                 .skipExtendedAuth(skipExtendedAuth)
                 .registry(specificRegistry != null ? specificRegistry : registry)
                 .build();
@@ -510,23 +554,7 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
     }
 
     public ImagePullManager getImagePullManager(String imagePullPolicy, String autoPull) {
-        return new ImagePullManager(getSessionCacheStore(), imagePullPolicy, autoPull);
-    }
-
-    private ImagePullManager.CacheStore getSessionCacheStore() {
-        return new ImagePullManager.CacheStore() {
-            @Override
-            public String get(String key) {
-                Properties userProperties = session.getUserProperties();
-                return userProperties.getProperty(key);
-            }
-
-            @Override
-            public void put(String key, String value) {
-                Properties userProperties = session.getUserProperties();
-                userProperties.setProperty(key, value);
-            }
-        };
+        return ImagePullManager.forSession(session, imagePullPolicy, autoPull);
     }
 
     private ImageConfiguration createSimpleDockerfileConfig(File dockerFile) {
@@ -1,5 +1,6 @@
 package io.fabric8.maven.docker;
 
+import io.fabric8.maven.docker.access.BuildContextWriter;
 import io.fabric8.maven.docker.access.DockerAccessException;
 import io.fabric8.maven.docker.config.BuildImageConfiguration;
 import io.fabric8.maven.docker.config.ImageConfiguration;
@@ -9,6 +10,7 @@ import io.fabric8.maven.docker.service.JibBuildService;
 import io.fabric8.maven.docker.service.ServiceHub;
 import io.fabric8.maven.docker.service.helper.BuildArgResolver;
 import io.fabric8.maven.docker.util.EnvUtil;
+import io.fabric8.maven.docker.util.ImageBuildGraph;
 import io.fabric8.maven.docker.util.Logger;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -23,9 +25,22 @@ import java.io.LineNumberReader;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static io.fabric8.maven.docker.service.RegistryService.createCompleteAuthConfigList;
 
@@ -53,12 +68,46 @@ public class BuildMojo extends AbstractDockerMojo {
     @Parameter(property = "docker.buildArchiveOnly", defaultValue = "false")
     protected String buildArchiveOnly;
 
+    /**
+     * Stream the build context to the Docker daemon while it is created instead of creating
+     * the build archive file first
+     */
+    @Parameter(property = "docker.buildArchiveStream", defaultValue = "false")
+    protected boolean buildArchiveStream;
+
+    /**
+     * Skip the build of an image if the local image has been built from the same build context,
+     * build args and base images before
+     */
+    @Parameter(property = "docker.buildCache", defaultValue = "false")
+    protected boolean buildCache;
+
+    /**
+     * Build independent images concurrently. An image which is built from another image of
+     * this project waits only for this image.
+     */
+    @Parameter(property = "docker.buildParallel", defaultValue = "false")
+    protected boolean buildParallel;
+
+    /**
+     * Maximum number of images built at the same time when building in parallel. By default
+     * as many images as processors are available are built at once.
+     */
+    @Parameter(property = "docker.buildThreads", defaultValue = "0")
+    protected int buildThreads;
+
     /**
      * Skip building tags
      */
     @Parameter(property = "docker.skip.tag", defaultValue = "false")
     protected boolean skipTag;
 
+    /**
+     * Skip pushing, used for JIB builds which push directly to a registry
+     */
+    @Parameter(property = "docker.skip.push", defaultValue = "false")
+    protected boolean skipPush;
+
     @Override
     protected void executeInternal(ServiceHub hub) throws IOException, MojoExecutionException {
         if (skipBuild) {
@@ -68,17 +117,128 @@ public class BuildMojo extends AbstractDockerMojo {
         // Check for build plugins
         executeBuildPlugins();
 
+        if (buildParallel) {
+            buildInParallel(hub);
+            return;
+        }
+
         // Iterate over all the ImageConfigurations and process one by one
         for (ImageConfiguration imageConfig : getResolvedImages()) {
             processImageConfig(hub, imageConfig);
         }
     }
 
+    // Build all images with a thread pool. Each image is scheduled as soon as all images of this project
+    // it is built from are finished. Base images are pulled through the ImagePullManager, which pulls
+    // each image only once even when several builds need it at the same time.
+    private void buildInParallel(ServiceHub hub) throws IOException, MojoExecutionException {
+        List<ImageConfiguration> images = new ArrayList<>();
+        for (ImageConfiguration imageConfig : getResolvedImages()) {
+            if (shallBuild(imageConfig)) {
+                images.add(imageConfig);
+            }
+        }
+        if (images.isEmpty()) {
+            return;
+        }
+
+        BuildService.BuildContext buildContext = getBuildContext();
+        ImageBuildGraph graph = ImageBuildGraph.create(images, image -> hub.getBuildService().getBaseImages(image, buildContext));
+        int threads = Math.min(images.size(), buildThreads > 0 ? buildThreads : Runtime.getRuntime().availableProcessors());
+        log.info("Building %d images with %d threads", images.size(), threads);
+
+        EnvUtil.storeTimestamp(getBuildTimestampFile(), getBuildTimestamp());
+
+        Map<String, Long> durations = new ConcurrentHashMap<>();
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        Map<String, CompletableFuture<Void>> builds = new LinkedHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new BuildThreadFactory());
+        long start = System.currentTimeMillis();
+        try {
+            for (ImageConfiguration imageConfig : graph.getImages()) {
+                CompletableFuture<?>[] dependencies = graph.getDependencies(imageConfig).stream()
+                    .map(dependency -> builds.get(dependency.getName()))
+                    .toArray(CompletableFuture[]::new);
+                builds.put(imageConfig.getName(), CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+                    if (!failures.isEmpty()) {
+                        throw new CancellationException();
+                    }
+                    long imageStart = System.currentTimeMillis();
+                    try {
+                        buildImage(hub, imageConfig);
+                    } catch (IOException | MojoExecutionException | RuntimeException exp) {
+                        failures.put(imageConfig.getName(), exp);
+                        throw new CompletionException(exp);
+                    } finally {
+                        durations.put(imageConfig.getName(), System.currentTimeMillis() - imageStart);
+                    }
+                }, executor));
+            }
+            awaitBuilds(builds.values());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logBuildSummary(graph, durations, System.currentTimeMillis() - start, threads);
+        throwFirstFailure(graph, failures);
+    }
+
+    private void awaitBuilds(Collection<CompletableFuture<Void>> builds) {
+        for (CompletableFuture<Void> build : builds) {
+            try {
+                build.join();
+            } catch (CompletionException | CancellationException exp) {
+                // Failures are collected by the build itself
+            }
+        }
+    }
+
+    private void logBuildSummary(ImageBuildGraph graph, Map<String, Long> durations, long total, int threads) {
+        log.info("Build summary (%d images, %d threads, %s):", durations.size(), threads, formatDuration(total));
+        for (ImageConfiguration imageConfig : graph.getImages()) {
+            Long duration = durations.get(imageConfig.getName());
+            if (duration != null) {
+                List<String> dependencies = graph.getDependencies(imageConfig).stream()
+                    .map(ImageConfiguration::getDescription)
+                    .collect(Collectors.toList());
+                log.info("  %s : %s%s", imageConfig.getDescription(), formatDuration(duration),
+                         dependencies.isEmpty() ? "" : " (after " + String.join(", ", dependencies) + ")");
+            } else {
+                log.info("  %s : not built", imageConfig.getDescription());
+            }
+        }
+        List<ImageConfiguration> criticalPath = graph.getCriticalPath(durations);
+        long criticalDuration = criticalPath.stream().mapToLong(image -> durations.getOrDefault(image.getName(), 0L)).sum();
+        log.info("Critical path: %s (%s)",
+                 criticalPath.stream().map(ImageConfiguration::getDescription).collect(Collectors.joining(" -> ")),
+                 formatDuration(criticalDuration));
+    }
+
+    private void throwFirstFailure(ImageBuildGraph graph, Map<String, Exception> failures) throws IOException, MojoExecutionException {
+        for (ImageConfiguration imageConfig : graph.getImages()) {
+            Exception failure = failures.get(imageConfig.getName());
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            } else if (failure instanceof MojoExecutionException) {
+                throw (MojoExecutionException) failure;
+            } else if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+        }
+    }
+
+    private static String formatDuration(long millis) {
+        return String.format("%.1f s", millis / 1000.0);
+    }
+
     protected void buildAndTag(ServiceHub hub, ImageConfiguration imageConfig)
             throws MojoExecutionException, IOException {
 
         EnvUtil.storeTimestamp(getBuildTimestampFile(), getBuildTimestamp());
+        buildImage(hub, imageConfig);
+    }
 
+    private void buildImage(ServiceHub hub, ImageConfiguration imageConfig) throws MojoExecutionException, IOException {
         BuildService.BuildContext buildContext = getBuildContext();
         ImagePullManager pullManager = getImagePullManager(determinePullPolicy(imageConfig.getBuildConfiguration()), autoPull);
         proceedWithBuildProcess(hub, buildContext, imageConfig, pullManager);
@@ -94,12 +254,28 @@ public class BuildMojo extends AbstractDockerMojo {
 
     private void proceedWithJibBuild(ServiceHub hub, BuildService.BuildContext buildContext, ImageConfiguration imageConfig) throws MojoExecutionException {
         log.info("Building Container image with [[B]]JIB(Java Image Builder)[[B]] mode");
-        new JibBuildService(hub, createMojoParameters(), log).build(jibImageFormat, imageConfig, buildContext.getRegistryConfig());
+        new JibBuildService(hub, createMojoParameters(), log, getJibDockerEnvironment())
+            .build(jibImageFormat, jibTarget, imageConfig, buildContext.getRegistryConfig(), skipPush, skipTag);
     }
 
     private void proceedWithDockerBuild(ServiceHub hub, BuildService.BuildContext buildContext, ImageConfiguration imageConfig, ImagePullManager pullManager)
         throws MojoExecutionException, IOException {
         BuildService buildService= hub.getBuildService();
+        if (shallUseBuildCache(imageConfig)) {
+            buildService.buildImageIfChanged(imageConfig, pullManager, buildContext, buildArchiveStream);
+            if (!skipTag && !imageConfig.getBuildConfiguration().skipTag()) {
+                buildService.tagImage(imageConfig);
+            }
+            return;
+        }
+        if (shallStreamBuildArchive(imageConfig)) {
+            BuildContextWriter contextWriter = buildService.buildArchiveStream(imageConfig, buildContext);
+            buildService.buildImage(imageConfig, pullManager, buildContext, contextWriter);
+            if (!skipTag && !imageConfig.getBuildConfiguration().skipTag()) {
+                buildService.tagImage(imageConfig);
+            }
+            return;
+        }
         File buildArchiveFile = buildService.buildArchive(imageConfig, buildContext, resolveBuildArchiveParameter());
         if (Boolean.FALSE.equals(shallBuildArchiveOnly())) {
             if (imageConfig.isBuildX()) {
@@ -131,6 +307,22 @@ public class BuildMojo extends AbstractDockerMojo {
         return null;
     }
 
+    // Like streaming, the build cache is only used for a plain Docker build which doesn't need the archive file
+    private boolean shallUseBuildCache(ImageConfiguration imageConfig) {
+        return buildCache &&
+               !shallBuildArchiveOnly() &&
+               !imageConfig.isBuildX() &&
+               imageConfig.getBuildConfiguration().getDockerArchive() == null;
+    }
+
+    // Streaming is only possible for a plain Docker build which doesn't need the archive file afterwards
+    private boolean shallStreamBuildArchive(ImageConfiguration imageConfig) {
+        return buildArchiveStream &&
+               !shallBuildArchiveOnly() &&
+               !imageConfig.isBuildX() &&
+               imageConfig.getBuildConfiguration().getDockerArchive() == null;
+    }
+
     private boolean shallBuildArchiveOnly() {
         if (buildArchiveOnly != null && !buildArchiveOnly.isEmpty()) {
             if (buildArchiveOnly.equalsIgnoreCase("false") ||
@@ -155,14 +347,34 @@ public class BuildMojo extends AbstractDockerMojo {
      * @throws MojoExecutionException
      */
     private void processImageConfig(ServiceHub hub, ImageConfiguration aImageConfig) throws IOException, MojoExecutionException {
-        BuildImageConfiguration buildConfig = aImageConfig.getBuildConfiguration();
+        if (shallBuild(aImageConfig)) {
+            buildAndTag(hub, aImageConfig);
+        }
+    }
 
-        if (buildConfig != null) {
-            if (buildConfig.skip() || shouldSkipPom()) {
-                log.info("%s : Skipped building", aImageConfig.getDescription());
-            } else {
-                buildAndTag(hub, aImageConfig);
-            }
+    // Images without a build configuration are not built, skipped images are logged
+    private boolean shallBuild(ImageConfiguration imageConfig) {
+        BuildImageConfiguration buildConfig = imageConfig.getBuildConfiguration();
+        if (buildConfig == null) {
+            return false;
+        }
+        if (buildConfig.skip() || shouldSkipPom()) {
+            log.info("%s : Skipped building", imageConfig.getDescription());
+            return false;
+        }
+        return true;
+    }
+
+    // Daemon threads for building images in parallel
+    private static class BuildThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "docker-build-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         }
     }
 
@@ -34,6 +34,13 @@ public class PushMojo extends AbstractDockerMojo {
     @Parameter(property = "docker.push.retries", defaultValue = "0")
     private int retries;
 
+    /**
+     * Maximum number of pushes running at the same time. With more than one thread, images are pushed
+     * concurrently and the additional tags of an image are pushed in parallel after the image itself.
+     */
+    @Parameter(property = "docker.pushThreads", defaultValue = "1")
+    private int pushThreads;
+
     /**
      * {@inheritDoc}
      */
@@ -51,14 +58,14 @@ public class PushMojo extends AbstractDockerMojo {
     }
 
     private void executeDockerPush(ServiceHub hub) throws MojoExecutionException, DockerAccessException {
-        hub.getRegistryService().pushImages(createProjectPaths(), getResolvedImages(), retries, getRegistryConfig(pushRegistry), skipTag, getBuildContext());
+        hub.getRegistryService().pushImages(createProjectPaths(), getResolvedImages(), retries, getRegistryConfig(pushRegistry), skipTag, getBuildContext(), pushThreads);
     }
 
     private void executeJibPush(ServiceHub hub) throws MojoExecutionException {
         log.info("Pushing Container image with [[B]]JIB(Java Image Builder)[[B]] mode");
         JibBuildService jibBuildService = new JibBuildService(hub, new MojoParameters(session, project, null, null, null,
-                settings, sourceDirectory, outputDirectory, null), log);
-        jibBuildService.push(getResolvedImages(), retries, getRegistryConfig(pushRegistry), skipTag);
+                settings, sourceDirectory, outputDirectory, null), log, getJibDockerEnvironment());
+        jibBuildService.push(getResolvedImages(), jibTarget, retries, getRegistryConfig(pushRegistry), skipTag);
     }
 
 }
@@ -12,8 +12,10 @@ import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Queue;
 import java.util.Set;
@@ -23,6 +25,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.util.concurrent.MoreExecutors;
 import io.fabric8.maven.docker.access.DockerAccessException;
@@ -67,6 +70,13 @@ public class StartMojo extends AbstractDockerMojo {
     @Parameter(property = "docker.startParallel", defaultValue = "false")
     private boolean startParallel;
 
+    /**
+     * Maximum number of images which are pulled concurrently before the containers are started.
+     * With a value of 1 all images are pulled one after another before the first container is started.
+     */
+    @Parameter(property = "docker.pullThreads", defaultValue = "1")
+    private int pullThreads;
+
     // whether to block during to start. Set it via System property docker.follow
     private boolean follow;
 
@@ -146,6 +156,7 @@ public class StartMojo extends AbstractDockerMojo {
 
         final ExecutorService executorService = getExecutorService();
         final ExecutorCompletionService<StartedContainer> containerStartupService = new ExecutorCompletionService<>(executorService);
+        final ExecutorService pullExecutorService = getPullExecutorService();
 
         try {
             // All aliases which are provided in the image configuration:
@@ -154,7 +165,11 @@ public class StartMojo extends AbstractDockerMojo {
             final Set<String> startedContainerAliases = new HashSet<>();
 
             // All images to to start
-            Queue<ImageConfiguration> imagesWaitingToStart = prepareStart(hub, queryService, runService, imageAliases);
+            // Pulls of the images, an image is started as soon as its own pull has finished
+            final Map<String, Future<?>> imagePulls = new HashMap<>();
+
+            // All images to to start
+            Queue<ImageConfiguration> imagesWaitingToStart = prepareStart(hub, queryService, runService, imageAliases, pullExecutorService, imagePulls);
 
             // Queue of images to start as containers
             final Queue<ImageConfiguration> imagesStarting = new ArrayDeque<>();
@@ -173,7 +188,7 @@ public class StartMojo extends AbstractDockerMojo {
 
                 for (final ImageConfiguration image : imagesReadyToStart) {
 
-                    startImage(image, hub, containerStartupService, portMappingPropertyWriteHelper);
+                    startImage(image, hub, containerStartupService, portMappingPropertyWriteHelper, imagePulls.get(image.getName()));
 
                     // Move from waiting to starting status
                     imagesStarting.add(image);
@@ -202,6 +217,9 @@ public class StartMojo extends AbstractDockerMojo {
         } catch (IOException e) {
             throw new MojoExecutionException("I/O Error", e);
         } finally {
+            if (pullExecutorService != null) {
+                pullExecutorService.shutdownNow();
+            }
             shutdownExecutorService(executorService);
 
             // Rollback if not all could be started
@@ -215,7 +233,7 @@ public class StartMojo extends AbstractDockerMojo {
     private void waitForStartedContainer(
             final ExecutorCompletionService<StartedContainer> containerStartupService,
             final Set<String> startedContainerAliases, final Queue<ImageConfiguration> imagesStarting)
-            throws InterruptedException, IOException, ExecException {
+            throws InterruptedException, IOException, ExecException, MojoExecutionException {
         final Future<StartedContainer> startedContainerFuture = containerStartupService.take();
         try {
             final StartedContainer startedContainer = startedContainerFuture.get();
@@ -251,7 +269,7 @@ public class StartMojo extends AbstractDockerMojo {
         }
     }
 
-    private void rethrowCause(ExecutionException e) throws IOException, InterruptedException, ExecException {
+    private void rethrowCause(ExecutionException e) throws IOException, InterruptedException, ExecException, MojoExecutionException {
         Throwable cause = e.getCause();
         if (cause instanceof RuntimeException) {
             throw (RuntimeException) cause;
@@ -259,6 +277,8 @@ public class StartMojo extends AbstractDockerMojo {
             throw (IOException) cause;
         } else if (cause instanceof ExecException) {
             throw (ExecException) cause;
+        } else if (cause instanceof MojoExecutionException) {
+            throw (MojoExecutionException) cause;
         } else if (cause instanceof InterruptedException) {
                 throw (InterruptedException) cause;
         } else {
@@ -279,7 +299,8 @@ public class StartMojo extends AbstractDockerMojo {
     private void startImage(final ImageConfiguration imageConfig,
                             final ServiceHub hub,
                             final ExecutorCompletionService<StartedContainer> startingContainers,
-                            final PortMapping.PropertyWriteHelper portMappingPropertyWriteHelper) throws IOException {
+                            final PortMapping.PropertyWriteHelper portMappingPropertyWriteHelper,
+                            final Future<?> imagePull) throws IOException {
 
         final RunService runService = hub.getRunService();
         final Properties projProperties = project.getProperties();
@@ -307,6 +328,8 @@ public class StartMojo extends AbstractDockerMojo {
 
         startingContainers.submit(() -> {
 
+            awaitImagePull(imagePull);
+
             String containerId = startExecutor.startContainer();
 
             // Update port-mapping writer
@@ -316,6 +339,19 @@ public class StartMojo extends AbstractDockerMojo {
         });
     }
 
+    // Wait until the image to start is present. Errors of the pull are reported when starting the container.
+    private void awaitImagePull(Future<?> imagePull) throws Exception {
+        if (imagePull == null) {
+            return;
+        }
+        try {
+            imagePull.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
     // Pick out all images who can be started right now because all their dependencies has been started
     private List<ImageConfiguration> getImagesWhoseDependenciesHasStarted(Queue<ImageConfiguration> imagesRemaining,
                                                                           Set<String> containersStarted,
@@ -335,7 +371,8 @@ public class StartMojo extends AbstractDockerMojo {
 
     // Prepare start like creating custom networks, auto pull images, map aliases and return the list of images
     // to start in the correct order
-    private Queue<ImageConfiguration> prepareStart(ServiceHub hub, QueryService queryService, RunService runService, Set<String> imageAliases)
+    private Queue<ImageConfiguration> prepareStart(ServiceHub hub, QueryService queryService, RunService runService, Set<String> imageAliases,
+                                                   ExecutorService pullExecutorService, Map<String, Future<?>> imagePulls)
         throws DockerAccessException, MojoExecutionException {
         final Queue<ImageConfiguration> imagesWaitingToStart = new ArrayDeque<>();
         for (StartOrderResolver.Resolvable resolvable : runService.getImagesConfigsInOrder(queryService, getResolvedImages())) {
@@ -345,7 +382,15 @@ public class StartMojo extends AbstractDockerMojo {
             //String imageName = new ImageName(imageConfig.getName()).getFullNameWithTag(registry);
             RegistryService registryService = hub.getRegistryService();
 
-            pullImage(registryService, imageConfig, pullRegistry);
+            if (pullExecutorService != null) {
+                // Each image is only pulled once, even if it is used for several containers
+                imagePulls.computeIfAbsent(imageConfig.getName(), name -> pullExecutorService.submit(() -> {
+                    pullImage(registryService, imageConfig, pullRegistry);
+                    return null;
+                }));
+            } else {
+                pullImage(registryService, imageConfig, pullRegistry);
+            }
 
             RunImageConfiguration runConfig = imageConfig.getRunConfiguration();
             NetworkConfig config = runConfig.getNetworkingConfig();
@@ -380,6 +425,19 @@ public class StartMojo extends AbstractDockerMojo {
         return ret;
     }
 
+    // Executor for pulling images concurrently or null if the images should be pulled one by one
+    private ExecutorService getPullExecutorService() {
+        if (pullThreads <= 1) {
+            return null;
+        }
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(pullThreads, runnable -> {
+            Thread thread = new Thread(runnable, "docker-pull-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private ExecutorService getExecutorService() {
         final ExecutorService executorService;
         if (startParallel) {
@@ -18,6 +18,7 @@ import org.apache.maven.plugins.annotations.Parameter;
 
 import io.fabric8.maven.docker.access.DockerAccessException;
 import io.fabric8.maven.docker.access.ExecException;
+import io.fabric8.maven.docker.access.log.LogStreamStatistics;
 import io.fabric8.maven.docker.config.ImageConfiguration;
 import io.fabric8.maven.docker.config.NetworkConfig;
 import io.fabric8.maven.docker.log.LogDispatcher;
@@ -28,6 +29,7 @@ import io.fabric8.maven.docker.service.RunService;
 import io.fabric8.maven.docker.service.ServiceHub;
 import io.fabric8.maven.docker.util.ContainerNamingUtil;
 import io.fabric8.maven.docker.util.GavLabel;
+import io.fabric8.maven.docker.util.Logger;
 
 
 /**
@@ -75,6 +77,20 @@ public class StopMojo extends AbstractDockerMojo {
     @Parameter(property = "docker.skip", defaultValue = "false")
     protected boolean skip;
 
+    /**
+     * Stop the containers started by docker:start concurrently. A container is stopped as soon as
+     * all containers depending on it have been stopped.
+     */
+    @Parameter(property = "docker.stopParallel", defaultValue = "false")
+    private boolean stopParallel;
+
+    /**
+     * Overall time in milliseconds for stopping the containers in parallel. Remaining containers are killed
+     * when it is exceeded. 0 means no limit.
+     */
+    @Parameter(property = "docker.stopTimeout", defaultValue = "0")
+    private long stopTimeout;
+
     /**
      * If true, the containers are not stopped right away, but when the build is finished (success or failed).
      */
@@ -126,7 +142,9 @@ public class StopMojo extends AbstractDockerMojo {
         GavLabel gavLabel = getGavLabel();
 
         if (!keepRunning) {
-            if (invokedTogetherWithDockerStart()) {
+            if (invokedTogetherWithDockerStart() && stopParallel) {
+                runService.stopStartedContainersInParallel(keepContainer, removeVolumes, autoCreateCustomNetworks, gavLabel, stopTimeout);
+            } else if (invokedTogetherWithDockerStart()) {
                 runService.stopStartedContainers(keepContainer, removeVolumes, autoCreateCustomNetworks, gavLabel);
             } else {
                 stopContainers(queryService, runService, gavLabel);
@@ -135,6 +153,9 @@ public class StopMojo extends AbstractDockerMojo {
 
         // Switch off all logging
         LogDispatcher dispatcher = getLogDispatcher(hub);
+        for (LogStreamStatistics statistics : dispatcher.getLogStatistics()) {
+            log.verbose(Logger.LogVerboseCategory.API, "Followed logs of %s", statistics);
+        }
         dispatcher.untrackAllContainerLogs();
     }
 
@@ -0,0 +1,24 @@
+package io.fabric8.maven.docker.access;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Producer of a Docker build context which writes the (possibly compressed) tar archive directly
+ * to a given stream instead of creating an archive file first. The stream is written while the
+ * request to the Docker daemon is in progress, so the daemon receives the context while it is generated.
+ *
+ * @see DockerAccess#buildImage(String, BuildContextWriter, BuildOptions)
+ */
+@FunctionalInterface
+public interface BuildContextWriter {
+
+    /**
+     * Write the build context as tar archive to the given stream. The stream must not be closed
+     * by the writer.
+     *
+     * @param out stream to write to
+     * @throws IOException if the build context could not be created or written
+     */
+    void writeTo(OutputStream out) throws IOException;
+}
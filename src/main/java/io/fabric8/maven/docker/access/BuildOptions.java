@@ -19,6 +19,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.google.gson.JsonObject;
 import io.fabric8.maven.docker.util.JsonFactory;
 
 /**
@@ -83,6 +84,21 @@ public class BuildOptions {
         return this;
     }
 
+    /**
+     * Add labels to the image built, in addition to labels already given as option
+     *
+     * @param labels labels to add
+     * @return this options
+     */
+    public BuildOptions labels(Map<String, String> labels) {
+        if (labels != null && labels.size() > 0) {
+            JsonObject json = options.containsKey("labels") ? JsonFactory.newJsonObject(options.get("labels")) : new JsonObject();
+            labels.forEach(json::addProperty);
+            options.put("labels", json.toString());
+        }
+        return this;
+    }
+
     public BuildOptions network(String network) {
         if (network != null && !network.isEmpty()) {
             options.put("networkmode", network);
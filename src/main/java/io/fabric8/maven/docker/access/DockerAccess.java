@@ -2,7 +2,10 @@ package io.fabric8.maven.docker.access;
 
 import java.io.File;
 import java.util.List;
+import java.util.Map;
 
+import io.fabric8.maven.docker.access.events.EventCallback;
+import io.fabric8.maven.docker.access.events.EventGetHandle;
 import io.fabric8.maven.docker.access.log.LogCallback;
 import io.fabric8.maven.docker.access.log.LogGetHandle;
 import io.fabric8.maven.docker.config.ArchiveCompression;
@@ -90,6 +93,14 @@ public interface DockerAccess {
      */
     List<String> getImageTags(String name) throws DockerAccessException;
 
+    /**
+     * Get the labels of a given image name or <code>null</code> if no such image exists
+     *
+     * @param name name to lookup
+     * @return the labels of the image, which might be empty, or <code>null</code>
+     */
+    Map<String, String> getImageLabels(String name) throws DockerAccessException;
+
     /**
      * List all containers from the Docker server.
      *
@@ -206,6 +217,22 @@ public interface DockerAccess {
      */
     LogGetHandle getLogAsync(String containerId, LogCallback callback);
 
+    /**
+     * Follow the events of a container asynchronously. The events stream is opened right away so that
+     * a daemon which doesn't support the events endpoint is detected by this call. The events are then
+     * read by a thread in the background until the returned handle is finished. An implementation may
+     * share one events stream between all containers whose events are followed.
+     *
+     * @param containerId id of the container for which to receive events
+     * @param callback to call when an event arrives
+     * @param events event types to filter for (e.g. <code>start</code>, <code>die</code>, <code>health_status</code>).
+     *               All events of the container are received when no type is given.
+     * @return handle for managing the lifecycle of the thread
+     * @throws DockerAccessException if the events stream could not be opened
+     */
+    EventGetHandle getContainerEventsAsync(String containerId, EventCallback callback, String ... events)
+        throws DockerAccessException;
+
     /**
      * Remove a container with the given id
      *
@@ -268,6 +295,17 @@ public interface DockerAccess {
      */
     void buildImage(String image, File dockerArchive, BuildOptions options) throws DockerAccessException;
 
+    /**
+     * Create an docker image from a build context which is streamed to the Docker daemon while it is created.
+     * In contrast to {@link #buildImage(String, File, BuildOptions)} no archive file needs to be created upfront.
+     *
+     * @param image name of the image to build or <code>null</code> if none should be used
+     * @param contextWriter writer producing the build context tar archive
+     * @param options additional query arguments to add when building the image. Can be null.
+     * @throws DockerAccessException if docker host reports an error during building of an image
+     */
+    void buildImage(String image, BuildContextWriter contextWriter, BuildOptions options) throws DockerAccessException;
+
     /**
      * Alias an image in the repository with a complete new name. (Note that this maps to a Docker Remote API 'tag'
      * operation, which IMO is badly named since it also can generate a complete alias to a given image)
@@ -59,6 +59,21 @@ public final class UrlBuilder {
                 .build();
     }
 
+    // Events of the given container or of all containers if no container id is given
+    public String containerEvents(String containerId, String ... events) {
+        JsonObject filters = new JsonObject();
+        filters.add("type", toJsonArray("container"));
+        if (containerId != null) {
+            filters.add("container", toJsonArray(containerId));
+        }
+        if (events.length > 0) {
+            filters.add("event", toJsonArray(events));
+        }
+        return u("events")
+                .p("filters", filters.toString())
+                .build();
+    }
+
     public String createContainer(String name, String platform) {
         return u("containers/create")
                 .p("name", name)
@@ -241,6 +256,14 @@ public final class UrlBuilder {
        }
     }
 
+    private static JsonArray toJsonArray(String ... values) {
+        JsonArray ret = new JsonArray();
+        for (String value : values) {
+            ret.add(value);
+        }
+        return ret;
+    }
+
     private static class Builder {
 
         private Map<String,String> queryParams = new HashMap<>();
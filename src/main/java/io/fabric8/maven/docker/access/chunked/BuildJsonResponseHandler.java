@@ -1,11 +1,15 @@
 package io.fabric8.maven.docker.access.chunked;
 
-import com.google.gson.JsonObject;
+import java.util.regex.Pattern;
+
+import com.google.gson.JsonPrimitive;
 
 import io.fabric8.maven.docker.access.DockerAccessException;
 import io.fabric8.maven.docker.util.Logger;
 
-public class BuildJsonResponseHandler implements EntityStreamReaderUtil.JsonEntityResponseHandler {
+public class BuildJsonResponseHandler implements EntityStreamReaderUtil.ProgressMessageHandler {
+
+    private static final Pattern PULL_STATUS = Pattern.compile("^.*(Download|Pulling).*");
 
     private final Logger log;
 
@@ -14,23 +18,19 @@ public class BuildJsonResponseHandler implements EntityStreamReaderUtil.JsonEnti
     }
     
     @Override
-    public void process(JsonObject json) throws DockerAccessException {
-        if (json.has("error")) {
-            String msg = json.get("error").getAsString();
-            String detailMsg = "";
-            if (json.has("errorDetail")) {
-                JsonObject details = json.getAsJsonObject("errorDetail");
-                detailMsg = details.get("message").getAsString();
-            }
-            throw new DockerAccessException("%s %s", json.get("error"),
+    public void process(ProgressMessage message) throws DockerAccessException {
+        if (message.getError() != null) {
+            String msg = message.getError();
+            String detailMsg = message.getErrorDetail() != null ? message.getErrorDetail() : "";
+            // The error is quoted as JSON string in the message
+            throw new DockerAccessException("%s %s", new JsonPrimitive(msg),
                     (msg.equals(detailMsg) || "".equals(detailMsg) ? "" : "(" + detailMsg + ")"));
-        } else if (json.has("stream")) {
-            String message = json.get("stream").getAsString();
-            log.verbose(Logger.LogVerboseCategory.BUILD,"%s", message.trim());
-        } else if (json.has("status")) {
-            String status = json.get("status").getAsString().trim();
-            String id = json.has("id") ? json.get("id").getAsString() : null;
-            if (status.matches("^.*(Download|Pulling).*")) {
+        } else if (message.getStream() != null) {
+            log.verbose(Logger.LogVerboseCategory.BUILD,"%s", message.getStream().trim());
+        } else if (message.getStatus() != null) {
+            String status = message.getStatus().trim();
+            String id = message.getId();
+            if (PULL_STATUS.matcher(status).matches()) {
                 log.info("  %s%s",id != null ? id + " " : "",status);
             }
         }
@@ -9,6 +9,7 @@ import com.google.gson.stream.JsonToken;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 
 import io.fabric8.maven.docker.access.DockerAccessException;
 
@@ -18,22 +19,49 @@ public class EntityStreamReaderUtil {
 
     public static void processJsonStream(JsonEntityResponseHandler handler, InputStream stream) throws IOException {
         handler.start();
-        try(JsonReader json = new JsonReader(new InputStreamReader(stream))) {
-            JsonParser parser = new JsonParser();
-
+        try(JsonReader json = new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
             json.setLenient(true);
-            while (json.peek() != JsonToken.END_DOCUMENT) {
-                JsonElement element = parser.parse(json);
-                handler.process(element.getAsJsonObject());
+            if (handler instanceof ProgressMessageHandler) {
+                processProgressMessages((ProgressMessageHandler) handler, json);
+            } else {
+                processJsonObjects(handler, json);
             }
         } finally {
             handler.stop();
         }
     }
 
+    private static void processJsonObjects(JsonEntityResponseHandler handler, JsonReader json) throws IOException {
+        JsonParser parser = new JsonParser();
+        while (json.peek() != JsonToken.END_DOCUMENT) {
+            JsonElement element = parser.parse(json);
+            handler.process(element.getAsJsonObject());
+        }
+    }
+
+    // Read only the fields needed for progress output directly from the tokens, without building a JSON tree
+    private static void processProgressMessages(ProgressMessageHandler handler, JsonReader json) throws IOException {
+        while (json.peek() != JsonToken.END_DOCUMENT) {
+            handler.process(ProgressMessage.read(json));
+        }
+    }
+
     public interface JsonEntityResponseHandler {
         void process(JsonObject toProcess) throws DockerAccessException;
         void start();
         void stop();
     }
+
+    /**
+     * Handler for the progress output of builds, pulls and pushes, which gets typed messages
+     * instead of JSON objects.
+     */
+    public interface ProgressMessageHandler extends JsonEntityResponseHandler {
+        void process(ProgressMessage message) throws DockerAccessException;
+
+        @Override
+        default void process(JsonObject toProcess) throws DockerAccessException {
+            process(ProgressMessage.fromJson(toProcess));
+        }
+    }
 }
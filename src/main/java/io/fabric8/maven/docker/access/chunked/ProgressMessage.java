@@ -0,0 +1,336 @@
+package io.fabric8.maven.docker.access.chunked;
+
+import java.io.IOException;
+import java.util.Map;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * A single message of the progress output of a build, pull or push. Only the fields used by the handlers are
+ * kept as typed values, which are read directly from the token stream without building a JSON tree. Other
+ * fields, which are rare in progress output, are kept as JSON.
+ */
+public class ProgressMessage {
+
+    /** Status of a pulled layer */
+    public static final String STATUS_PULL_COMPLETE = "Pull complete";
+    /** Status of a layer which is already present locally */
+    public static final String STATUS_ALREADY_EXISTS = "Already exists";
+    /** Status of a pushed layer */
+    public static final String STATUS_PUSHED = "Pushed";
+    /** Status of a layer which is already present in the registry */
+    public static final String STATUS_LAYER_ALREADY_EXISTS = "Layer already exists";
+
+    private String status;
+    private String id;
+    private String progress;
+    private boolean progressDetail;
+    private long current = -1;
+    private long total = -1;
+    private String stream;
+    private String error;
+    private String errorDetail;
+    private JsonElement aux;
+    private JsonObject other;
+
+    ProgressMessage() { }
+
+    /**
+     * Read the next message from the given reader
+     *
+     * @param json reader positioned at the start of a JSON object
+     * @return message read
+     * @throws IOException if reading fails
+     * @throws IllegalStateException if the next value is not a JSON object
+     */
+    public static ProgressMessage read(JsonReader json) throws IOException {
+        ProgressMessage message = new ProgressMessage();
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            switch (name) {
+                case "status":
+                    message.status = nextString(json);
+                    break;
+                case "id":
+                    message.id = nextString(json);
+                    break;
+                case "progress":
+                    message.progress = nextString(json);
+                    break;
+                case "progressDetail":
+                    message.readProgressDetail(json);
+                    break;
+                case "stream":
+                    message.stream = nextString(json);
+                    break;
+                case "error":
+                    message.error = nextString(json);
+                    break;
+                case "errorDetail":
+                    message.readErrorDetail(json);
+                    break;
+                case "aux":
+                    message.aux = JsonParser.parseReader(json);
+                    break;
+                default:
+                    message.addOther(name, JsonParser.parseReader(json));
+            }
+        }
+        json.endObject();
+        return message;
+    }
+
+    /**
+     * Create a message from an already parsed JSON object
+     *
+     * @param json JSON object
+     * @return message
+     */
+    public static ProgressMessage fromJson(JsonObject json) {
+        ProgressMessage message = new ProgressMessage();
+        for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+            JsonElement value = entry.getValue();
+            switch (entry.getKey()) {
+                case "status":
+                    message.status = asString(value);
+                    break;
+                case "id":
+                    message.id = asString(value);
+                    break;
+                case "progress":
+                    message.progress = asString(value);
+                    break;
+                case "progressDetail":
+                    message.progressDetail = true;
+                    if (value.isJsonObject()) {
+                        message.current = asLong(value.getAsJsonObject().get("current"));
+                        message.total = asLong(value.getAsJsonObject().get("total"));
+                    }
+                    break;
+                case "stream":
+                    message.stream = asString(value);
+                    break;
+                case "error":
+                    message.error = asString(value);
+                    break;
+                case "errorDetail":
+                    message.errorDetail = value.isJsonObject() ? asString(value.getAsJsonObject().get("message")) : null;
+                    break;
+                case "aux":
+                    message.aux = value;
+                    break;
+                default:
+                    message.addOther(entry.getKey(), value);
+            }
+        }
+        return message;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * @return whether the status says that the transfer of the layer is finished
+     */
+    public boolean isLayerDone() {
+        return isLayerDone(status);
+    }
+
+    /**
+     * Check whether a layer status finishes the transfer of the layer
+     *
+     * @param status status of a layer
+     * @return true if the layer has been pulled or pushed or is already present
+     */
+    public static boolean isLayerDone(String status) {
+        return STATUS_PULL_COMPLETE.equals(status) ||
+               STATUS_ALREADY_EXISTS.equals(status) ||
+               STATUS_PUSHED.equals(status) ||
+               STATUS_LAYER_ALREADY_EXISTS.equals(status);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return textual progress bar or <code>null</code>
+     */
+    public String getProgress() {
+        return progress;
+    }
+
+    /**
+     * @return whether the message contains transfer progress of a layer
+     */
+    public boolean hasProgressDetail() {
+        return progressDetail;
+    }
+
+    /**
+     * @return bytes transferred so far or -1 if not known
+     */
+    public long getCurrent() {
+        return current;
+    }
+
+    /**
+     * @return total bytes to transfer or -1 if not known
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    public String getStream() {
+        return stream;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @return message of the error details or <code>null</code>
+     */
+    public String getErrorDetail() {
+        return errorDetail;
+    }
+
+    /**
+     * @return auxiliary data like the id of a built image or the digest of a pushed image, <code>null</code>
+     *         if not given
+     */
+    public JsonElement getAux() {
+        return aux;
+    }
+
+    /**
+     * Convert back to JSON. Only used for messages which are not known, so this doesn't need to be fast.
+     *
+     * @return JSON object with all fields of the message
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        addProperty(json, "status", status);
+        addProperty(json, "id", id);
+        addProperty(json, "progress", progress);
+        if (progressDetail) {
+            JsonObject detail = new JsonObject();
+            if (current >= 0) {
+                detail.addProperty("current", current);
+            }
+            if (total >= 0) {
+                detail.addProperty("total", total);
+            }
+            json.add("progressDetail", detail);
+        }
+        addProperty(json, "stream", stream);
+        addProperty(json, "error", error);
+        if (errorDetail != null) {
+            JsonObject detail = new JsonObject();
+            detail.addProperty("message", errorDetail);
+            json.add("errorDetail", detail);
+        }
+        if (aux != null) {
+            json.add("aux", aux);
+        }
+        if (other != null) {
+            for (Map.Entry<String, JsonElement> entry : other.entrySet()) {
+                json.add(entry.getKey(), entry.getValue());
+            }
+        }
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return toJson().toString();
+    }
+
+    // ===========================================================================================
+
+    private void readProgressDetail(JsonReader json) throws IOException {
+        progressDetail = true;
+        if (json.peek() != JsonToken.BEGIN_OBJECT) {
+            json.skipValue();
+            return;
+        }
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if (name.equals("current") && json.peek() == JsonToken.NUMBER) {
+                current = json.nextLong();
+            } else if (name.equals("total") && json.peek() == JsonToken.NUMBER) {
+                total = json.nextLong();
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+    }
+
+    private void readErrorDetail(JsonReader json) throws IOException {
+        if (json.peek() != JsonToken.BEGIN_OBJECT) {
+            json.skipValue();
+            return;
+        }
+        json.beginObject();
+        while (json.hasNext()) {
+            if (json.nextName().equals("message")) {
+                errorDetail = nextString(json);
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+    }
+
+    private void addOther(String name, JsonElement value) {
+        if (other == null) {
+            other = new JsonObject();
+        }
+        other.add(name, value);
+    }
+
+    private static String nextString(JsonReader json) throws IOException {
+        switch (json.peek()) {
+            case NULL:
+                json.nextNull();
+                return null;
+            case BOOLEAN:
+                return String.valueOf(json.nextBoolean());
+            case BEGIN_OBJECT:
+            case BEGIN_ARRAY:
+                return JsonParser.parseReader(json).toString();
+            default:
+                return json.nextString();
+        }
+    }
+
+    private static String asString(JsonElement value) {
+        if (value == null || value.isJsonNull()) {
+            return null;
+        }
+        return value.isJsonPrimitive() ? value.getAsString() : value.toString();
+    }
+
+    private static long asLong(JsonElement value) {
+        if (value != null && value.isJsonPrimitive() && value.getAsJsonPrimitive().isNumber()) {
+            return value.getAsLong();
+        }
+        return -1;
+    }
+
+    private static void addProperty(JsonObject json, String name, String value) {
+        if (value != null) {
+            json.add(name, new JsonPrimitive(value));
+        }
+    }
+}
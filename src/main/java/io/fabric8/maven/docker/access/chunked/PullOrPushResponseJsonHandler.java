@@ -1,62 +1,131 @@
 package io.fabric8.maven.docker.access.chunked;
 
-import com.google.gson.JsonObject;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 import io.fabric8.maven.docker.access.DockerAccessException;
 import io.fabric8.maven.docker.util.Logger;
 
-public class PullOrPushResponseJsonHandler implements EntityStreamReaderUtil.JsonEntityResponseHandler {
+public class PullOrPushResponseJsonHandler implements EntityStreamReaderUtil.ProgressMessageHandler {
 
     private final Logger log;
-    
+    private final String image;
+    private final BooleanSupplier interleaved;
+
+    // Whether the progress of this transfer is currently shown as progress bar
+    private boolean progressBar;
+    // Last state of every layer seen, used for the condensed progress output
+    private final Map<String, String> layerStates = new HashMap<>();
+
     public PullOrPushResponseJsonHandler(Logger log) {
+        this(log, null, () -> false);
+    }
+
+    /**
+     * Handler for a transfer which might run concurrently with other transfers. As long as
+     * the given supplier returns true, no progress bar is shown, but a single line prefixed with the image
+     * name is logged whenever a layer is finished. This keeps the output readable when several transfers
+     * are interleaved.
+     *
+     * @param log logger to use
+     * @param image name of the image which is transferred
+     * @param interleaved whether other transfers are running at the same time
+     */
+    public PullOrPushResponseJsonHandler(Logger log, String image, BooleanSupplier interleaved) {
         this.log = log;
+        this.image = image;
+        this.interleaved = interleaved;
     }
-    
+
     @Override
-    public void process(JsonObject json) throws DockerAccessException {
-        if (json.has("progressDetail")) {
-            log.progressUpdate(getStringOrEmpty(json, "id"),
-                               getStringOrEmpty(json, "status"),
-                               getStringOrEmpty(json, "progress"));
-        } else if (json.has("error")) {
-            throwDockerAccessException(json);
+    public void process(ProgressMessage message) throws DockerAccessException {
+        if (message.hasProgressDetail()) {
+            String layerId = orEmpty(message.getId());
+            String status = orEmpty(message.getStatus());
+            if (interleaved.getAsBoolean()) {
+                stopProgressBar();
+                logLayerProgress(layerId, status);
+            } else {
+                startProgressBar();
+                log.progressUpdate(layerId, status, orEmpty(message.getProgress()));
+            }
+        } else if (message.getError() != null) {
+            throwDockerAccessException(message);
         } else {
-            log.progressFinished();
-            logInfoMessage(json);
+            boolean restart = stopProgressBar();
+            logInfoMessage(message);
+            if (restart) {
+                startProgressBar();
+            }
+        }
+    }
+
+    private void startProgressBar() {
+        if (!progressBar) {
             log.progressStart();
+            progressBar = true;
+        }
+    }
+
+    private boolean stopProgressBar() {
+        if (progressBar) {
+            log.progressFinished();
+            progressBar = false;
+            return true;
+        }
+        return false;
+    }
+
+    private void logLayerProgress(String layerId, String status) {
+        if (layerId.isEmpty()) {
+            return;
+        }
+        String previous = layerStates.put(layerId, status);
+        if (ProgressMessage.isLayerDone(status) && !status.equals(previous)) {
+            long done = layerStates.values().stream().filter(ProgressMessage::isLayerDone).count();
+            log.info("%s: %s %s (%d/%d layers)", image, layerId, status, done, layerStates.size());
         }
     }
 
-    private void logInfoMessage(JsonObject json) {
+    private void logInfoMessage(ProgressMessage message) {
         String value;
-        if (json.has("stream")) {
-            value = json.get("stream").getAsString().replaceFirst("\n$", "");
-        } else if (json.has("status")) {
-            value = json.get("status").getAsString();
+        if (message.getStream() != null) {
+            value = message.getStream();
+            if (value.endsWith("\n")) {
+                value = value.substring(0, value.length() - 1);
+            }
+        } else if (message.getStatus() != null) {
+            value = message.getStatus();
         } else {
-            value = json.toString();
+            value = message.toString();
+        }
+        if (image != null && interleaved.getAsBoolean()) {
+            log.info("%s: %s", image, value);
+        } else {
+            log.info("%s", value);
         }
-        log.info("%s", value);
     }
 
-    private void throwDockerAccessException(JsonObject json) throws DockerAccessException {
-        String msg = json.get("error").getAsString().trim();
-        String details = json.getAsJsonObject("errorDetail").get("message").getAsString().trim();
+    private void throwDockerAccessException(ProgressMessage message) throws DockerAccessException {
+        String msg = message.getError().trim();
+        String details = message.getErrorDetail() != null ? message.getErrorDetail().trim() : msg;
         throw new DockerAccessException("%s %s", msg, (msg.equals(details) ? "" : "(" + details + ")"));
     }
 
-    private String getStringOrEmpty(JsonObject json, String what) {
-        return json.has(what) ? json.get(what).getAsString() : "";
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
     }
 
     @Override
     public void start() {
-        log.progressStart();
+        if (!interleaved.getAsBoolean()) {
+            startProgressBar();
+        }
     }
 
     @Override
     public void stop() {
-        log.progressFinished();
+        stopProgressBar();
     }
 }
@@ -19,6 +19,7 @@ import org.apache.maven.plugin.MojoExecutionException;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
 import io.fabric8.maven.docker.access.AuthConfig;
@@ -36,9 +37,13 @@ public class EcrExtendedAuth {
             Pattern.compile("^(\\d{12})\\.dkr\\.ecr\\.([a-z\\-0-9]+)\\.amazonaws\\.com$");
 
     private final Logger logger;
+    private final String registry;
     private final boolean isAwsRegistry;
     private final String accountId;
     private final String region;
+    private final EcrTokenCache tokenCache;
+    // Base URL of the ECR API, null for the public AWS endpoint of the region
+    private final String endpoint;
 
     /**
      * Is given the registry an ecr registry?
@@ -56,7 +61,24 @@ public class EcrExtendedAuth {
      * @param registry The registry, we may or may not be an ecr registry.
      */
     public EcrExtendedAuth(Logger logger, String registry) {
+        this(logger, registry, null, null);
+    }
+
+    /**
+     * Initialize an extended authentication for ecr registry which reuses tokens.
+     *
+     * @param registry The registry, we may or may not be an ecr registry.
+     * @param tokenCache cache for tokens, <code>null</code> if tokens shouldn't be reused
+     */
+    public EcrExtendedAuth(Logger logger, String registry, EcrTokenCache tokenCache) {
+        this(logger, registry, tokenCache, null);
+    }
+
+    EcrExtendedAuth(Logger logger, String registry, EcrTokenCache tokenCache, String endpoint) {
         this.logger = logger;
+        this.registry = registry;
+        this.tokenCache = tokenCache;
+        this.endpoint = endpoint;
         Matcher matcher = AWS_REGISTRY.matcher(registry);
         isAwsRegistry = matcher.matches();
         if (isAwsRegistry) {
@@ -87,13 +109,24 @@ public class EcrExtendedAuth {
      * @throws MojoExecutionException
      */
     public AuthConfig extendedAuth(AuthConfig localCredentials) throws IOException, MojoExecutionException {
+        EcrTokenCache.Token token = tokenCache != null ?
+            tokenCache.get(registry, accountId, localCredentials, () -> requestToken(localCredentials)) :
+            requestToken(localCredentials);
+        return new AuthConfig(token.getAuthorizationToken(), "none");
+    }
+
+    private EcrTokenCache.Token requestToken(AuthConfig localCredentials) throws IOException, MojoExecutionException {
         JsonObject jo = getAuthorizationToken(localCredentials);
 
         JsonArray authorizationDatas = jo.getAsJsonArray("authorizationData");
         JsonObject authorizationData = authorizationDatas.get(0).getAsJsonObject();
         String authorizationToken = authorizationData.get("authorizationToken").getAsString();
+        // Expiry is given in seconds since the epoch
+        JsonElement expiresAt = authorizationData.get("expiresAt");
+        long expiresAtMillis = expiresAt != null && expiresAt.isJsonPrimitive() && expiresAt.getAsJsonPrimitive().isNumber() ?
+            (long) (expiresAt.getAsDouble() * 1000) : 0;
 
-        return new AuthConfig(authorizationToken, "none");
+        return new EcrTokenCache.Token(authorizationToken, expiresAtMillis);
     }
 
     private JsonObject getAuthorizationToken(AuthConfig localCredentials) throws IOException, MojoExecutionException {
@@ -128,7 +161,7 @@ public class EcrExtendedAuth {
 
         logger.debug("Get ECR AuthorizationToken from %s", host);
 
-        HttpPost request = new HttpPost("https://" + host + '/');
+        HttpPost request = new HttpPost(endpoint != null ? endpoint : "https://" + host + '/');
         request.setHeader("host", host);
         request.setHeader("Content-Type", "application/x-amz-json-1.1");
         request.setHeader("X-Amz-Target", "AmazonEC2ContainerRegistry_V20150921.GetAuthorizationToken");
@@ -0,0 +1,321 @@
+package io.fabric8.maven.docker.access.ecr;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import io.fabric8.maven.docker.access.AuthConfig;
+import io.fabric8.maven.docker.util.Logger;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.SessionData;
+
+/**
+ * Cache for ECR authorization tokens. A token is valid for several hours, so it can be reused for all images
+ * pushed to or pulled from the same registry. Tokens are keyed by registry, account and a fingerprint of the
+ * AWS credentials they have been obtained with, and are used until shortly before they expire.
+ * <p>
+ * Tokens are kept in the session data of the Maven session. Optionally they are also stored in a file, so that
+ * later builds can reuse them. Each token in the file is encrypted with a key derived from the AWS credentials,
+ * so it can only be read by someone who holds the credentials anyway.
+ */
+public class EcrTokenCache {
+
+    // Key under which the tokens are stored in the session data
+    static final String CONTEXT_KEY_ECR_TOKEN_CACHE = "CONTEXT_KEY_ECR_TOKEN_CACHE";
+
+    // Tokens are refreshed when they expire within this time, so that a long running push doesn't fail
+    static final long REFRESH_MARGIN_MILLIS = 5 * 60 * 1000L;
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String CIPHER_ALGORITHM = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    // Guards the read-modify-write cycle of the cache file within this JVM
+    private static final Object FILE_LOCK = new Object();
+
+    private final Map<String, Token> tokens;
+    private final File file;
+    private final Logger log;
+    private final LongSupplier clock;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Create a cache which is not shared
+     *
+     * @param file file to store tokens in, <code>null</code> to keep tokens in memory only
+     * @param log logger
+     */
+    public EcrTokenCache(File file, Logger log) {
+        this(new ConcurrentHashMap<>(), file, log, System::currentTimeMillis);
+    }
+
+    EcrTokenCache(Map<String, Token> tokens, File file, Logger log, LongSupplier clock) {
+        this.tokens = tokens;
+        this.file = file;
+        this.log = log;
+        this.clock = clock;
+    }
+
+    /**
+     * Get a view on the tokens of the given session, creating the tokens if none are stored yet
+     *
+     * @param session the current Maven session
+     * @param file file to store tokens in, <code>null</code> to keep tokens in memory only
+     * @param log logger
+     * @return the cache for this session or an unshared cache if the session has no session data
+     */
+    @SuppressWarnings("unchecked")
+    public static EcrTokenCache forSession(MavenSession session, File file, Logger log) {
+        RepositorySystemSession repositorySession = session != null ? session.getRepositorySession() : null;
+        if (repositorySession == null || repositorySession.getData() == null) {
+            return new EcrTokenCache(file, log);
+        }
+        SessionData data = repositorySession.getData();
+        if (data.get(CONTEXT_KEY_ECR_TOKEN_CACHE) == null) {
+            data.set(CONTEXT_KEY_ECR_TOKEN_CACHE, null, new ConcurrentHashMap<String, Token>());
+        }
+        Map<String, Token> tokens = (Map<String, Token>) data.get(CONTEXT_KEY_ECR_TOKEN_CACHE);
+        return new EcrTokenCache(tokens, file, log, System::currentTimeMillis);
+    }
+
+    /**
+     * @return default location of the cache file in the user's home directory
+     */
+    public static File getDefaultFile() {
+        return new File(System.getProperty("user.home"), ".docker-maven-plugin" + File.separator + "ecr-token-cache.json");
+    }
+
+    /**
+     * Get a token from the cache or obtain a new one
+     *
+     * @param registry ECR registry
+     * @param accountId AWS account of the registry
+     * @param credentials AWS credentials used to obtain the token
+     * @param lookup used to obtain a token if no valid token is cached
+     * @return the token
+     * @throws IOException if obtaining a token fails
+     * @throws MojoExecutionException if obtaining a token fails
+     */
+    public Token get(String registry, String accountId, AuthConfig credentials, TokenLookup lookup)
+            throws IOException, MojoExecutionException {
+        String key = hmac(credentials, "key|" + registry + "|" + accountId);
+        Token token = tokens.get(key);
+        if (isValid(token)) {
+            log.debug("ECR token for %s from cache, valid for %d minutes", registry, minutesLeft(token));
+            return token;
+        }
+        if (file != null) {
+            token = readFromFile(key, credentials);
+            if (isValid(token)) {
+                log.debug("ECR token for %s from %s, valid for %d minutes", registry, file, minutesLeft(token));
+                tokens.put(key, token);
+                return token;
+            }
+        }
+        token = lookup.lookup();
+        if (token.getExpiresAt() > 0) {
+            tokens.put(key, token);
+            if (file != null) {
+                writeToFile(key, credentials, token);
+            }
+        }
+        return token;
+    }
+
+    // ===========================================================================================
+
+    private boolean isValid(Token token) {
+        return token != null && token.getExpiresAt() - REFRESH_MARGIN_MILLIS > clock.getAsLong();
+    }
+
+    private long minutesLeft(Token token) {
+        return (token.getExpiresAt() - clock.getAsLong()) / 60000;
+    }
+
+    private Token readFromFile(String key, AuthConfig credentials) {
+        synchronized (FILE_LOCK) {
+            JsonObject entries = readFile();
+            JsonElement entry = entries.get(key);
+            if (entry == null || !entry.isJsonObject()) {
+                return null;
+            }
+            try {
+                JsonObject json = entry.getAsJsonObject();
+                long expiresAt = json.get("expiresAt").getAsLong();
+                byte[] iv = Base64.getDecoder().decode(json.get("iv").getAsString());
+                byte[] encrypted = Base64.getDecoder().decode(json.get("token").getAsString());
+                Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+                cipher.init(Cipher.DECRYPT_MODE, encryptionKey(credentials, key), new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+                cipher.updateAAD(aad(key, expiresAt));
+                String authorizationToken = new String(cipher.doFinal(encrypted), StandardCharsets.UTF_8);
+                return new Token(authorizationToken, expiresAt);
+            } catch (GeneralSecurityException | RuntimeException e) {
+                log.debug("Ignoring unreadable ECR token in %s: %s", file, e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    private void writeToFile(String key, AuthConfig credentials, Token token) {
+        synchronized (FILE_LOCK) {
+            try {
+                JsonObject entries = readFile();
+                long now = clock.getAsLong();
+                for (Iterator<Map.Entry<String, JsonElement>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+                    JsonElement entry = it.next().getValue();
+                    if (!entry.isJsonObject() || !entry.getAsJsonObject().has("expiresAt") ||
+                        entry.getAsJsonObject().get("expiresAt").getAsLong() <= now) {
+                        it.remove();
+                    }
+                }
+
+                byte[] iv = new byte[IV_LENGTH];
+                random.nextBytes(iv);
+                Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+                cipher.init(Cipher.ENCRYPT_MODE, encryptionKey(credentials, key), new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+                cipher.updateAAD(aad(key, token.getExpiresAt()));
+                byte[] encrypted = cipher.doFinal(token.getAuthorizationToken().getBytes(StandardCharsets.UTF_8));
+
+                JsonObject entry = new JsonObject();
+                entry.addProperty("expiresAt", token.getExpiresAt());
+                entry.addProperty("iv", Base64.getEncoder().encodeToString(iv));
+                entry.addProperty("token", Base64.getEncoder().encodeToString(encrypted));
+                entries.add(key, entry);
+                writeFile(entries);
+            } catch (GeneralSecurityException | IOException | RuntimeException e) {
+                // The file is only an optimization, so a build doesn't fail because of it
+                log.warn("Cannot store ECR token in %s: %s", file, e.getMessage());
+            }
+        }
+    }
+
+    private JsonObject readFile() {
+        if (!file.exists()) {
+            return new JsonObject();
+        }
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            JsonElement json = JsonParser.parseReader(reader);
+            return json.isJsonObject() ? json.getAsJsonObject() : new JsonObject();
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            log.debug("Ignoring unreadable ECR token cache %s: %s", file, e.getMessage());
+            return new JsonObject();
+        }
+    }
+
+    // Written to a temporary file which is only readable by the owner and then moved, so that concurrent
+    // readers never see a partial file
+    private void writeFile(JsonObject entries) throws IOException {
+        Path target = file.toPath().toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            if (tmp.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Files.setPosixFilePermissions(tmp, PosixFilePermissions.fromString("rw-------"));
+            }
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                writer.write(entries.toString());
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static SecretKeySpec encryptionKey(AuthConfig credentials, String key) {
+        return new SecretKeySpec(hmacBytes(credentials, "encryption|" + key), "AES");
+    }
+
+    // Binds the ciphertext to its entry, so that entries can't be swapped or their expiry changed
+    private static byte[] aad(String key, long expiresAt) {
+        return (key + "|" + expiresAt).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Keyed hash with the AWS secret, so that neither the fingerprint nor the encryption key reveal anything
+    // about the credentials
+    private static String hmac(AuthConfig credentials, String label) {
+        byte[] hash = hmacBytes(credentials, label);
+        StringBuilder hex = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    private static byte[] hmacBytes(AuthConfig credentials, String label) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            String secret = credentials.getPassword() != null ? credentials.getPassword() : "";
+            mac.init(new SecretKeySpec(("ecr-token-cache|" + secret).getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            String message = label + "|" + credentials.getUsername() + "|" + (credentials.getAuth() != null ? credentials.getAuth() : "");
+            return mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not supported", e);
+        }
+    }
+
+    /**
+     * Obtains a new token
+     */
+    @FunctionalInterface
+    public interface TokenLookup {
+        Token lookup() throws IOException, MojoExecutionException;
+    }
+
+    /**
+     * An ECR authorization token
+     */
+    public static class Token {
+        private final String authorizationToken;
+        private final long expiresAt;
+
+        /**
+         * @param authorizationToken base64 encoded user and password
+         * @param expiresAt expiry in milliseconds since the epoch, 0 if unknown
+         */
+        public Token(String authorizationToken, long expiresAt) {
+            this.authorizationToken = authorizationToken;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getAuthorizationToken() {
+            return authorizationToken;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
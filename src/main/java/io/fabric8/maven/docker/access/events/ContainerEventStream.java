@@ -0,0 +1,195 @@
+package io.fabric8.maven.docker.access.events;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.model.ContainerEvent;
+
+/**
+ * One events stream of the Docker daemon shared by all subscribers following the events of single containers.
+ * The stream is opened for the first subscriber and closed again when the last subscriber has finished. Each
+ * event is dispatched to the subscribers of the container it belongs to.
+ * <p>
+ * If the stream breaks, all current subscribers get the error and a new stream is opened for the next subscriber.
+ */
+public class ContainerEventStream {
+
+    private final Opener opener;
+
+    // Subscribers by container id, guarded by this
+    private final Map<String, List<Subscription>> subscriptions = new HashMap<>();
+
+    // Currently open stream or null if no stream is open
+    private Dispatcher dispatcher;
+
+    /**
+     * Create a shared stream
+     *
+     * @param opener used for opening the events stream of all containers when the first subscriber arrives
+     */
+    public ContainerEventStream(Opener opener) {
+        this.opener = opener;
+    }
+
+    /**
+     * Follow the events of a container. The events stream is opened if no stream is open yet.
+     *
+     * @param containerId container whose events to receive
+     * @param callback callback to call for each event of the container
+     * @return handle for finishing the subscription
+     * @throws DockerAccessException if the events stream could not be opened
+     */
+    public synchronized EventGetHandle subscribe(String containerId, EventCallback callback) throws DockerAccessException {
+        if (dispatcher == null) {
+            Dispatcher newDispatcher = new Dispatcher();
+            newDispatcher.handle = opener.open(newDispatcher);
+            dispatcher = newDispatcher;
+        }
+        Subscription subscription = new Subscription(containerId, callback, dispatcher);
+        subscriptions.computeIfAbsent(containerId, id -> new ArrayList<>()).add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Close the stream without notifying the subscribers, e.g. when the Docker access is shut down
+     */
+    public void close() {
+        EventGetHandle toFinish;
+        synchronized (this) {
+            subscriptions.clear();
+            toFinish = dispatcher != null ? dispatcher.handle : null;
+            dispatcher = null;
+        }
+        if (toFinish != null) {
+            toFinish.finish();
+        }
+    }
+
+    /**
+     * @return true if an events stream is currently open
+     */
+    public synchronized boolean isOpen() {
+        return dispatcher != null;
+    }
+
+    private synchronized List<Subscription> getSubscriptions(String containerId, Dispatcher from) {
+        List<Subscription> ret = subscriptions.get(containerId);
+        return from == dispatcher && ret != null ? new ArrayList<>(ret) : null;
+    }
+
+    // Forget all subscriptions of a broken stream, returns null if the stream has already been replaced
+    private synchronized List<Subscription> removeAll(Dispatcher from) {
+        if (from != dispatcher) {
+            return null;
+        }
+        List<Subscription> ret = new ArrayList<>();
+        for (List<Subscription> forContainer : subscriptions.values()) {
+            ret.addAll(forContainer);
+        }
+        subscriptions.clear();
+        dispatcher = null;
+        return ret;
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        EventGetHandle toFinish = null;
+        synchronized (this) {
+            List<Subscription> forContainer = subscriptions.get(subscription.containerId);
+            if (forContainer == null || !forContainer.remove(subscription)) {
+                return;
+            }
+            if (forContainer.isEmpty()) {
+                subscriptions.remove(subscription.containerId);
+            }
+            if (subscriptions.isEmpty() && dispatcher == subscription.dispatcher) {
+                // Last subscriber gone, so close the stream
+                toFinish = dispatcher.handle;
+                dispatcher = null;
+            }
+        }
+        if (toFinish != null) {
+            toFinish.finish();
+        }
+    }
+
+    /**
+     * Opens the events stream of all containers
+     */
+    @FunctionalInterface
+    public interface Opener {
+
+        /**
+         * Open the events stream
+         *
+         * @param callback callback to call for each event of any container
+         * @return handle for closing the stream
+         * @throws DockerAccessException if the stream could not be opened
+         */
+        EventGetHandle open(EventCallback callback) throws DockerAccessException;
+    }
+
+    // Callback of a single opened stream, passing the events on to the subscribers
+    private class Dispatcher implements EventCallback {
+
+        private EventGetHandle handle;
+
+        @Override
+        public void event(ContainerEvent event) {
+            List<Subscription> toNotify = getSubscriptions(event.getId(), this);
+            if (toNotify != null) {
+                for (Subscription subscription : toNotify) {
+                    subscription.callback.event(event);
+                }
+            }
+        }
+
+        @Override
+        public void error(String error) {
+            List<Subscription> toNotify = removeAll(this);
+            if (toNotify != null) {
+                DockerAccessException exception = handle.getException();
+                for (Subscription subscription : toNotify) {
+                    subscription.failed(exception != null ? exception : new DockerAccessException(error));
+                    subscription.callback.error(error);
+                }
+            }
+        }
+    }
+
+    private class Subscription implements EventGetHandle {
+
+        private final String containerId;
+        private final EventCallback callback;
+        private final Dispatcher dispatcher;
+
+        private volatile DockerAccessException exception;
+
+        Subscription(String containerId, EventCallback callback, Dispatcher dispatcher) {
+            this.containerId = containerId;
+            this.callback = callback;
+            this.dispatcher = dispatcher;
+        }
+
+        @Override
+        public void finish() {
+            unsubscribe(this);
+        }
+
+        @Override
+        public boolean isError() {
+            return exception != null;
+        }
+
+        @Override
+        public DockerAccessException getException() {
+            return exception;
+        }
+
+        void failed(DockerAccessException exception) {
+            this.exception = exception;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package io.fabric8.maven.docker.access.events;
+
+import io.fabric8.maven.docker.model.ContainerEvent;
+
+/**
+ * Interface called for each event received from the Docker events stream
+ */
+public interface EventCallback {
+
+    /**
+     * Receive an event
+     *
+     * @param event the event received
+     */
+    void event(ContainerEvent event);
+
+    /**
+     * Method called in case of an error when reading the event stream. No further events
+     * will be received afterwards.
+     *
+     * @param error error description
+     */
+    void error(String error);
+}
@@ -0,0 +1,18 @@
+package io.fabric8.maven.docker.access.events;
+
+import io.fabric8.maven.docker.access.DockerAccessException;
+
+/**
+ * Handle for an event subscription which is read in the background
+ */
+public interface EventGetHandle {
+
+    /**
+     * Stop receiving events and close the underlying connection
+     */
+    void finish();
+
+    boolean isError();
+
+    DockerAccessException getException();
+}
@@ -0,0 +1,134 @@
+package io.fabric8.maven.docker.access.events;
+
+import java.io.IOException;
+
+import com.google.gson.JsonObject;
+import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.access.chunked.EntityStreamReaderUtil;
+import io.fabric8.maven.docker.access.util.RequestUtil;
+import io.fabric8.maven.docker.model.ContainerEvent;
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+/**
+ * Requestor for following the Docker events stream. The request is opened synchronously with
+ * {@link #connect()} so that a missing endpoint is detected immediately, the stream itself is read
+ * in the background after {@link #start()} has been called.
+ */
+public class EventRequestor extends Thread implements EventGetHandle {
+
+    private final CloseableHttpClient client;
+    private final String url;
+    private final EventCallback callback;
+
+    private HttpUriRequest request;
+    private HttpResponse response;
+    private DockerAccessException exception;
+    private volatile boolean finished;
+
+    /**
+     * Create a requestor for the given events url
+     *
+     * @param client HTTP client to use, which is closed when the requestor finishes
+     * @param url events url including filters
+     * @param callback callback to call for each event received
+     */
+    public EventRequestor(CloseableHttpClient client, String url, EventCallback callback) {
+        super("docker-events");
+        setDaemon(true);
+        this.client = client;
+        this.url = url;
+        this.callback = callback;
+    }
+
+    /**
+     * Open the events stream
+     *
+     * @throws DockerAccessException if the stream cannot be opened, e.g. because the daemon doesn't
+     *         support the events endpoint
+     */
+    public void connect() throws DockerAccessException {
+        request = RequestUtil.newGet(url);
+        try {
+            response = client.execute(request);
+        } catch (IOException e) {
+            closeClient();
+            throw new DockerAccessException(e, "Unable to request events from %s", url);
+        }
+        StatusLine status = response.getStatusLine();
+        if (status.getStatusCode() != 200) {
+            closeClient();
+            throw new DockerAccessException("Unable to request events (%s)", status);
+        }
+    }
+
+    // Read the event stream until it is closed or the requestor is finished
+    @Override
+    public void run() {
+        try {
+            EntityStreamReaderUtil.processJsonStream(new EventJsonHandler(), response.getEntity().getContent());
+            if (!finished) {
+                callback.error("Event stream closed by Docker daemon");
+            }
+        } catch (IOException e) {
+            if (!finished) {
+                exception = new DockerAccessException(e, "Error while reading events");
+                callback.error("IO Error while reading events: " + e);
+            }
+        } catch (RuntimeException e) {
+            if (!finished) {
+                exception = new DockerAccessException(e, "Invalid event received");
+                callback.error("Invalid event received: " + e);
+            }
+        } finally {
+            closeClient();
+        }
+    }
+
+    @Override
+    public void finish() {
+        finished = true;
+        if (request != null) {
+            request.abort();
+        }
+        closeClient();
+    }
+
+    @Override
+    public boolean isError() {
+        return exception != null;
+    }
+
+    @Override
+    public DockerAccessException getException() {
+        return exception;
+    }
+
+    private void closeClient() {
+        try {
+            client.close();
+        } catch (IOException e) {
+            // Best effort, the connection is not used anymore
+        }
+    }
+
+    private class EventJsonHandler implements EntityStreamReaderUtil.JsonEntityResponseHandler {
+
+        @Override
+        public void process(JsonObject toProcess) {
+            callback.event(new ContainerEvent(toProcess));
+        }
+
+        @Override
+        public void start() {
+            // Nothing to prepare
+        }
+
+        @Override
+        public void stop() {
+            // Nothing to clean up
+        }
+    }
+}
@@ -11,8 +11,11 @@ import java.io.OutputStream;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -22,11 +25,13 @@ import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.ResponseHandler;
+import org.apache.http.entity.EntityTemplate;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
 import io.fabric8.maven.docker.access.AuthConfig;
+import io.fabric8.maven.docker.access.BuildContextWriter;
 import io.fabric8.maven.docker.access.BuildOptions;
 import io.fabric8.maven.docker.access.ContainerCreateConfig;
 import io.fabric8.maven.docker.access.DockerAccess;
@@ -39,11 +44,18 @@ import io.fabric8.maven.docker.access.chunked.PullOrPushResponseJsonHandler;
 import io.fabric8.maven.docker.access.hc.ApacheHttpClientDelegate.BodyAndStatusResponseHandler;
 import io.fabric8.maven.docker.access.hc.ApacheHttpClientDelegate.HttpBodyAndStatus;
 import io.fabric8.maven.docker.access.hc.http.HttpClientBuilder;
+import io.fabric8.maven.docker.access.hc.http.TcpLogConnector;
 import io.fabric8.maven.docker.access.hc.unix.UnixSocketClientBuilder;
+import io.fabric8.maven.docker.access.hc.unix.UnixSocketLogConnector;
 import io.fabric8.maven.docker.access.hc.util.ClientBuilder;
 import io.fabric8.maven.docker.access.hc.win.NamedPipeClientBuilder;
+import io.fabric8.maven.docker.access.events.ContainerEventStream;
+import io.fabric8.maven.docker.access.events.EventCallback;
+import io.fabric8.maven.docker.access.events.EventGetHandle;
+import io.fabric8.maven.docker.access.events.EventRequestor;
 import io.fabric8.maven.docker.access.log.LogCallback;
 import io.fabric8.maven.docker.access.log.LogGetHandle;
+import io.fabric8.maven.docker.access.log.LogPump;
 import io.fabric8.maven.docker.access.log.LogRequestor;
 import io.fabric8.maven.docker.config.ArchiveCompression;
 import io.fabric8.maven.docker.config.Arguments;
@@ -99,11 +111,15 @@ public class DockerAccessWithHcClient implements DockerAccess {
     // Copy buffer size when saving images or copying files from containers
     private static final int COPY_BUFFER_SIZE = 65536;
 
+    // Number of threads for following container logs
+    private static final int LOG_PUMP_THREADS = 2;
+
     private static final String API_LOG_FORMAT_GET = "GET %s";
     private static final String API_LOG_FORMAT_POST = "POST %s";
     private static final String API_LOG_FORMAT_DELETE = "DELETE %s";
     private static final String API_LOG_FORMAT_POST_WITH_REQUEST = "POST to %s with %s";
     private static final String API_LOG_FORMAT_POST_FILE = "POST to %s with contents of file %s";
+    private static final String API_LOG_FORMAT_POST_STREAM = "POST to %s with streamed build context";
     private static final String API_LOG_FORMAT_PUT_FILE = "PUT to %s with contents of file %s";
 
     // Logging
@@ -114,6 +130,19 @@ public class DockerAccessWithHcClient implements DockerAccess {
     private final String nativePlatform;
     private final UrlBuilder urlBuilder;
 
+    // Follows logs non-blocking if supported by the transport, null otherwise
+    private final LogPump logPump;
+
+    // Number of pulls and pushes currently running, used for condensing the progress output
+    // when several transfers are interleaved
+    private final AtomicInteger activeTransfers = new AtomicInteger();
+
+    // Lets concurrent identical GET requests for inspecting and listing share a single request
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+
+    // Events streams shared by all containers whose events are followed, one per set of event types
+    private final Map<String, ContainerEventStream> eventStreams = new ConcurrentHashMap<>();
+
     /**
      * Create a new access for the given URL
      *
@@ -133,12 +162,18 @@ public class DockerAccessWithHcClient implements DockerAccess {
         }
         if (uri.getScheme().equalsIgnoreCase("unix")) {
             this.delegate = createHttpClient(new UnixSocketClientBuilder(uri.getPath(), maxConnections, log));
+            this.logPump = new LogPump(new UnixSocketLogConnector(uri.getPath()), LOG_PUMP_THREADS);
             baseUrl = UNIX_URL;
         } else if (uri.getScheme().equalsIgnoreCase("npipe")) {
             this.delegate = createHttpClient(new NamedPipeClientBuilder(uri.getPath(), maxConnections, log), false);
+            this.logPump = null;
             baseUrl = NPIPE_URL;
         } else {
             this.delegate = createHttpClient(new HttpClientBuilder(isSSL(baseUrl) ? certPath : null, maxConnections));
+            // TLS connections are still followed with a blocking client per container
+            this.logPump = uri.getScheme().equalsIgnoreCase("http") ?
+                new LogPump(new TcpLogConnector(uri.getHost(), uri.getPort() > 0 ? uri.getPort() : 80), LOG_PUMP_THREADS) :
+                null;
         }
 
         baseUrl = stripTrailingSlash(baseUrl);
@@ -298,6 +333,26 @@ public class DockerAccessWithHcClient implements DockerAccess {
         }
     }
 
+    @Override
+    public void buildImage(String image, BuildContextWriter contextWriter, BuildOptions options) throws DockerAccessException {
+        String url = urlBuilder.buildImage(image, options);
+        log.verbose(Logger.LogVerboseCategory.API, API_LOG_FORMAT_POST_STREAM, url);
+        try {
+            delegate.post(url, createBuildContextEntity(contextWriter), createBuildResponseHandler(), HTTP_OK);
+        } catch (IOException e) {
+            throw new DockerAccessException(e, "Unable to build image [%s]", image);
+        }
+    }
+
+    // Entity without a content length so that the build context is sent with chunked transfer encoding
+    // while it is written by the given writer
+    private EntityTemplate createBuildContextEntity(BuildContextWriter contextWriter) {
+        EntityTemplate entity = new EntityTemplate(contextWriter::writeTo);
+        entity.setContentType("application/x-tar");
+        entity.setChunked(true);
+        return entity;
+    }
+
     @Override
     public void copyArchiveToContainer(String containerId, File archive, String targetPath)
             throws DockerAccessException {
@@ -345,11 +400,34 @@ public class DockerAccessWithHcClient implements DockerAccess {
 
     @Override
     public LogGetHandle getLogAsync(String containerId, LogCallback callback) {
+        if (logPump != null) {
+            String url = urlBuilder.containerLogs(containerId, true);
+            log.verbose(Logger.LogVerboseCategory.API, API_LOG_FORMAT_GET, url);
+            return logPump.follow(containerId, url, callback);
+        }
         LogRequestor extractor = new LogRequestor(delegate.createBasicClient(), urlBuilder, containerId, callback);
         extractor.start();
         return extractor;
     }
 
+    @Override
+    public EventGetHandle getContainerEventsAsync(String containerId, EventCallback callback, String ... events)
+            throws DockerAccessException {
+        ContainerEventStream stream =
+            eventStreams.computeIfAbsent(String.join(",", events), key -> new ContainerEventStream(cb -> openEventStream(cb, events)));
+        return stream.subscribe(containerId, callback);
+    }
+
+    // Open the events stream for all containers, which is shared by all containers whose events are followed
+    private EventGetHandle openEventStream(EventCallback callback, String ... events) throws DockerAccessException {
+        String url = urlBuilder.containerEvents(null, events);
+        log.verbose(Logger.LogVerboseCategory.API, API_LOG_FORMAT_GET, url);
+        EventRequestor requestor = new EventRequestor(delegate.createBasicClient(), url, callback);
+        requestor.connect();
+        requestor.start();
+        return requestor;
+    }
+
     @Override
     public List<Container> getContainersForImage(String image, boolean all) throws DockerAccessException {
         String url;
@@ -364,7 +442,7 @@ public class DockerAccessWithHcClient implements DockerAccess {
 
         log.verbose(Logger.LogVerboseCategory.API, API_LOG_FORMAT_GET, url);
         try {
-            String response = delegate.get(url, HTTP_OK);
+            String response = coalescedGet(url);
             JsonArray array = JsonFactory.newJsonArray(response);
             List<Container> containers = new ArrayList<>();
 
@@ -385,7 +463,7 @@ public class DockerAccessWithHcClient implements DockerAccess {
         String url = urlBuilder.listContainers(all);
         log.verbose(Logger.LogVerboseCategory.API, API_LOG_FORMAT_GET, url);
         try {
-            String response = delegate.get(url, HTTP_OK);
+            String response = coalescedGet(url);
             JsonArray array = JsonFactory.newJsonArray(response);
             List<Container> containers = new ArrayList<>();
 
@@ -423,7 +501,7 @@ public class DockerAccessWithHcClient implements DockerAccess {
         String url = urlBuilder.inspectContainer(containerIdOrName);
         log.verbose(Logger.LogVerboseCategory.API, API_LOG_FORMAT_GET, url);
         try {
-            return delegate.get(url, new BodyAndStatusResponseHandler(), HTTP_OK, HTTP_NOT_FOUND);
+            return coalescedInspect(url);
         } catch (IOException e) {
             throw new DockerAccessException(e, "Unable to retrieve container name for [%s]", containerIdOrName);
         }
@@ -433,7 +511,7 @@ public class DockerAccessWithHcClient implements DockerAccess {
         String url = urlBuilder.inspectExecContainer(containerIdOrName);
         log.verbose(Logger.LogVerboseCategory.API, API_LOG_FORMAT_GET, url);
         try {
-            return delegate.get(url, new BodyAndStatusResponseHandler(), HTTP_OK, HTTP_NOT_FOUND);
+            return coalescedInspect(url);
         } catch (IOException e) {
             throw new DockerAccessException(e, "Unable to retrieve container name for [%s]", containerIdOrName);
         }
@@ -444,7 +522,7 @@ public class DockerAccessWithHcClient implements DockerAccess {
         String url = urlBuilder.listImages(all);
         log.verbose(Logger.LogVerboseCategory.API, API_LOG_FORMAT_GET, url);
         try {
-            String response = delegate.get(url, HTTP_OK);
+            String response = coalescedGet(url);
             JsonArray array = JsonFactory.newJsonArray(response);
             List<Image> images = new ArrayList<>(array.size());
 
@@ -463,7 +541,9 @@ public class DockerAccessWithHcClient implements DockerAccess {
         String url = urlBuilder.inspectImage(name);
         log.verbose(Logger.LogVerboseCategory.API, API_LOG_FORMAT_GET, url);
         try {
-            return delegate.get(url, new ApacheHttpClientDelegate.StatusCodeResponseHandler(), HTTP_OK, HTTP_NOT_FOUND) == HTTP_OK;
+            return coalescer.execute("GET status " + url, () -> new HttpBodyAndStatus(
+                delegate.get(url, new ApacheHttpClientDelegate.StatusCodeResponseHandler(), HTTP_OK, HTTP_NOT_FOUND), null))
+                .getStatusCode() == HTTP_OK;
         } catch (IOException e) {
             throw new DockerAccessException(e, "Unable to check image [%s]", name);
         }
@@ -501,11 +581,33 @@ public class DockerAccessWithHcClient implements DockerAccess {
         return tags;
     }
 
+    @Override
+    public Map<String, String> getImageLabels(String name) throws DockerAccessException {
+        HttpBodyAndStatus response = inspectImage(name);
+        if (response.getStatusCode() == HTTP_NOT_FOUND) {
+            return null;
+        }
+        JsonObject imageDetails = JsonFactory.newJsonObject(response.getBody());
+        JsonElement config = imageDetails.get("Config");
+        if (config == null || !config.isJsonObject()) {
+            return Collections.emptyMap();
+        }
+        JsonElement labels = config.getAsJsonObject().get("Labels");
+        if (labels == null || !labels.isJsonObject()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> ret = new HashMap<>();
+        for (Map.Entry<String, JsonElement> label : labels.getAsJsonObject().entrySet()) {
+            ret.put(label.getKey(), label.getValue().isJsonNull() ? null : label.getValue().getAsString());
+        }
+        return ret;
+    }
+
     private HttpBodyAndStatus inspectImage(String name) throws DockerAccessException {
         String url = urlBuilder.inspectImage(name);
         log.verbose(Logger.LogVerboseCategory.API, API_LOG_FORMAT_GET, url);
         try {
-            return delegate.get(url, new BodyAndStatusResponseHandler(), HTTP_OK, HTTP_NOT_FOUND);
+            return coalescedInspect(url);
         } catch (IOException e) {
             throw new DockerAccessException(e, "Unable to inspect image [%s]", name);
         }
@@ -539,11 +641,14 @@ public class DockerAccessWithHcClient implements DockerAccess {
             throws DockerAccessException {
         String pullUrl = urlBuilder.pullImage(options);
         log.verbose(Logger.LogVerboseCategory.API, API_LOG_FORMAT_POST, pullUrl);
+        activeTransfers.incrementAndGet();
         try {
             delegate.post(pullUrl, null, createAuthHeader(authConfig),
-                    createPullOrPushResponseHandler(), HTTP_OK);
+                    createPullOrPushResponseHandler(image), HTTP_OK);
         } catch (IOException e) {
             throw new DockerAccessException(e, "Unable to pull '%s'%s", image, (registry != null) ? " from registry '" + registry + "'" : "");
+        } finally {
+            activeTransfers.decrementAndGet();
         }
     }
 
@@ -555,12 +660,14 @@ public class DockerAccessWithHcClient implements DockerAccess {
         log.verbose(Logger.LogVerboseCategory.API, API_LOG_FORMAT_POST, pushUrl);
         TemporaryImageHandler temporaryImageHandler = tagTemporaryImage(name, registry);
         DockerAccessException dae = null;
+        activeTransfers.incrementAndGet();
         try {
-            doPushImage(pushUrl, createAuthHeader(authConfig), createPullOrPushResponseHandler(), HTTP_OK, retries);
+            doPushImage(pushUrl, createAuthHeader(authConfig), createPullOrPushResponseHandler(image), HTTP_OK, retries);
         } catch (IOException e) {
             dae = new DockerAccessException(e, "Unable to push '%s'%s", image, (registry != null) ? " to registry '" + registry + "'" : "");
             throw dae;
         } finally {
+            activeTransfers.decrementAndGet();
             temporaryImageHandler.handle(dae);
         }
     }
@@ -625,7 +732,7 @@ public class DockerAccessWithHcClient implements DockerAccess {
         String url = urlBuilder.listNetworks();
         log.verbose(Logger.LogVerboseCategory.API, API_LOG_FORMAT_GET, url);
         try {
-            String response = delegate.get(url, HTTP_OK);
+            String response = coalescedGet(url);
             JsonArray array = JsonFactory.newJsonArray(response);
             List<Network> networks = new ArrayList<>(array.size());
 
@@ -727,6 +834,13 @@ public class DockerAccessWithHcClient implements DockerAccess {
 
     @Override
     public void shutdown() {
+        int savedRequests = coalescer.getSavedCalls();
+        if (savedRequests > 0) {
+            log.verbose(Logger.LogVerboseCategory.API, "%d requests saved by sharing concurrent identical requests", savedRequests);
+        }
+        for (ContainerEventStream stream : eventStreams.values()) {
+            stream.close();
+        }
         try {
             delegate.close();
         } catch (IOException exp) {
@@ -734,6 +848,22 @@ public class DockerAccessWithHcClient implements DockerAccess {
         }
     }
 
+    /**
+     * @return number of requests which have been saved by sharing concurrent identical requests
+     */
+    public int getSavedRequests() {
+        return coalescer.getSavedCalls();
+    }
+
+    // The response is shared, but every caller creates its own model objects from it
+    private String coalescedGet(String url) throws IOException {
+        return coalescer.execute("GET " + url, () -> new HttpBodyAndStatus(HTTP_OK, delegate.get(url, HTTP_OK))).getBody();
+    }
+
+    private HttpBodyAndStatus coalescedInspect(String url) throws IOException {
+        return coalescer.execute("GET inspect " + url, () -> delegate.get(url, new BodyAndStatusResponseHandler(), HTTP_OK, HTTP_NOT_FOUND));
+    }
+
     ApacheHttpClientDelegate createHttpClient(ClientBuilder builder) throws IOException {
     	return createHttpClient(builder, true);
     }
@@ -748,8 +878,9 @@ public class DockerAccessWithHcClient implements DockerAccess {
     }
 
     // visible for testing?
-    private HcChunkedResponseHandlerWrapper createPullOrPushResponseHandler() {
-        return new HcChunkedResponseHandlerWrapper(new PullOrPushResponseJsonHandler(log));
+    private HcChunkedResponseHandlerWrapper createPullOrPushResponseHandler(String image) {
+        return new HcChunkedResponseHandlerWrapper(
+            new PullOrPushResponseJsonHandler(log, image, () -> activeTransfers.get() > 1));
     }
 
     private Map<String, String> createAuthHeader(AuthConfig authConfig) {
@@ -1,14 +1,15 @@
 package io.fabric8.maven.docker.access.hc;
 
-import com.google.gson.JsonIOException;
-import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
-import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.MalformedJsonException;
 import io.fabric8.maven.docker.access.chunked.EntityStreamReaderUtil;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.ResponseHandler;
 
-import java.io.*;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.util.stream.Stream;
 
 public class HcChunkedResponseHandlerWrapper implements ResponseHandler<Object> {
@@ -38,44 +39,49 @@ public class HcChunkedResponseHandlerWrapper implements ResponseHandler<Object>
             // If no error is detected, the Maven-build goes on despite there was a problem building the
             // image!
             // If the header indicates application/json Content-Type, stream the response to the handler.
-            // If there is no Content-Type header it tries to detect if the body is JSON. If so, the handler is called
-            // with a buffered response.
+            // If there is no Content-Type header it looks at the first character of the body to detect if it is JSON.
+            // If so, the response is streamed to the handler as well, so that progress is shown while it arrives.
             if (isJsonCheckedByHeader(response)) {
                 EntityStreamReaderUtil.processJsonStream(handler, stream);
             } else if (isMissingContentType(response)) {
-                ByteArrayOutputStream baos = getMultipleReadbleOutputStream(stream);
-                InputStream is = new ByteArrayInputStream(baos.toByteArray());
+                PushbackInputStream is = new PushbackInputStream(stream, 1);
                 if (isJsonCheckedByBody(is)) {
-                    is = new ByteArrayInputStream(baos.toByteArray());
-                    EntityStreamReaderUtil.processJsonStream(handler, is);
+                    processJsonStreamIfValid(is);
                 }
             }
         }
         return null;
     }
 
-    private ByteArrayOutputStream getMultipleReadbleOutputStream(InputStream is) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        byte[] buffer = new byte[1024];
-        int len;
-        while ((len = is.read(buffer)) > -1 ) {
-            baos.write(buffer, 0, len);
+    // The progress output is a sequence of JSON objects. Leading whitespace is skipped, the first other
+    // character is pushed back. An empty body has nothing to process.
+    private static boolean isJsonCheckedByBody(PushbackInputStream is) throws IOException {
+        int c;
+        do {
+            c = is.read();
+        } while (c == ' ' || c == '\t' || c == '\r' || c == '\n');
+        if (c == -1) {
+            return false;
         }
-        baos.flush();
-        return baos;
+        is.unread(c);
+        return c == '{';
     }
 
-    private static boolean isJsonCheckedByBody(InputStream is){
+    // A body without Content-Type which turns out not to be JSON is ignored, like it was before the response
+    // was streamed. Only the messages in front of the malformed part have been handed to the handler then.
+    // Errors of the connection itself are still thrown. An empty body doesn't get here, so the JSON stream has
+    // already started with the first object and an unexpected end means the response has been cut off.
+    private void processJsonStreamIfValid(InputStream is) throws IOException {
         try {
-            JsonReader json = new JsonReader(new InputStreamReader(is));
-            JsonParser parser = new JsonParser();
-            parser.parse(json);
-            // No exception until here: Content is JSON.
-        } catch (JsonIOException | JsonSyntaxException e){
+            EntityStreamReaderUtil.processJsonStream(handler, is);
+        } catch (MalformedJsonException e) {
+            // No JSON.
+        } catch (JsonSyntaxException e) {
+            if (e.getCause() instanceof EOFException) {
+                throw (EOFException) e.getCause();
+            }
             // No JSON.
-            return false;
         }
-        return true;
     }
 
     private static boolean isMissingContentType(HttpResponse response){
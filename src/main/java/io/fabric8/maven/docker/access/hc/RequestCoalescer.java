@@ -0,0 +1,104 @@
+package io.fabric8.maven.docker.access.hc;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.access.hc.ApacheHttpClientDelegate.HttpBodyAndStatus;
+import io.fabric8.maven.docker.access.hc.http.HttpRequestException;
+
+/**
+ * Lets concurrent identical requests share a single call. The first caller for a key performs the call, all
+ * callers arriving while it is in flight wait for it and get its result or its exception. A result is never
+ * kept after the call has finished, so only idempotent requests should be coalesced.
+ * <p>
+ * Only the raw response is shared, which is immutable. Every caller creates its own model objects from it, and
+ * every caller waiting for a failed call gets its own exception wrapping the failure.
+ */
+class RequestCoalescer {
+
+    private final ConcurrentMap<String, CompletableFuture<HttpBodyAndStatus>> inFlight = new ConcurrentHashMap<>();
+
+    // Number of calls which have been saved by joining a call in flight
+    private final AtomicInteger savedCalls = new AtomicInteger();
+
+    /**
+     * Perform a call or join an identical call which is in flight
+     *
+     * @param key identifies the request, e.g. method and URL
+     * @param call performs the request
+     * @return result of the call
+     * @throws IOException if the call fails
+     */
+    HttpBodyAndStatus execute(String key, Call call) throws IOException {
+        CompletableFuture<HttpBodyAndStatus> future = new CompletableFuture<>();
+        CompletableFuture<HttpBodyAndStatus> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            savedCalls.incrementAndGet();
+            return await(running, key);
+        }
+        try {
+            HttpBodyAndStatus result = call.call();
+            future.complete(result);
+            return result;
+        } catch (IOException | RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * @return number of calls which have been saved so far
+     */
+    int getSavedCalls() {
+        return savedCalls.get();
+    }
+
+    private static HttpBodyAndStatus await(CompletableFuture<HttpBodyAndStatus> running, String key) throws IOException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DockerAccessException("Interrupted while waiting for %s", key);
+        } catch (ExecutionException e) {
+            throw wrap(e.getCause());
+        }
+    }
+
+    // Exception of the same kind and with the same message for a waiting caller, so that its stack trace
+    // shows where this caller has been waiting. The original exception is the cause.
+    private static IOException wrap(Throwable cause) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw new RuntimeException(cause.getMessage(), cause);
+        }
+        if (cause instanceof DockerAccessException) {
+            // Not as cause, as its message would be appended to the message again
+            DockerAccessException ret = new DockerAccessException(cause.getMessage());
+            ret.addSuppressed(cause);
+            return ret;
+        }
+        if (cause instanceof HttpRequestException) {
+            IOException ret = new HttpRequestException(cause.getMessage());
+            ret.initCause(cause);
+            return ret;
+        }
+        return new IOException(cause.getMessage(), cause);
+    }
+
+    /**
+     * A request to the Docker daemon
+     */
+    @FunctionalInterface
+    interface Call {
+        HttpBodyAndStatus call() throws IOException;
+    }
+}
@@ -0,0 +1,57 @@
+package io.fabric8.maven.docker.access.hc.http;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+import io.fabric8.maven.docker.access.log.LogPump;
+
+/**
+ * Connector for following logs over a plain TCP connection
+ */
+public class TcpLogConnector implements LogPump.Connector {
+
+    private final String host;
+    private final int port;
+
+    public TcpLogConnector(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    public SelectableChannel connect() throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.socket().setKeepAlive(true);
+            channel.connect(new InetSocketAddress(host, port));
+            return channel;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean finishConnect(SelectableChannel channel) throws IOException {
+        return ((SocketChannel) channel).finishConnect();
+    }
+
+    @Override
+    public boolean isConnectionPending(SelectableChannel channel) {
+        return ((SocketChannel) channel).isConnectionPending();
+    }
+
+    @Override
+    public Selector openSelector() throws IOException {
+        return Selector.open();
+    }
+
+    @Override
+    public String getHostHeader() {
+        return host + ":" + port;
+    }
+}
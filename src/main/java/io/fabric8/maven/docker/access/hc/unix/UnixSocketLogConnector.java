@@ -0,0 +1,57 @@
+package io.fabric8.maven.docker.access.hc.unix;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.Selector;
+
+import io.fabric8.maven.docker.access.log.LogPump;
+import jnr.enxio.channels.NativeSelectorProvider;
+import jnr.unixsocket.UnixSocketAddress;
+import jnr.unixsocket.UnixSocketChannel;
+
+/**
+ * Connector for following logs over a Unix socket. Native channels can only be selected by the
+ * native selector of jnr. The connection is opened blocking, as connecting to a local socket never waits
+ * on the network. Only sending the request and reading the response are non-blocking.
+ */
+public class UnixSocketLogConnector implements LogPump.Connector {
+
+    private final String unixSocketPath;
+
+    public UnixSocketLogConnector(String unixSocketPath) {
+        this.unixSocketPath = unixSocketPath;
+    }
+
+    @Override
+    public SelectableChannel connect() throws IOException {
+        UnixSocketChannel channel = UnixSocketChannel.open(new UnixSocketAddress(new File(unixSocketPath)));
+        try {
+            channel.configureBlocking(false);
+            return channel;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean finishConnect(SelectableChannel channel) {
+        return true;
+    }
+
+    @Override
+    public boolean isConnectionPending(SelectableChannel channel) {
+        return false;
+    }
+
+    @Override
+    public Selector openSelector() throws IOException {
+        return NativeSelectorProvider.getInstance().openSelector();
+    }
+
+    @Override
+    public String getHostHeader() {
+        return "localhost";
+    }
+}
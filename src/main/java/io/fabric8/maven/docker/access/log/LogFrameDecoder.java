@@ -0,0 +1,214 @@
+package io.fabric8.maven.docker.access.log;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.function.Consumer;
+
+import io.fabric8.maven.docker.util.TimestampFactory;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Incremental decoder for the multiplexed log stream returned by <code>/containers/{id}/logs</code>.
+ * Each frame has an 8 byte header holding the stream type in the first byte and the size of the payload
+ * in the last four bytes. The payload is a log entry with a leading timestamp, optionally in brackets.
+ * <p>
+ * Data can be fed in arbitrary pieces. The header and payload buffers are reused between frames, and the
+ * timestamp is parsed directly from the payload bytes. A multi-byte UTF-8 character which is split between
+ * two frames of the same stream (as Docker does for long lines) is carried over to the next frame. As the
+ * logs are always requested with timestamps, a frame without a valid timestamp is reported as error and
+ * skipped. Decoding continues with the next frame.
+ * <p>
+ * This class is not thread-safe.
+ */
+class LogFrameDecoder {
+
+    static final int FRAME_HEADER_SIZE = 8;
+
+    // Room in front of the payload for the bytes carried over from the previous frame
+    private static final int CARRY_MAX = 3;
+
+    private static final int INITIAL_PAYLOAD_SIZE = 1024;
+
+    private final LogCallback callback;
+    private final Consumer<ZonedDateTime> timestampListener;
+
+    private final byte[] header = new byte[FRAME_HEADER_SIZE];
+    private int headerPos;
+
+    // Payload starts at CARRY_MAX, payloadEnd < 0 if no payload is being read
+    private byte[] payload = new byte[CARRY_MAX + INITIAL_PAYLOAD_SIZE];
+    private int payloadPos;
+    private int payloadEnd = -1;
+
+    // Incomplete UTF-8 sequence at the end of the last frame, per stream type (stdin, stdout, stderr)
+    private final byte[][] carry = new byte[3][CARRY_MAX];
+    private final int[] carryLength = new int[3];
+    private final ZonedDateTime[] carryTimestamp = new ZonedDateTime[3];
+
+    /**
+     * Create a decoder
+     *
+     * @param callback callback to call for each log entry
+     * @param timestampListener called with the timestamp of each entry which has one. Can be <code>null</code>.
+     */
+    LogFrameDecoder(LogCallback callback, Consumer<ZonedDateTime> timestampListener) {
+        this.callback = callback;
+        this.timestampListener = timestampListener;
+    }
+
+    /**
+     * Decode the next piece of the stream and call the callback for each completed frame
+     *
+     * @param data buffer holding the data
+     * @param offset start of the data
+     * @param length number of bytes to decode
+     * @throws LogCallback.DoneException if the callback is done
+     */
+    void decode(byte[] data, int offset, int length) throws LogCallback.DoneException {
+        int pos = offset;
+        int end = offset + length;
+        while (pos < end) {
+            if (payloadEnd < 0) {
+                int toCopy = Math.min(FRAME_HEADER_SIZE - headerPos, end - pos);
+                System.arraycopy(data, pos, header, headerPos, toCopy);
+                headerPos += toCopy;
+                pos += toCopy;
+                if (headerPos == FRAME_HEADER_SIZE) {
+                    headerPos = 0;
+                    startPayload(frameSize());
+                }
+            } else {
+                int toCopy = Math.min(payloadEnd - payloadPos, end - pos);
+                System.arraycopy(data, pos, payload, payloadPos, toCopy);
+                payloadPos += toCopy;
+                pos += toCopy;
+                if (payloadPos == payloadEnd) {
+                    payloadEnd = -1;
+                    dispatch(header[0], payloadPos);
+                }
+            }
+        }
+    }
+
+    /**
+     * Pass on the bytes still carried over for the next frame and check that the stream didn't end in
+     * the middle of a frame
+     *
+     * @throws IOException if a frame is incomplete
+     * @throws LogCallback.DoneException if the callback is done
+     */
+    void finish() throws IOException, LogCallback.DoneException {
+        for (int stream = 0; stream < carry.length; stream++) {
+            if (carryLength[stream] > 0) {
+                // Incomplete character without a continuation, ends up as U+FFFD
+                String rest = new String(carry[stream], 0, carryLength[stream], StandardCharsets.UTF_8);
+                carryLength[stream] = 0;
+                callback.log(stream, carryTimestamp[stream], rest);
+            }
+        }
+        if (headerPos > 0) {
+            throw new IOException("Failed to read log header. Could not read all " + FRAME_HEADER_SIZE + " bytes. " +
+                                  "Reached end of stream after reading " + headerPos + " bytes");
+        }
+        if (payloadEnd >= 0) {
+            throw new IOException("Failed to read log message. Could not read all " + (payloadEnd - CARRY_MAX) + " bytes. " +
+                                  "Reached end of stream after reading " + (payloadPos - CARRY_MAX) + " bytes" +
+                                  " [ Header: " + Hex.encodeHexString(header) + "]");
+        }
+    }
+
+    // ===========================================================================================
+
+    private int frameSize() {
+        return (header[4] & 0xff) << 24 | (header[5] & 0xff) << 16 | (header[6] & 0xff) << 8 | (header[7] & 0xff);
+    }
+
+    private void startPayload(int size) {
+        // Empty frames are ignored
+        if (size <= 0) {
+            return;
+        }
+        if (payload.length < CARRY_MAX + size) {
+            payload = new byte[CARRY_MAX + size];
+        }
+        payloadPos = CARRY_MAX;
+        payloadEnd = CARRY_MAX + size;
+    }
+
+    private void dispatch(int type, int end) throws LogCallback.DoneException {
+        int start = CARRY_MAX;
+
+        // Split off the timestamp: "[<timestamp>] <entry>" or "<timestamp> <entry>"
+        int pos = start;
+        if (payload[pos] == '[') {
+            pos++;
+        }
+        int timestampStart = pos;
+        while (pos < end && !isWhitespace(payload[pos]) && payload[pos] != ']') {
+            pos++;
+        }
+        int timestampEnd = pos;
+        if (pos < end && payload[pos] == ']') {
+            pos++;
+        }
+        ZonedDateTime timestamp = pos < end && payload[pos] == ' ' ?
+            TimestampFactory.parseTimestamp(payload, timestampStart, timestampEnd - timestampStart) :
+            null;
+        if (timestamp == null) {
+            callback.error(String.format("Invalid log format for '%s' (expected: \"<timestamp> <txt>\")",
+                                         new String(payload, start, end - start, StandardCharsets.UTF_8)));
+            return;
+        }
+        if (timestampListener != null) {
+            timestampListener.accept(timestamp);
+        }
+        int entryStart = pos + 1;
+
+        // Prepend the rest of a character from the previous frame. There is always room in front of the entry
+        // as the carry bytes are at most as many as reserved before the payload.
+        int stream = type >= 0 && type < carry.length ? type : -1;
+        if (stream >= 0 && carryLength[stream] > 0) {
+            entryStart -= carryLength[stream];
+            System.arraycopy(carry[stream], 0, payload, entryStart, carryLength[stream]);
+            carryLength[stream] = 0;
+        }
+
+        int entryEnd = end;
+        int incomplete = stream >= 0 ? incompleteSequenceLength(payload, entryStart, entryEnd) : 0;
+        if (incomplete > 0) {
+            // The line continues in the next frame, so don't trim it
+            entryEnd -= incomplete;
+            System.arraycopy(payload, entryEnd, carry[stream], 0, incomplete);
+            carryLength[stream] = incomplete;
+            carryTimestamp[stream] = timestamp;
+        } else {
+            while (entryEnd > entryStart && isWhitespace(payload[entryEnd - 1])) {
+                entryEnd--;
+            }
+        }
+
+        // Malformed sequences are replaced with U+FFFD
+        callback.log(type, timestamp, new String(payload, entryStart, entryEnd - entryStart, StandardCharsets.UTF_8));
+    }
+
+    // Number of bytes of a multi-byte UTF-8 sequence at the end which is not complete yet
+    static int incompleteSequenceLength(byte[] data, int start, int end) {
+        int continuations = 0;
+        for (int i = end - 1; i >= start && continuations < CARRY_MAX; i--) {
+            int b = data[i] & 0xff;
+            if ((b & 0xc0) == 0x80) {
+                continuations++;
+                continue;
+            }
+            int expected = (b & 0xe0) == 0xc0 ? 2 : (b & 0xf0) == 0xe0 ? 3 : (b & 0xf8) == 0xf0 ? 4 : 1;
+            return expected > continuations + 1 ? continuations + 1 : 0;
+        }
+        return 0;
+    }
+
+    // Same as \s in a regular expression
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == 0x0b || b == '\f' || b == '\r';
+    }
+}
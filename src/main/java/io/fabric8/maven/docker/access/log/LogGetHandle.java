@@ -28,4 +28,13 @@ public interface LogGetHandle {
     boolean isError();
 
     DockerAccessException getException();
+
+    /**
+     * Get statistics about the log stream
+     *
+     * @return statistics or null if the handle doesn't collect any
+     */
+    default LogStreamStatistics getStatistics() {
+        return null;
+    }
 }
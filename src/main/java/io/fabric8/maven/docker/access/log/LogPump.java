@@ -0,0 +1,229 @@
+package io.fabric8.maven.docker.access.log;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Follows the logs of many containers with a small, fixed number of threads. Each log stream has its
+ * own connection to the Docker daemon, but all connections are read non-blocking by a few selector
+ * threads instead of a thread and an HTTP client per container as done by {@link LogRequestor}.
+ * <p>
+ * Selector threads are started when the first stream is assigned to them and stop again when all
+ * their streams have finished. Connecting, sending the request and reading the response are all done
+ * by the selector threads, so that following the logs of a container never blocks the caller. Errors are
+ * reported to the callbacks of the affected streams, as the selector threads are shared by all callers.
+ */
+public class LogPump {
+
+    private final Connector connector;
+    private final Worker[] workers;
+    private final AtomicInteger nextWorker = new AtomicInteger();
+
+    /**
+     * Create a log pump
+     *
+     * @param connector used for opening connections to the Docker daemon
+     * @param threads number of selector threads to use
+     */
+    public LogPump(Connector connector, int threads) {
+        this.connector = connector;
+        this.workers = new Worker[Math.max(1, threads)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(i);
+        }
+    }
+
+    /**
+     * Follow the logs for a container. The connection is opened, the request sent and the response read in the background.
+     *
+     * @param containerId container whose logs to follow
+     * @param url the url for following the logs
+     * @param callback callback to call for each log entry
+     * @return handle for stopping to follow the logs
+     */
+    public LogGetHandle follow(String containerId, String url, LogCallback callback) {
+        LogStream stream = new LogStream(containerId, callback, connector, createRequest(url));
+        try {
+            callback.open();
+            stream.connected(connector.connect());
+            workers[Math.floorMod(nextWorker.getAndIncrement(), workers.length)].add(stream);
+        } catch (IOException e) {
+            stream.failed("IO Error while requesting logs: " + e);
+        }
+        return stream;
+    }
+
+    private ByteBuffer createRequest(String url) {
+        URI uri = URI.create(url);
+        String path = uri.getRawPath() + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+        String request = "GET " + path + " HTTP/1.1\r\n" +
+                         "Host: " + connector.getHostHeader() + "\r\n" +
+                         "Accept: */*\r\n" +
+                         "\r\n";
+        return ByteBuffer.wrap(request.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Get the statistics of all streams which are currently followed
+     *
+     * @return list of statistics
+     */
+    public List<LogStreamStatistics> getStatistics() {
+        List<LogStreamStatistics> ret = new ArrayList<>();
+        for (Worker worker : workers) {
+            worker.collectStatistics(ret);
+        }
+        return ret;
+    }
+
+    /**
+     * Opens connections to the Docker daemon for a certain transport
+     */
+    public interface Connector {
+
+        /**
+         * Start to open a connection to the Docker daemon
+         *
+         * @return a channel in non-blocking mode which must also be a {@link ByteChannel}. The connection
+         *         might still be pending and is completed with {@link #finishConnect(SelectableChannel)}.
+         * @throws IOException if the connection can't be opened
+         */
+        SelectableChannel connect() throws IOException;
+
+        /**
+         * Finish opening a connection when the channel is ready to connect
+         *
+         * @param channel channel as returned by {@link #connect()}
+         * @return true if the channel is connected, false if the connection is still pending
+         * @throws IOException if the connection can't be opened
+         */
+        boolean finishConnect(SelectableChannel channel) throws IOException;
+
+        /**
+         * Check whether the connection of a channel is still pending
+         *
+         * @param channel channel as returned by {@link #connect()}
+         * @return true if {@link #finishConnect(SelectableChannel)} must be called before using the channel
+         */
+        boolean isConnectionPending(SelectableChannel channel);
+
+        /**
+         * Open a selector which is able to select the channels created by {@link #connect()}
+         *
+         * @return new selector
+         * @throws IOException if the selector can't be opened
+         */
+        Selector openSelector() throws IOException;
+
+        /**
+         * @return value for the host header of a request
+         */
+        String getHostHeader();
+    }
+
+    // Selector thread reading a share of the streams
+    private class Worker implements Runnable {
+
+        private final int index;
+        private final Queue<LogStream> pending = new ConcurrentLinkedQueue<>();
+        private final List<LogStream> streams = new ArrayList<>();
+
+        private Selector selector;
+        private boolean running;
+
+        Worker(int index) {
+            this.index = index;
+        }
+
+        synchronized void add(LogStream stream) throws IOException {
+            if (!running) {
+                selector = connector.openSelector();
+                running = true;
+                Thread thread = new Thread(this, "docker-log-pump-" + index);
+                thread.setDaemon(true);
+                thread.start();
+            }
+            stream.assigned(selector);
+            streams.add(stream);
+            pending.add(stream);
+            selector.wakeup();
+        }
+
+        synchronized void collectStatistics(List<LogStreamStatistics> stats) {
+            for (LogStream stream : streams) {
+                stats.add(stream.getStatistics());
+            }
+        }
+
+        @Override
+        public void run() {
+            Selector sel = getSelector();
+            try {
+                while (!shallStop(sel)) {
+                    registerPending(sel);
+                    sel.select();
+                    for (SelectionKey key : sel.selectedKeys()) {
+                        LogStream stream = (LogStream) key.attachment();
+                        if (!key.isValid() || !stream.process(key)) {
+                            key.cancel();
+                            stream.finish();
+                        }
+                    }
+                    sel.selectedKeys().clear();
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                stopAll(sel, "Error while following container logs: " + e.getMessage());
+            }
+        }
+
+        private synchronized Selector getSelector() {
+            return selector;
+        }
+
+        private void registerPending(Selector sel) {
+            LogStream stream;
+            while ((stream = pending.poll()) != null) {
+                stream.register(sel);
+            }
+        }
+
+        // Stop the thread when all streams are done
+        private synchronized boolean shallStop(Selector sel) throws IOException {
+            streams.removeIf(LogStream::isFinished);
+            if (streams.isEmpty() && pending.isEmpty()) {
+                running = false;
+                // Deregister cancelled keys before closing
+                sel.selectNow();
+                sel.close();
+                return true;
+            }
+            return false;
+        }
+
+        private synchronized void stopAll(Selector sel, String error) {
+            for (LogStream stream : streams) {
+                stream.failed(error);
+            }
+            streams.clear();
+            pending.clear();
+            running = false;
+            try {
+                sel.close();
+            } catch (IOException e) {
+                // Selector is not used anymore
+            }
+        }
+    }
+}
@@ -15,26 +15,16 @@ package io.fabric8.maven.docker.access.log;/*
  * limitations under the License.
  */
 
-import com.google.common.io.ByteStreams;
 import io.fabric8.maven.docker.access.DockerAccessException;
 import io.fabric8.maven.docker.access.UrlBuilder;
 import io.fabric8.maven.docker.access.util.RequestUtil;
-import io.fabric8.maven.docker.util.TimestampFactory;
-import org.apache.commons.codec.binary.Hex;
 import org.apache.http.HttpResponse;
 import org.apache.http.StatusLine;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.impl.client.CloseableHttpClient;
 
-import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.charset.StandardCharsets;
-import java.time.ZonedDateTime;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Extractor for parsing the response of a log request
@@ -43,8 +33,8 @@ import java.util.regex.Pattern;
  * @since 28/11/14
  */
 public class LogRequestor extends Thread implements LogGetHandle {
-    // Patter for matching log entries
-    static final Pattern LOG_LINE = Pattern.compile("^\\[?(?<timestamp>[^\\s\\]]*)]? (?<entry>.*?)\\s*$", Pattern.DOTALL);
+    private static final int BUFFER_SIZE = 8192;
+
     private final CloseableHttpClient client;
 
     private final String containerId;
@@ -111,69 +101,6 @@ public class LogRequestor extends Thread implements LogGetHandle {
         }
     }
 
-    private static class NoBytesReadException extends IOException {
-        public NoBytesReadException() {
-        }
-    }
-
-    /**
-     * This is a copy of ByteStreams.readFully(), with the slight change that it throws
-     * NoBytesReadException if zero bytes are read. Otherwise it is identical.
-     *
-     * @param in
-     * @param bytes
-     * @throws IOException
-     */
-    private void readFully(InputStream in, byte[] bytes) throws IOException {
-        int read = ByteStreams.read(in, bytes, 0, bytes.length);
-        if (read == 0) {
-            throw new NoBytesReadException();
-        } else if (read != bytes.length) {
-            throw new EOFException("reached end of stream after reading "
-                    + read + " bytes; " + bytes.length + " bytes expected");
-        }
-    }
-
-    private boolean readStreamFrame(InputStream is) throws IOException, LogCallback.DoneException {
-        // Read the header, which is composed of eight bytes. The first byte is an integer
-        // indicating the stream type (0 = stdin, 1 = stdout, 2 = stderr), the next three are thrown
-        // out, and the final four are the size of the remaining stream as an integer.
-        ByteBuffer headerBuffer = ByteBuffer.allocate(8);
-        headerBuffer.order(ByteOrder.BIG_ENDIAN);
-        try {
-            this.readFully(is, headerBuffer.array());
-        } catch (NoBytesReadException e) {
-            // Not bytes read for stream. Return false to stop consuming stream.
-            return false;
-        } catch (EOFException e) {
-            throw new IOException("Failed to read log header. Could not read all 8 bytes. " + e.getMessage(), e);
-        }
-
-        // Grab the stream type (stdout, stderr, stdin) from first byte and throw away other 3 bytes.
-        int type = headerBuffer.get();
-
-        // Skip three bytes, then read size from remaining four bytes.
-        int size = headerBuffer.getInt(4);
-
-        // Ignore empty messages and keep reading.
-        if (size <= 0) {
-            return true;
-        }
-
-        // Read the actual message
-        ByteBuffer payload = ByteBuffer.allocate(size);
-        try {
-            ByteStreams.readFully(is, payload.array());
-        } catch (EOFException e) {
-            throw new IOException("Failed to read log message. Could not read all " + size + " bytes. " + e.getMessage() +
-                                  " [ Header: " + Hex.encodeHexString(headerBuffer.array()) + "]", e);
-        }
-
-        String message = StandardCharsets.UTF_8.decode(payload).toString();
-        callLogCallback(type, message);
-        return true;
-    }
-
     private void parseResponse(HttpResponse response) throws LogCallback.DoneException, IOException {
         final StatusLine status = response.getStatusLine();
         if (status.getStatusCode() != 200) {
@@ -182,24 +109,14 @@ public class LogRequestor extends Thread implements LogGetHandle {
         }
 
         final InputStream is = response.getEntity().getContent();
-       
-        while (true) {
-            if (!readStreamFrame(is)) {
-                return;
-            }
-        }
-    }
-
-    private void callLogCallback(int type, String txt) throws LogCallback.DoneException {
-        Matcher matcher = LOG_LINE.matcher(txt);
-        if (!matcher.matches()) {
-            callback.error(String.format("Invalid log format for '%s' (expected: \"<timestamp> <txt>\") [%04x %04x]",
-                                         txt,(int) (txt.toCharArray())[0],(int) (txt.toCharArray())[1]));
-            throw new LogCallback.DoneException();
+        final LogFrameDecoder decoder = new LogFrameDecoder(callback, null);
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        // Decode whatever is available, frames can span multiple reads
+        while ((read = is.read(buffer)) >= 0) {
+            decoder.decode(buffer, 0, read);
         }
-        ZonedDateTime ts = TimestampFactory.createTimestamp(matcher.group("timestamp"));
-        String logTxt = matcher.group("entry");
-        callback.log(type, ts, logTxt);
+        decoder.finish();
     }
 
     private HttpUriRequest getLogRequest(boolean follow) {
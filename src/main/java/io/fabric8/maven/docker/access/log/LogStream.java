@@ -0,0 +1,297 @@
+package io.fabric8.maven.docker.access.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.fabric8.maven.docker.access.DockerAccessException;
+
+/**
+ * A single log stream followed by the {@link LogPump}. The connection is completed and the request is sent
+ * when the channel is ready for it, the HTTP response and the multiplexed log frames are decoded
+ * incrementally from whatever the non-blocking channel returns.
+ */
+class LogStream implements LogGetHandle {
+
+    private static final int BUFFER_SIZE = 16384;
+
+    private enum State { STATUS_LINE, HEADERS, CHUNK_SIZE, CHUNK_DATA, CHUNK_END, BODY }
+
+    private final String containerId;
+    private final LogCallback callback;
+    private final LogPump.Connector connector;
+    // Request to send, only accessed by the selector thread
+    private final ByteBuffer request;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final AtomicBoolean callbackClosed = new AtomicBoolean();
+
+    private volatile SelectableChannel channel;
+    private volatile Selector selector;
+    private volatile boolean finished;
+    private volatile DockerAccessException exception;
+
+    private volatile long bytesRead;
+    private volatile long lagMillis;
+    private volatile long maxLagMillis;
+
+    // HTTP response decoding, only accessed by the selector thread
+    private State state = State.STATUS_LINE;
+    private final StringBuilder line = new StringBuilder();
+    private String statusLine;
+    private boolean chunked;
+    private long chunkRemaining;
+
+    // Log frame decoding, only accessed by the selector thread
+    private final LogFrameDecoder frameDecoder;
+
+    LogStream(String containerId, LogCallback callback, LogPump.Connector connector, ByteBuffer request) {
+        this.containerId = containerId;
+        this.callback = callback;
+        this.connector = connector;
+        this.request = request;
+        this.frameDecoder = new LogFrameDecoder(callback, this::updateLag);
+    }
+
+    void connected(SelectableChannel channel) {
+        this.channel = channel;
+    }
+
+    void assigned(Selector selector) {
+        this.selector = selector;
+    }
+
+    void register(Selector sel) {
+        try {
+            int ops = connector.isConnectionPending(channel) ? SelectionKey.OP_CONNECT : SelectionKey.OP_WRITE;
+            channel.register(sel, ops, this);
+        } catch (IOException e) {
+            // Channel has been closed in between
+            finish();
+        }
+    }
+
+    /**
+     * Continue with the stream when its channel is ready: complete the connection, send the request or
+     * read the response
+     *
+     * @param key selection key of the channel
+     * @return false if the stream has ended
+     */
+    boolean process(SelectionKey key) {
+        if (key.isReadable()) {
+            return read();
+        }
+        try {
+            if (key.isConnectable()) {
+                if (connector.finishConnect(channel)) {
+                    key.interestOps(SelectionKey.OP_WRITE);
+                }
+            } else if (key.isWritable()) {
+                ((ByteChannel) channel).write(request);
+                if (!request.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            ioError(e);
+            return false;
+        }
+    }
+
+    /**
+     * Read the next data from the channel
+     *
+     * @return false if the stream has ended
+     */
+    private boolean read() {
+        if (finished) {
+            return false;
+        }
+        try {
+            buffer.clear();
+            int read = ((ByteChannel) channel).read(buffer);
+            if (read >= 0) {
+                bytesRead += read;
+                buffer.flip();
+                if (decode(buffer)) {
+                    return true;
+                }
+            }
+            // End of the response, pass on what is left in the decoder
+            frameDecoder.finish();
+            return false;
+        } catch (IOException e) {
+            ioError(e);
+            return false;
+        } catch (LogCallback.DoneException e) {
+            // Signifies we're finished with the log stream.
+            return false;
+        } catch (RuntimeException e) {
+            // Don't let a single broken stream stop the other streams of the selector thread
+            callback.error("Invalid log entry: " + e);
+            return false;
+        }
+    }
+
+    boolean isFinished() {
+        if (finished) {
+            closeCallback();
+        }
+        return finished;
+    }
+
+    void failed(String error) {
+        callback.error(error);
+        finish();
+        closeCallback();
+    }
+
+    @Override
+    public void finish() {
+        finished = true;
+        SelectableChannel toClose = channel;
+        if (toClose != null) {
+            try {
+                toClose.close();
+            } catch (IOException e) {
+                // Connection is not used anymore
+            }
+        }
+        Selector sel = selector;
+        if (sel != null) {
+            sel.wakeup();
+        }
+    }
+
+    @Override
+    public boolean isError() {
+        return exception != null;
+    }
+
+    @Override
+    public DockerAccessException getException() {
+        return exception;
+    }
+
+    @Override
+    public LogStreamStatistics getStatistics() {
+        return new LogStreamStatistics(containerId, bytesRead, lagMillis, maxLagMillis);
+    }
+
+    // ===========================================================================================
+
+    private void ioError(IOException e) {
+        if (!finished) {
+            exception = new DockerAccessException(e, "IO Error while requesting logs");
+            callback.error("IO Error while requesting logs: " + e);
+        }
+    }
+
+    private void closeCallback() {
+        if (callbackClosed.compareAndSet(false, true)) {
+            callback.close();
+        }
+    }
+
+    private boolean decode(ByteBuffer data) throws IOException, LogCallback.DoneException {
+        while (data.hasRemaining()) {
+            switch (state) {
+                case STATUS_LINE:
+                case HEADERS:
+                case CHUNK_SIZE:
+                case CHUNK_END:
+                    if (readLine(data) && !processLine(line.toString())) {
+                        return false;
+                    }
+                    break;
+                case CHUNK_DATA:
+                    int len = (int) Math.min(chunkRemaining, data.remaining());
+                    decodeFrames(data, len);
+                    chunkRemaining -= len;
+                    if (chunkRemaining == 0) {
+                        state = State.CHUNK_END;
+                    }
+                    break;
+                case BODY:
+                    decodeFrames(data, data.remaining());
+                    break;
+            }
+        }
+        return true;
+    }
+
+    // Collect a line, returns true if the line is complete
+    private boolean readLine(ByteBuffer data) {
+        while (data.hasRemaining()) {
+            char c = (char) (data.get() & 0xff);
+            if (c == '\n') {
+                return true;
+            } else if (c != '\r') {
+                line.append(c);
+            }
+        }
+        return false;
+    }
+
+    private boolean processLine(String text) throws IOException {
+        line.setLength(0);
+        switch (state) {
+            case STATUS_LINE:
+                statusLine = text;
+                state = State.HEADERS;
+                return true;
+            case HEADERS:
+                if (!text.isEmpty()) {
+                    String header = text.toLowerCase(Locale.ROOT);
+                    if (header.startsWith("transfer-encoding:") && header.contains("chunked")) {
+                        chunked = true;
+                    }
+                    return true;
+                }
+                return checkStatus();
+            case CHUNK_SIZE:
+                int idx = text.indexOf(';');
+                try {
+                    chunkRemaining = Long.parseLong((idx >= 0 ? text.substring(0, idx) : text).trim(), 16);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid chunk size '" + text + "'", e);
+                }
+                state = chunkRemaining > 0 ? State.CHUNK_DATA : State.CHUNK_SIZE;
+                return chunkRemaining > 0;
+            case CHUNK_END:
+            default:
+                state = State.CHUNK_SIZE;
+                return true;
+        }
+    }
+
+    private boolean checkStatus() {
+        String[] parts = statusLine != null ? statusLine.split(" ", 3) : new String[0];
+        if (parts.length < 2 || !"200".equals(parts[1])) {
+            exception = new DockerAccessException("Error while reading logs (" + statusLine + ")");
+            return false;
+        }
+        state = chunked ? State.CHUNK_SIZE : State.BODY;
+        return true;
+    }
+
+    private void decodeFrames(ByteBuffer data, int len) throws LogCallback.DoneException {
+        frameDecoder.decode(data.array(), data.arrayOffset() + data.position(), len);
+        data.position(data.position() + len);
+    }
+
+    private void updateLag(ZonedDateTime timestamp) {
+        long lag = Math.max(0, System.currentTimeMillis() - timestamp.toInstant().toEpochMilli());
+        lagMillis = lag;
+        if (lag > maxLagMillis) {
+            maxLagMillis = lag;
+        }
+    }
+}
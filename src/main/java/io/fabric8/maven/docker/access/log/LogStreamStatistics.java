@@ -0,0 +1,51 @@
+package io.fabric8.maven.docker.access.log;
+
+/**
+ * Statistics of a followed log stream
+ */
+public class LogStreamStatistics {
+
+    private final String containerId;
+    private final long bytesRead;
+    private final long lagMillis;
+    private final long maxLagMillis;
+
+    public LogStreamStatistics(String containerId, long bytesRead, long lagMillis, long maxLagMillis) {
+        this.containerId = containerId;
+        this.bytesRead = bytesRead;
+        this.lagMillis = lagMillis;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    public String getContainerId() {
+        return containerId;
+    }
+
+    /**
+     * @return number of bytes read from the connection
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * @return time between the timestamp of the last log entry and its delivery to the callback
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    /**
+     * @return maximum lag of all log entries received so far
+     */
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d bytes read, lag %d ms (max %d ms)",
+                             containerId.length() > 12 ? containerId.substring(0, 12) : containerId,
+                             bytesRead, lagMillis, maxLagMillis);
+    }
+}
@@ -0,0 +1,166 @@
+package io.fabric8.maven.docker.assembly;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import io.fabric8.maven.docker.access.BuildContextWriter;
+import io.fabric8.maven.docker.config.ArchiveCompression;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.codehaus.plexus.archiver.ArchiveEntry;
+import org.codehaus.plexus.archiver.ResourceIterator;
+import org.codehaus.plexus.archiver.tar.TarArchiver;
+import org.codehaus.plexus.components.io.functions.SymlinkDestinationSupplier;
+import org.codehaus.plexus.util.StringUtils;
+
+/**
+ * A prepared docker build context. Assemblies and the Dockerfile are already created in the build directory,
+ * and the archiver knows all files which make up the build context. From here the context can be written
+ * to an archive file or streamed, or a digest over its content can be calculated.
+ * <p>
+ * The digest must be calculated before the archive is created, as the archiver drops its resources after
+ * creating the archive.
+ */
+public class BuildContextArchive {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int READ_BUFFER_SIZE = 65536;
+
+    private final TarArchiver archiver;
+    private final ArchiveCompression compression;
+    private final BuildDirs buildDirs;
+    // Directory holding the ignore and include rules, null if no context directory is used
+    private final File contextDir;
+
+    BuildContextArchive(TarArchiver archiver, ArchiveCompression compression, BuildDirs buildDirs, File contextDir) {
+        this.archiver = archiver;
+        this.compression = compression;
+        this.buildDirs = buildDirs;
+        this.contextDir = contextDir;
+    }
+
+    /**
+     * Create the archive file in the temporary directory of the build
+     *
+     * @return the created archive
+     * @throws MojoExecutionException if the archive can't be created
+     */
+    public File create() throws MojoExecutionException {
+        File archiveFile = new File(buildDirs.getTemporaryRootDirectory(), "docker-build." + compression.getFileSuffix());
+        try {
+            archiver.setDestFile(archiveFile);
+            archiver.setCompression(compression.getTarCompressionMethod());
+            archiver.createArchive();
+            return archiveFile;
+        } catch (IOException e) {
+            throw new MojoExecutionException("Cannot create archive " + archiveFile, e);
+        }
+    }
+
+    /**
+     * @return writer which streams the archive instead of creating a file
+     */
+    public BuildContextWriter stream() {
+        return out -> TarStreamWriter.write(archiver, compression, out);
+    }
+
+    /**
+     * Calculate a digest over the content of the build context and other inputs of the build. Only names, types,
+     * modes and contents of the entries are included, but not their modification times, so that a build context
+     * which has been recreated with the same content gets the same digest. The ignore and include rules of the
+     * context directory are included, too.
+     *
+     * @param buildInputs other inputs of the build like build args, may be null
+     * @return digest as <code>sha256:</code> followed by the hex encoded digest
+     * @throws IOException if reading an entry fails
+     */
+    public String digest(Map<String, String> buildInputs) throws IOException {
+        // Resources are collected first and sorted by name, as the order of the archiver is not guaranteed
+        SortedMap<String, byte[]> entries = new TreeMap<>();
+        ResourceIterator resources = archiver.getResources();
+        while (resources.hasNext()) {
+            ArchiveEntry entry = resources.next();
+            String name = StringUtils.replace(entry.getName(), File.separatorChar, '/');
+            entries.put(name, digestEntry(entry));
+        }
+
+        MessageDigest digest = newDigest();
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            update(digest, "entry", entry.getKey());
+            digest.update(entry.getValue());
+        }
+        if (contextDir != null) {
+            for (String rules : new String[] { DockerAssemblyManager.DOCKER_EXCLUDE, DockerAssemblyManager.DOCKER_IGNORE, DockerAssemblyManager.DOCKER_INCLUDE }) {
+                File rulesFile = new File(contextDir, rules);
+                if (rulesFile.exists()) {
+                    update(digest, "rules", rules);
+                    digest.update(Files.readAllBytes(rulesFile.toPath()));
+                }
+            }
+        }
+        if (buildInputs != null) {
+            for (Map.Entry<String, String> input : new TreeMap<>(buildInputs).entrySet()) {
+                update(digest, "input", input.getKey());
+                update(digest, "value", input.getValue());
+            }
+        }
+        return "sha256:" + toHex(digest.digest());
+    }
+
+    /**
+     * @return directories used for creating the build context
+     */
+    public BuildDirs getBuildDirs() {
+        return buildDirs;
+    }
+
+    // ===========================================================================================
+
+    private byte[] digestEntry(ArchiveEntry entry) throws IOException {
+        MessageDigest digest = newDigest();
+        update(digest, "type", String.valueOf(entry.getType()));
+        update(digest, "mode", Integer.toOctalString(entry.getMode()));
+        if (entry.getType() == ArchiveEntry.SYMLINK) {
+            update(digest, "link", ((SymlinkDestinationSupplier) entry.getResource()).getSymlinkDestination());
+        } else if (entry.getType() == ArchiveEntry.FILE) {
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            try (InputStream in = entry.getInputStream()) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    // Each value is prefixed with a key and its length, so that adjacent values can't be confused
+    private static void update(MessageDigest digest, String key, String value) {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        digest.update((key + ":" + bytes.length + ":").getBytes(StandardCharsets.UTF_8));
+        digest.update(bytes);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not supported", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+}
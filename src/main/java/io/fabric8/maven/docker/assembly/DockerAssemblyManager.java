@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
+import io.fabric8.maven.docker.access.BuildContextWriter;
 import io.fabric8.maven.docker.config.ArchiveCompression;
 import io.fabric8.maven.docker.config.Arguments;
 import io.fabric8.maven.docker.config.AssemblyConfiguration;
@@ -147,7 +148,62 @@ public class DockerAssemblyManager {
     public File createDockerTarArchive(String imageName, final MojoParameters params, final BuildImageConfiguration buildConfig, Logger log, ArchiverCustomizer finalCustomizer)
             throws MojoExecutionException {
 
+        return prepareDockerTarArchive(imageName, params, buildConfig, log, finalCustomizer).create();
+    }
+
+    /**
+     * Prepare a docker tar archive from the given configuration which is written to a stream when the returned
+     * writer is called. In contrast to {@link #createDockerTarArchive(String, MojoParameters, BuildImageConfiguration, Logger, ArchiverCustomizer)}
+     * no archive file is created, so that the archive can be sent to the Docker host while it is generated.
+     * Assemblies and the Dockerfile are still created upfront in the build directory.
+     *
+     * @param imageName Name of the image to create (used for creating build directories)
+     * @param params Mojos parameters (used for finding the directories)
+     * @param buildConfig configuration for how to build the image
+     * @param log Logger used to display warning if permissions are to be normalized
+     * @param finalCustomizer finalCustomizer to be applied to the tar archive
+     * @return writer for streaming the tar archive
+     * @throws MojoExecutionException
+     */
+    public BuildContextWriter createDockerTarStream(String imageName, final MojoParameters params, final BuildImageConfiguration buildConfig, Logger log, ArchiverCustomizer finalCustomizer)
+            throws MojoExecutionException {
+
+        return prepareDockerTarArchive(imageName, params, buildConfig, log, finalCustomizer).stream();
+    }
+
+    /**
+     * Prepare a docker tar archive from the given configuration. Assemblies and the Dockerfile are created in the
+     * build directory, but the archive itself is not yet written. The returned build context can then be written
+     * to a file or a stream, and it can calculate a digest over its content for detecting unchanged builds.
+     *
+     * @param imageName Name of the image to create (used for creating build directories)
+     * @param params Mojos parameters (used for finding the directories)
+     * @param buildConfig configuration for how to build the image
+     * @param log Logger used to display warning if permissions are to be normalized
+     * @param finalCustomizer finalCustomizer to be applied to the tar archive
+     * @return the prepared build context
+     * @throws MojoExecutionException
+     */
+    public BuildContextArchive prepareDockerTarArchive(String imageName, final MojoParameters params, final BuildImageConfiguration buildConfig, Logger log, ArchiverCustomizer finalCustomizer)
+            throws MojoExecutionException {
+
         final BuildDirs buildDirs = createBuildDirs(imageName, params);
+        List<ArchiverCustomizer> archiveCustomizers = createArchiveCustomizers(buildDirs, params, buildConfig, log, finalCustomizer);
+        try {
+            TarArchiver archiver = createCustomizedBuildArchiver(buildDirs, archiveCustomizers, buildConfig.getAllAssemblyConfigurations());
+            File contextDir = buildConfig.isDockerFileMode() ? buildConfig.getAbsoluteContextDirPath(params) : null;
+            return new BuildContextArchive(archiver, buildConfig.getCompression(), buildDirs, contextDir);
+        } catch (NoSuchArchiverException e) {
+            throw new MojoExecutionException("No archiver for type 'tar' found", e);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Cannot prepare build context for " + imageName, e);
+        }
+    }
+
+    private List<ArchiverCustomizer> createArchiveCustomizers(final BuildDirs buildDirs, final MojoParameters params, final BuildImageConfiguration buildConfig,
+                                                              Logger log, ArchiverCustomizer finalCustomizer)
+            throws MojoExecutionException {
+
         final List<AssemblyConfiguration> assemblyConfigurations = buildConfig.getAllAssemblyConfigurations();
 
         final List<ArchiverCustomizer> archiveCustomizers = new ArrayList<>();
@@ -216,7 +272,7 @@ public class DockerAssemblyManager {
                 archiveCustomizers.add(finalCustomizer);
             }
 
-            return createBuildTarBall(buildDirs, archiveCustomizers, assemblyConfigurations, buildConfig.getCompression());
+            return archiveCustomizers;
 
         } catch (IOException e) {
             throw new MojoExecutionException(String.format("Cannot create %s in %s", DOCKERFILE_NAME, buildDirs.getOutputDirectory()), e);
@@ -362,25 +418,16 @@ public class DockerAssemblyManager {
         return new File(archiveDir,relativePath);
     }
 
-    // Create final tar-ball to be used for building the archive to send to the Docker daemon
-    private File createBuildTarBall(BuildDirs buildDirs, List<ArchiverCustomizer> archiverCustomizers,
-                                    List<AssemblyConfiguration> assemblyConfig, ArchiveCompression compression) throws MojoExecutionException {
-        File archive = new File(buildDirs.getTemporaryRootDirectory(), "docker-build." + compression.getFileSuffix());
-        try {
-            TarArchiver archiver = createBuildArchiver(buildDirs.getOutputDirectory(), archive, assemblyConfig);
-            for (ArchiverCustomizer customizer : archiverCustomizers) {
-                if (customizer != null) {
-                    archiver = customizer.customize(archiver);
-                }
+    private TarArchiver createCustomizedBuildArchiver(BuildDirs buildDirs, List<ArchiverCustomizer> archiverCustomizers,
+                                                      List<AssemblyConfiguration> assemblyConfig)
+            throws NoSuchArchiverException, IOException {
+        TarArchiver archiver = createBuildArchiver(buildDirs.getOutputDirectory(), assemblyConfig);
+        for (ArchiverCustomizer customizer : archiverCustomizers) {
+            if (customizer != null) {
+                archiver = customizer.customize(archiver);
             }
-            archiver.setCompression(compression.getTarCompressionMethod());
-            archiver.createArchive();
-            return archive;
-        } catch (NoSuchArchiverException e) {
-            throw new MojoExecutionException("No archiver for type 'tar' found", e);
-        } catch (IOException e) {
-            throw new MojoExecutionException("Cannot create archive " + archive, e);
         }
+        return archiver;
     }
 
     private void addDockerIncludesExcludesIfPresent(DefaultFileSet fileSet, MojoParameters params) throws IOException {
@@ -447,7 +494,7 @@ public class DockerAssemblyManager {
         return archiveDir;
     }
 
-    private TarArchiver createBuildArchiver(File outputDir, File archive, List<AssemblyConfiguration> assemblyConfigs) throws NoSuchArchiverException {
+    private TarArchiver createBuildArchiver(File outputDir, List<AssemblyConfiguration> assemblyConfigs) throws NoSuchArchiverException {
         TarArchiver archiver = (TarArchiver) archiverManager.getArchiver(TAR_ARCHIVER_TYPE);
         archiver.setLongfile(TarLongFileMode.posix);
 
@@ -473,7 +520,6 @@ public class DockerAssemblyManager {
             archiver.addFileSet(fileSet);
         }
 
-        archiver.setDestFile(archive);
         return archiver;
     }
 
@@ -0,0 +1,123 @@
+package io.fabric8.maven.docker.assembly;
+
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import io.fabric8.maven.docker.config.ArchiveCompression;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarConstants;
+import org.apache.commons.io.IOUtils;
+import org.codehaus.plexus.archiver.ArchiveEntry;
+import org.codehaus.plexus.archiver.ResourceIterator;
+import org.codehaus.plexus.archiver.tar.TarArchiver;
+import org.codehaus.plexus.archiver.tar.TarOptions;
+import org.codehaus.plexus.components.io.attributes.PlexusIoResourceAttributes;
+import org.codehaus.plexus.components.io.functions.SymlinkDestinationSupplier;
+import org.codehaus.plexus.components.io.resources.PlexusIoResource;
+import org.codehaus.plexus.util.StringUtils;
+
+/**
+ * Writes the resources collected by a {@link TarArchiver} as tar archive to an output stream
+ * instead of a destination file. This is used for streaming the build context to the Docker daemon
+ * while it is created.
+ */
+class TarStreamWriter {
+
+    private static final int COPY_BUFFER_SIZE = 65536;
+
+    private TarStreamWriter() { }
+
+    /**
+     * Write all resources of the given archiver to a stream. The stream itself is not closed.
+     *
+     * @param archiver archiver holding the resources to add
+     * @param compression compression to use
+     * @param out stream to write to
+     * @throws IOException if reading a resource or writing to the stream fails
+     */
+    static void write(TarArchiver archiver, ArchiveCompression compression, OutputStream out) throws IOException {
+        OutputStream compressed = compression.wrapOutputStream(new NonClosingOutputStream(out));
+        try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(compressed, StandardCharsets.UTF_8.name())) {
+            tarOut.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            tarOut.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+
+            TarOptions options = archiver.getOptions();
+            ResourceIterator resources = archiver.getResources();
+            while (resources.hasNext()) {
+                addEntry(tarOut, resources.next(), options);
+            }
+        }
+    }
+
+    // Entries get the same attributes as written by TarArchiver, so that a streamed context equals an archived one
+    private static void addEntry(TarArchiveOutputStream tarOut, ArchiveEntry entry, TarOptions options) throws IOException {
+        String name = StringUtils.replace(entry.getName(), File.separatorChar, '/');
+        PlexusIoResource resource = entry.getResource();
+
+        TarArchiveEntry tarEntry;
+        switch (entry.getType()) {
+            case ArchiveEntry.DIRECTORY:
+                tarEntry = new TarArchiveEntry(name.endsWith("/") ? name : name + "/");
+                break;
+            case ArchiveEntry.SYMLINK:
+                tarEntry = new TarArchiveEntry(name, TarConstants.LF_SYMLINK);
+                tarEntry.setLinkName(((SymlinkDestinationSupplier) resource).getSymlinkDestination());
+                break;
+            default:
+                tarEntry = new TarArchiveEntry(name);
+                long size = resource.getSize();
+                tarEntry.setSize(size != PlexusIoResource.UNKNOWN_RESOURCE_SIZE ? size : 0);
+        }
+        tarEntry.setMode(entry.getMode());
+        if (resource.getLastModified() != PlexusIoResource.UNKNOWN_MODIFICATION_DATE) {
+            tarEntry.setModTime(resource.getLastModified());
+        }
+        setOwner(tarEntry, entry.getResourceAttributes(), options);
+
+        tarOut.putArchiveEntry(tarEntry);
+        if (entry.getType() == ArchiveEntry.FILE) {
+            try (InputStream in = entry.getInputStream()) {
+                IOUtils.copy(in, tarOut, COPY_BUFFER_SIZE);
+            }
+        }
+        tarOut.closeArchiveEntry();
+    }
+
+    // TarArchiveEntry defaults to the user running the build, so always set the owner like TarArchiver does
+    private static void setOwner(TarArchiveEntry tarEntry, PlexusIoResourceAttributes attributes, TarOptions options) {
+        boolean hasAttributes = attributes != null;
+        tarEntry.setUserName(hasAttributes && attributes.getUserName() != null ? attributes.getUserName() : options.getUserName());
+        tarEntry.setGroupName(hasAttributes && attributes.getGroupName() != null ? attributes.getGroupName() : options.getGroup());
+        int userId = hasAttributes && attributes.getUserId() != null ? attributes.getUserId() : options.getUid();
+        if (userId >= 0) {
+            tarEntry.setUserId(userId);
+        }
+        int groupId = hasAttributes && attributes.getGroupId() != null ? attributes.getGroupId() : options.getGid();
+        if (groupId >= 0) {
+            tarEntry.setGroupId(groupId);
+        }
+    }
+
+    // The request stream is owned by the HTTP client, so only flush it when the archive is finished
+    private static class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -43,6 +43,15 @@ public class WaitConfiguration implements Serializable {
     @Parameter
     private String log;
 
+    @Parameter
+    private List<String> logPatterns;
+
+    @Parameter
+    private Integer logWindowLines;
+
+    @Parameter
+    private Integer logWindowBytes;
+
     @Parameter
     private Integer shutdown;
 
@@ -52,18 +61,25 @@ public class WaitConfiguration implements Serializable {
     @Parameter
     private Integer exit;
 
+    @Parameter
+    private Integer interval;
+
     public WaitConfiguration() {}
 
-    private WaitConfiguration(Integer time, ExecConfiguration exec, HttpConfiguration http, TcpConfiguration tcp, Boolean healthy, String log, Integer shutdown, Integer kill, Integer exit) {
+    private WaitConfiguration(Integer time, ExecConfiguration exec, HttpConfiguration http, TcpConfiguration tcp, Boolean healthy, String log, List<String> logPatterns, Integer logWindowLines, Integer logWindowBytes, Integer shutdown, Integer kill, Integer exit, Integer interval) {
         this.time = time;
         this.exec = exec;
         this.http = http;
         this.tcp = tcp;
         this.healthy = healthy;
         this.log = log;
+        this.logPatterns = logPatterns;
+        this.logWindowLines = logWindowLines;
+        this.logWindowBytes = logWindowBytes;
         this.shutdown = shutdown;
         this.kill = kill;
         this.exit = exit;
+        this.interval = interval;
     }
 
     public Integer getTime() { return time; }
@@ -88,6 +104,33 @@ public class WaitConfiguration implements Serializable {
         return log;
     }
 
+    /**
+     * Patterns to wait for in addition to {@link #getLog()}. The wait succeeds as soon as one of them matches.
+     *
+     * @return alternative patterns or null
+     */
+    public List<String> getLogPatterns() {
+        return logPatterns;
+    }
+
+    /**
+     * Maximum number of lines kept for matching log patterns which span several lines
+     *
+     * @return number of lines or null if the default should be used
+     */
+    public Integer getLogWindowLines() {
+        return logWindowLines;
+    }
+
+    /**
+     * Maximum number of bytes kept for matching log patterns which span several lines
+     *
+     * @return number of bytes or null if the default should be used
+     */
+    public Integer getLogWindowBytes() {
+        return logWindowBytes;
+    }
+
     public Integer getExit() {
         return exit;
     }
@@ -102,11 +145,21 @@ public class WaitConfiguration implements Serializable {
 
     public Boolean getHealthy() { return healthy; }
 
+    /**
+     * Pause between two checks in milliseconds
+     *
+     * @return interval or null if the default should be used
+     */
+    public Integer getInterval() {
+        return interval;
+    }
+
     // =============================================================================
 
     public static class Builder {
-        private Integer time, shutdown, kill;
+        private Integer time, shutdown, kill, interval, httpTimeout, logWindowLines, logWindowBytes;
         private String url,log,status;
+        private List<String> logPatterns;
         Boolean healthy;
         private String method;
         private String preStop;
@@ -137,6 +190,16 @@ public class WaitConfiguration implements Serializable {
             return this;
         }
 
+        public Builder httpTimeout(Integer httpTimeout) {
+            this.httpTimeout = httpTimeout;
+            return this;
+        }
+
+        public Builder interval(Integer interval) {
+            this.interval = interval;
+            return this;
+        }
+
         public Builder healthy(Boolean healthy) {
             this.healthy = healthy;
             return this;
@@ -147,6 +210,21 @@ public class WaitConfiguration implements Serializable {
             return this;
         }
 
+        public Builder logPatterns(List<String> logPatterns) {
+            this.logPatterns = logPatterns;
+            return this;
+        }
+
+        public Builder logWindowLines(Integer logWindowLines) {
+            this.logWindowLines = logWindowLines;
+            return this;
+        }
+
+        public Builder logWindowBytes(Integer logWindowBytes) {
+            this.logWindowBytes = logWindowBytes;
+            return this;
+        }
+
         public Builder shutdown(Integer shutdown) {
             this.shutdown = shutdown;
             return this;
@@ -183,13 +261,17 @@ public class WaitConfiguration implements Serializable {
         public WaitConfiguration build() {
             return new WaitConfiguration(time,
                                          postStart != null || preStop != null ? new ExecConfiguration(postStart, preStop, breakOnError != null ? breakOnError : false) : null,
-                                         url != null ? new HttpConfiguration(url,method,status) : null,
+                                         url != null ? new HttpConfiguration(url,method,status,httpTimeout) : null,
                                          tcpPorts != null ? new TcpConfiguration(tcpMode, tcpHost, tcpPorts) : null,
                                          healthy,
                                          log,
+                                         logPatterns,
+                                         logWindowLines,
+                                         logWindowBytes,
                                          shutdown,
                                          kill,
-                                         exit);
+                                         exit,
+                                         interval);
         }
 
         public Builder preStop(String command) {
@@ -253,12 +335,16 @@ public class WaitConfiguration implements Serializable {
         @Parameter
         private boolean allowAllHosts;
 
+        @Parameter
+        private Integer timeout;
+
         public HttpConfiguration() {}
 
-        private HttpConfiguration(String url, String method, String status) {
+        private HttpConfiguration(String url, String method, String status, Integer timeout) {
             this.url = url;
             this.method = method;
             this.status = status;
+            this.timeout = timeout;
         }
 
         public String getUrl() {
@@ -276,6 +362,15 @@ public class WaitConfiguration implements Serializable {
         public boolean isAllowAllHosts() {
             return allowAllHosts;
         }
+
+        /**
+         * Connect and read timeout of a single check in milliseconds
+         *
+         * @return timeout or null if the default should be used
+         */
+        public Integer getTimeout() {
+            return timeout;
+        }
     }
 
     public enum TcpConfigMode {
@@ -140,12 +140,17 @@ public enum ConfigKey {
     VOLUMES,
     VOLUMES_FROM,
     WAIT_LOG("wait.log"),
+    WAIT_LOG_PATTERNS("wait.logPatterns"),
+    WAIT_LOG_WINDOW_LINES("wait.logWindowLines"),
+    WAIT_LOG_WINDOW_BYTES("wait.logWindowBytes"),
     WAIT_TIME("wait.time"),
     WAIT_HEALTHY("wait.healthy"),
     WAIT_URL("wait.url"),
     WAIT_HTTP_URL("wait.http.url"),
     WAIT_HTTP_METHOD("wait.http.method"),
     WAIT_HTTP_STATUS("wait.http.status"),
+    WAIT_HTTP_TIMEOUT("wait.http.timeout"),
+    WAIT_INTERVAL("wait.interval"),
     WAIT_KILL("wait.kill"),
     WAIT_EXEC_POST_START("wait.exec.postStart"),
     WAIT_EXEC_PRE_STOP("wait.exec.preStop"),
@@ -451,7 +451,12 @@ public class PropertyConfigHandler implements ExternalConfigHandler {
             .breakOnError(valueProvider.getBoolean(WAIT_EXEC_BREAK_ON_ERROR, exec.isBreakOnError()))
             .method(valueProvider.getString(WAIT_HTTP_METHOD, http.getMethod()))
             .status(valueProvider.getString(WAIT_HTTP_STATUS, http.getStatus()))
+            .httpTimeout(valueProvider.getInteger(WAIT_HTTP_TIMEOUT, http.getTimeout()))
+            .interval(valueProvider.getInteger(WAIT_INTERVAL, config.getInterval()))
             .log(valueProvider.getString(WAIT_LOG, config.getLog()))
+            .logPatterns(valueProvider.getList(WAIT_LOG_PATTERNS, config.getLogPatterns()))
+            .logWindowLines(valueProvider.getInteger(WAIT_LOG_WINDOW_LINES, config.getLogWindowLines()))
+            .logWindowBytes(valueProvider.getInteger(WAIT_LOG_WINDOW_BYTES, config.getLogWindowBytes()))
             .kill(valueProvider.getInteger(WAIT_KILL, config.getKill()))
             .exit(valueProvider.getInteger(WAIT_EXIT, config.getExit()))
             .shutdown(valueProvider.getInteger(WAIT_SHUTDOWN, config.getShutdown()))
@@ -0,0 +1,228 @@
+package io.fabric8.maven.docker.log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.fabric8.maven.docker.util.TimestampFactory;
+
+/**
+ * Writer for a log file which decouples the threads reading the container logs from the file I/O. Entries are
+ * put into a bounded queue and written by a single background thread. The output is buffered and flushed when
+ * a number of characters is reached or when the oldest unflushed entry is older than a given interval.
+ * <p>
+ * With a reorder window greater than zero, entries are held back for this time and written in the order of
+ * their timestamps. This way the output of several containers sharing the same file is merged in time order,
+ * as long as an entry doesn't arrive later than the window after an entry with a newer timestamp.
+ */
+class AsyncLogWriter {
+
+    static final int QUEUE_CAPACITY = 4096;
+    static final int FLUSH_SIZE = 8192;
+    static final long FLUSH_INTERVAL = 200;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    // Marks the end of the queue
+    private static final LogEntry END = new LogEntry(null, null, null, -1, 0);
+
+    private final BlockingQueue<LogEntry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Writer writer;
+    private final long reorderWindowNanos;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+    private final Thread thread;
+
+    private volatile boolean closed;
+
+    // Only accessed by the writer thread
+    private final PriorityQueue<LogEntry> pending = new PriorityQueue<>();
+    private final List<LogEntry> batch = new ArrayList<>();
+    private int unflushed;
+    private long flushDeadline;
+    private boolean failed;
+
+    // Number of callbacks using this writer, guarded by the registry of the writers
+    private int users = 1;
+
+    /**
+     * Create a writer with the default flush thresholds
+     *
+     * @param writer writer to write to, closed when this writer is closed
+     * @param reorderWindow time in milliseconds to hold back entries for ordering them by timestamp, 0 for
+     *                      writing them in the order they arrive
+     */
+    AsyncLogWriter(Writer writer, long reorderWindow) {
+        this(writer, reorderWindow, FLUSH_SIZE, FLUSH_INTERVAL);
+    }
+
+    AsyncLogWriter(Writer writer, long reorderWindow, int flushSize, long flushInterval) {
+        this.writer = new BufferedWriter(writer, flushSize);
+        this.reorderWindowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, reorderWindow));
+        this.flushSize = flushSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushInterval);
+        this.thread = new Thread(this::run, "docker-log-writer-" + THREAD_COUNT.incrementAndGet());
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Add a log entry. Blocks if the queue is full.
+     *
+     * @param spec output specification for the prompt or <code>null</code> for writing the text as it is
+     * @param timestamp timestamp of the entry
+     * @param text text of the entry
+     * @throws InterruptedException if interrupted while waiting for space in the queue
+     */
+    void add(LogOutputSpec spec, ZonedDateTime timestamp, String text) throws InterruptedException {
+        if (closed) {
+            return;
+        }
+        queue.put(new LogEntry(spec, timestamp != null ? timestamp : TimestampFactory.createTimestamp(), text,
+                               sequence.getAndIncrement(), System.nanoTime()));
+    }
+
+    /**
+     * Write all remaining entries, close the underlying writer and wait for the writer thread to finish.
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(END);
+            thread.join();
+        } catch (InterruptedException e) {
+            thread.interrupt();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    int allocate() {
+        return ++users;
+    }
+
+    int release() {
+        return --users;
+    }
+
+    // ===========================================================================================
+
+    private void run() {
+        try {
+            while (true) {
+                LogEntry entry = nextEntry();
+                if (entry == END) {
+                    break;
+                }
+                if (entry != null) {
+                    accept(entry);
+                    batch.clear();
+                    queue.drainTo(batch);
+                    for (LogEntry next : batch) {
+                        if (next == END) {
+                            return;
+                        }
+                        accept(next);
+                    }
+                }
+                writeDue(System.nanoTime());
+                if (unflushed >= flushSize || (unflushed > 0 && System.nanoTime() - flushDeadline >= 0)) {
+                    flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            // Closing has been interrupted, write out what we have
+        } finally {
+            while (!pending.isEmpty()) {
+                write(pending.poll());
+            }
+            flush();
+            try {
+                writer.close();
+            } catch (IOException e) {
+                // Nothing left to do
+            }
+        }
+    }
+
+    // Wait for the next entry, but not longer than the next flush or the next entry to write is due
+    private LogEntry nextEntry() throws InterruptedException {
+        long now = System.nanoTime();
+        long wait = Long.MAX_VALUE;
+        if (unflushed > 0) {
+            wait = flushDeadline - now;
+        }
+        if (!pending.isEmpty()) {
+            wait = Math.min(wait, pending.peek().getArrival() + reorderWindowNanos - now);
+        }
+        if (wait == Long.MAX_VALUE) {
+            return queue.take();
+        }
+        return wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+    }
+
+    private void accept(LogEntry entry) {
+        if (reorderWindowNanos == 0) {
+            write(entry);
+        } else {
+            pending.add(entry);
+        }
+    }
+
+    // Write all held back entries whose window has passed. The number of held back entries is bounded as well.
+    private void writeDue(long now) {
+        while (!pending.isEmpty() &&
+               (now - pending.peek().getArrival() >= reorderWindowNanos || pending.size() > QUEUE_CAPACITY)) {
+            write(pending.poll());
+        }
+    }
+
+    private void write(LogEntry entry) {
+        if (failed) {
+            return;
+        }
+        String line;
+        try {
+            line = entry.format();
+        } catch (RuntimeException e) {
+            // Don't let a bad date format stop the writer thread
+            line = entry.getText();
+        }
+        try {
+            writer.write(line);
+            writer.write(LINE_SEPARATOR);
+            if (unflushed == 0) {
+                flushDeadline = System.nanoTime() + flushIntervalNanos;
+            }
+            unflushed += line.length() + LINE_SEPARATOR.length();
+        } catch (IOException e) {
+            // Like a PrintStream, stop writing silently
+            failed = true;
+        }
+    }
+
+    private void flush() {
+        if (failed || unflushed == 0) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            failed = true;
+        }
+        unflushed = 0;
+    }
+}
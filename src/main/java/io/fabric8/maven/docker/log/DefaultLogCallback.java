@@ -15,7 +15,12 @@ package io.fabric8.maven.docker.log;/*
  * limitations under the License.
  */
 
-import java.io.*;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
 import java.time.ZonedDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -24,15 +29,23 @@ import com.google.common.io.Files;
 import io.fabric8.maven.docker.access.log.LogCallback;
 
 /**
+ * Callback printing log entries to standard output or to a log file. Log files are written asynchronously
+ * by an {@link AsyncLogWriter}, which is shared by all callbacks writing to the same file.
+ *
  * @author roland
  * @since 26/09/15
  */
 public class DefaultLogCallback implements LogCallback {
 
-    private static Map<String, SharedPrintStream> printStreamMap = new HashMap<>();
+    // Writers per log file and writers which are being closed, both guarded by writers
+    private static final Map<String, AsyncLogWriter> writers = new HashMap<>();
+    private static final Map<String, AsyncLogWriter> closingWriters = new HashMap<>();
 
     private final LogOutputSpec outputSpec;
-    private SharedPrintStream sps;
+    // Set by open() and close(), read by the threads logging without locking
+    private volatile PrintStream stdout;
+    private volatile AsyncLogWriter writer;
+    private boolean opened;
 
     public DefaultLogCallback(LogOutputSpec outputSpec) {
         this.outputSpec = outputSpec;
@@ -40,92 +53,111 @@ public class DefaultLogCallback implements LogCallback {
 
     @Override
     public synchronized void open() throws IOException {
-        if (this.sps == null) {
+        if (!opened) {
             String file = outputSpec.getFile();
             if (outputSpec.isLogStdout() || file == null) {
-                this.sps = new SharedPrintStream(System.out);
+                this.stdout = System.out;
             } else {
-                SharedPrintStream cachedPs = printStreamMap.get(file);
-                if (cachedPs == null) {
-                    Files.createParentDirs(new File(file));
-                    PrintStream ps = new PrintStream(new FileOutputStream(file), true);
-                    cachedPs = new SharedPrintStream(ps);
-                    printStreamMap.put(file, cachedPs);
-                } else {
-                    cachedPs.allocate();
-                }
-                this.sps = cachedPs;
+                this.writer = acquireWriter(file, outputSpec.getReorderWindow());
             }
+            opened = true;
         }
     }
 
     @Override
     public synchronized void close() {
-        if (this.sps != null) {
-            if (sps.close()) {
-                String file = outputSpec.getFile();
-                if (file != null) {
-                    printStreamMap.remove(file);
-                }
-                this.sps = null;
+        if (opened) {
+            AsyncLogWriter fileWriter = writer;
+            if (fileWriter != null) {
+                // Entries arriving after closing are dropped
+                writer = null;
+                releaseWriter(outputSpec.getFile(), fileWriter);
             }
+            opened = false;
         }
     }
 
-    private PrintStream ps() {
-        return sps.getPrintStream();
-    }
-
-    @Override
-    public void log(int type, ZonedDateTime timestamp, String txt) {
-        addLogEntry(ps(), new LogEntry(type, timestamp, txt));
-    }
-
     @Override
-    public void error(String error) {
-        ps().println(error);
-    }
-
-    private void addLogEntry(PrintStream ps, LogEntry logEntry) {
-        // TODO: Add the entry to a queue, and let the queue be picked up with a small delay from an extra
-        // thread which then can sort the entries by time before printing it out in order to avoid race conditions.
-
+    public void log(int type, ZonedDateTime timestamp, String txt) throws DoneException {
         LogOutputSpec spec = outputSpec;
         if (spec == null) {
             spec = LogOutputSpec.DEFAULT;
         }
-        String text = logEntry.getText();
-        ps.println(spec.getPrompt(spec.isUseColor(),logEntry.getTimestamp()) + text);
+        AsyncLogWriter fileWriter = writer;
+        if (fileWriter != null) {
+            try {
+                fileWriter.add(spec, timestamp, txt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DoneException();
+            }
+        } else if (isLogStdout(spec)) {
+            ps().println(spec.getPrompt(spec.isUseColor(), timestamp) + txt);
+        }
     }
 
-        // A single log-entry
-    private static class LogEntry implements Comparable<LogEntry> {
-        private final int type;
-        private final ZonedDateTime timestamp;
-        private final String text;
-
-        public LogEntry(int type, ZonedDateTime timestamp, String text) {
-            this.type = type;
-            this.timestamp = timestamp;
-            this.text = text;
+    @Override
+    public void error(String error) {
+        AsyncLogWriter fileWriter = writer;
+        if (fileWriter != null) {
+            try {
+                fileWriter.add(null, null, error);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else if (isLogStdout(outputSpec != null ? outputSpec : LogOutputSpec.DEFAULT)) {
+            ps().println(error);
         }
+    }
 
-        public int getType() {
-            return type;
-        }
+    private static boolean isLogStdout(LogOutputSpec spec) {
+        return spec.isLogStdout() || spec.getFile() == null;
+    }
 
-        public ZonedDateTime getTimestamp() {
-            return timestamp;
-        }
+    private PrintStream ps() {
+        PrintStream out = stdout;
+        return out != null ? out : System.out;
+    }
 
-        public String getText() {
-            return text;
+    private static AsyncLogWriter acquireWriter(String file, long reorderWindow) throws IOException {
+        synchronized (writers) {
+            // Wait for a previous writer of the file to be closed, so that the file is complete before it is opened again
+            while (closingWriters.containsKey(file)) {
+                try {
+                    writers.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for log file " + file + " to be closed");
+                }
+            }
+            AsyncLogWriter fileWriter = writers.get(file);
+            if (fileWriter == null) {
+                Files.createParentDirs(new File(file));
+                fileWriter = new AsyncLogWriter(new OutputStreamWriter(new FileOutputStream(file)), reorderWindow);
+                writers.put(file, fileWriter);
+            } else {
+                fileWriter.allocate();
+            }
+            return fileWriter;
         }
+    }
 
-        @Override
-        public int compareTo(LogEntry entry) {
-            return timestamp.compareTo(entry.timestamp);
+    private static void releaseWriter(String file, AsyncLogWriter fileWriter) {
+        synchronized (writers) {
+            if (fileWriter.release() > 0) {
+                return;
+            }
+            writers.remove(file, fileWriter);
+            closingWriters.put(file, fileWriter);
+        }
+        try {
+            // Closing waits for the remaining entries to be written, so don't block the other files meanwhile
+            fileWriter.close();
+        } finally {
+            synchronized (writers) {
+                closingWriters.remove(file, fileWriter);
+                writers.notifyAll();
+            }
         }
     }
-
 }
@@ -15,11 +15,14 @@ package io.fabric8.maven.docker.log;/*
  * limitations under the License.
  */
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import io.fabric8.maven.docker.access.DockerAccess;
 import io.fabric8.maven.docker.access.log.LogGetHandle;
+import io.fabric8.maven.docker.access.log.LogStreamStatistics;
 
 /**
  * @author roland
@@ -45,6 +48,22 @@ public class LogDispatcher {
         dockerAccess.getLogSync(containerId, new DefaultLogCallback(spec));
     }
 
+    /**
+     * Get statistics like bytes read and lag for all followed containers
+     *
+     * @return statistics of the log streams which provide them
+     */
+    public synchronized List<LogStreamStatistics> getLogStatistics() {
+        List<LogStreamStatistics> ret = new ArrayList<>();
+        for (LogGetHandle handle : logHandles.values()) {
+            LogStreamStatistics statistics = handle.getStatistics();
+            if (statistics != null) {
+                ret.add(statistics);
+            }
+        }
+        return ret;
+    }
+
     public synchronized void untrackAllContainerLogs() {
         for (String key : logHandles.keySet()) {
             LogGetHandle handle = logHandles.get(key);
@@ -0,0 +1,62 @@
+package io.fabric8.maven.docker.log;
+
+import java.time.ZonedDateTime;
+
+/**
+ * A single log entry waiting to be written by an {@link AsyncLogWriter}. Entries are ordered by their
+ * timestamp and, for equal timestamps, by the order in which they have been added.
+ */
+class LogEntry implements Comparable<LogEntry> {
+
+    private final LogOutputSpec spec;
+    private final ZonedDateTime timestamp;
+    private final String text;
+    private final long sequence;
+    private final long arrival;
+
+    /**
+     * Create a log entry
+     *
+     * @param spec output specification used for the prompt or <code>null</code> if the text is written as it is
+     * @param timestamp timestamp of the entry
+     * @param text text to write
+     * @param sequence position in the order of all entries of a writer
+     * @param arrival time when the entry has been added as given by {@link System#nanoTime()}
+     */
+    LogEntry(LogOutputSpec spec, ZonedDateTime timestamp, String text, long sequence, long arrival) {
+        this.spec = spec;
+        this.timestamp = timestamp;
+        this.text = text;
+        this.sequence = sequence;
+        this.arrival = arrival;
+    }
+
+    LogOutputSpec getSpec() {
+        return spec;
+    }
+
+    ZonedDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    long getArrival() {
+        return arrival;
+    }
+
+    /**
+     * Get the line to write for this entry, without line separator
+     */
+    String format() {
+        return spec != null ? spec.getPrompt(spec.isUseColor(), timestamp) + text : text;
+    }
+
+    @Override
+    public int compareTo(LogEntry entry) {
+        int result = timestamp.compareTo(entry.timestamp);
+        return result != 0 ? result : Long.compare(sequence, entry.sequence);
+    }
+}
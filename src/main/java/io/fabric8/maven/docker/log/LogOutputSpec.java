@@ -30,7 +30,7 @@ import static org.fusesource.jansi.Ansi.ansi;
  */
 public class LogOutputSpec {
 
-    public static final LogOutputSpec DEFAULT = new LogOutputSpec("", YELLOW, false , null, null, true, true);
+    public static final LogOutputSpec DEFAULT = new LogOutputSpec("", YELLOW, false , null, null, true, true, 0);
 
     private final boolean useColor;
     private final boolean logStdout;
@@ -39,6 +39,7 @@ public class LogOutputSpec {
     private Ansi.Color color;
     private DateTimeFormatter timeFormatter;
     private String file;
+    private final long reorderWindow;
 
     // Palette used for prefixing the log output
     private final static Ansi.Color COLOR_PALETTE[] = {
@@ -46,7 +47,7 @@ public class LogOutputSpec {
     };
     private static int globalColorIdx = 0;
 
-    private LogOutputSpec(String prefix, Ansi.Color color, boolean fgBright, DateTimeFormatter timeFormatter, String file, boolean useColor, boolean logStdout) {
+    private LogOutputSpec(String prefix, Ansi.Color color, boolean fgBright, DateTimeFormatter timeFormatter, String file, boolean useColor, boolean logStdout, long reorderWindow) {
         this.prefix = prefix;
         this.color = color;
         this.fgBright = fgBright;
@@ -54,6 +55,7 @@ public class LogOutputSpec {
         this.file = file;
         this.useColor = useColor;
         this.logStdout = logStdout;
+        this.reorderWindow = reorderWindow;
     }
 
     public boolean isUseColor() {
@@ -72,6 +74,14 @@ public class LogOutputSpec {
         return file;
     }
 
+    /**
+     * Time in milliseconds for which entries written to a log file are held back for ordering them by
+     * timestamp. 0 if entries are written in the order they arrive.
+     */
+    public long getReorderWindow() {
+        return reorderWindow;
+    }
+
     private String formatTimestamp(ZonedDateTime timestamp, boolean withColor) {
         if (timeFormatter == null) {
             return "";
@@ -104,6 +114,7 @@ public class LogOutputSpec {
         private boolean useColor;
         private boolean logStdout;
         private boolean fgBright;
+        private long reorderWindow;
 
         public Builder prefix(String prefix) {
             this.prefix = prefix;
@@ -173,8 +184,13 @@ public class LogOutputSpec {
             return this;
         }
 
+        public Builder reorderWindow(long reorderWindow) {
+            this.reorderWindow = reorderWindow;
+            return this;
+        }
+
         public LogOutputSpec build() {
-            return new LogOutputSpec(prefix, color, fgBright, timeFormatter, file, useColor, logStdout);
+            return new LogOutputSpec(prefix, color, fgBright, timeFormatter, file, useColor, logStdout, reorderWindow);
         }
     }
 }
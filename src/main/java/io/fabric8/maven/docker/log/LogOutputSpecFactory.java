@@ -32,11 +32,17 @@ public class LogOutputSpecFactory {
     private boolean useColor;
     private boolean logStdout;
     private String logDate;
+    private long logReorderWindow;
 
     public LogOutputSpecFactory(boolean useColor, boolean logStdout, String logDate) {
+        this(useColor, logStdout, logDate, 0);
+    }
+
+    public LogOutputSpecFactory(boolean useColor, boolean logStdout, String logDate, long logReorderWindow) {
         this.useColor = useColor;
         this.logStdout = logStdout;
         this.logDate = logDate;
+        this.logReorderWindow = logReorderWindow;
     }
 
     // ================================================================================================
@@ -50,6 +56,7 @@ public class LogOutputSpecFactory {
         builder.file(logConfig.getFileLocation())
                .useColor(useColor)
                .logStdout(logStdout)
+               .reorderWindow(logReorderWindow)
                .color(logConfig.getColor());
 
         return builder.build();
@@ -0,0 +1,101 @@
+package io.fabric8.maven.docker.model;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Model class holding a single event of a container as received from the Docker events stream.
+ */
+public class ContainerEvent {
+
+    public static final String START = "start";
+    public static final String DIE = "die";
+    public static final String HEALTH_STATUS = "health_status";
+
+    private static final String ACTION = "Action";
+    private static final String STATUS = "status";
+    private static final String ID = "id";
+    private static final String ACTOR = "Actor";
+    private static final String ACTOR_ID = "ID";
+    private static final String ATTRIBUTES = "Attributes";
+    private static final String EXIT_CODE = "exitCode";
+
+    private final JsonObject json;
+
+    public ContainerEvent(JsonObject json) {
+        this.json = json;
+    }
+
+    public String getId() {
+        if (json.has(ACTOR) && json.getAsJsonObject(ACTOR).has(ACTOR_ID)) {
+            return json.getAsJsonObject(ACTOR).get(ACTOR_ID).getAsString();
+        }
+        return json.has(ID) ? json.get(ID).getAsString() : null;
+    }
+
+    /**
+     * Get the action of this event without any status information, e.g. <code>health_status</code>
+     * for an action <code>health_status: healthy</code>
+     *
+     * @return the event type
+     */
+    public String getType() {
+        String action = getAction();
+        if (action == null) {
+            return null;
+        }
+        int idx = action.indexOf(':');
+        return idx >= 0 ? action.substring(0, idx).trim() : action;
+    }
+
+    /**
+     * Get the health status for a {@link #HEALTH_STATUS} event
+     *
+     * @return the health status or null if this is not a health status event
+     */
+    public String getHealthStatus() {
+        String action = getAction();
+        if (!HEALTH_STATUS.equals(getType())) {
+            return null;
+        }
+        int idx = action.indexOf(':');
+        return idx >= 0 ? action.substring(idx + 1).trim() : null;
+    }
+
+    /**
+     * Get the exit code for a {@link #DIE} event
+     *
+     * @return the exit code or null if this is not a die event or the daemon didn't send the exit code
+     */
+    public Integer getExitCode() {
+        if (!DIE.equals(getType()) || !json.has(ACTOR)) {
+            return null;
+        }
+        JsonObject actor = json.getAsJsonObject(ACTOR);
+        if (!actor.has(ATTRIBUTES)) {
+            return null;
+        }
+        JsonElement exitCode = actor.getAsJsonObject(ATTRIBUTES).get(EXIT_CODE);
+        if (exitCode == null || exitCode.isJsonNull()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(exitCode.getAsString());
+        } catch (NumberFormatException exp) {
+            return null;
+        }
+    }
+
+    private String getAction() {
+        // Older daemons only send the "status" field
+        if (json.has(ACTION)) {
+            return json.get(ACTION).getAsString();
+        }
+        return json.has(STATUS) ? json.get(STATUS).getAsString() : null;
+    }
+
+    @Override
+    public String toString() {
+        return json.toString();
+    }
+}
@@ -15,8 +15,10 @@ package io.fabric8.maven.docker.service;/*
  * limitations under the License.
  */
 
+import io.fabric8.maven.docker.access.BuildContextWriter;
 import io.fabric8.maven.docker.assembly.ArchiverCustomizer;
 import io.fabric8.maven.docker.assembly.AssemblyFiles;
+import io.fabric8.maven.docker.assembly.BuildContextArchive;
 import io.fabric8.maven.docker.assembly.DockerAssemblyManager;
 import io.fabric8.maven.docker.config.AssemblyConfiguration;
 import io.fabric8.maven.docker.config.BuildImageConfiguration;
@@ -132,6 +134,16 @@ public class ArchiveService {
 
     // =============================================
 
+    BuildContextWriter createArchiveStream(String imageName, BuildImageConfiguration buildConfig, MojoParameters params, Logger log)
+            throws MojoExecutionException {
+        return dockerAssemblyManager.createDockerTarStream(imageName, params, buildConfig, log, null);
+    }
+
+    BuildContextArchive prepareArchive(String imageName, BuildImageConfiguration buildConfig, MojoParameters params, Logger log)
+            throws MojoExecutionException {
+        return dockerAssemblyManager.prepareDockerTarArchive(imageName, params, buildConfig, log, null);
+    }
+
     File createArchive(String imageName, BuildImageConfiguration buildConfig, MojoParameters params, Logger log)
             throws MojoExecutionException {
         return createArchive(imageName, buildConfig, params, log, null);
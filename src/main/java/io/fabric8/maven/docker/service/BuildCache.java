@@ -0,0 +1,120 @@
+package io.fabric8.maven.docker.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import io.fabric8.maven.docker.access.DockerAccess;
+import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.util.Logger;
+
+/**
+ * Decides whether an image needs to be built by comparing the digest of its build context with the digest
+ * label of the local image. The digest of the last build is also stored in the build directory, so that the
+ * reason for a rebuild can be reported.
+ */
+class BuildCache {
+
+    // Label holding the digest of the build context an image has been built from
+    static final String DIGEST_LABEL = "dmp.build.digest";
+
+    // File within the temporary build directory holding the digest of the last build
+    static final String DIGEST_FILE = "build-context.digest";
+
+    private final DockerAccess docker;
+    private final Logger log;
+
+    BuildCache(DockerAccess docker, Logger log) {
+        this.docker = docker;
+        this.log = log;
+    }
+
+    /**
+     * Check whether an image has already been built from a build context
+     *
+     * @param imageName image to check
+     * @param digest digest of the current build context
+     * @param buildDir directory holding the digest of the last build
+     * @param noCache whether caching has been switched off for this build
+     * @return result with the reason in case of a miss
+     */
+    Result check(String imageName, String digest, File buildDir, boolean noCache) throws DockerAccessException {
+        if (noCache) {
+            return Result.miss("noCache is set");
+        }
+        Map<String, String> labels = docker.getImageLabels(imageName);
+        if (labels == null) {
+            return Result.miss("no local image " + imageName);
+        }
+        String imageDigest = labels.get(DIGEST_LABEL);
+        if (imageDigest == null) {
+            return Result.miss("local image has no build context digest");
+        }
+        if (imageDigest.equals(digest)) {
+            return Result.HIT;
+        }
+        if (imageDigest.equals(readDigest(buildDir))) {
+            return Result.miss("build context changed since last build");
+        }
+        return Result.miss("local image was built from a different build context");
+    }
+
+    /**
+     * Remember the digest of a successful build
+     *
+     * @param digest digest of the build context
+     * @param buildDir directory to store the digest in
+     */
+    void store(String digest, File buildDir) {
+        File digestFile = new File(buildDir, DIGEST_FILE);
+        try {
+            Files.write(digestFile.toPath(), digest.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // Only used for reporting, so a build doesn't fail because of this
+            log.warn("Cannot store build context digest in %s: %s", digestFile, e.getMessage());
+        }
+    }
+
+    private String readDigest(File buildDir) {
+        File digestFile = new File(buildDir, DIGEST_FILE);
+        if (!digestFile.exists()) {
+            return null;
+        }
+        try {
+            return new String(Files.readAllBytes(digestFile.toPath()), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            log.debug("Cannot read build context digest from %s: %s", digestFile, e.getMessage());
+            return null;
+        }
+    }
+
+    static class Result {
+
+        static final Result HIT = new Result(true, null);
+
+        private final boolean hit;
+        private final String reason;
+
+        private Result(boolean hit, String reason) {
+            this.hit = hit;
+            this.reason = reason;
+        }
+
+        static Result miss(String reason) {
+            return new Result(false, reason);
+        }
+
+        boolean isHit() {
+            return hit;
+        }
+
+        /**
+         * @return why the image needs to be built, <code>null</code> for a hit
+         */
+        String getReason() {
+            return reason;
+        }
+    }
+}
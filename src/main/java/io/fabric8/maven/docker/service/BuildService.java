@@ -2,9 +2,11 @@ package io.fabric8.maven.docker.service;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.JsonParseException;
+import io.fabric8.maven.docker.access.BuildContextWriter;
 import io.fabric8.maven.docker.access.BuildOptions;
 import io.fabric8.maven.docker.access.DockerAccess;
 import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.assembly.BuildContextArchive;
 import io.fabric8.maven.docker.assembly.DockerAssemblyManager;
 import io.fabric8.maven.docker.config.AssemblyConfiguration;
 import io.fabric8.maven.docker.config.BuildImageConfiguration;
@@ -28,6 +30,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.nio.file.Files;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +42,7 @@ public class BuildService {
     private final QueryService queryService;
     private final ArchiveService archiveService;
     private final RegistryService registryService;
+    private final BuildCache buildCache;
     private final Logger log;
 
     BuildService(DockerAccess docker, QueryService queryService, RegistryService registryService, ArchiveService archiveService, Logger log) {
@@ -46,6 +50,7 @@ public class BuildService {
         this.queryService = queryService;
         this.registryService = registryService;
         this.archiveService = archiveService;
+        this.buildCache = new BuildCache(docker, log);
         this.log = log;
     }
 
@@ -60,14 +65,113 @@ public class BuildService {
     public void buildImage(ImageConfiguration imageConfig, ImagePullManager imagePullManager, BuildContext buildContext, File buildArchiveFile)
             throws DockerAccessException, MojoExecutionException {
 
+        Map<String, String> buildArgsFromExternalSources = prepareBuild(imageConfig, imagePullManager, buildContext);
+        buildImage(imageConfig, buildContext.getMojoParameters(), ConfigHelper.isNoCache(imageConfig), checkForSquash(imageConfig), buildArgsFromExternalSources, buildArchiveFile);
+    }
+
+    /**
+     * Pull the base image if needed and run the build with a build context which is streamed to the Docker
+     * daemon while it is created. The build context is created with {@link #buildArchiveStream(ImageConfiguration, BuildContext)}.
+     *
+     * @param imageConfig  the image configuration
+     * @param buildContext the build context
+     * @param contextWriter writer for the build context
+     * @throws DockerAccessException
+     * @throws MojoExecutionException
+     */
+    public void buildImage(ImageConfiguration imageConfig, ImagePullManager imagePullManager, BuildContext buildContext, BuildContextWriter contextWriter)
+            throws DockerAccessException, MojoExecutionException {
+
+        Map<String, String> buildArgsFromExternalSources = prepareBuild(imageConfig, imagePullManager, buildContext);
+        buildImage(imageConfig, buildContext.getMojoParameters(), ConfigHelper.isNoCache(imageConfig), checkForSquash(imageConfig), buildArgsFromExternalSources,
+                   (imageName, opts) -> docker.buildImage(imageName, contextWriter, opts));
+    }
+
+    /**
+     * Pull the base image if needed and run the build, unless the local image has already been built from the same
+     * build context. For this a digest is calculated over the prepared build context, the build options including
+     * the build args and the ids of the base images. The digest is added as label to the image built and stored in
+     * the build directory. If the local image already carries this digest, neither the archive is created nor the
+     * build is run. Assemblies are created in any case, as the digest covers the files they produce and the
+     * assembly configuration alone doesn't tell whether any of these files has changed.
+     *
+     * @param imageConfig  the image configuration
+     * @param buildContext the build context
+     * @param streamArchive whether to stream the build context to the Docker daemon instead of creating an archive file
+     * @return true if the image has been built, false if the build has been skipped
+     * @throws DockerAccessException
+     * @throws MojoExecutionException
+     */
+    public boolean buildImageIfChanged(ImageConfiguration imageConfig, ImagePullManager imagePullManager, BuildContext buildContext, boolean streamArchive)
+            throws DockerAccessException, MojoExecutionException {
+
+        Map<String, String> buildArgsFromExternalSources = prepareBuild(imageConfig, imagePullManager, buildContext);
+
+        String imageName = imageConfig.getName();
+        ImageName.validate(imageName);
+        BuildImageConfiguration buildConfig = imageConfig.getBuildConfiguration();
+        MojoParameters params = buildContext.getMojoParameters();
+        boolean noCache = ConfigHelper.isNoCache(imageConfig);
+        boolean squash = checkForSquash(imageConfig);
+
+        long time = System.currentTimeMillis();
+        // Creates the assemblies and the Dockerfile, the tar archive is only created on a cache miss
+        BuildContextArchive archive = archiveService.prepareArchive(imageName, buildConfig, params, log);
+        Map<String, String> mergedBuildMap = prepareBuildArgs(buildArgsFromExternalSources, buildConfig);
+        String digest;
+        try {
+            digest = archive.digest(getBuildInputs(buildConfig, params, noCache, squash, mergedBuildMap));
+        } catch (IOException e) {
+            throw new MojoExecutionException("Cannot calculate digest of build context for " + imageName, e);
+        }
+        File buildDir = archive.getBuildDirs().getTemporaryRootDirectory();
+        BuildCache.Result result = buildCache.check(imageName, digest, buildDir, noCache);
+        if (result.isHit()) {
+            log.info("%s: Build context unchanged (%s), skipping build [checked in %s]",
+                     imageConfig.getDescription(), digest, EnvUtil.formatDurationTill(time));
+            return false;
+        }
+        log.info("%s: Build cache miss, %s", imageConfig.getDescription(), result.getReason());
+
+        Map<String, String> digestLabel = Collections.singletonMap(BuildCache.DIGEST_LABEL, digest);
+        BuildRequest buildRequest;
+        if (streamArchive) {
+            BuildContextWriter contextWriter = archive.stream();
+            buildRequest = (name, opts) -> docker.buildImage(name, contextWriter, opts.labels(digestLabel));
+        } else {
+            File dockerArchive = archive.create();
+            log.info("%s: Created %s in %s", imageConfig.getDescription(), dockerArchive.getName(), EnvUtil.formatDurationTill(time));
+            buildRequest = (name, opts) -> docker.buildImage(name, dockerArchive, opts.labels(digestLabel));
+        }
+        buildImage(imageConfig, params, noCache, squash, buildArgsFromExternalSources, buildRequest);
+        buildCache.store(digest, buildDir);
+        return true;
+    }
+
+    // Everything besides the build context which influences the image built. The base images are included with
+    // their ids, so that an updated base image leads to a rebuild.
+    private Map<String, String> getBuildInputs(BuildImageConfiguration buildConfig, MojoParameters params, boolean noCache, boolean squash,
+                                               Map<String, String> mergedBuildMap) throws DockerAccessException {
+        Map<String, String> inputs = new HashMap<>();
+        createBuildOptions(buildConfig, noCache, squash, mergedBuildMap).getOptions()
+            .forEach((key, value) -> inputs.put("option." + key, value));
+        for (String baseImage : extractBaseImages(buildConfig, params, mergedBuildMap)) {
+            if (baseImage != null && !DockerAssemblyManager.SCRATCH_IMAGE.equals(baseImage)) {
+                inputs.put("base." + baseImage, String.valueOf(queryService.getImageId(baseImage)));
+            }
+        }
+        return inputs;
+    }
+
+    private Map<String, String> prepareBuild(ImageConfiguration imageConfig, ImagePullManager imagePullManager, BuildContext buildContext)
+            throws DockerAccessException, MojoExecutionException {
         BuildArgResolver buildArgResolver = new BuildArgResolver(log);
         Map<String, String> buildArgsFromExternalSources = buildArgResolver.resolveBuildArgs(buildContext);
         if (imagePullManager != null) {
             autoPullBaseImage(imageConfig, imagePullManager, buildContext, prepareBuildArgs(buildArgsFromExternalSources, imageConfig.getBuildConfiguration()));
             autoPullCacheFromImage(imageConfig, imagePullManager, buildContext);
         }
-
-        buildImage(imageConfig, buildContext.getMojoParameters(), ConfigHelper.isNoCache(imageConfig), checkForSquash(imageConfig), buildArgsFromExternalSources, buildArchiveFile);
+        return buildArgsFromExternalSources;
     }
 
     /**
@@ -105,6 +209,23 @@ public class BuildService {
         return dockerArchive;
     }
 
+    /**
+     * Prepare the docker build context for streaming it to the Docker daemon. Assemblies and the Dockerfile are
+     * created right away, but the tar archive itself is only generated when the build request is sent.
+     *
+     * @param imageConfiguration image configuration
+     * @param buildContext       docker build context
+     * @return writer creating the build context
+     * @throws MojoExecutionException in case any exception comes during preparing the build context
+     */
+    public BuildContextWriter buildArchiveStream(ImageConfiguration imageConfiguration, BuildContext buildContext)
+            throws MojoExecutionException {
+        String imageName = imageConfiguration.getName();
+        ImageName.validate(imageName);
+        BuildImageConfiguration buildConfig = imageConfiguration.getBuildConfiguration();
+        return archiveService.createArchiveStream(imageName, buildConfig, buildContext.getMojoParameters(), log);
+    }
+
     public void copyDockerArchive(ImageConfiguration imageConfiguration, File dockerArchive, String archivePath) throws IOException {
         if (archivePath != null && !archivePath.isEmpty()) {
             Files.copy(dockerArchive.toPath(), new File(archivePath, dockerArchive.getName()).toPath());
@@ -138,6 +259,11 @@ public class BuildService {
      */
     protected void buildImage(ImageConfiguration imageConfig, MojoParameters params, boolean noCache, boolean squash, Map<String, String> buildArgs, File dockerArchive)
             throws DockerAccessException, MojoExecutionException {
+        buildImage(imageConfig, params, noCache, squash, buildArgs, (imageName, opts) -> docker.buildImage(imageName, dockerArchive, opts));
+    }
+
+    private void buildImage(ImageConfiguration imageConfig, MojoParameters params, boolean noCache, boolean squash, Map<String, String> buildArgs, BuildRequest buildRequest)
+            throws DockerAccessException, MojoExecutionException {
 
         String imageName = imageConfig.getName();
         ImageName.validate(imageName);
@@ -168,23 +294,25 @@ public class BuildService {
         }
 
         Map<String, String> mergedBuildMap = prepareBuildArgs(buildArgs, buildConfig);
-
-        // auto is now supported by docker, consider switching?
-        BuildOptions opts =
-                new BuildOptions(buildConfig.getBuildOptions())
-                        .dockerfile(buildConfig.getDockerfileName())
-                        .forceRemove(cleanupMode.isRemove())
-                        .noCache(noCache)
-                        .squash(squash)
-                        .cacheFrom(buildConfig.getCacheFrom())
-                        .network(buildConfig.getNetwork())
-                        .buildArgs(mergedBuildMap);
-        String newImageId = doBuildImage(imageName, dockerArchive, opts);
+        BuildOptions opts = createBuildOptions(buildConfig, noCache, squash, mergedBuildMap);
+        String newImageId = doBuildImage(imageName, buildRequest, opts);
         log.info("%s: Built image %s", imageConfig.getDescription(), newImageId);
 
         removeDanglingImage(imageName, oldImageId, newImageId, cleanupMode, true);
     }
 
+    private static BuildOptions createBuildOptions(BuildImageConfiguration buildConfig, boolean noCache, boolean squash, Map<String, String> mergedBuildMap) {
+        // auto is now supported by docker, consider switching?
+        return new BuildOptions(buildConfig.getBuildOptions())
+                .dockerfile(buildConfig.getDockerfileName())
+                .forceRemove(buildConfig.cleanupMode().isRemove())
+                .noCache(noCache)
+                .squash(squash)
+                .cacheFrom(buildConfig.getCacheFrom())
+                .network(buildConfig.getNetwork())
+                .buildArgs(mergedBuildMap);
+    }
+
     public void tagImage(String imageName, String tag, String repo, CleanupMode cleanupMode) throws DockerAccessException {
         if (tag != null) {
             String fullImageName = new ImageName(imageName, tag).getNameWithOptionalRepository(repo);
@@ -287,12 +415,18 @@ public class BuildService {
         return null;
     }
 
-    private String doBuildImage(String imageName, File dockerArchive, BuildOptions options)
+    private String doBuildImage(String imageName, BuildRequest buildRequest, BuildOptions options)
             throws DockerAccessException, MojoExecutionException {
-        docker.buildImage(imageName, dockerArchive, options);
+        buildRequest.build(imageName, options);
         return queryService.getImageId(imageName);
     }
 
+    // Sends the build request for an image with a given build context to the Docker daemon
+    @FunctionalInterface
+    private interface BuildRequest {
+        void build(String imageName, BuildOptions options) throws DockerAccessException;
+    }
+
 
 
     private void autoPullBaseImage(ImageConfiguration imageConfig, ImagePullManager imagePullManager, BuildContext buildContext, Map<String, String> buildArgs)
@@ -305,16 +439,7 @@ public class BuildService {
             return;
         }
 
-        List<String> fromImages;
-        if (buildConfig.isDockerFileMode()) {
-            fromImages = extractBaseFromDockerfile(buildConfig, buildContext.getMojoParameters(), buildArgs);
-        } else {
-            fromImages = new LinkedList<>();
-            String baseImage = extractBaseFromConfiguration(buildConfig);
-            if (baseImage != null) {
-                fromImages.add(baseImage);
-            }
-        }
+        List<String> fromImages = extractBaseImages(buildConfig, buildContext.getMojoParameters(), buildArgs);
         for (String fromImage : fromImages) {
             if (fromImage != null && !DockerAssemblyManager.SCRATCH_IMAGE.equals(fromImage)) {
                 String oldImageId = null;
@@ -357,6 +482,36 @@ public class BuildService {
         }
     }
 
+    /**
+     * Get the base images an image is built from. For a Dockerfile build these are all images referenced in
+     * a <code>FROM</code> instruction, otherwise it is the configured <code>from</code> image.
+     *
+     * @param imageConfig the image configuration
+     * @param buildContext the build context used for resolving build args
+     * @return list of base images, empty if no base image could be determined or if the image is
+     *         loaded from an archive
+     */
+    public List<String> getBaseImages(ImageConfiguration imageConfig, BuildContext buildContext) {
+        BuildImageConfiguration buildConfig = imageConfig.getBuildConfiguration();
+        if (buildConfig == null || buildConfig.getDockerArchive() != null) {
+            return Collections.emptyList();
+        }
+        Map<String, String> buildArgs = prepareBuildArgs(new BuildArgResolver(log).resolveBuildArgs(buildContext), buildConfig);
+        return extractBaseImages(buildConfig, buildContext.getMojoParameters(), buildArgs);
+    }
+
+    private List<String> extractBaseImages(BuildImageConfiguration buildConfig, MojoParameters mojoParameters, Map<String, String> buildArgs) {
+        if (buildConfig.isDockerFileMode()) {
+            return extractBaseFromDockerfile(buildConfig, mojoParameters, buildArgs);
+        }
+        List<String> fromImages = new LinkedList<>();
+        String baseImage = extractBaseFromConfiguration(buildConfig);
+        if (baseImage != null) {
+            fromImages.add(baseImage);
+        }
+        return fromImages;
+    }
+
     private String extractBaseFromConfiguration(BuildImageConfiguration buildConfig) {
         String fromImage;
         fromImage = buildConfig.getFrom();
@@ -0,0 +1,92 @@
+package io.fabric8.maven.docker.service;
+
+import io.fabric8.maven.docker.access.DockerAccess;
+import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.model.ContainerDetails;
+
+/**
+ * Short-lived snapshot of the inspected state of a container while it is started. All steps of starting a
+ * container which need its details (mapped ports, exposed properties, wait checkers) share one inspect. The
+ * snapshot is only refreshed when the state of the container can have changed, i.e. after it has been started
+ * and on every tick while waiting for it.
+ */
+public class ContainerSnapshot {
+
+    private final DockerAccess docker;
+    private final String containerId;
+
+    // Details of the last inspect, null if the container needs to be inspected again
+    private ContainerDetails details;
+
+    private int inspects;
+    private int inspectsAvoided;
+
+    public ContainerSnapshot(DockerAccess docker, String containerId) {
+        this.docker = docker;
+        this.containerId = containerId;
+    }
+
+    public String getContainerId() {
+        return containerId;
+    }
+
+    /**
+     * Get the details of the container, inspecting it only if the snapshot has been refreshed since the last inspect
+     *
+     * @return the details or <code>null</code> if the container doesn't exist
+     * @throws DockerAccessException if inspecting the container fails
+     */
+    public synchronized ContainerDetails get() throws DockerAccessException {
+        if (details != null) {
+            inspectsAvoided++;
+            return details;
+        }
+        inspects++;
+        details = docker.getContainer(containerId);
+        return details;
+    }
+
+    /**
+     * Get the details of the container like {@link #get()}, but fail if it doesn't exist
+     *
+     * @return the details
+     * @throws DockerAccessException if inspecting the container fails or the container doesn't exist
+     */
+    public ContainerDetails getMandatory() throws DockerAccessException {
+        ContainerDetails container = get();
+        if (container == null) {
+            throw new DockerAccessException("Cannot find container %s", containerId);
+        }
+        return container;
+    }
+
+    /**
+     * Mark the snapshot as outdated, so that the container is inspected again when its details are needed next
+     */
+    public synchronized void refresh() {
+        details = null;
+    }
+
+    /**
+     * Use details of the container which have been inspected elsewhere
+     *
+     * @param details current details of the container
+     */
+    public synchronized void update(ContainerDetails details) {
+        this.details = details;
+    }
+
+    /**
+     * @return number of times the container has been inspected
+     */
+    public synchronized int getInspects() {
+        return inspects;
+    }
+
+    /**
+     * @return number of inspects which have been avoided by using the snapshot
+     */
+    public synchronized int getInspectsAvoided() {
+        return inspectsAvoided;
+    }
+}
@@ -29,16 +29,37 @@ import javax.inject.Singleton;
 public class DockerAccessFactory {
 
     public DockerAccess createDockerAccess(DockerAccessContext dockerAccessContext) throws MojoExecutionException, MojoFailureException {
+        return createDockerAccess(dockerAccessContext, null);
+    }
+
+    /**
+     * Create a docker access for the given context. If a registry is given, an access already created
+     * for the same connection parameters is reused and a newly created access is registered for sharing it
+     * with subsequent mojo executions.
+     *
+     * @param dockerAccessContext context describing the connection to the Docker daemon
+     * @param registry registry holding the shared accesses of the current session. Can be <code>null</code>
+     *                 in which case always a new access is created.
+     * @return the docker access
+     */
+    public DockerAccess createDockerAccess(DockerAccessContext dockerAccessContext, DockerAccessRegistry registry)
+        throws MojoExecutionException, MojoFailureException {
 
         try {
             DockerConnectionDetector dockerConnectionDetector = createDockerConnectionDetector(dockerAccessContext, dockerAccessContext.getLog());
             DockerConnectionDetector.ConnectionParameter connectionParam =
                     dockerConnectionDetector.detectConnectionParameter(dockerAccessContext.getDockerHost(), dockerAccessContext.getCertPath());
-            DockerAccess access = new DockerAccessWithHcClient(connectionParam.getUrl(),
-                    connectionParam.getCertPath(),
-                    dockerAccessContext.getMaxConnections(),
-                    dockerAccessContext.getLog());
-            access.start();
+            DockerAccess access;
+            if (registry != null) {
+                String key = DockerAccessRegistry.createKey(connectionParam.getUrl(),
+                                                            connectionParam.getCertPath(),
+                                                            dockerAccessContext.getMaxConnections());
+                // A shared access logs through the logger of the mojo execution using it, not the one creating it
+                Logger log = registry.bindLog(dockerAccessContext.getLog());
+                access = registry.getOrCreate(key, () -> createDockerAccess(connectionParam, dockerAccessContext, log));
+            } else {
+                access = createDockerAccess(connectionParam, dockerAccessContext, dockerAccessContext.getLog());
+            }
             setDockerHostAddressProperty(dockerAccessContext, connectionParam.getUrl());
             return access;
         } catch (IOException e) {
@@ -47,6 +68,16 @@ public class DockerAccessFactory {
 
     }
 
+    private DockerAccess createDockerAccess(DockerConnectionDetector.ConnectionParameter connectionParam,
+                                            DockerAccessContext dockerAccessContext, Logger log) throws IOException {
+        DockerAccess access = new DockerAccessWithHcClient(connectionParam.getUrl(),
+                connectionParam.getCertPath(),
+                dockerAccessContext.getMaxConnections(),
+                log);
+        access.start();
+        return access;
+    }
+
     private DockerConnectionDetector createDockerConnectionDetector(DockerAccessContext dockerAccessContext, Logger log) {
         return new DockerConnectionDetector(getDockerHostProviders(dockerAccessContext, log));
     }
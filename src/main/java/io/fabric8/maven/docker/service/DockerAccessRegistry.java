@@ -0,0 +1,337 @@
+package io.fabric8.maven.docker.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import io.fabric8.maven.docker.access.DockerAccess;
+import io.fabric8.maven.docker.util.Logger;
+
+import org.apache.maven.execution.AbstractExecutionListener;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.SessionData;
+
+/**
+ * Registry holding {@link DockerAccess} objects which are shared by all mojo executions of
+ * a Maven session. Accesses are keyed by their connection parameters, so that every goal in every reactor
+ * module connecting to the same Docker daemon reuses the same pooled client (and with it the server API
+ * version which is looked up once when the access is created).
+ * <p>
+ * The registry is stored in the session data of the Maven session. All registered accesses are shut down
+ * when the session ends.
+ */
+public class DockerAccessRegistry {
+
+    // Key under which the registry is stored in the session data
+    static final String CONTEXT_KEY_DOCKER_ACCESS_REGISTRY = "CONTEXT_KEY_DOCKER_ACCESS_REGISTRY";
+
+    private final Map<String, DockerAccess> accessMap = new LinkedHashMap<>();
+    private final Map<DockerAccess, Boolean> sharedAccesses = new IdentityHashMap<>();
+
+    // Logger of the mojo execution running on the current thread (or on the thread which created the current thread)
+    private final InheritableThreadLocal<Logger> threadLog = new InheritableThreadLocal<>();
+
+    private boolean closed;
+
+    /**
+     * Lookup the registry for the given session or create a new one if no registry is stored yet. A newly
+     * created registry is shut down when the session ends.
+     *
+     * @param session the current Maven session
+     * @return the registry for this session or <code>null</code> if the session has no session data where the
+     *         registry could be stored
+     */
+    public static DockerAccessRegistry forSession(MavenSession session) {
+        RepositorySystemSession repositorySession = session != null ? session.getRepositorySession() : null;
+        if (repositorySession == null || repositorySession.getData() == null) {
+            return null;
+        }
+        SessionData data = repositorySession.getData();
+        DockerAccessRegistry registry = (DockerAccessRegistry) data.get(CONTEXT_KEY_DOCKER_ACCESS_REGISTRY);
+        if (registry == null) {
+            DockerAccessRegistry newRegistry = new DockerAccessRegistry();
+            if (data.set(CONTEXT_KEY_DOCKER_ACCESS_REGISTRY, null, newRegistry)) {
+                newRegistry.shutdownOnSessionEnd(session.getRequest());
+            }
+            registry = (DockerAccessRegistry) data.get(CONTEXT_KEY_DOCKER_ACCESS_REGISTRY);
+        }
+        return registry;
+    }
+
+    /**
+     * Create the key under which an access for the given connection parameters is registered
+     *
+     * @param url URL of the Docker daemon
+     * @param certPath path to the certificates used for a SSL connection (can be null)
+     * @param maxConnections maximum number of pooled connections
+     * @return key to use for {@link #getOrCreate(String, AccessCreator)}
+     */
+    public static String createKey(String url, String certPath, int maxConnections) {
+        return url + "|" + Objects.toString(certPath, "") + "|" + maxConnections;
+    }
+
+    /**
+     * Get the access registered for the given key or create and register a new one
+     *
+     * @param key key as created by {@link #createKey(String, String, int)}
+     * @param creator used to create the access if no access is registered yet
+     * @return the shared access
+     * @throws IOException if the access could not be created
+     */
+    public synchronized DockerAccess getOrCreate(String key, AccessCreator creator) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Docker access registry has already been shut down");
+        }
+        DockerAccess access = accessMap.get(key);
+        if (access == null) {
+            access = creator.create();
+            accessMap.put(key, access);
+            sharedAccesses.put(access, Boolean.TRUE);
+        }
+        return access;
+    }
+
+    /**
+     * Bind the logger of the current mojo execution to the current thread. A shared access logs through the
+     * logger bound to the calling thread (or to the thread which created it). On other threads, e.g. when the
+     * access is shut down at the end of the session, it logs through the logger of the mojo execution which
+     * created the access. Threads started by the access itself report errors through the callbacks of the
+     * requests they serve, not through this logger.
+     *
+     * @param mojoLog logger of the current mojo execution
+     * @return logger to use for an access created by the current mojo execution
+     */
+    public Logger bindLog(Logger mojoLog) {
+        threadLog.set(mojoLog);
+        return new BoundLogger(threadLog, mojoLog);
+    }
+
+    /**
+     * Remove the logger bound to the current thread, e.g. when the mojo execution has finished
+     */
+    public void unbindLog() {
+        threadLog.remove();
+    }
+
+    /**
+     * Check whether the given access is managed by this registry. Shared accesses must not be shut down
+     * by the caller.
+     *
+     * @param access access to check
+     * @return true if the access is shared and will be shut down by this registry
+     */
+    public synchronized boolean isShared(DockerAccess access) {
+        return sharedAccesses.containsKey(access);
+    }
+
+    /**
+     * Shutdown all registered accesses. The registry can't be used anymore afterwards.
+     */
+    public void shutdown() {
+        List<DockerAccess> toShutdown;
+        synchronized (this) {
+            closed = true;
+            toShutdown = new ArrayList<>(accessMap.values());
+            accessMap.clear();
+            sharedAccesses.clear();
+        }
+        for (DockerAccess access : toShutdown) {
+            access.shutdown();
+        }
+    }
+
+    // Chain into the execution listener of the request to get notified when the session ends
+    private void shutdownOnSessionEnd(MavenExecutionRequest request) {
+        if (request != null) {
+            request.setExecutionListener(new SessionEndListener(request.getExecutionListener()));
+        }
+    }
+
+    /**
+     * Factory for creating a new access
+     */
+    @FunctionalInterface
+    public interface AccessCreator {
+        DockerAccess create() throws IOException;
+    }
+
+    // Execution listener passing on all events to the original listener and shutting down the registry when the session ends
+    private class SessionEndListener extends AbstractExecutionListener {
+
+        private final ExecutionListener delegate;
+
+        SessionEndListener(ExecutionListener delegate) {
+            this.delegate = delegate != null ? delegate : new AbstractExecutionListener();
+        }
+
+        @Override
+        public void projectDiscoveryStarted(ExecutionEvent event) {
+            delegate.projectDiscoveryStarted(event);
+        }
+
+        @Override
+        public void sessionStarted(ExecutionEvent event) {
+            delegate.sessionStarted(event);
+        }
+
+        @Override
+        public void sessionEnded(ExecutionEvent event) {
+            try {
+                delegate.sessionEnded(event);
+            } finally {
+                shutdown();
+            }
+        }
+
+        @Override
+        public void projectSkipped(ExecutionEvent event) {
+            delegate.projectSkipped(event);
+        }
+
+        @Override
+        public void projectStarted(ExecutionEvent event) {
+            delegate.projectStarted(event);
+        }
+
+        @Override
+        public void projectSucceeded(ExecutionEvent event) {
+            delegate.projectSucceeded(event);
+        }
+
+        @Override
+        public void projectFailed(ExecutionEvent event) {
+            delegate.projectFailed(event);
+        }
+
+        @Override
+        public void mojoSkipped(ExecutionEvent event) {
+            delegate.mojoSkipped(event);
+        }
+
+        @Override
+        public void mojoStarted(ExecutionEvent event) {
+            delegate.mojoStarted(event);
+        }
+
+        @Override
+        public void mojoSucceeded(ExecutionEvent event) {
+            delegate.mojoSucceeded(event);
+        }
+
+        @Override
+        public void mojoFailed(ExecutionEvent event) {
+            delegate.mojoFailed(event);
+        }
+
+        @Override
+        public void forkStarted(ExecutionEvent event) {
+            delegate.forkStarted(event);
+        }
+
+        @Override
+        public void forkSucceeded(ExecutionEvent event) {
+            delegate.forkSucceeded(event);
+        }
+
+        @Override
+        public void forkFailed(ExecutionEvent event) {
+            delegate.forkFailed(event);
+        }
+
+        @Override
+        public void forkedProjectStarted(ExecutionEvent event) {
+            delegate.forkedProjectStarted(event);
+        }
+
+        @Override
+        public void forkedProjectSucceeded(ExecutionEvent event) {
+            delegate.forkedProjectSucceeded(event);
+        }
+
+        @Override
+        public void forkedProjectFailed(ExecutionEvent event) {
+            delegate.forkedProjectFailed(event);
+        }
+    }
+
+    // Logger forwarding to the logger bound by the current mojo execution or to the logger of the mojo execution
+    // which created the access if no logger is bound to the current thread
+    private static class BoundLogger implements Logger {
+
+        private final ThreadLocal<Logger> threadLog;
+        private final Logger ownerLog;
+
+        BoundLogger(ThreadLocal<Logger> threadLog, Logger ownerLog) {
+            this.threadLog = threadLog;
+            this.ownerLog = ownerLog;
+        }
+
+        private Logger current() {
+            Logger mojoLog = threadLog.get();
+            return mojoLog != null ? mojoLog : ownerLog;
+        }
+
+        @Override
+        public void debug(String format, Object... params) {
+            current().debug(format, params);
+        }
+
+        @Override
+        public void info(String format, Object... params) {
+            current().info(format, params);
+        }
+
+        @Override
+        public void verbose(LogVerboseCategory logVerboseCategory, String format, Object... params) {
+            current().verbose(logVerboseCategory, format, params);
+        }
+
+        @Override
+        public void warn(String format, Object... params) {
+            current().warn(format, params);
+        }
+
+        @Override
+        public void error(String format, Object... params) {
+            current().error(format, params);
+        }
+
+        @Override
+        public String errorMessage(String message) {
+            return current().errorMessage(message);
+        }
+
+        @Override
+        public boolean isDebugEnabled() {
+            return current().isDebugEnabled();
+        }
+
+        @Override
+        public boolean isVerboseEnabled() {
+            return current().isVerboseEnabled();
+        }
+
+        @Override
+        public void progressStart() {
+            current().progressStart();
+        }
+
+        @Override
+        public void progressUpdate(String layerId, String status, String progressMessage) {
+            current().progressUpdate(layerId, status, progressMessage);
+        }
+
+        @Override
+        public void progressFinished() {
+            current().progressFinished();
+        }
+    }
+}
@@ -1,29 +1,73 @@
 package io.fabric8.maven.docker.service;
 
-import com.google.gson.JsonObject;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import io.fabric8.maven.docker.access.DockerAccessException;
 import io.fabric8.maven.docker.config.ImagePullPolicy;
 import io.fabric8.maven.docker.util.AutoPullMode;
-import io.fabric8.maven.docker.util.JsonFactory;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.SessionData;
 
 /**
- * Simple interface for a ImagePullCache manager, to load and persist the cache.
+ * Decides about pulling images according to the pull policy and remembers which images have been pulled.
+ * <p>
+ * The pulled images are stored in the session data, so that all modules of a Maven session share them. Only JDK
+ * types are stored, as the session data might be shared with other versions of this plugin. A pull of an image is
+ * guarded by a lock per image, so that two modules built in parallel never pull the same image concurrently.
  */
 public class ImagePullManager {
 
-    // Key for the previously used image cache
-    private static final String CONTEXT_KEY_PREVIOUSLY_PULLED = "CONTEXT_KEY_PREVIOUSLY_PULLED";
+    // Key for the previously pulled images in the session data
+    static final String CONTEXT_KEY_PREVIOUSLY_PULLED = "CONTEXT_KEY_PREVIOUSLY_PULLED";
 
     // image pull policy
     private final ImagePullPolicy imagePullPolicy;
 
-    private CacheStore cacheStore;
+    // Image name to pull state, which is true once the image has been pulled. The state is also the lock for pulling.
+    private final ConcurrentMap<String, AtomicBoolean> pulledImages;
 
-    public ImagePullManager(CacheStore cacheStore, String imagePullPolicy, String autoPull) {
-        this.cacheStore = cacheStore;
+    /**
+     * Create a pull manager which doesn't share the pulled images
+     *
+     * @param imagePullPolicy pull policy, takes precedence over autoPull
+     * @param autoPull auto pull mode
+     */
+    public ImagePullManager(String imagePullPolicy, String autoPull) {
+        this(new ConcurrentHashMap<>(), imagePullPolicy, autoPull);
+    }
+
+    ImagePullManager(ConcurrentMap<String, AtomicBoolean> pulledImages, String imagePullPolicy, String autoPull) {
+        this.pulledImages = pulledImages;
         this.imagePullPolicy = createPullPolicy(imagePullPolicy, autoPull);
     }
 
+    /**
+     * Create a pull manager sharing the pulled images with all other pull managers of the session
+     *
+     * @param session the current Maven session
+     * @param imagePullPolicy pull policy, takes precedence over autoPull
+     * @param autoPull auto pull mode
+     * @return the pull manager, which doesn't share the pulled images if the session has no session data
+     */
+    @SuppressWarnings("unchecked")
+    public static ImagePullManager forSession(MavenSession session, String imagePullPolicy, String autoPull) {
+        RepositorySystemSession repositorySession = session != null ? session.getRepositorySession() : null;
+        if (repositorySession == null || repositorySession.getData() == null) {
+            return new ImagePullManager(imagePullPolicy, autoPull);
+        }
+        SessionData data = repositorySession.getData();
+        if (data.get(CONTEXT_KEY_PREVIOUSLY_PULLED) == null) {
+            data.set(CONTEXT_KEY_PREVIOUSLY_PULLED, null, new ConcurrentHashMap<String, AtomicBoolean>());
+        }
+        ConcurrentMap<String, AtomicBoolean> pulledImages =
+            (ConcurrentMap<String, AtomicBoolean>) data.get(CONTEXT_KEY_PREVIOUSLY_PULLED);
+        return new ImagePullManager(pulledImages, imagePullPolicy, autoPull);
+    }
+
     ImagePullPolicy getImagePullPolicy() {
         return imagePullPolicy;
     }
@@ -48,67 +92,40 @@ public class ImagePullManager {
     }
 
     public boolean hasAlreadyPulled(String image) {
-        return load().has(image);
-    }
-
-    public void pulled(String image) {
-        save(load().add(image));
-    }
-
-
-    public interface CacheStore {
-        String get(String key);
-
-        void put(String key, String value);
-    }
-
-    public ImagePullCache load() {
-
-        String pullCacheJson = cacheStore.get(CONTEXT_KEY_PREVIOUSLY_PULLED);
-
-        ImagePullCache cache = new ImagePullCache(pullCacheJson);
-
-        if (pullCacheJson == null) {
-            save(cache);
-            cacheStore.put(CONTEXT_KEY_PREVIOUSLY_PULLED, cache.toString());
-        }
-        return cache;
-    }
-
-    public void save(ImagePullCache cache) {
-        cacheStore.put(CONTEXT_KEY_PREVIOUSLY_PULLED, cache.toString());
+        AtomicBoolean pulled = pulledImages.get(image);
+        return pulled != null && pulled.get();
     }
 
     /**
-     * Simple serializable cache for holding image names
+     * Pull an image unless it has already been pulled in this session. Concurrent calls for the same image wait
+     * for each other, so that the image is checked and pulled by one caller at a time. The image is only marked as
+     * pulled when the pull returns <code>true</code>, so that a failed pull is tried again by the next caller.
      *
-     * @author roland
-     * @since 20/07/16
+     * @param image image to pull
+     * @param pull pulls the image if required
+     * @throws DockerAccessException if the pull fails
+     * @throws MojoExecutionException if the pull fails
      */
-    class ImagePullCache {
-
-        private JsonObject cache;
-
-        public ImagePullCache() {
-            this(null);
+    public void pullOnce(String image, Pull pull) throws DockerAccessException, MojoExecutionException {
+        AtomicBoolean pulled = pulledImages.computeIfAbsent(image, k -> new AtomicBoolean());
+        if (pulled.get()) {
+            return;
         }
-
-        public ImagePullCache(String json) {
-            cache = json != null ? JsonFactory.newJsonObject(json) : new JsonObject();
-        }
-
-        public boolean has(String imageName) {
-            return cache.has(imageName);
-        }
-
-        public ImagePullCache add(String image) {
-            cache.addProperty(image, Boolean.TRUE);
-            return this;
+        synchronized (pulled) {
+            if (!pulled.get() && pull.pull()) {
+                pulled.set(true);
+            }
         }
+    }
 
-        @Override
-        public String toString() {
-            return cache.toString();
-        }
+    /**
+     * Pull of an image
+     */
+    @FunctionalInterface
+    public interface Pull {
+        /**
+         * @return true if the image has been pulled, false if no pull was required
+         */
+        boolean pull() throws DockerAccessException, MojoExecutionException;
     }
 }
@@ -4,12 +4,10 @@ import com.google.cloud.tools.jib.api.Credential;
 import com.google.cloud.tools.jib.api.JibContainerBuilder;
 import com.google.cloud.tools.jib.api.TarImage;
 import io.fabric8.maven.docker.access.AuthConfig;
-import io.fabric8.maven.docker.assembly.AssemblyFiles;
 import io.fabric8.maven.docker.assembly.BuildDirs;
 import io.fabric8.maven.docker.config.ArchiveCompression;
-import io.fabric8.maven.docker.config.AssemblyConfiguration;
+import io.fabric8.maven.docker.config.BuildImageConfiguration;
 import io.fabric8.maven.docker.config.ImageConfiguration;
-import io.fabric8.maven.docker.util.AuthConfigFactory;
 import io.fabric8.maven.docker.util.EnvUtil;
 import io.fabric8.maven.docker.util.ImageName;
 import io.fabric8.maven.docker.util.JibServiceUtil;
@@ -18,12 +16,13 @@ import io.fabric8.maven.docker.util.MojoParameters;
 import org.apache.maven.plugin.MojoExecutionException;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import static io.fabric8.maven.docker.util.JibServiceUtil.containerFromImageConfiguration;
 import static io.fabric8.maven.docker.util.JibServiceUtil.getBaseImage;
@@ -37,67 +36,174 @@ public class JibBuildService {
     private final Logger log;
     private final ServiceHub serviceHub;
     private final MojoParameters mojoParameters;
+    // Environment of the docker CLI used by JIB for the Docker daemon
+    private final Map<String, String> dockerEnvironment;
 
     public JibBuildService(ServiceHub hub, MojoParameters mojoParameters, Logger log) {
+        this(hub, mojoParameters, log, Collections.emptyMap());
+    }
+
+    /**
+     * @param hub service hub
+     * @param mojoParameters mojo parameters
+     * @param log logger
+     * @param dockerEnvironment environment variables like <code>DOCKER_HOST</code> for connecting to the Docker daemon,
+     *                          see {@link #getDockerEnvironment(String, String)}
+     */
+    public JibBuildService(ServiceHub hub, MojoParameters mojoParameters, Logger log, Map<String, String> dockerEnvironment) {
         this.serviceHub = hub;
         this.mojoParameters = mojoParameters;
         this.log = log;
+        this.dockerEnvironment = dockerEnvironment;
     }
 
     public void build(String jibImageFormat, ImageConfiguration imageConfig, RegistryService.RegistryConfig registryConfig) throws MojoExecutionException {
+        build(jibImageFormat, BuildTarget.tar.name(), imageConfig, registryConfig);
+    }
+
+    public void build(String jibImageFormat, String jibTarget, ImageConfiguration imageConfig, RegistryService.RegistryConfig registryConfig) throws MojoExecutionException {
+        build(jibImageFormat, jibTarget, imageConfig, registryConfig, false, false);
+    }
+
+    /**
+     * Build an image with JIB
+     *
+     * @param jibImageFormat format of the image, <code>docker</code> or <code>oci</code>
+     * @param jibTarget where to build the image to, see {@link BuildTarget}
+     * @param imageConfig image to build
+     * @param registryConfig registry configuration for pulling the base image and pushing to a registry target
+     * @param skipPush whether pushing is skipped. The image is built as tarball instead of pushing it to a registry target then.
+     * @param skipTag whether tagging is skipped. Only the image name is pushed to a registry target or loaded into the Docker daemon then.
+     * @throws MojoExecutionException if the build fails
+     */
+    public void build(String jibImageFormat, String jibTarget, ImageConfiguration imageConfig, RegistryService.RegistryConfig registryConfig,
+                      boolean skipPush, boolean skipTag) throws MojoExecutionException {
+        BuildTarget target = getBuildTarget(jibTarget);
+        BuildImageConfiguration buildConfig = imageConfig.getBuildConfiguration();
+        if (target == BuildTarget.registry && (skipPush || buildConfig.skipPush())) {
+            log.info("%s: Push skipped, building image tarball instead of pushing to the registry", imageConfig.getDescription());
+            target = BuildTarget.tar;
+        }
+        boolean tag = !skipTag && !buildConfig.skipTag();
         try {
             log.info("[[B]]JIB[[B]] image build started");
             if (imageConfig.getBuildConfiguration().isDockerFileMode()) {
                 throw new MojoExecutionException("Dockerfile mode is not supported with JIB build strategy");
             }
             prepareImageConfiguration(imageConfig, registryConfig);
-            BuildDirs buildDirs = new BuildDirs(imageConfig.getName(), mojoParameters);
             final Credential pullRegistryCredential = getRegistryCredentials(
                     registryConfig, false, imageConfig);
             final JibContainerBuilder containerBuilder = containerFromImageConfiguration(jibImageFormat, imageConfig, pullRegistryCredential);
 
-            File dockerTarArchive = getAssemblyTarArchive(imageConfig, serviceHub, mojoParameters, log);
-
-            for (AssemblyConfiguration assemblyConfiguration : imageConfig.getBuildConfiguration().getAllAssemblyConfigurations()) {
-                // TODO: Improve Assembly Manager so that the effective assemblyFileEntries computed can be properly shared
-                // the call to DockerAssemblyManager.getInstance().createDockerTarArchive should not be necessary,
-                // files should be added using the AssemblyFileEntry list. DockerAssemblyManager, should provide
-                // a common way to achieve this so that both the tar builder and any other builder could get a hold of
-                // archive customizers, file entries, etc.
-                AssemblyFiles assemblyFiles = serviceHub.getDockerAssemblyManager()
-                        .getAssemblyFiles(imageConfig.getName(), assemblyConfiguration, mojoParameters, log);
-                final Map<File, AssemblyFiles.Entry> files = assemblyFiles
-                        .getUpdatedEntriesAndRefresh().stream()
-                        .collect(Collectors.toMap(AssemblyFiles.Entry::getDestFile, Function.identity(), (oldV, newV) -> newV));
-                JibServiceUtil.copyToContainer(
-                        containerBuilder, buildDirs.getOutputDirectory(), buildDirs.getOutputDirectory().getAbsolutePath(), files);
-            }
+            // The assembly is created once into the output directory, from where it is added to the image.
+            // The docker build archive itself is not needed.
+            BuildDirs buildDirs = prepareAssembly(imageConfig, serviceHub, mojoParameters, log);
+            JibServiceUtil.copyToContainer(
+                    containerBuilder, buildDirs.getOutputDirectory(), buildDirs.getOutputDirectory().getAbsolutePath(), Collections.emptyMap());
 
-            JibServiceUtil.buildContainer(containerBuilder,
-                    TarImage.at(dockerTarArchive.toPath()).named(imageConfig.getName()), log);
-            log.info(" %s successfully built", dockerTarArchive.getAbsolutePath());
+            switch (target) {
+                case registry:
+                    // A tarball of an earlier build would be pushed instead by the push goal
+                    Files.deleteIfExists(getBuildTarArchive(imageConfig, mojoParameters).toPath());
+                    JibServiceUtil.buildContainerToRegistry(containerBuilder, imageConfig,
+                            getRegistryCredentials(registryConfig, true, imageConfig), !tag, log);
+                    log.info(" %s successfully built and pushed", imageConfig.getName());
+                    break;
+                case docker:
+                    JibServiceUtil.buildContainerToDocker(containerBuilder, imageConfig, dockerEnvironment, !tag, log);
+                    log.info(" %s successfully built", imageConfig.getName());
+                    break;
+                default:
+                    File dockerTarArchive = getBuildTarArchive(imageConfig, mojoParameters);
+                    JibServiceUtil.buildContainer(containerBuilder,
+                            TarImage.at(dockerTarArchive.toPath()).named(imageConfig.getName()), log);
+                    log.info(" %s successfully built", dockerTarArchive.getAbsolutePath());
+            }
         } catch (Exception ex) {
             throw new MojoExecutionException("Error when building JIB image", ex);
         }
     }
 
     public void push(Collection<ImageConfiguration> imageConfigs, int retries, RegistryService.RegistryConfig registryConfig, boolean skipTag) throws MojoExecutionException {
+        push(imageConfigs, BuildTarget.tar.name(), retries, registryConfig, skipTag);
+    }
+
+    /**
+     * Push images built with JIB
+     *
+     * @param imageConfigs images to push
+     * @param jibTarget where the images have been built to, see {@link BuildTarget}
+     * @param retries how often to retry a push
+     * @param registryConfig registry configuration
+     * @param skipTag whether to skip pushing tags
+     * @throws MojoExecutionException if a push fails
+     */
+    public void push(Collection<ImageConfiguration> imageConfigs, String jibTarget, int retries, RegistryService.RegistryConfig registryConfig, boolean skipTag) throws MojoExecutionException {
+        BuildTarget target = getBuildTarget(jibTarget);
         try {
             for (ImageConfiguration imageConfiguration : imageConfigs) {
+                BuildImageConfiguration buildConfig = imageConfiguration.getBuildConfiguration();
+                if (buildConfig != null && buildConfig.skipPush()) {
+                    log.info("%s : Skipped pushing", imageConfiguration.getDescription());
+                    continue;
+                }
                 prepareImageConfiguration(imageConfiguration, registryConfig);
+                // The build falls back to a tarball for a registry target when pushing is skipped during the build
+                if (target == BuildTarget.registry && !getBuildTarArchive(imageConfiguration, mojoParameters).exists()) {
+                    log.info("%s has already been pushed by the build", imageConfiguration.getName());
+                    continue;
+                }
                 log.info("This push refers to: %s", imageConfiguration.getName());
-                JibServiceUtil.jibPush(
-                        imageConfiguration,
-                        getRegistryCredentials(registryConfig, true, imageConfiguration),
-                        getBuildTarArchive(imageConfiguration, mojoParameters),
-                        log
-                );
+                Credential pushCredentials = getRegistryCredentials(registryConfig, true, imageConfiguration);
+                if (target == BuildTarget.docker) {
+                    JibServiceUtil.jibPushFromDocker(imageConfiguration, pushCredentials, dockerEnvironment, log);
+                } else {
+                    JibServiceUtil.jibPush(
+                            imageConfiguration,
+                            pushCredentials,
+                            getBuildTarArchive(imageConfiguration, mojoParameters),
+                            log
+                    );
+                }
             }
         } catch (Exception ex) {
             throw new MojoExecutionException("Error when push JIB image", ex);
         }
     }
 
+    static BuildTarget getBuildTarget(String jibTarget) throws MojoExecutionException {
+        if (jibTarget == null) {
+            return BuildTarget.tar;
+        }
+        try {
+            return BuildTarget.valueOf(jibTarget.trim().toLowerCase());
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException("Invalid JIB build target '" + jibTarget + "', must be one of " + Arrays.toString(BuildTarget.values()));
+        }
+    }
+
+    /**
+     * Environment for the docker CLI, which JIB uses for accessing the Docker daemon, so that it connects
+     * to the same daemon as the plugin. Values which are not configured are taken from the environment
+     * of the build as for the plugin itself.
+     *
+     * @param dockerHost configured URL of the Docker daemon, may be null
+     * @param certPath configured path to the TLS certificates, may be null
+     * @return environment variables to set for the docker CLI
+     */
+    public static Map<String, String> getDockerEnvironment(String dockerHost, String certPath) {
+        Map<String, String> env = new HashMap<>();
+        if (dockerHost != null && !dockerHost.isEmpty()) {
+            // The docker CLI knows tcp:// only, the plugin also http:// and https://
+            env.put("DOCKER_HOST", dockerHost.replaceFirst("^https?://", "tcp://"));
+        }
+        if (certPath != null && !certPath.isEmpty()) {
+            env.put("DOCKER_CERT_PATH", certPath);
+            env.put("DOCKER_TLS_VERIFY", "1");
+        }
+        return env;
+    }
+
     static ImageConfiguration prependRegistry(ImageConfiguration imageConfiguration, String registry) {
         ImageName imageName = new ImageName(imageConfiguration.getName());
         if (!imageName.hasRegistry() && registry != null) {
@@ -107,12 +213,13 @@ public class JibBuildService {
         return imageConfiguration;
     }
 
-    static File getAssemblyTarArchive(ImageConfiguration imageConfig, ServiceHub serviceHub, MojoParameters configuration, Logger log) throws MojoExecutionException {
+    static BuildDirs prepareAssembly(ImageConfiguration imageConfig, ServiceHub serviceHub, MojoParameters configuration, Logger log) throws MojoExecutionException {
         log.info("Preparing assembly files");
         final String targetImage = imageConfig.getName();
         return serviceHub
                 .getDockerAssemblyManager()
-                .createDockerTarArchive(targetImage, configuration, imageConfig.getBuildConfiguration(), log, null);
+                .prepareDockerTarArchive(targetImage, configuration, imageConfig.getBuildConfiguration(), log, null)
+                .getBuildDirs();
     }
 
     static Credential getRegistryCredentials(
@@ -129,8 +236,7 @@ public class JibBuildService {
             registry = DOCKER_LOGIN_DEFAULT_REGISTRY; // Let's assume docker is default registry.
         }
 
-        AuthConfigFactory authConfigFactory = registryConfig.getAuthConfigFactory();
-        AuthConfig standardAuthConfig = authConfigFactory.createAuthConfig(isPush, registryConfig.isSkipExtendedAuth(), registryConfig.getAuthConfig(), registryConfig.getSettings(), null, registry);
+        AuthConfig standardAuthConfig = registryConfig.createAuthConfig(isPush, null, registry);
         Credential credentials = null;
         if (standardAuthConfig != null) {
             credentials = Credential.from(standardAuthConfig.getUsername(), standardAuthConfig.getPassword());
@@ -163,4 +269,24 @@ public class JibBuildService {
             registryConfig.getRegistry()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Where to build a JIB image to
+     */
+    public enum BuildTarget {
+        /**
+         * Image tarball in the build directory, which is pushed by the push goal
+         */
+        tar,
+
+        /**
+         * Push the image with all its tags directly to the registry
+         */
+        registry,
+
+        /**
+         * Load the image with all its tags into the local Docker daemon
+         */
+        docker
+    }
+}
@@ -52,6 +52,15 @@ public class QueryService {
         return docker.getContainer(containerIdOrName);
     }
 
+    /**
+     * Get a snapshot of a container which inspects the container lazily.
+     * @param containerId id of the container
+     * @return a new snapshot of the container
+     */
+    public ContainerSnapshot getContainerSnapshot(String containerId) {
+        return new ContainerSnapshot(docker, containerId);
+    }
+
     /**
      * Get a network for a given network name.
      * @param networkName name of network to lookup
@@ -1,12 +1,21 @@
 package io.fabric8.maven.docker.service;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.fabric8.maven.docker.access.AuthConfig;
 import io.fabric8.maven.docker.access.AuthConfigList;
@@ -17,6 +26,7 @@ import io.fabric8.maven.docker.config.BuildImageConfiguration;
 import io.fabric8.maven.docker.config.ImageConfiguration;
 import io.fabric8.maven.docker.config.ImagePullPolicy;
 import io.fabric8.maven.docker.service.helper.BuildArgResolver;
+import io.fabric8.maven.docker.util.AuthConfigCache;
 import io.fabric8.maven.docker.util.AuthConfigFactory;
 import io.fabric8.maven.docker.util.EnvUtil;
 import io.fabric8.maven.docker.util.ImageName;
@@ -60,6 +70,26 @@ public class RegistryService {
      */
     public void pushImages(ProjectPaths projectPaths, Collection<ImageConfiguration> imageConfigs,
                            int retries, RegistryConfig registryConfig, boolean skipTag, BuildService.BuildContext buildContext) throws DockerAccessException, MojoExecutionException {
+        pushImages(projectPaths, imageConfigs, retries, registryConfig, skipTag, buildContext, 1);
+    }
+
+    /**
+     * Push a set of images to a registry, possibly concurrently. With more than one thread the images are pushed
+     * at the same time, and the additional tags of an image are pushed in parallel as soon as the image itself
+     * has been pushed, so that the layers are already known to the registry.
+     *
+     * @param imageConfigs images to push (but only if they have a build configuration)
+     * @param retries how often to retry
+     * @param registryConfig a global registry configuration
+     * @param skipTag flag to skip pushing tagged images
+     * @param pushThreads maximum number of pushes running at the same time
+     * @throws DockerAccessException
+     * @throws MojoExecutionException
+     */
+    public void pushImages(ProjectPaths projectPaths, Collection<ImageConfiguration> imageConfigs,
+                           int retries, RegistryConfig registryConfig, boolean skipTag, BuildService.BuildContext buildContext,
+                           int pushThreads) throws DockerAccessException, MojoExecutionException {
+        List<ImagePush> pushes = new ArrayList<>();
         for (ImageConfiguration imageConfig : imageConfigs) {
             BuildImageConfiguration buildConfig = imageConfig.getBuildConfiguration();
             if (buildConfig == null || buildConfig.skipPush()) {
@@ -81,28 +111,118 @@ public class RegistryService {
             AuthConfigList authConfigListForBuildXPush = createCompleteAuthConfigList(true, imageConfig, registryConfig, buildContext.getMojoParameters(), buildArgsFromExternalSources);
 
             if (imageConfig.isBuildX()) {
-                buildXService.push(projectPaths, imageConfig, configuredRegistry, authConfigListForBuildXPush);
+                // buildx pushes the image with all its tags at once
+                pushes.add(new ImagePush(name, () -> buildXService.push(projectPaths, imageConfig, configuredRegistry, authConfigListForBuildXPush),
+                                         Collections.emptyList()));
             } else {
-                dockerPush(retries, skipTag, buildConfig, name, configuredRegistry, authConfigForLegacyPush);
+                List<PushAction> tagPushes = new ArrayList<>();
+                if (!skipTag) {
+                    for (String tag : buildConfig.getTags()) {
+                        if (tag != null) {
+                            String taggedName = new ImageName(name, tag).getFullName();
+                            tagPushes.add(() -> dockerPush(taggedName, configuredRegistry, authConfigForLegacyPush, retries, registryConfig));
+                        }
+                    }
+                }
+                pushes.add(new ImagePush(name, () -> dockerPush(name, configuredRegistry, authConfigForLegacyPush, retries, registryConfig), tagPushes));
+            }
+        }
+
+        if (pushThreads > 1 && pushes.size() + pushes.stream().mapToInt(push -> push.tagPushes.size()).sum() > 1) {
+            pushInParallel(pushes, pushThreads);
+        } else {
+            for (ImagePush push : pushes) {
+                push.imagePush.push();
+                for (PushAction tagPush : push.tagPushes) {
+                    tagPush.push();
+                }
             }
         }
     }
 
-    private void dockerPush(int retries, boolean skipTag, BuildImageConfiguration buildConfig, String name, String configuredRegistry, AuthConfig authConfig)
-        throws DockerAccessException {
+    private void dockerPush(String name, String configuredRegistry, AuthConfig authConfig, int retries, RegistryConfig registryConfig) throws DockerAccessException {
         long start = System.currentTimeMillis();
-        docker.pushImage(name, authConfig, configuredRegistry, retries);
+        try {
+            docker.pushImage(name, authConfig, configuredRegistry, retries);
+        } catch (DockerAccessException exp) {
+            invalidateOnAuthFailure(exp, configuredRegistry, registryConfig);
+            throw exp;
+        }
         log.info("Pushed %s in %s", name, EnvUtil.formatDurationTill(start));
+    }
 
-        if (!skipTag) {
-            for (String tag : buildConfig.getTags()) {
-                if (tag != null) {
-                    docker.pushImage(new ImageName(name, tag).getFullName(), authConfig, configuredRegistry, retries);
+    // Push with a thread pool. The tags of an image are scheduled when the image is pushed, so no thread waits for
+    // another push. After a failure no further push is started.
+    private void pushInParallel(List<ImagePush> pushes, int pushThreads) throws DockerAccessException, MojoExecutionException {
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(pushThreads, runnable -> {
+            Thread thread = new Thread(runnable, "docker-push-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.currentTimeMillis();
+        try {
+            for (ImagePush push : pushes) {
+                futures.add(CompletableFuture.runAsync(() -> runPush(push.name, push.imagePush, failures), executor)
+                    .thenCompose(ignored -> CompletableFuture.allOf(push.tagPushes.stream()
+                        .map(tagPush -> CompletableFuture.runAsync(() -> runPush(push.name, tagPush, failures), executor))
+                        .toArray(CompletableFuture[]::new))));
+            }
+            for (CompletableFuture<Void> future : futures) {
+                try {
+                    future.join();
+                } catch (CompletionException | CancellationException exp) {
+                    // Failures are collected by the push itself
                 }
             }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (ImagePush push : pushes) {
+            Exception failure = failures.get(push.name);
+            if (failure instanceof DockerAccessException) {
+                throw (DockerAccessException) failure;
+            } else if (failure instanceof MojoExecutionException) {
+                throw (MojoExecutionException) failure;
+            } else if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+        }
+        log.info("Pushed %d images with %d threads in %s", pushes.size(), pushThreads, EnvUtil.formatDurationTill(start));
+    }
+
+    private static void runPush(String name, PushAction action, Map<String, Exception> failures) {
+        if (!failures.isEmpty()) {
+            throw new CancellationException();
+        }
+        try {
+            action.push();
+        } catch (DockerAccessException | MojoExecutionException | RuntimeException exp) {
+            failures.putIfAbsent(name, exp);
+            throw new CompletionException(exp);
         }
     }
 
+    @FunctionalInterface
+    private interface PushAction {
+        void push() throws DockerAccessException, MojoExecutionException;
+    }
+
+    // Push of an image followed by the pushes of its additional tags
+    private static class ImagePush {
+        private final String name;
+        private final PushAction imagePush;
+        private final List<PushAction> tagPushes;
+
+        ImagePush(String name, PushAction imagePush, List<PushAction> tagPushes) {
+            this.name = name;
+            this.imagePush = imagePush;
+            this.tagPushes = tagPushes;
+        }
+    }
 
     /**
      *  Check an image, and, if <code>autoPull</code> is set to true, fetch it. Otherwise if the image
@@ -123,9 +243,15 @@ public class RegistryService {
             return;
         }
 
+        pullManager.pullOnce(image, () -> pullImageIfRequired(image, pullManager, registryConfig, buildImageConfiguration));
+    }
+
+    private boolean pullImageIfRequired(String image, ImagePullManager pullManager, RegistryConfig registryConfig, BuildImageConfiguration buildImageConfiguration)
+        throws DockerAccessException, MojoExecutionException {
+
         // Check if a pull is required
         if (!imageRequiresPull(queryService.hasImage(image), pullManager.getImagePullPolicy(), image)) {
-            return;
+            return false;
         }
 
         final ImageName imageName = new ImageName(image);
@@ -135,17 +261,22 @@ public class RegistryService {
             .fromImage(imageName.getNameWithoutTag(actualRegistry))
             .tag(imageName.getDigest() != null ? imageName.getDigest() : imageName.getTag());
 
-        docker.pullImage(imageName.getFullName(),
-            createAuthConfig(false, null, actualRegistry, registryConfig),
-            actualRegistry, createImageOptions);
+        try {
+            docker.pullImage(imageName.getFullName(),
+                createAuthConfig(false, null, actualRegistry, registryConfig),
+                actualRegistry, createImageOptions);
+        } catch (DockerAccessException exp) {
+            invalidateOnAuthFailure(exp, actualRegistry, registryConfig);
+            throw exp;
+        }
         log.info("Pulled %s in %s", imageName.getFullName(), EnvUtil.formatDurationTill(pullStartTime));
-        pullManager.pulled(image);
 
         if (actualRegistry != null && !imageName.hasRegistry()) {
             // If coming from a registry which was not contained in the original name, add a tag from the
             // full name with the registry to the short name with no-registry.
             docker.tag(imageName.getFullName(actualRegistry), image, false);
         }
+        return true;
     }
 
 
@@ -225,6 +356,28 @@ public class RegistryService {
         return config.createAuthConfig(isPush, user, registry);
     }
 
+    // Cached credentials which have been rejected by the registry must not be used again
+    private void invalidateOnAuthFailure(DockerAccessException exp, String registry, RegistryConfig registryConfig) {
+        if (isAuthFailure(exp)) {
+            log.debug("Authentication for registry %s failed, removing cached credentials", registry);
+            registryConfig.invalidateAuthConfig(registry);
+        }
+    }
+
+    static boolean isAuthFailure(Throwable exp) {
+        for (Throwable cause = exp; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null) {
+                String lower = message.toLowerCase(Locale.ROOT);
+                if (lower.contains("unauthorized") || lower.contains("authentication required") ||
+                    lower.contains("access to the resource is denied")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     // ===========================================
 
 
@@ -240,6 +393,8 @@ public class RegistryService {
 
         private Map authConfig;
 
+        private AuthConfigCache authConfigCache;
+
         public RegistryConfig() {
         }
 
@@ -264,7 +419,22 @@ public class RegistryService {
         }
 
         public AuthConfig createAuthConfig(boolean isPush, String user, String registry) throws MojoExecutionException {
-            return authConfigFactory.createAuthConfig(isPush, skipExtendedAuth, authConfig, settings, user, registry);
+            if (authConfigCache == null) {
+                return authConfigFactory.createAuthConfig(isPush, skipExtendedAuth, authConfig, settings, user, registry);
+            }
+            return authConfigCache.get(isPush, skipExtendedAuth, authConfig, user, registry,
+                () -> authConfigFactory.createAuthConfig(isPush, skipExtendedAuth, authConfig, settings, user, registry));
+        }
+
+        /**
+         * Forget cached credentials for a registry, so that they are looked up again on the next access
+         *
+         * @param registry registry whose credentials have been rejected
+         */
+        public void invalidateAuthConfig(String registry) {
+            if (authConfigCache != null) {
+                authConfigCache.invalidate(registry);
+            }
         }
 
         public static class Builder {
@@ -304,6 +474,11 @@ public class RegistryService {
                 return this;
             }
 
+            public Builder authConfigCache(AuthConfigCache authConfigCache) {
+                context.authConfigCache = authConfigCache;
+                return this;
+            }
+
             public RegistryConfig build() {
                 return context;
             }
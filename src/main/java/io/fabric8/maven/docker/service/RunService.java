@@ -24,16 +24,24 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import io.fabric8.maven.docker.access.ContainerCreateConfig;
 import io.fabric8.maven.docker.access.ContainerHostConfig;
@@ -187,15 +195,36 @@ public class RunService {
                                           File baseDir,
                                           String defaultContainerNamePattern,
                                           Date buildTimestamp) throws DockerAccessException {
+        return createAndStart(imageConfig, portMapping, gavLabel, properties, baseDir, defaultContainerNamePattern, buildTimestamp)
+            .getContainerId();
+    }
+
+    /**
+     * Create and start a container with the given image configuration like
+     * {@link #createAndStartContainer(ImageConfiguration, PortMapping, GavLabel, Properties, File, String, Date)}.
+     *
+     * @return snapshot of the started container, to be shared by the following steps of starting the container
+     *
+     * @throws DockerAccessException if access to the docker backend fails
+     */
+    public ContainerSnapshot createAndStart(ImageConfiguration imageConfig,
+                                            PortMapping portMapping,
+                                            GavLabel gavLabel,
+                                            Properties properties,
+                                            File baseDir,
+                                            String defaultContainerNamePattern,
+                                            Date buildTimestamp) throws DockerAccessException {
         String id = createContainer(imageConfig, portMapping, gavLabel, properties, baseDir,
                 defaultContainerNamePattern, buildTimestamp);
         startContainer(imageConfig, id, gavLabel);
 
+        // Created after the start, so that the first step needing the container's details inspects it
+        ContainerSnapshot container = new ContainerSnapshot(docker, id);
         if (portMapping.needsPropertiesUpdate()) {
-            updateMappedPortsAndAddresses(id, portMapping);
+            updateMappedPortsAndAddresses(container, portMapping);
         }
 
-        return id;
+        return container;
     }
 
     /**
@@ -275,6 +304,125 @@ public class RunService {
 		}
     }
 
+    /**
+     * Stop all registered containers concurrently. A container is stopped as soon as all containers depending
+     * on it (via links, <code>volumesFrom</code>, a container network or <code>dependsOn</code>) have been stopped,
+     * so containers are stopped in the reverse start order. The shutdown grace periods of the containers overlap.
+     * A container is only removed after the containers depending on it have been removed.
+     *
+     * @param keepContainer whether to keep container or to remove them after stopping
+     * @param removeVolumes whether to remove volumes after stopping
+     * @param removeCustomNetworks whether to remove the custom networks of the containers
+     * @param gavLabel the label for which to stop the containers or <code>null</code> for all containers
+     * @param timeout overall time in milliseconds for stopping all containers. When it is exceeded, the remaining
+     *                containers are killed without waiting for their dependents or grace periods. If 0 no overall
+     *                limit is applied.
+     * @throws DockerAccessException if during stopping of a container sth fails
+     * @throws ExecException if a preStop command fails and the build should break on this error
+     */
+    public void stopStartedContainersInParallel(boolean keepContainer,
+                                                boolean removeVolumes,
+                                                boolean removeCustomNetworks,
+                                                GavLabel gavLabel,
+                                                long timeout)
+        throws DockerAccessException, ExecException {
+        List<ContainerShutdownDescriptor> descriptors = new ArrayList<>(tracker.removeShutdownDescriptors(gavLabel));
+        if (descriptors.isEmpty()) {
+            return;
+        }
+        long deadline = timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+
+        List<Exception> thrownExceptions = Collections.synchronizedList(new ArrayList<>());
+        Set<Network> networksToRemove = new HashSet<>();
+        for (ContainerShutdownDescriptor descriptor : descriptors) {
+            try {
+                collectCustomNetworks(networksToRemove, descriptor, removeCustomNetworks);
+            } catch (DockerAccessException exc) {
+                thrownExceptions.add(exc);
+            }
+        }
+
+        Map<ContainerShutdownDescriptor, ParallelShutdown> shutdowns = new LinkedHashMap<>();
+        for (ContainerShutdownDescriptor descriptor : descriptors) {
+            shutdowns.put(descriptor, new ParallelShutdown(descriptor));
+        }
+        for (ParallelShutdown shutdown : shutdowns.values()) {
+            for (ContainerShutdownDescriptor dependency : findDependencies(shutdown.descriptor, descriptors)) {
+                shutdowns.get(dependency).dependents.add(shutdown);
+            }
+        }
+
+        // Waiting for dependents and shutdown grace periods doesn't occupy a thread, but a stop request blocks until
+        // the container has stopped or its kill grace period has passed. So there is a thread for every container,
+        // otherwise the grace periods of more containers than threads would add up again.
+        AtomicInteger threadCount = new AtomicInteger();
+        ScheduledExecutorService executor = Executors.newScheduledThreadPool(descriptors.size(), runnable -> {
+            Thread thread = new Thread(runnable, "docker-stop-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletableFuture<Void> deadlineReached = new CompletableFuture<>();
+            if (timeout > 0) {
+                executor.schedule(() -> deadlineReached.complete(null), timeout, TimeUnit.MILLISECONDS);
+            }
+            for (ParallelShutdown shutdown : shutdowns.values()) {
+                shutdown.start(keepContainer, removeVolumes, deadline, deadlineReached, executor, thrownExceptions);
+            }
+            for (ParallelShutdown shutdown : shutdowns.values()) {
+                shutdown.removed.join();
+            }
+            List<CompletableFuture<Void>> networkRemovals = new ArrayList<>();
+            for (Network network : networksToRemove) {
+                networkRemovals.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        docker.removeNetwork(network.getId());
+                    } catch (DockerAccessException exc) {
+                        thrownExceptions.add(exc);
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(networkRemovals.toArray(new CompletableFuture[0])).join();
+        } finally {
+            executor.shutdownNow();
+        }
+        if (System.currentTimeMillis() > deadline) {
+            log.warn("Stopping %d containers exceeded the timeout of %d ms", descriptors.size(), timeout);
+        }
+
+        for (Exception exc : thrownExceptions) {
+            if (exc instanceof ExecException) {
+                throw (ExecException) exc;
+            }
+        }
+        if (!thrownExceptions.isEmpty()) {
+            StringJoiner description = new StringJoiner(",", "(", ")");
+            for (Exception exc : thrownExceptions) {
+                description.add(exc.getLocalizedMessage());
+            }
+            DockerAccessException exception = new DockerAccessException(description.toString());
+            for (Exception exc : thrownExceptions) {
+                exception.addSuppressed(exc);
+            }
+            throw exception;
+        }
+    }
+
+    // All descriptors of containers the given container depends on, looked up by alias or image name
+    private List<ContainerShutdownDescriptor> findDependencies(ContainerShutdownDescriptor descriptor, List<ContainerShutdownDescriptor> descriptors) {
+        List<ContainerShutdownDescriptor> ret = new ArrayList<>();
+        for (String dependency : descriptor.getImageConfiguration().getDependencies()) {
+            for (ContainerShutdownDescriptor candidate : descriptors) {
+                ImageConfiguration imageConfig = candidate.getImageConfiguration();
+                if (candidate != descriptor && !ret.contains(candidate) &&
+                    (dependency.equals(imageConfig.getAlias()) || dependency.equals(imageConfig.getName()))) {
+                    ret.add(candidate);
+                }
+            }
+        }
+        return ret;
+    }
+
     private void collectCustomNetworks(Set<Network> networksToRemove, ContainerTracker.ContainerShutdownDescriptor descriptor, boolean removeCustomNetworks) throws DockerAccessException {
         final NetworkConfig config = descriptor.getImageConfiguration().getRunConfiguration().getNetworkingConfig();
         if (removeCustomNetworks && config.isCustomNetwork()) {
@@ -520,7 +668,8 @@ public class RunService {
         tracker.registerContainer(id, imageConfig, gavLabel);
     }
 
-    private void updateMappedPortsAndAddresses(String containerId, PortMapping mappedPorts) throws DockerAccessException {
+    private void updateMappedPortsAndAddresses(ContainerSnapshot container, PortMapping mappedPorts) throws DockerAccessException {
+        String containerId = container.getContainerId();
         RetryPolicy<Void> retryPolicy = new RetryPolicy<Void>()
                 .withMaxAttempts(20)
                 .withBackoff(10, 100, ChronoUnit.MILLIS)
@@ -531,9 +680,15 @@ public class RunService {
                         containerId, f.getAttemptCount()));
 
         Failsafe.with(retryPolicy).run(() -> {
-            Container container = queryService.getMandatoryContainer(containerId);
-            if (container.isRunning()) {
-                mappedPorts.updateProperties(container.getPortBindings());
+            ContainerDetails details = container.getMandatory();
+            if (details.isRunning()) {
+                try {
+                    mappedPorts.updateProperties(details.getPortBindings());
+                } catch (PortBindingException exp) {
+                    // Port bindings are not published yet, so inspect again on the next attempt
+                    container.refresh();
+                    throw exp;
+                }
             } else {
                 log.warn("Container %s is not running anymore, can not extract dynamic ports", containerId);
             }
@@ -543,6 +698,16 @@ public class RunService {
     private void shutdown(ContainerTracker.ContainerShutdownDescriptor descriptor, boolean keepContainer, boolean removeVolumes)
         throws DockerAccessException, ExecException {
 
+        stop(descriptor, keepContainer, descriptor.getKillGracePeriod());
+        if (!keepContainer) {
+            removeContainer(descriptor, removeVolumes, descriptor.getContainerId());
+        }
+    }
+
+    // Run the preStop command and stop or kill the container
+    private void stop(ContainerTracker.ContainerShutdownDescriptor descriptor, boolean keepContainer, int killGracePeriodMillis)
+        throws DockerAccessException, ExecException {
+
         String containerId = descriptor.getContainerId();
         StopMode stopMode = descriptor.getStopMode();
         if (descriptor.getPreStop() != null) {
@@ -560,7 +725,7 @@ public class RunService {
         }
 
         if (stopMode.equals(StopMode.graceful)) {
-            int killGracePeriod = adjustGracePeriod(descriptor.getKillGracePeriod());
+            int killGracePeriod = adjustGracePeriod(killGracePeriodMillis);
             log.debug("shutdown will wait max of %d seconds before removing container", killGracePeriod);
 
             long waited;
@@ -581,11 +746,6 @@ public class RunService {
                     (keepContainer ? "" : " and removed"),
                     containerId.subSequence(0, 12));
         }
-        if (!keepContainer) {
-            removeContainer(descriptor, removeVolumes, containerId);
-        }
-
-
     }
 
     public void createCustomNetworkIfNotExistant(String customNetwork) throws DockerAccessException {
@@ -693,6 +853,84 @@ public class RunService {
         return volumesCreated;
     }
 
+    // Shutdown of a single container when stopping containers in parallel
+    private class ParallelShutdown {
+
+        private final ContainerShutdownDescriptor descriptor;
+
+        // Containers which have to be stopped and removed before this container
+        private final List<ParallelShutdown> dependents = new ArrayList<>();
+
+        private final CompletableFuture<Void> stopped = new CompletableFuture<>();
+        private final CompletableFuture<Void> removed = new CompletableFuture<>();
+
+        ParallelShutdown(ContainerShutdownDescriptor descriptor) {
+            this.descriptor = descriptor;
+        }
+
+        // Stop the container when its dependents are stopped, remove it when its dependents are removed
+        void start(boolean keepContainer, boolean removeVolumes, long deadline, CompletableFuture<Void> deadlineReached,
+                   ScheduledExecutorService executor, List<Exception> thrownExceptions) {
+            awaitDependents(dependent -> dependent.stopped, deadlineReached).thenRunAsync(() -> {
+                boolean stopSucceeded = false;
+                try {
+                    int killGracePeriod = remainingMillis(descriptor.getKillGracePeriod(), deadline);
+                    // Kill immediately instead of waiting for less than the smallest possible stop timeout
+                    stop(descriptor, keepContainer, killGracePeriod < descriptor.getKillGracePeriod() && killGracePeriod < 500 ? 0 : killGracePeriod);
+                    stopSucceeded = true;
+                } catch (DockerAccessException | ExecException | RuntimeException exc) {
+                    thrownExceptions.add(exc);
+                } finally {
+                    stopped.complete(null);
+                }
+
+                if (stopSucceeded && !keepContainer) {
+                    int shutdownGracePeriod = remainingMillis(descriptor.getShutdownGracePeriod(), deadline);
+                    if (shutdownGracePeriod > 0) {
+                        log.debug("Shutdown: Wait %d ms before removing container", shutdownGracePeriod);
+                    }
+                    executor.schedule(() -> remove(removeVolumes, deadlineReached, executor, thrownExceptions),
+                                      shutdownGracePeriod, TimeUnit.MILLISECONDS);
+                } else {
+                    removed.complete(null);
+                }
+            }, executor);
+        }
+
+        private void remove(boolean removeVolumes, CompletableFuture<Void> deadlineReached,
+                            ScheduledExecutorService executor, List<Exception> thrownExceptions) {
+            awaitDependents(dependent -> dependent.removed, deadlineReached).thenRunAsync(() -> {
+                try {
+                    removeContainer(descriptor.getContainerId(), removeVolumes);
+                } catch (DockerAccessException | RuntimeException exc) {
+                    thrownExceptions.add(exc);
+                } finally {
+                    removed.complete(null);
+                }
+            }, executor);
+        }
+
+        // Completes when the given phase of all dependents is done or when the deadline has been reached
+        private CompletableFuture<Void> awaitDependents(Function<ParallelShutdown, CompletableFuture<Void>> phase,
+                                                        CompletableFuture<Void> deadlineReached) {
+            CompletableFuture<Void> dependentsDone =
+                CompletableFuture.allOf(dependents.stream().map(phase).toArray(CompletableFuture[]::new));
+            return CompletableFuture.anyOf(dependentsDone, deadlineReached).thenRun(() -> {
+                for (ParallelShutdown dependent : dependents) {
+                    if (!phase.apply(dependent).isDone()) {
+                        log.warn("%s: Not waiting any longer for %s", descriptor.getDescription(), dependent.descriptor.getDescription());
+                    }
+                }
+            });
+        }
+
+        // Limit a period to the time left until the deadline
+        private int remainingMillis(int period, long deadline) {
+            long remaining = deadline - System.currentTimeMillis();
+            return (int) Math.max(0, Math.min(period, remaining));
+        }
+    }
+
     public static class ContainerDescriptor {
 
         /**
@@ -66,7 +66,7 @@ public class ServiceHub {
             buildService = new BuildService(dockerAccess, queryService, registryService, archiveService, logger);
             volumeService = new VolumeService(dockerAccess);
             watchService = new WatchService(archiveService, buildService, dockerAccess, mojoExecutionService, queryService, runService, logger);
-            waitService = new WaitService(dockerAccess, queryService, logger);
+            waitService = new WaitService(dockerAccess, logger);
         } else {
             queryService = null;
             registryService = null;
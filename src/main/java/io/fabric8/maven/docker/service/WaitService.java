@@ -18,6 +18,7 @@ import io.fabric8.maven.docker.log.LogDispatcher;
 import io.fabric8.maven.docker.log.LogOutputSpec;
 import io.fabric8.maven.docker.model.Container;
 import io.fabric8.maven.docker.util.Logger;
+import io.fabric8.maven.docker.wait.ContainerEventWatcher;
 import io.fabric8.maven.docker.wait.ExitCodeChecker;
 import io.fabric8.maven.docker.wait.HealthCheckChecker;
 import io.fabric8.maven.docker.wait.HttpPingChecker;
@@ -37,37 +38,70 @@ import static io.fabric8.maven.docker.StartMojo.DOCKER_START_CONTAINER_WAIT_TIME
  */
 public class WaitService {
 
-    private final QueryService queryService;
     private DockerAccess dockerAccess;
     private Logger log;
 
-    public WaitService(DockerAccess dockerAccess, QueryService queryService, Logger log) {
+    public WaitService(DockerAccess dockerAccess, Logger log) {
         this.dockerAccess = dockerAccess;
         this.log = log;
-        this.queryService = queryService;
     }
 
     // ========================================================================================================
 
     public void wait(ImageConfiguration imageConfig, Properties projectProperties, String containerId) throws IOException {
-        List<WaitChecker> checkers = prepareWaitCheckers(imageConfig, projectProperties, containerId);
-        int timeout = getTimeOut(imageConfig);
+        wait(imageConfig, projectProperties, new ContainerSnapshot(dockerAccess, containerId));
+    }
 
-        if (checkers.isEmpty()) {
-            if (timeout > 0) {
-                log.info("%s: Pausing for %d ms", imageConfig.getDescription(), timeout);
-                WaitUtil.sleep(timeout);
+    /**
+     * Wait for a container, using the given snapshot for all inspects of the container. The snapshot is refreshed
+     * on every tick while waiting.
+     *
+     * @param imageConfig image configuration holding the wait configuration
+     * @param projectProperties properties used for the wait checkers
+     * @param container snapshot of the started container
+     * @throws IOException if waiting fails or times out
+     */
+    public void wait(ImageConfiguration imageConfig, Properties projectProperties, ContainerSnapshot container) throws IOException {
+        int timeout = getTimeOut(imageConfig);
+        ContainerEventWatcher watcher = new ContainerEventWatcher(container.getContainerId(), log);
+        try {
+            List<WaitChecker> checkers = prepareWaitCheckers(imageConfig, projectProperties, container, watcher);
+            if (checkers.isEmpty()) {
+                if (timeout > 0) {
+                    log.info("%s: Pausing for %d ms", imageConfig.getDescription(), timeout);
+                    WaitUtil.sleep(timeout);
+                }
+                return;
             }
-            return;
+            startEventWatcher(watcher, container);
+            wait(imageConfig, projectProperties, container, checkers, timeout, watcher);
+        } finally {
+            watcher.stop();
         }
+    }
+
+    // Follow the container's events, so that neither the running precondition nor the health and exit code checkers
+    // need to inspect the container on every tick and waiting ends as soon as its state changes
+    private void startEventWatcher(ContainerEventWatcher watcher, ContainerSnapshot container) {
+        watcher.start(dockerAccess);
+        if (watcher.getContainer() != null) {
+            // The watcher inspects the container once it follows its events, so reuse this inspect
+            container.update(watcher.getContainer());
+        }
+    }
+
+    private void wait(ImageConfiguration imageConfig, Properties projectProperties, ContainerSnapshot container, List<WaitChecker> checkers,
+                      int timeout, ContainerEventWatcher watcher) throws IOException {
         if (timeout == 0 && projectProperties.containsKey(DOCKER_START_CONTAINER_WAIT_TIMEOUT)) {
             timeout = Integer.parseInt(projectProperties.getProperty(DOCKER_START_CONTAINER_WAIT_TIMEOUT, "0"));
         }
 
         String logLine = extractCheckerLog(checkers);
-        ContainerRunningPrecondition precondition = new ContainerRunningPrecondition(dockerAccess, containerId);
+        ContainerRunningPrecondition precondition = new ContainerRunningPrecondition(container, watcher);
         try {
-            long waited = WaitUtil.wait(precondition, timeout, checkers);
+            WaitConfiguration wait = getWaitConfiguration(imageConfig);
+            long interval = wait != null && wait.getInterval() != null ? wait.getInterval() : WaitUtil.WAIT_RETRY_WAIT;
+            long waited = WaitUtil.wait(precondition, timeout, checkers, watcher, interval);
             log.info("%s: Waited %s %d ms", imageConfig.getDescription(), logLine, waited);
         } catch (WaitTimeoutException exp) {
             String desc = String.format("%s: Timeout after %d ms while waiting %s",
@@ -97,8 +131,22 @@ public class WaitService {
         return StringUtils.join(logOut.toArray(), " and ");
     }
 
-    private List<WaitChecker> prepareWaitCheckers(ImageConfiguration imageConfig, Properties projectProperties, String containerId) throws IOException {
+    // The single log pattern and the alternative ones
+    private List<String> getLogPatterns(WaitConfiguration wait) {
+        List<String> patterns = new ArrayList<>();
+        if (wait.getLog() != null) {
+            patterns.add(wait.getLog());
+        }
+        if (wait.getLogPatterns() != null) {
+            patterns.addAll(wait.getLogPatterns());
+        }
+        return patterns;
+    }
+
+    private List<WaitChecker> prepareWaitCheckers(ImageConfiguration imageConfig, Properties projectProperties, ContainerSnapshot snapshot,
+                                                  ContainerEventWatcher watcher) throws IOException {
         WaitConfiguration wait = getWaitConfiguration(imageConfig);
+        String containerId = snapshot.getContainerId();
 
         if (wait == null) {
             return Collections.emptyList();
@@ -110,14 +158,18 @@ public class WaitService {
             checkers.add(getUrlWaitChecker(imageConfig.getDescription(), projectProperties, wait, log));
         }
 
-        if (wait.getLog() != null) {
-            log.debug("LogWaitChecker: Waiting on %s", wait.getLog());
-            checkers.add(new LogWaitChecker(wait.getLog(), dockerAccess, containerId, log));
+        List<String> logPatterns = getLogPatterns(wait);
+        if (!logPatterns.isEmpty()) {
+            log.debug("LogWaitChecker: Waiting on %s", logPatterns);
+            checkers.add(new LogWaitChecker(logPatterns,
+                                            wait.getLogWindowLines() != null ? wait.getLogWindowLines() : 0,
+                                            wait.getLogWindowBytes() != null ? wait.getLogWindowBytes() : 0,
+                                            dockerAccess, containerId, log));
         }
 
         if (wait.getTcp() != null) {
             try {
-                Container container = queryService.getMandatoryContainer(containerId);
+                Container container = snapshot.getMandatory();
                 checkers.add(getTcpWaitChecker(container, imageConfig.getDescription(), projectProperties, wait.getTcp()));
             } catch (DockerAccessException e) {
                 throw new IOException("Unable to access container " + containerId, e);
@@ -125,11 +177,11 @@ public class WaitService {
         }
 
         if (Boolean.TRUE.equals(wait.getHealthy())) {
-            checkers.add(new HealthCheckChecker(dockerAccess, containerId, imageConfig.getDescription(), log));
+            checkers.add(new HealthCheckChecker(snapshot, imageConfig.getDescription(), log, watcher));
         }
 
         if (wait.getExit() != null) {
-            checkers.add(new ExitCodeChecker(wait.getExit(), queryService, containerId));
+            checkers.add(new ExitCodeChecker(wait.getExit(), snapshot, watcher));
         }
         return checkers;
     }
@@ -149,7 +201,8 @@ public class WaitService {
         WaitConfiguration.HttpConfiguration httpConfig = wait.getHttp();
         HttpPingChecker checker;
         if (httpConfig != null) {
-            checker = new HttpPingChecker(waitUrl, httpConfig.getMethod(), httpConfig.getStatus(), httpConfig.isAllowAllHosts(), log);
+            int pingTimeout = httpConfig.getTimeout() != null ? httpConfig.getTimeout() : HttpPingChecker.HTTP_PING_TIMEOUT;
+            checker = new HttpPingChecker(waitUrl, httpConfig.getMethod(), httpConfig.getStatus(), httpConfig.isAllowAllHosts(), pingTimeout, log);
             log.info("%s: Waiting on url %s with method %s for status %s.",
                      imageConfigDesc, waitUrl, httpConfig.getMethod(), httpConfig.getStatus());
         } else {
@@ -223,19 +276,31 @@ public class WaitService {
     }
 
     private class ContainerRunningPrecondition implements WaitUtil.Precondition {
-        private final String containerId;
-        private final DockerAccess dockerAccess;
+        private final ContainerSnapshot container;
+        private final ContainerEventWatcher watcher;
         private Integer exitCode;
 
-        ContainerRunningPrecondition(DockerAccess dockerAccess, String containerId) {
-            this.dockerAccess = dockerAccess;
-            this.containerId = containerId;
+        ContainerRunningPrecondition(ContainerSnapshot container, ContainerEventWatcher watcher) {
+            this.container = container;
+            this.watcher = watcher;
         }
 
         @Override
         public boolean isOk() {
+            // Called first on every tick, so that the checkers of this tick see the current state of the container
+            container.refresh();
+            if (watcher.isActive()) {
+                if (!watcher.isDead()) {
+                    return true;
+                }
+                exitCode = watcher.getExitCode();
+                if (exitCode != null) {
+                    return false;
+                }
+                // Exit code not sent with the event, so inspect the container
+            }
             try {
-                exitCode = dockerAccess.getContainer(containerId).getExitCode();
+                exitCode = container.getMandatory().getExitCode();
                 return exitCode == null;
             } catch (DockerAccessException e) {
                 return false;
@@ -245,6 +310,7 @@ public class WaitService {
         @Override
         public void cleanup() {
             if (exitCode != null && log.isVerboseEnabled()) {
+                String containerId = container.getContainerId();
                 // if not running, probably something went wrong during startup: spit out logs
                 new LogDispatcher(dockerAccess).fetchContainerLog(containerId, LogOutputSpec.DEFAULT);
                 dockerAccess.getLogSync(containerId, new DefaultLogCallback(
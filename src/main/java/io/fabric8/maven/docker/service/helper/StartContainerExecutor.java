@@ -19,6 +19,7 @@ import io.fabric8.maven.docker.config.WaitConfiguration;
 import io.fabric8.maven.docker.log.LogDispatcher;
 import io.fabric8.maven.docker.log.LogOutputSpecFactory;
 import io.fabric8.maven.docker.model.Container;
+import io.fabric8.maven.docker.service.ContainerSnapshot;
 import io.fabric8.maven.docker.service.ServiceHub;
 import io.fabric8.maven.docker.util.GavLabel;
 import io.fabric8.maven.docker.util.Logger;
@@ -44,23 +45,33 @@ public class StartContainerExecutor {
     public String startContainer() throws IOException, ExecException {
         final Properties projProperties = projectProperties;
 
-        final String containerId = hub.getRunService().createAndStartContainer(imageConfig, portMapping, gavLabel, projProperties, basedir, containerNamePattern, buildDate);
+        // Shared by all following steps, so that the container is only inspected again when its state can have changed
+        final ContainerSnapshot container = hub.getRunService().createAndStart(imageConfig, portMapping, gavLabel, projProperties, basedir, containerNamePattern, buildDate);
+        final String containerId = container.getContainerId();
 
         showLogsIfRequested(containerId);
-        Properties exposedProps = queryContainerProperties(containerId);
+        Properties exposedProps = queryContainerProperties(container);
         projProperties.putAll(exposedProps);
-        waitAndPostExec(containerId, projProperties);
+        waitAndPostExec(container, projProperties);
 
+        log.verbose(Logger.LogVerboseCategory.API, "%s: Inspected container %s %d times, %d inspects avoided",
+                    imageConfig.getDescription(), containerId, container.getInspects(), container.getInspectsAvoided());
         return containerId;
     }
 
     public Properties queryContainerProperties(String containerId)
+        throws DockerAccessException {
+        return queryContainerProperties(new ContainerSnapshot(hub.getDockerAccess(), containerId));
+    }
+
+    private Properties queryContainerProperties(ContainerSnapshot snapshot)
         throws DockerAccessException {
         String propKey = getExposedPropertyKeyPart();
         Properties exposedProperties = new Properties();
 
         if (StringUtils.isNotEmpty(exposeContainerProps) && StringUtils.isNotEmpty(propKey)) {
-            Container container = hub.getQueryService().getMandatoryContainer(containerId);
+            String containerId = snapshot.getContainerId();
+            Container container = snapshot.getMandatory();
 
             String prefix = addDot(exposeContainerProps) + addDot(propKey);
             exposedProperties.put(prefix + "id", containerId);
@@ -98,9 +109,10 @@ public class StartContainerExecutor {
         }
     }
 
-    private void waitAndPostExec(String containerId, Properties projProperties) throws IOException, ExecException {
+    private void waitAndPostExec(ContainerSnapshot container, Properties projProperties) throws IOException, ExecException {
+        String containerId = container.getContainerId();
         // Wait if requested
-        hub.getWaitService().wait(imageConfig, projProperties, containerId);
+        hub.getWaitService().wait(imageConfig, projProperties, container);
         WaitConfiguration waitConfig = imageConfig.getRunConfiguration().getWaitConfiguration();
         if (waitConfig != null && waitConfig.getExec() != null && waitConfig.getExec().getPostStart() != null) {
             try {
@@ -0,0 +1,213 @@
+package io.fabric8.maven.docker.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongSupplier;
+
+import io.fabric8.maven.docker.access.AuthConfig;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.SessionData;
+
+/**
+ * Cache for resolved registry credentials which is shared by all mojo executions of a Maven session. Looking
+ * up credentials can be expensive, as it reads the Docker config, forks credential helpers or exchanges
+ * credentials for ECR tokens. Entries are keyed by direction, registry, user and a fingerprint of the plugin's
+ * auth configuration, and expire after a time to live. The absence of credentials is cached, too.
+ * <p>
+ * The entries are stored in the session data, each mojo uses its own view on them with its own time to live.
+ * <p>
+ * Credentials are only kept in memory and never written to disk.
+ */
+public class AuthConfigCache {
+
+    // Key under which the cache is stored in the session data
+    static final String CONTEXT_KEY_AUTH_CONFIG_CACHE = "CONTEXT_KEY_AUTH_CONFIG_CACHE";
+
+    private final Map<Key, Entry> entries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    /**
+     * Create a cache which is not shared
+     *
+     * @param ttlMillis time to live of an entry in milliseconds
+     */
+    public AuthConfigCache(long ttlMillis) {
+        this(new ConcurrentHashMap<>(), ttlMillis, System::currentTimeMillis);
+    }
+
+    AuthConfigCache(Map<Key, Entry> entries, long ttlMillis, LongSupplier clock) {
+        this.entries = entries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Get a view on the cache entries of the given session, creating the entries if none are stored yet
+     *
+     * @param session the current Maven session
+     * @param ttlMillis time to live of entries in milliseconds
+     * @return the cache for this session or <code>null</code> if the session has no session data where the
+     *         entries could be stored
+     */
+    @SuppressWarnings("unchecked")
+    public static AuthConfigCache forSession(MavenSession session, long ttlMillis) {
+        RepositorySystemSession repositorySession = session != null ? session.getRepositorySession() : null;
+        if (repositorySession == null || repositorySession.getData() == null) {
+            return null;
+        }
+        SessionData data = repositorySession.getData();
+        if (data.get(CONTEXT_KEY_AUTH_CONFIG_CACHE) == null) {
+            data.set(CONTEXT_KEY_AUTH_CONFIG_CACHE, null, new ConcurrentHashMap<Key, Entry>());
+        }
+        Map<Key, Entry> entries = (Map<Key, Entry>) data.get(CONTEXT_KEY_AUTH_CONFIG_CACHE);
+        return new AuthConfigCache(entries, ttlMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Get the credentials for a lookup from the cache or look them up and cache them
+     *
+     * @param isPush whether the credentials are used for a push
+     * @param skipExtendedAuth whether extended authentication is skipped
+     * @param authConfig plugin's auth configuration, only used for a fingerprint
+     * @param user user to look up, might be null
+     * @param registry registry to look up, might be null
+     * @param lookup used to look up the credentials if not cached
+     * @return the credentials or <code>null</code> if none could be found
+     * @throws MojoExecutionException if the lookup fails
+     */
+    public AuthConfig get(boolean isPush, boolean skipExtendedAuth, Map authConfig, String user, String registry, Lookup lookup)
+            throws MojoExecutionException {
+        Key key = new Key(isPush, skipExtendedAuth, fingerprint(authConfig), user, registry);
+        long now = clock.getAsLong();
+        Entry created = new Entry(now);
+        // Only one caller per key does the lookup, everyone else waits for its result
+        Entry entry = entries.compute(key, (k, old) -> old != null && old.isValid(now, ttlMillis) ? old : created);
+        if (entry != created) {
+            return entry.await();
+        }
+        try {
+            AuthConfig ret = lookup.lookup();
+            created.authConfig.complete(ret);
+            return ret;
+        } catch (MojoExecutionException | RuntimeException e) {
+            // Don't cache failures, the next caller tries again
+            entries.remove(key, created);
+            created.authConfig.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Remove all credentials for a registry, e.g. after they have been rejected
+     *
+     * @param registry registry to remove the credentials for, null for the default registry
+     */
+    public void invalidate(String registry) {
+        entries.keySet().removeIf(key -> Objects.equals(key.registry, registry));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // Hash of the plugin configuration, so that the configuration (which can contain passwords) itself isn't kept
+    private static String fingerprint(Map authConfig) {
+        if (authConfig == null) {
+            return "";
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(String.valueOf(new TreeMap<>(authConfig)).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Lookup of credentials which are not cached
+     */
+    @FunctionalInterface
+    public interface Lookup {
+        AuthConfig lookup() throws MojoExecutionException;
+    }
+
+    static class Entry {
+        // Completed when the lookup has finished
+        private final CompletableFuture<AuthConfig> authConfig = new CompletableFuture<>();
+        private final long created;
+
+        Entry(long created) {
+            this.created = created;
+        }
+
+        // A lookup still running is joined regardless of the time to live
+        private boolean isValid(long now, long ttlMillis) {
+            return !authConfig.isDone() || now - created < ttlMillis;
+        }
+
+        private AuthConfig await() throws MojoExecutionException {
+            try {
+                return authConfig.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MojoExecutionException("Interrupted while waiting for credentials", e);
+            } catch (ExecutionException e) {
+                // Own exception for each waiting caller, with the failure of the lookup as cause
+                Throwable cause = e.getCause();
+                throw new MojoExecutionException(cause.getMessage(), cause);
+            }
+        }
+    }
+
+    static class Key {
+        private final boolean isPush;
+        private final boolean skipExtendedAuth;
+        private final String fingerprint;
+        private final String user;
+        private final String registry;
+
+        Key(boolean isPush, boolean skipExtendedAuth, String fingerprint, String user, String registry) {
+            this.isPush = isPush;
+            this.skipExtendedAuth = skipExtendedAuth;
+            this.fingerprint = fingerprint;
+            this.user = user;
+            this.registry = registry;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return isPush == key.isPush &&
+                   skipExtendedAuth == key.skipExtendedAuth &&
+                   fingerprint.equals(key.fingerprint) &&
+                   Objects.equals(user, key.user) &&
+                   Objects.equals(registry, key.registry);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(isPush, skipExtendedAuth, fingerprint, user, registry);
+        }
+    }
+}
@@ -42,6 +42,7 @@ import com.google.gson.Gson;
 
 import io.fabric8.maven.docker.access.AuthConfig;
 import io.fabric8.maven.docker.access.ecr.EcrExtendedAuth;
+import io.fabric8.maven.docker.access.ecr.EcrTokenCache;
 import io.fabric8.maven.docker.util.aws.AwsSdkAuthConfigFactory;
 
 import javax.inject.Inject;
@@ -64,6 +65,7 @@ public class AuthConfigFactory {
     static final String DOCKER_LOGIN_DEFAULT_REGISTRY = "https://index.docker.io/v1/";
 
     private Logger log;
+    private EcrTokenCache ecrTokenCache;
     private static final String[] DEFAULT_REGISTRIES = new String[]{
             "docker.io", "index.docker.io", "registry.hub.docker.com"
     };
@@ -84,6 +86,15 @@ public class AuthConfigFactory {
         this.log = log;
     }
 
+    /**
+     * Set the cache used for reusing ECR authorization tokens
+     *
+     * @param ecrTokenCache cache to use, <code>null</code> to obtain a new token for each lookup
+     */
+    public void setEcrTokenCache(EcrTokenCache ecrTokenCache) {
+        this.ecrTokenCache = ecrTokenCache;
+    }
+
     /**
      * Create an authentication config object which can be used for communication with a Docker registry
      *
@@ -162,7 +173,7 @@ public class AuthConfigFactory {
      * @throws MojoExecutionException
      */
     private AuthConfig extendedAuthentication(AuthConfig standardAuthConfig, String registry) throws IOException, MojoExecutionException {
-        EcrExtendedAuth ecr = new EcrExtendedAuth(log, registry);
+        EcrExtendedAuth ecr = new EcrExtendedAuth(log, registry, ecrTokenCache);
         if (ecr.isAwsRegistry()) {
             return ecr.extendedAuth(standardAuthConfig);
         }
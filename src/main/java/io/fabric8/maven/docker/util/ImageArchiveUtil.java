@@ -1,30 +1,44 @@
 package io.fabric8.maven.docker.util;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarFile;
 import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 
 import io.fabric8.maven.docker.model.ImageArchiveManifest;
 import io.fabric8.maven.docker.model.ImageArchiveManifestAdapter;
 import io.fabric8.maven.docker.model.ImageArchiveManifestEntry;
+import io.fabric8.maven.docker.model.ImageArchiveManifestEntryAdapter;
 
 /**
  * Helper functions for working with Docker image archives, as produced by
@@ -32,10 +46,27 @@ import io.fabric8.maven.docker.model.ImageArchiveManifestEntry;
  */
 public class ImageArchiveUtil {
     public static final String MANIFEST_JSON = "manifest.json";
+    public static final String INDEX_JSON = "index.json";
+
+    // Entries larger than this are layers and never parsed as JSON
+    private static final long MAX_METADATA_SIZE = 4L * 1024 * 1024;
+    private static final int MAX_INDEX_DEPTH = 4;
+    private static final int STREAM_BUFFER_SIZE = 512 * 1000;
+    // Prefix of the temporary directory for entries read before the manifest
+    static final String SPILL_DIRECTORY_PREFIX = "dmp-image-archive";
+
+    private static final String OCI_BLOBS_DIR = "blobs/";
+    private static final String OCI_MANIFESTS = "manifests";
+    private static final String OCI_CONFIG = "config";
+    private static final String OCI_LAYERS = "layers";
+    private static final String OCI_DIGEST = "digest";
+    private static final String OCI_ANNOTATIONS = "annotations";
+    private static final String OCI_REF_NAME_ANNOTATION = "org.opencontainers.image.ref.name";
+    private static final String CONTAINERD_IMAGE_NAME_ANNOTATION = "io.containerd.image.name";
 
     private static InputStream createUncompressedStream(InputStream possiblyCompressed) {
         if(!possiblyCompressed.markSupported()) {
-            possiblyCompressed = new BufferedInputStream(possiblyCompressed, 512 * 1000);
+            possiblyCompressed = new BufferedInputStream(possiblyCompressed, STREAM_BUFFER_SIZE);
         }
 
         try {
@@ -45,19 +76,68 @@ public class ImageArchiveUtil {
         }
     }
 
+    // The stream must support mark and is reset after the detection
+    private static boolean isCompressed(InputStream in) {
+        try {
+            CompressorStreamFactory.detect(in);
+            return true;
+        } catch (CompressorException e) {
+            return false;
+        }
+    }
+
     /**
      * Read the (possibly compressed) image archive provided and return the archive manifest.
      *
      * If there is no manifest found, then null is returned. Incomplete manifests are returned
      * with as much information parsed as possible.
      *
+     * Uncompressed archives are accessed randomly, so that only the tar headers and the JSON
+     * entries referenced by the manifest are read, but not the layers.
+     *
      * @param file
      * @return the parsed manifest, or null if none found.
      * @throws IOException
      * @throws JsonParseException
      */
     public static ImageArchiveManifest readManifest(File file) throws IOException, JsonParseException {
-        return readManifest(new FileInputStream(file));
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel), STREAM_BUFFER_SIZE);
+            if (isCompressed(in)) {
+                return readManifest(in);
+            }
+            channel.position(0);
+            return readManifest(new TarFile(channel));
+        }
+    }
+
+    private static ImageArchiveManifest readManifest(TarFile archive) throws IOException, JsonParseException {
+        try (TarFile tarFile = archive) {
+            Map<String, TarArchiveEntry> entries = new HashMap<>();
+            for (TarArchiveEntry entry : tarFile.getEntries()) {
+                if (entry.isFile()) {
+                    entries.put(normalizeEntryName(entry.getName()), entry);
+                }
+            }
+
+            EntryLookup lookup = name -> {
+                TarArchiveEntry entry = entries.get(name);
+                if (entry == null || entry.getSize() > MAX_METADATA_SIZE) {
+                    return null;
+                }
+                try (InputStream in = tarFile.getInputStream(entry)) {
+                    return IOUtils.toByteArray(in);
+                }
+            };
+
+            byte[] manifestContent = lookup.read(MANIFEST_JSON);
+            JsonElement manifestJson = manifestContent != null ? parseJson(manifestContent) : null;
+            if (manifestJson != null) {
+                return createManifest(manifestJson, lookup);
+            }
+            byte[] indexJson = lookup.read(INDEX_JSON);
+            return indexJson != null ? createManifestFromIndex(indexJson, lookup) : null;
+        }
     }
 
 
@@ -67,45 +147,69 @@ public class ImageArchiveUtil {
      * If there is no manifest found, then null is returned. Incomplete manifests are returned
      * with as much information parsed as possible.
      *
+     * Reading stops as soon as the manifest and all image configurations it refers to have been found.
+     * The data of other entries is skipped without being parsed. Entries which might be referenced by
+     * a manifest found later in the archive are kept in temporary files until the end of the archive.
+     *
      * @param inputStream
      * @return the parsed manifest, or null if none found.
      * @throws IOException
      * @throws JsonParseException
      */
     public static ImageArchiveManifest readManifest(InputStream inputStream) throws IOException, JsonParseException {
-        Map<String, JsonParseException> parseExceptions = new LinkedHashMap<>();
-        Map<String, JsonElement> parsedEntries = new LinkedHashMap<>();
-
-        try (TarArchiveInputStream tarStream = new TarArchiveInputStream(createUncompressedStream(inputStream))) {
+        // Raw content of the image configs referenced by an already read manifest
+        Map<String, byte[]> metadata = new HashMap<>();
+        JsonElement manifestJson = null;
+        byte[] indexJson = null;
+        Set<String> missingConfigs = null;
+
+        try (SpilledEntries candidates = new SpilledEntries();
+             TarArchiveInputStream tarStream = new TarArchiveInputStream(createUncompressedStream(inputStream))) {
             TarArchiveEntry tarEntry;
-            Gson gson = new Gson();
-
-            while((tarEntry = tarStream.getNextTarEntry()) != null) {
-                if(tarEntry.isFile() && tarEntry.getName().endsWith(".json")) {
-                    try {
-                        JsonElement element = gson.fromJson(new InputStreamReader(tarStream, StandardCharsets.UTF_8), JsonElement.class);
-                        parsedEntries.put(tarEntry.getName(), element);
-                    } catch(JsonParseException exception) {
-                        parseExceptions.put(tarEntry.getName(), exception);
+
+            while((tarEntry = tarStream.getNextEntry()) != null) {
+                if (!tarEntry.isFile()) {
+                    continue;
+                }
+                String name = normalizeEntryName(tarEntry.getName());
+                if (MANIFEST_JSON.equals(name)) {
+                    manifestJson = parseJson(IOUtils.toByteArray(tarStream));
+                    if (manifestJson != null) {
+                        missingConfigs = getConfigNames(manifestJson);
+                        missingConfigs.removeIf(candidates::contains);
+                    }
+                } else if (INDEX_JSON.equals(name)) {
+                    indexJson = IOUtils.toByteArray(tarStream);
+                } else if (missingConfigs != null) {
+                    if (missingConfigs.remove(name)) {
+                        metadata.put(name, IOUtils.toByteArray(tarStream));
                     }
+                } else if (isMetadataCandidate(name, tarEntry)) {
+                    candidates.put(name, tarStream);
                 }
-            }
-        }
 
-        JsonElement manifestJson = parsedEntries.get(MANIFEST_JSON);
-        if(manifestJson == null) {
-            JsonParseException parseException = parseExceptions.get(MANIFEST_JSON);
-            if(parseException != null) {
-                throw parseException;
+                if (missingConfigs != null && missingConfigs.isEmpty()) {
+                    // Everything needed has been found, no need to read the rest of the archive
+                    break;
+                }
             }
 
-            return null;
+            EntryLookup lookup = name -> metadata.containsKey(name) ? metadata.get(name) : candidates.read(name);
+            if (manifestJson != null) {
+                return createManifest(manifestJson, lookup);
+            }
+            return indexJson != null ? createManifestFromIndex(indexJson, lookup) : null;
         }
+    }
 
+    private static ImageArchiveManifest createManifest(JsonElement manifestJson, EntryLookup lookup) throws IOException {
         ImageArchiveManifestAdapter manifest = new ImageArchiveManifestAdapter(manifestJson);
 
         for(ImageArchiveManifestEntry entry : manifest.getEntries()) {
-            JsonElement entryConfigJson = parsedEntries.get(entry.getConfig());
+            if (entry.getConfig() == null) {
+                continue;
+            }
+            JsonElement entryConfigJson = parseJsonOrNull(lookup.read(entry.getConfig()));
             if(entryConfigJson != null && entryConfigJson.isJsonObject()) {
                 manifest.putConfig(entry.getConfig(), entryConfigJson.getAsJsonObject());
             }
@@ -114,6 +218,162 @@ public class ImageArchiveUtil {
         return manifest;
     }
 
+    // Convert an OCI image layout into the manifest format written by 'docker save'
+    private static ImageArchiveManifest createManifestFromIndex(byte[] indexJson, EntryLookup lookup) throws IOException {
+        JsonArray manifestJson = new JsonArray();
+        addIndexEntries(parseJsonOrNull(indexJson), null, lookup, manifestJson, 0);
+        return manifestJson.size() > 0 ? createManifest(manifestJson, lookup) : null;
+    }
+
+    private static void addIndexEntries(JsonElement index, String repoTag, EntryLookup lookup, JsonArray manifestJson, int depth)
+            throws IOException {
+        if (index == null || !index.isJsonObject() || !index.getAsJsonObject().has(OCI_MANIFESTS) || depth > MAX_INDEX_DEPTH) {
+            return;
+        }
+        for (JsonElement descriptor : index.getAsJsonObject().getAsJsonArray(OCI_MANIFESTS)) {
+            if (!descriptor.isJsonObject()) {
+                continue;
+            }
+            String blob = getBlobName(descriptor.getAsJsonObject());
+            JsonElement manifest = blob != null ? parseJsonOrNull(lookup.read(blob)) : null;
+            if (manifest == null || !manifest.isJsonObject()) {
+                continue;
+            }
+            String tag = getRepoTag(descriptor.getAsJsonObject(), repoTag);
+            if (manifest.getAsJsonObject().has(OCI_MANIFESTS)) {
+                // Nested index, e.g. for a multi-platform image
+                addIndexEntries(manifest, tag, lookup, manifestJson, depth + 1);
+            } else {
+                manifestJson.add(createManifestEntry(manifest.getAsJsonObject(), tag));
+            }
+        }
+    }
+
+    private static JsonObject createManifestEntry(JsonObject imageManifest, String repoTag) {
+        JsonObject entry = new JsonObject();
+        if (imageManifest.has(OCI_CONFIG) && imageManifest.get(OCI_CONFIG).isJsonObject()) {
+            String config = getBlobName(imageManifest.getAsJsonObject(OCI_CONFIG));
+            if (config != null) {
+                entry.addProperty(ImageArchiveManifestEntryAdapter.CONFIG, config);
+            }
+        }
+        JsonArray repoTags = new JsonArray();
+        if (repoTag != null) {
+            repoTags.add(repoTag);
+        }
+        entry.add(ImageArchiveManifestEntryAdapter.REPO_TAGS, repoTags);
+        JsonArray layers = new JsonArray();
+        if (imageManifest.has(OCI_LAYERS) && imageManifest.get(OCI_LAYERS).isJsonArray()) {
+            for (JsonElement layer : imageManifest.getAsJsonArray(OCI_LAYERS)) {
+                String layerBlob = layer.isJsonObject() ? getBlobName(layer.getAsJsonObject()) : null;
+                if (layerBlob != null) {
+                    layers.add(layerBlob);
+                }
+            }
+        }
+        entry.add(ImageArchiveManifestEntryAdapter.LAYERS, layers);
+        return entry;
+    }
+
+    // Full image name of a descriptor in an OCI index. A bare tag as reference name can't be used as repo tag.
+    private static String getRepoTag(JsonObject descriptor, String defaultTag) {
+        JsonElement annotations = descriptor.get(OCI_ANNOTATIONS);
+        if (annotations == null || !annotations.isJsonObject()) {
+            return defaultTag;
+        }
+        for (String key : new String[] { CONTAINERD_IMAGE_NAME_ANNOTATION, OCI_REF_NAME_ANNOTATION }) {
+            JsonElement name = annotations.getAsJsonObject().get(key);
+            if (name != null && name.isJsonPrimitive() &&
+                (name.getAsString().indexOf('/') >= 0 || name.getAsString().indexOf(':') >= 0)) {
+                return name.getAsString();
+            }
+        }
+        return defaultTag;
+    }
+
+    private static String getBlobName(JsonObject descriptor) {
+        JsonElement digest = descriptor.get(OCI_DIGEST);
+        if (digest == null || !digest.isJsonPrimitive()) {
+            return null;
+        }
+        String[] parts = digest.getAsString().split(":", 2);
+        return parts.length == 2 ? OCI_BLOBS_DIR + parts[0] + "/" + parts[1] : null;
+    }
+
+    private static Set<String> getConfigNames(JsonElement manifestJson) {
+        Set<String> configs = new HashSet<>();
+        for (ImageArchiveManifestEntry entry : new ImageArchiveManifestAdapter(manifestJson).getEntries()) {
+            if (entry.getConfig() != null) {
+                configs.add(entry.getConfig());
+            }
+        }
+        return configs;
+    }
+
+    // Image configs of 'docker save' archives or blobs of OCI layouts, but not the layers
+    private static boolean isMetadataCandidate(String name, TarArchiveEntry entry) {
+        return (name.endsWith(ImageArchiveManifestEntryAdapter.CONFIG_JSON_SUFFIX) || name.startsWith(OCI_BLOBS_DIR)) &&
+               entry.getSize() <= MAX_METADATA_SIZE;
+    }
+
+    private static String normalizeEntryName(String name) {
+        return name.startsWith("./") ? name.substring(2) : name;
+    }
+
+    private static JsonElement parseJson(byte[] json) throws JsonParseException {
+        return new Gson().fromJson(new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8), JsonElement.class);
+    }
+
+    private static JsonElement parseJsonOrNull(byte[] json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return parseJson(json);
+        } catch (JsonParseException exception) {
+            return null;
+        }
+    }
+
+    // Lookup of the raw content of an archive entry, null if not present
+    @FunctionalInterface
+    private interface EntryLookup {
+        byte[] read(String name) throws IOException;
+    }
+
+    // Entries which are only known to be needed when the manifest has been read. They are stored in
+    // temporary files, so that the memory used doesn't grow with the number of blobs in the archive.
+    private static class SpilledEntries implements Closeable {
+
+        private final Map<String, File> files = new HashMap<>();
+        private File directory;
+
+        void put(String name, InputStream content) throws IOException {
+            if (directory == null) {
+                directory = Files.createTempDirectory(SPILL_DIRECTORY_PREFIX).toFile();
+            }
+            File file = new File(directory, Integer.toString(files.size()));
+            Files.copy(content, file.toPath());
+            files.put(name, file);
+        }
+
+        boolean contains(String name) {
+            return files.containsKey(name);
+        }
+
+        byte[] read(String name) throws IOException {
+            File file = files.get(name);
+            return file != null ? Files.readAllBytes(file.toPath()) : null;
+        }
+
+        @Override
+        public void close() {
+            if (directory != null) {
+                FileUtils.deleteQuietly(directory);
+            }
+        }
+    }
+
     /**
      * Search the manifest for an entry that has the repository and tag provided.
      *
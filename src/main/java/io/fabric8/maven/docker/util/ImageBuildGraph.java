@@ -0,0 +1,185 @@
+package io.fabric8.maven.docker.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.fabric8.maven.docker.config.BuildImageConfiguration;
+import io.fabric8.maven.docker.config.ImageConfiguration;
+
+/**
+ * Dependency graph between the images of a project which are built from each other. An image depends on
+ * another image of the same project if one of its base images refers to the name or to one of the
+ * additional tags of this image. All other base images are external and don't create a dependency.
+ */
+public class ImageBuildGraph {
+
+    private final List<ImageConfiguration> images;
+    private final Map<String, List<ImageConfiguration>> dependencies;
+
+    private ImageBuildGraph(List<ImageConfiguration> images, Map<String, List<ImageConfiguration>> dependencies) {
+        this.images = images;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Create the graph for the given images
+     *
+     * @param images images to build
+     * @param lookup lookup for the base images of an image
+     * @return graph with the images in build order
+     * @throws IllegalStateException if the images depend on each other in a cycle
+     */
+    public static ImageBuildGraph create(List<ImageConfiguration> images, BaseImageLookup lookup) {
+        Map<String, ImageConfiguration> imagesByName = new HashMap<>();
+        for (ImageConfiguration image : images) {
+            for (String name : getNames(image)) {
+                imagesByName.putIfAbsent(name, image);
+            }
+        }
+
+        Map<String, List<ImageConfiguration>> dependencies = new LinkedHashMap<>();
+        for (ImageConfiguration image : images) {
+            Set<ImageConfiguration> dependsOn = new LinkedHashSet<>();
+            for (String baseImage : lookup.getBaseImages(image)) {
+                ImageConfiguration base = imagesByName.get(normalize(baseImage));
+                if (base != null && base != image) {
+                    dependsOn.add(base);
+                }
+            }
+            dependencies.put(image.getName(), new ArrayList<>(dependsOn));
+        }
+        return new ImageBuildGraph(sort(images, dependencies), dependencies);
+    }
+
+    /**
+     * Get all images so that every image comes after the images it depends on
+     *
+     * @return images in build order
+     */
+    public List<ImageConfiguration> getImages() {
+        return images;
+    }
+
+    /**
+     * Get the images of the project the given image is built from
+     *
+     * @param image image to check
+     * @return list of images which must be built before the given image, empty if the image doesn't depend
+     *         on another image of the project
+     */
+    public List<ImageConfiguration> getDependencies(ImageConfiguration image) {
+        return dependencies.getOrDefault(image.getName(), Collections.emptyList());
+    }
+
+    /**
+     * Get the chain of dependent images with the longest overall build duration. Even with an unlimited
+     * number of build threads the build can't finish faster than the sum of the durations of this path.
+     *
+     * @param durations build duration of each image, keyed by image name
+     * @return images on the critical path, starting with the first image built
+     */
+    public List<ImageConfiguration> getCriticalPath(Map<String, Long> durations) {
+        Map<String, Long> finished = new HashMap<>();
+        Map<String, ImageConfiguration> predecessors = new HashMap<>();
+        ImageConfiguration last = null;
+        long longest = -1;
+        for (ImageConfiguration image : images) {
+            long start = 0;
+            for (ImageConfiguration dependency : getDependencies(image)) {
+                long dependencyFinished = finished.get(dependency.getName());
+                if (dependencyFinished > start || !predecessors.containsKey(image.getName())) {
+                    start = dependencyFinished;
+                    predecessors.put(image.getName(), dependency);
+                }
+            }
+            long end = start + durations.getOrDefault(image.getName(), 0L);
+            finished.put(image.getName(), end);
+            if (end > longest) {
+                longest = end;
+                last = image;
+            }
+        }
+
+        List<ImageConfiguration> path = new ArrayList<>();
+        for (ImageConfiguration image = last; image != null; image = predecessors.get(image.getName())) {
+            path.add(0, image);
+        }
+        return path;
+    }
+
+    // Topological sort which keeps the configured order for images which are independent of each other
+    private static List<ImageConfiguration> sort(List<ImageConfiguration> images, Map<String, List<ImageConfiguration>> dependencies) {
+        List<ImageConfiguration> sorted = new ArrayList<>();
+        Set<String> visited = new LinkedHashSet<>();
+        Set<String> inProgress = new LinkedHashSet<>();
+        for (ImageConfiguration image : images) {
+            visit(image, dependencies, visited, inProgress, sorted);
+        }
+        return sorted;
+    }
+
+    private static void visit(ImageConfiguration image, Map<String, List<ImageConfiguration>> dependencies,
+                              Set<String> visited, Set<String> inProgress, List<ImageConfiguration> sorted) {
+        String name = image.getName();
+        if (visited.contains(name)) {
+            return;
+        }
+        if (!inProgress.add(name)) {
+            throw new IllegalStateException("Cannot resolve build order, images are built from each other in a cycle: " +
+                                            String.join(" -> ", inProgress) + " -> " + name);
+        }
+        for (ImageConfiguration dependency : dependencies.get(name)) {
+            visit(dependency, dependencies, visited, inProgress, sorted);
+        }
+        inProgress.remove(name);
+        visited.add(name);
+        sorted.add(image);
+    }
+
+    // All names under which an image can be referenced after it has been built
+    private static List<String> getNames(ImageConfiguration image) {
+        List<String> names = new ArrayList<>();
+        String name = normalize(image.getName());
+        if (name == null) {
+            return names;
+        }
+        names.add(name);
+        BuildImageConfiguration buildConfig = image.getBuildConfiguration();
+        if (buildConfig != null && buildConfig.getTags() != null) {
+            for (String tag : buildConfig.getTags()) {
+                String tagged = normalize(new ImageName(image.getName()).getNameWithoutTag() + ":" + tag);
+                if (tagged != null) {
+                    names.add(tagged);
+                }
+            }
+        }
+        return names;
+    }
+
+    private static String normalize(String imageName) {
+        if (imageName == null) {
+            return null;
+        }
+        try {
+            return new ImageName(imageName).getFullName();
+        } catch (IllegalArgumentException exp) {
+            // Not a valid image reference (e.g. an unresolved placeholder), so it can't refer to an image
+            // of this project
+            return null;
+        }
+    }
+
+    /**
+     * Lookup of the base images of an image
+     */
+    @FunctionalInterface
+    public interface BaseImageLookup {
+        List<String> getBaseImages(ImageConfiguration image);
+    }
+}
@@ -3,6 +3,7 @@ package io.fabric8.maven.docker.util;
 import com.google.cloud.tools.jib.api.CacheDirectoryCreationException;
 import com.google.cloud.tools.jib.api.Containerizer;
 import com.google.cloud.tools.jib.api.Credential;
+import com.google.cloud.tools.jib.api.DockerDaemonImage;
 import com.google.cloud.tools.jib.api.InvalidImageReferenceException;
 import com.google.cloud.tools.jib.api.Jib;
 import com.google.cloud.tools.jib.api.JibContainerBuilder;
@@ -32,6 +33,7 @@ import java.nio.file.Paths;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -40,7 +42,7 @@ import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -62,9 +64,10 @@ public class JibServiceUtil {
     private JibServiceUtil() {
     }
 
-    private static final long JIB_EXECUTOR_SHUTDOWN_TIMEOUT_SECONDS = 10L;
     protected static final String BUSYBOX = "busybox:latest";
 
+    private static ExecutorService jibExecutor;
+
     /**
      * Build container image using JIB
      *
@@ -76,24 +79,58 @@ public class JibServiceUtil {
     public static void buildContainer(JibContainerBuilder jibContainerBuilder, TarImage image, Logger logger)
             throws InterruptedException {
 
-        final ExecutorService jibBuildExecutor = Executors.newCachedThreadPool();
         try {
-            jibContainerBuilder.setCreationTime(Instant.now());
-            jibContainerBuilder.containerize(Containerizer.to(image)
-                    .setAllowInsecureRegistries(true)
-                    .setExecutorService(jibBuildExecutor)
-                    .addEventHandler(LogEvent.class, log(logger))
-                    .addEventHandler(ProgressEvent.class, new ProgressEventHandler(logUpdate())));
-            logUpdateFinished();
+            containerize(jibContainerBuilder, Containerizer.to(image), Collections.emptyList(), logger);
         } catch (CacheDirectoryCreationException | IOException | ExecutionException | RegistryException ex) {
             logger.error("Unable to build the image tarball: ", ex);
             throw new IllegalStateException(ex);
-        } catch (InterruptedException ex) {
-            Thread.currentThread().interrupt();
-            throw ex;
-        } finally {
-            jibBuildExecutor.shutdown();
-            jibBuildExecutor.awaitTermination(JIB_EXECUTOR_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Build container image using JIB and push it with all its tags directly to the registry
+     *
+     * @param jibContainerBuilder jib container builder object
+     * @param imageConfiguration image to build
+     * @param pushCredentials push credentials
+     * @param skipTag whether to push the image name only, without the additional tags
+     * @param logger kit logger
+     * @throws InterruptedException in case thread is interrupted
+     */
+    public static void buildContainerToRegistry(JibContainerBuilder jibContainerBuilder, ImageConfiguration imageConfiguration,
+                                                Credential pushCredentials, boolean skipTag, Logger logger) throws InterruptedException {
+        List<String> tags = getBuildTags(imageConfiguration, skipTag);
+        String targetImageName = getFullImageName(imageConfiguration, tags.get(0));
+        try {
+            containerize(jibContainerBuilder, Containerizer.to(getRegistryImage(targetImageName, pushCredentials)),
+                    tags.subList(1, tags.size()), logger);
+        } catch (CacheDirectoryCreationException | InvalidImageReferenceException | IOException | ExecutionException | RegistryException ex) {
+            logger.error("Unable to build the image %s: %s", targetImageName, ex.getMessage());
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Build container image using JIB and load it with all its tags into the local Docker daemon
+     *
+     * @param jibContainerBuilder jib container builder object
+     * @param imageConfiguration image to build
+     * @param dockerEnvironment environment variables like <code>DOCKER_HOST</code> for connecting to the Docker daemon
+     * @param skipTag whether to load the image name only, without the additional tags
+     * @param logger kit logger
+     * @throws InterruptedException in case thread is interrupted
+     */
+    public static void buildContainerToDocker(JibContainerBuilder jibContainerBuilder, ImageConfiguration imageConfiguration,
+                                              Map<String, String> dockerEnvironment, boolean skipTag, Logger logger)
+            throws InterruptedException {
+        List<String> tags = getBuildTags(imageConfiguration, skipTag);
+        String targetImageName = getFullImageName(imageConfiguration, tags.get(0));
+        try {
+            containerize(jibContainerBuilder, Containerizer.to(getDockerDaemonImage(targetImageName, dockerEnvironment)),
+                    tags.subList(1, tags.size()), logger);
+        } catch (CacheDirectoryCreationException | InvalidImageReferenceException | IOException | ExecutionException | RegistryException ex) {
+            logger.error("Unable to build the image %s: %s", targetImageName, ex.getMessage());
+            throw new IllegalStateException(ex);
         }
     }
 
@@ -115,7 +152,8 @@ public class JibServiceUtil {
     }
 
     /**
-     * Push Image to registry using JIB
+     * Push Image to registry using JIB. The image is pushed with all its tags in a single containerization,
+     * so that the layers are read from the archive and checked against the registry only once.
      *
      * @param imageConfiguration ImageConfiguration
      * @param pushCredentials    push credentials
@@ -123,14 +161,36 @@ public class JibServiceUtil {
      * @param log                Logger
      */
     public static void jibPush(ImageConfiguration imageConfiguration, Credential pushCredentials, File tarArchive, Logger log) {
-        BuildImageConfiguration buildImageConfiguration = imageConfiguration.getBuildConfiguration();
+        pushContainer(imageConfiguration, Jib.from(TarImage.at(tarArchive.toPath())), pushCredentials, log);
+    }
+
+    /**
+     * Push an image which has been built into the local Docker daemon to the registry using JIB
+     *
+     * @param imageConfiguration ImageConfiguration
+     * @param pushCredentials    push credentials
+     * @param dockerEnvironment  environment variables like <code>DOCKER_HOST</code> for connecting to the Docker daemon
+     * @param log                Logger
+     */
+    public static void jibPushFromDocker(ImageConfiguration imageConfiguration, Credential pushCredentials,
+                                         Map<String, String> dockerEnvironment, Logger log) {
         String imageName = getFullImageName(imageConfiguration, null);
         try {
-            for (String tag : getAllImageTags(buildImageConfiguration.getTags(), imageName)) {
-                String imageNameWithTag = getFullImageName(imageConfiguration, tag);
-                log.info("Pushing image: %s", imageNameWithTag);
-                pushImage(TarImage.at(tarArchive.toPath()), imageNameWithTag, pushCredentials, log);
+            pushContainer(imageConfiguration, Jib.from(getDockerDaemonImage(imageName, dockerEnvironment)), pushCredentials, log);
+        } catch (InvalidImageReferenceException e) {
+            log.error("Exception occurred while pushing the image: %s, %s", imageName, e.getMessage());
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private static void pushContainer(ImageConfiguration imageConfiguration, JibContainerBuilder baseImage, Credential pushCredentials, Logger log) {
+        List<String> tags = getPushTags(imageConfiguration);
+        String targetImageName = getFullImageName(imageConfiguration, tags.get(0));
+        try {
+            for (String tag : tags) {
+                log.info("Pushing image: %s", getFullImageName(imageConfiguration, tag));
             }
+            pushImage(baseImage, targetImageName, tags.subList(1, tags.size()), pushCredentials, log);
         } catch (IllegalStateException e) {
             log.error("Exception occurred while pushing the image: %s", imageConfiguration.getName());
             throw e;
@@ -140,21 +200,42 @@ public class JibServiceUtil {
         }
     }
 
-    private static void pushImage(TarImage baseImage, String targetImageName, Credential credential, Logger logger)
+    /**
+     * Get the tags to push for an image. The tag of the image name comes first, followed by the additional
+     * tags in sorted order.
+     *
+     * @param imageConfiguration image configuration
+     * @return tags to push, never empty
+     */
+    static List<String> getPushTags(ImageConfiguration imageConfiguration) {
+        String imageName = getFullImageName(imageConfiguration, null);
+        String primaryTag = new ImageName(imageName).getTag();
+        List<String> tags = new ArrayList<>();
+        tags.add(primaryTag);
+        getAllImageTags(imageConfiguration.getBuildConfiguration().getTags(), imageName).stream()
+                .filter(tag -> !tag.equals(primaryTag))
+                .sorted()
+                .forEach(tags::add);
+        return tags;
+    }
+
+    // Tags of an image built directly to a registry or the Docker daemon, only the tag of the image name when tagging is skipped
+    private static List<String> getBuildTags(ImageConfiguration imageConfiguration, boolean skipTag) {
+        List<String> tags = getPushTags(imageConfiguration);
+        return skipTag ? tags.subList(0, 1) : tags;
+    }
+
+    private static void pushImage(JibContainerBuilder baseImage, String targetImageName, List<String> additionalTags, Credential credential, Logger logger)
             throws InterruptedException {
 
-        final ExecutorService jibBuildExecutor = Executors.newCachedThreadPool();
         try {
-            submitPushToJib(baseImage, getRegistryImage(targetImageName, credential), jibBuildExecutor, logger);
+            containerize(baseImage, Containerizer.to(getRegistryImage(targetImageName, credential)), additionalTags, logger);
         } catch (RegistryException | CacheDirectoryCreationException | InvalidImageReferenceException | IOException | ExecutionException e) {
             logger.error("Exception occurred while pushing the image: %s, %s", targetImageName, e.getMessage());
             throw new IllegalStateException(e.getMessage(), e);
         } catch (InterruptedException ex) {
             logger.error("Thread interrupted", ex);
             throw ex;
-        } finally {
-            jibBuildExecutor.shutdown();
-            jibBuildExecutor.awaitTermination(JIB_EXECUTOR_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
         }
     }
 
@@ -209,15 +290,44 @@ public class JibServiceUtil {
         return ImageFormat.Docker;
     }
 
-    private static void submitPushToJib(TarImage baseImage, RegistryImage targetImage, ExecutorService jibBuildExecutor, Logger logger) throws InterruptedException, ExecutionException, RegistryException, CacheDirectoryCreationException, IOException {
-        Jib.from(baseImage).setCreationTime(Instant.now()).containerize(Containerizer.to(targetImage)
-                .setAllowInsecureRegistries(true)
-                .setExecutorService(jibBuildExecutor)
+    private static void containerize(JibContainerBuilder containerBuilder, Containerizer containerizer, List<String> additionalTags, Logger logger)
+            throws InterruptedException, ExecutionException, RegistryException, CacheDirectoryCreationException, IOException {
+        containerizer.setAllowInsecureRegistries(true)
+                .setExecutorService(getExecutor())
                 .addEventHandler(LogEvent.class, log(logger))
-                .addEventHandler(ProgressEvent.class, new ProgressEventHandler(logUpdate())));
+                .addEventHandler(ProgressEvent.class, new ProgressEventHandler(logUpdate()));
+        for (String tag : additionalTags) {
+            containerizer.withAdditionalTag(tag);
+        }
+        try {
+            containerBuilder.setCreationTime(Instant.now()).containerize(containerizer);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw ex;
+        }
         logUpdateFinished();
     }
 
+    // Executor shared by all builds and pushes. Idle threads are removed after a while, and as they are
+    // daemon threads they don't keep the JVM alive.
+    private static synchronized ExecutorService getExecutor() {
+        if (jibExecutor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            jibExecutor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "jib-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return jibExecutor;
+    }
+
+    // JIB talks to the Docker daemon via the docker CLI, which gets the connection of the plugin in its environment
+    private static DockerDaemonImage getDockerDaemonImage(String imageName, Map<String, String> dockerEnvironment)
+            throws InvalidImageReferenceException {
+        return DockerDaemonImage.named(imageName).setDockerEnvironment(dockerEnvironment);
+    }
+
     private static RegistryImage getRegistryImage(String targetImage, Credential credential) throws InvalidImageReferenceException {
         RegistryImage registryImage = RegistryImage.named(targetImage);
         if (credential != null && !credential.getUsername().isEmpty() && !credential.getPassword().isEmpty()) {
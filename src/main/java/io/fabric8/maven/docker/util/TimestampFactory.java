@@ -15,6 +15,9 @@ package io.fabric8.maven.docker.util;/*
  * limitations under the License.
  */
 
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 
@@ -45,4 +48,98 @@ public class TimestampFactory {
     public static ZonedDateTime createTimestamp(String spec) {
         return ZonedDateTime.parse(spec).truncatedTo(ChronoUnit.MILLIS);
     }
+
+    /**
+     * Parse an RFC 3339 timestamp (e.g. "2014-11-24T22:34:00.761764812Z" or "2016-03-16T17:06:30.714+05:30")
+     * from ASCII bytes without creating intermediate objects. The result is truncated to milliseconds like
+     * {@link #createTimestamp(String)}.
+     *
+     * @param data bytes holding the timestamp
+     * @param offset start of the timestamp
+     * @param length length of the timestamp
+     * @return the timestamp or <code>null</code> if the given bytes are not a valid RFC 3339 timestamp
+     */
+    public static ZonedDateTime parseTimestamp(byte[] data, int offset, int length) {
+        // yyyy-MM-ddTHH:mm:ss followed by at least the zone designator
+        if (length < 20) {
+            return null;
+        }
+        int end = offset + length;
+        int year = digits(data, offset, 4);
+        int month = digits(data, offset + 5, 2);
+        int day = digits(data, offset + 8, 2);
+        int hour = digits(data, offset + 11, 2);
+        int minute = digits(data, offset + 14, 2);
+        int second = digits(data, offset + 17, 2);
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0 ||
+            data[offset + 4] != '-' || data[offset + 7] != '-' || (data[offset + 10] | 0x20) != 't' ||
+            data[offset + 13] != ':' || data[offset + 16] != ':') {
+            return null;
+        }
+
+        int pos = offset + 19;
+        int nanos = 0;
+        if (data[pos] == '.') {
+            pos++;
+            int fractionStart = pos;
+            int scale = 100_000_000;
+            while (pos < end && isDigit(data[pos])) {
+                // Digits beyond nanosecond precision are ignored
+                nanos += (data[pos] - '0') * scale;
+                scale /= 10;
+                pos++;
+            }
+            if (pos == fractionStart) {
+                return null;
+            }
+        }
+
+        ZoneOffset zone = parseOffset(data, pos, end - pos);
+        if (zone == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.of(LocalDateTime.of(year, month, day, hour, minute, second, nanos - nanos % 1_000_000), zone);
+        } catch (DateTimeException exp) {
+            // Out of range field like month 13
+            return null;
+        }
+    }
+
+    private static ZoneOffset parseOffset(byte[] data, int offset, int length) {
+        if (length == 1 && (data[offset] | 0x20) == 'z') {
+            return ZoneOffset.UTC;
+        }
+        if (length != 6 || (data[offset] != '+' && data[offset] != '-') || data[offset + 3] != ':') {
+            return null;
+        }
+        int hours = digits(data, offset + 1, 2);
+        int minutes = digits(data, offset + 4, 2);
+        if (hours < 0 || minutes < 0) {
+            return null;
+        }
+        try {
+            // Offsets are cached by the JDK when they are a multiple of 15 minutes
+            int seconds = (hours * 60 + minutes) * 60;
+            return ZoneOffset.ofTotalSeconds(data[offset] == '-' ? -seconds : seconds);
+        } catch (DateTimeException exp) {
+            return null;
+        }
+    }
+
+    // Parse a fixed number of decimal digits, -1 if there is a non-digit
+    private static int digits(byte[] data, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            if (!isDigit(data[i])) {
+                return -1;
+            }
+            value = value * 10 + (data[i] - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
 }
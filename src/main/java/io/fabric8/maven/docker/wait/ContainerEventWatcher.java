@@ -0,0 +1,203 @@
+package io.fabric8.maven.docker.wait;
+
+import io.fabric8.maven.docker.access.DockerAccess;
+import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.access.events.EventCallback;
+import io.fabric8.maven.docker.access.events.EventGetHandle;
+import io.fabric8.maven.docker.model.ContainerDetails;
+import io.fabric8.maven.docker.model.ContainerEvent;
+import io.fabric8.maven.docker.util.Logger;
+
+/**
+ * Tracks the state of a container while waiting on it by following its events instead of inspecting the
+ * container over and over again. The events of all watched containers are received through a single events stream
+ * of the Docker access. The container is inspected once after the events stream has been opened,
+ * all changes afterwards are taken from the <code>start</code>, <code>die</code> and <code>health_status</code>
+ * events.
+ * <p>
+ * If the Docker daemon doesn't support the events endpoint or the stream breaks, the watcher becomes
+ * inactive and all users fall back to polling.
+ */
+public class ContainerEventWatcher implements EventCallback, WaitUtil.ChangeNotifier {
+
+    private static final String[] EVENTS = {
+        ContainerEvent.START, ContainerEvent.DIE, ContainerEvent.HEALTH_STATUS
+    };
+
+    private final String containerId;
+    private final Logger log;
+
+    private EventGetHandle handle;
+    private ContainerDetails container;
+
+    private boolean active;
+    private boolean failed;
+    private boolean changed;
+
+    // State of the container, events always win over the state found by the initial inspection
+    private boolean dead;
+    private Integer exitCode;
+    private boolean healthy;
+    private boolean runStateFromEvent;
+    private boolean healthFromEvent;
+
+    /**
+     * Create a watcher which is not active until it is started with {@link #start(DockerAccess)}
+     *
+     * @param containerId container to watch
+     * @param log logger
+     */
+    public ContainerEventWatcher(String containerId, Logger log) {
+        this.containerId = containerId;
+        this.log = log;
+    }
+
+    /**
+     * Start watching a container
+     *
+     * @param docker access object
+     * @param containerId container to watch
+     * @param log logger
+     * @return the watcher, which is not active if the events of the container can't be followed
+     */
+    public static ContainerEventWatcher start(DockerAccess docker, String containerId, Logger log) {
+        ContainerEventWatcher watcher = new ContainerEventWatcher(containerId, log);
+        watcher.start(docker);
+        return watcher;
+    }
+
+    /**
+     * Start following the events of the container. The watcher stays inactive if the events can't be followed.
+     *
+     * @param docker access object
+     */
+    public void start(DockerAccess docker) {
+        try {
+            EventGetHandle newHandle = docker.getContainerEventsAsync(containerId, this, EVENTS);
+            synchronized (this) {
+                handle = newHandle;
+            }
+            if (newHandle != null) {
+                // Inspect only after the stream is open, so that no change gets lost in between
+                init(docker.getContainer(containerId));
+            }
+        } catch (DockerAccessException e) {
+            log.debug("ContainerEventWatcher: Cannot follow events of %s, falling back to polling: %s", containerId, e.getMessage());
+            stop();
+        }
+    }
+
+    /**
+     * Stop watching the container
+     */
+    public void stop() {
+        EventGetHandle toFinish;
+        synchronized (this) {
+            active = false;
+            toFinish = handle;
+            handle = null;
+            notifyAll();
+        }
+        if (toFinish != null) {
+            toFinish.finish();
+        }
+    }
+
+    @Override
+    public synchronized boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public synchronized void awaitChange(long millis) {
+        long deadline = System.currentTimeMillis() + millis;
+        try {
+            long remaining = millis;
+            while (!changed && active && remaining > 0) {
+                wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        changed = false;
+    }
+
+    @Override
+    public synchronized void event(ContainerEvent event) {
+        String type = event.getType();
+        if (ContainerEvent.START.equals(type)) {
+            dead = false;
+            exitCode = null;
+            runStateFromEvent = true;
+        } else if (ContainerEvent.DIE.equals(type)) {
+            dead = true;
+            exitCode = event.getExitCode();
+            runStateFromEvent = true;
+        } else if (ContainerEvent.HEALTH_STATUS.equals(type)) {
+            healthy = "healthy".equals(event.getHealthStatus());
+            healthFromEvent = true;
+        } else {
+            return;
+        }
+        log.debug("ContainerEventWatcher: %s received for %s", event.getType(), containerId);
+        changed = true;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void error(String error) {
+        if (active) {
+            log.debug("ContainerEventWatcher: Falling back to polling for %s: %s", containerId, error);
+        }
+        active = false;
+        failed = true;
+        changed = true;
+        notifyAll();
+    }
+
+    /**
+     * @return details of the container as inspected when the watcher was started
+     */
+    public synchronized ContainerDetails getContainer() {
+        return container;
+    }
+
+    /**
+     * @return true if the container has stopped
+     */
+    public synchronized boolean isDead() {
+        return dead;
+    }
+
+    /**
+     * @return exit code of a stopped container or null if the container is still running or the
+     *         exit code is not known
+     */
+    public synchronized Integer getExitCode() {
+        return exitCode;
+    }
+
+    /**
+     * @return true if the container is healthy
+     */
+    public synchronized boolean isHealthy() {
+        return healthy;
+    }
+
+    private synchronized void init(ContainerDetails details) {
+        if (details == null || handle == null || failed) {
+            // Container not found or stream already broken, let the polling checks report this
+            return;
+        }
+        container = details;
+        if (!runStateFromEvent) {
+            exitCode = details.getExitCode();
+            dead = exitCode != null;
+        }
+        if (!healthFromEvent) {
+            healthy = details.isHealthy();
+        }
+        active = true;
+    }
+}
@@ -1,24 +1,55 @@
 package io.fabric8.maven.docker.wait;
 
 import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.model.Container;
+import io.fabric8.maven.docker.service.ContainerSnapshot;
 import io.fabric8.maven.docker.service.QueryService;
 
 public class ExitCodeChecker implements WaitChecker {
 
     private final int exitCodeExpected;
-    private final String containerId;
-    private final QueryService queryService;
+    private final ContainerSnapshot snapshot;
+    // Whether the snapshot belongs to this checker, so that it has to be refreshed before every check
+    private final boolean ownSnapshot;
+    private final ContainerEventWatcher watcher;
 
     public ExitCodeChecker(int exitCodeExpected, QueryService queryService, String containerId) {
+        this(exitCodeExpected, queryService, containerId, null);
+    }
+
+    public ExitCodeChecker(int exitCodeExpected, QueryService queryService, String containerId, ContainerEventWatcher watcher) {
+        this(exitCodeExpected, queryService.getContainerSnapshot(containerId), true, watcher);
+    }
+
+    public ExitCodeChecker(int exitCodeExpected, ContainerSnapshot snapshot, ContainerEventWatcher watcher) {
+        this(exitCodeExpected, snapshot, false, watcher);
+    }
+
+    private ExitCodeChecker(int exitCodeExpected, ContainerSnapshot snapshot, boolean ownSnapshot, ContainerEventWatcher watcher) {
         this.exitCodeExpected = exitCodeExpected;
-        this.containerId = containerId;
-        this.queryService = queryService;
+        this.snapshot = snapshot;
+        this.ownSnapshot = ownSnapshot;
+        this.watcher = watcher;
     }
 
     @Override
     public boolean check() {
+        if (isEventDriven()) {
+            if (!watcher.isDead()) {
+                return false;
+            }
+            Integer exitCode = watcher.getExitCode();
+            if (exitCode != null) {
+                return exitCode == exitCodeExpected;
+            }
+            // Exit code not sent with the event, so inspect the container
+        }
+        if (ownSnapshot) {
+            snapshot.refresh();
+        }
         try {
-            Integer exitCodeActual = queryService.getMandatoryContainer(containerId).getExitCode();
+            Container container = snapshot.getMandatory();
+            Integer exitCodeActual = container.getExitCode();
             // container still running
             return exitCodeActual != null && exitCodeActual == exitCodeExpected;
         } catch (DockerAccessException e) {
@@ -31,6 +62,11 @@ public class ExitCodeChecker implements WaitChecker {
         // No cleanup required
     }
 
+    @Override
+    public boolean isEventDriven() {
+        return watcher != null && watcher.isActive();
+    }
+
     @Override
     public String getLogLabel() {
         return "on exit code " + exitCodeExpected;
@@ -3,6 +3,7 @@ package io.fabric8.maven.docker.wait;
 import io.fabric8.maven.docker.access.DockerAccess;
 import io.fabric8.maven.docker.access.DockerAccessException;
 import io.fabric8.maven.docker.model.ContainerDetails;
+import io.fabric8.maven.docker.service.ContainerSnapshot;
 import io.fabric8.maven.docker.util.Logger;
 
 /**
@@ -13,22 +14,44 @@ public class HealthCheckChecker implements WaitChecker {
 
     private boolean first = true;
 
-    private DockerAccess docker;
-    private String containerId;
+    private final ContainerSnapshot snapshot;
+    // Whether the snapshot belongs to this checker, so that it has to be refreshed before every check
+    private final boolean ownSnapshot;
     private Logger log;
     private final String imageConfigDesc;
+    private final ContainerEventWatcher watcher;
 
     public HealthCheckChecker(DockerAccess docker, String containerId, String imageConfigDesc, Logger log) {
-        this.docker = docker;
-        this.containerId = containerId;
+        this(docker, containerId, imageConfigDesc, log, null);
+    }
+
+    public HealthCheckChecker(DockerAccess docker, String containerId, String imageConfigDesc, Logger log, ContainerEventWatcher watcher) {
+        this(new ContainerSnapshot(docker, containerId), true, imageConfigDesc, log, watcher);
+    }
+
+    public HealthCheckChecker(ContainerSnapshot snapshot, String imageConfigDesc, Logger log, ContainerEventWatcher watcher) {
+        this(snapshot, false, imageConfigDesc, log, watcher);
+    }
+
+    private HealthCheckChecker(ContainerSnapshot snapshot, boolean ownSnapshot, String imageConfigDesc, Logger log,
+                               ContainerEventWatcher watcher) {
+        this.snapshot = snapshot;
+        this.ownSnapshot = ownSnapshot;
         this.imageConfigDesc = imageConfigDesc;
         this.log = log;
+        this.watcher = watcher;
     }
 
     @Override
     public boolean check() {
+        if (!first && isEventDriven()) {
+            return watcher.isHealthy();
+        }
+        if (ownSnapshot) {
+            snapshot.refresh();
+        }
         try {
-            final ContainerDetails container = docker.getContainer(containerId);
+            final ContainerDetails container = getContainer();
             if (container == null) {
                 log.debug("HealthWaitChecker: Container %s not found");
                 return false;
@@ -46,7 +69,7 @@ public class HealthCheckChecker implements WaitChecker {
                 log.debug("HealthWaitChecker: Waiting on healthcheck '%s'", container.getHealthcheck());
             }
 
-            return container.isHealthy();
+            return isEventDriven() ? watcher.isHealthy() : container.isHealthy();
         } catch(DockerAccessException e) {
             log.warn("Error while checking health: %s", e.getMessage());
             return false;
@@ -56,13 +79,26 @@ public class HealthCheckChecker implements WaitChecker {
     @Override
     public void cleanUp() {}
 
+    @Override
+    public boolean isEventDriven() {
+        return watcher != null && watcher.isActive();
+    }
+
     @Override
     public String getLogLabel() {
         try {
-            final ContainerDetails container = docker.getContainer(containerId);
+            final ContainerDetails container = getContainer();
             return String.format("on healthcheck '%s'",container != null ? container.getHealthcheck() : "[container not found]");
         } catch (DockerAccessException e) {
             return String.format("on healthcheck [error fetching container: %s]", e.getMessage());
         }
     }
+
+    // Use the container inspected by the watcher if available, otherwise the snapshot of the container
+    private ContainerDetails getContainer() throws DockerAccessException {
+        if (isEventDriven() && watcher.getContainer() != null) {
+            return watcher.getContainer();
+        }
+        return snapshot.get();
+    }
 }
@@ -19,12 +19,14 @@ import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.ssl.SSLContextBuilder;
+import org.apache.http.util.EntityUtils;
 
 import io.fabric8.maven.docker.config.WaitConfiguration;
 
 /**
- * Check whether a given URL is available
- *
+ * Check whether a given URL is available. The checker uses a single HTTP client for all checks so that
+ * the connection (and for HTTPS the TLS session) can be kept alive between two checks. The client is
+ * closed when the wait is finished.
  */
 public class HttpPingChecker implements WaitChecker {
 
@@ -33,13 +35,17 @@ public class HttpPingChecker implements WaitChecker {
     private String url;
     private String method;
     private boolean allowAllHosts;
+    private int timeout = HTTP_PING_TIMEOUT;
     private final Logger log;
 
+    // Client created lazily with the first check
+    private CloseableHttpClient httpClient;
+
     // Disable HTTP client retries by default.
     private static final int HTTP_CLIENT_RETRIES = 0;
 
-    // Timeout for pings
-    private static final int HTTP_PING_TIMEOUT = 500;
+    // Default timeout for pings
+    public static final int HTTP_PING_TIMEOUT = 500;
 
     /**
      * Ping the given URL
@@ -71,6 +77,21 @@ public class HttpPingChecker implements WaitChecker {
         this.allowAllHosts = allowAllHosts;
     }
 
+    /**
+     * Ping the given URL with a custom timeout
+     *
+     * @param url URL to check
+     * @param method HTTP method to use
+     * @param status status code to check
+     * @param allowAllHosts whether to skip the validation of server certificates
+     * @param timeout connect and read timeout of a single check in milliseconds
+     * @param log logger to use
+     */
+    public HttpPingChecker(String url, String method, String status, boolean allowAllHosts, int timeout, final Logger log) {
+        this(url, method, status, allowAllHosts, log);
+        this.timeout = timeout;
+    }
+
     @Override
     public boolean check() {
         try {
@@ -83,52 +104,66 @@ public class HttpPingChecker implements WaitChecker {
     }
 
     private boolean ping() throws IOException {
+        CloseableHttpClient client = getHttpClient();
+
+        log.debug("Checking %s %s", method.toUpperCase(), url);
+        try (CloseableHttpResponse response = client.execute(RequestBuilder.create(method.toUpperCase()).setUri(url).build())) {
+            int responseCode = response.getStatusLine().getStatusCode();
+            // Read the body, so that the connection can be reused for the next check
+            EntityUtils.consume(response.getEntity());
+            if (responseCode == HttpURLConnection.HTTP_NOT_IMPLEMENTED) {
+                throw new IllegalArgumentException("Invalid or not supported HTTP method '" + method.toUpperCase() + "' for checking " + url);
+            }
+            log.debug("%s %s returned %s",method.toUpperCase(), url, responseCode);
+            return responseCode >= statusMin && responseCode <= statusMax;
+        }
+    }
+
+    private CloseableHttpClient getHttpClient() throws IOException {
+        if (httpClient == null) {
+            httpClient = createHttpClient();
+        }
+        return httpClient;
+    }
+
+    private CloseableHttpClient createHttpClient() throws IOException {
         RequestConfig requestConfig =
                 RequestConfig.custom()
-                        .setSocketTimeout(HTTP_PING_TIMEOUT)
-                        .setConnectTimeout(HTTP_PING_TIMEOUT)
-                        .setConnectionRequestTimeout(HTTP_PING_TIMEOUT)
+                        .setSocketTimeout(timeout)
+                        .setConnectTimeout(timeout)
+                        .setConnectionRequestTimeout(timeout)
                         .setRedirectsEnabled(false)
                         .build();
 
-        CloseableHttpClient httpClient;
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                                                     .setDefaultRequestConfig(requestConfig)
+                                                     .setRetryHandler(new DefaultHttpRequestRetryHandler(HTTP_CLIENT_RETRIES, false))
+                                                     .setMaxConnPerRoute(1)
+                                                     .setMaxConnTotal(1);
         if (allowAllHosts) {
-            SSLContextBuilder builder = new SSLContextBuilder();
             try {
-                builder.loadTrustMaterial(new TrustAllStrategy());
-                SSLConnectionSocketFactory socketFactory = new SSLConnectionSocketFactory(builder.build(), NoopHostnameVerifier.INSTANCE);
-                httpClient = HttpClientBuilder.create()
-                                              .setDefaultRequestConfig(requestConfig)
-                                              .setRetryHandler(new DefaultHttpRequestRetryHandler(HTTP_CLIENT_RETRIES, false))
-                                              .setSSLSocketFactory(socketFactory)
-                                              .setSSLHostnameVerifier(NoopHostnameVerifier.INSTANCE)
-                                              .build();
+                SSLContextBuilder sslContextBuilder = new SSLContextBuilder();
+                sslContextBuilder.loadTrustMaterial(new TrustAllStrategy());
+                SSLConnectionSocketFactory socketFactory = new SSLConnectionSocketFactory(sslContextBuilder.build(), NoopHostnameVerifier.INSTANCE);
+                builder.setSSLSocketFactory(socketFactory)
+                       .setSSLHostnameVerifier(NoopHostnameVerifier.INSTANCE);
             } catch (NoSuchAlgorithmException | KeyStoreException | KeyManagementException e) {
                 throw new IOException("Unable to set self signed strategy on http wait: " + e, e);
             }
-        } else {
-            httpClient = HttpClientBuilder.create()
-                    .setDefaultRequestConfig(requestConfig)
-                    .setRetryHandler(new DefaultHttpRequestRetryHandler(HTTP_CLIENT_RETRIES, false))
-                    .build();
-        }
-
-        log.debug("Checking %s %s", method.toUpperCase(), url);
-        try (CloseableHttpResponse response = httpClient.execute(RequestBuilder.create(method.toUpperCase()).setUri(url).build())) {
-            int responseCode = response.getStatusLine().getStatusCode();
-            if (responseCode == HttpURLConnection.HTTP_NOT_IMPLEMENTED) {
-                throw new IllegalArgumentException("Invalid or not supported HTTP method '" + method.toUpperCase() + "' for checking " + url);
-            }
-            log.debug("%s %s returned %s",method.toUpperCase(), url, responseCode);
-            return responseCode >= statusMin && responseCode <= statusMax;
-        } finally {
-          httpClient.close();
         }
+        return builder.build();
     }
 
     @Override
     public void cleanUp() {
-        // No cleanup required for this checker
+        if (httpClient != null) {
+            try {
+                httpClient.close();
+            } catch (IOException exception) {
+                log.debug("Cannot close HTTP client for %s: %s", url, exception.getMessage());
+            }
+            httpClient = null;
+        }
     }
 
     @Override
@@ -1,7 +1,7 @@
 package io.fabric8.maven.docker.wait;
 
 import java.time.ZonedDateTime;
-import java.util.regex.Pattern;
+import java.util.Collections;
 
 import io.fabric8.maven.docker.access.log.LogCallback;
 import io.fabric8.maven.docker.util.Logger;
@@ -10,31 +10,27 @@ class LogMatchCallback implements LogCallback {
 
     private final Logger logger;
     private final LogWaitCheckerCallback callback;
-    private final Pattern pattern;
-    private StringBuilder logBuffer;
+    private final LogMatcher matcher;
 
     LogMatchCallback(final Logger logger, final LogWaitCheckerCallback callback, final String patternString) {
+        this(logger, callback, new LogMatcher(Collections.singletonList(patternString), 0, 0));
+    }
+
+    LogMatchCallback(final Logger logger, final LogWaitCheckerCallback callback, final LogMatcher matcher) {
         this.logger = logger;
         this.callback = callback;
-        this.pattern = Pattern.compile(patternString);
-        logBuffer = (pattern.flags() & Pattern.DOTALL) != 0 ? new StringBuilder() : null;
+        this.matcher = matcher;
     }
 
     @Override
     public void log(int type, ZonedDateTime timestamp, String txt) throws DoneException {
-        logger.debug("LogWaitChecker: Trying to match '%s' [Pattern: %s] [thread: %d]",
-                  txt, pattern.pattern(), Thread.currentThread().getId());
-
-        final String toMatch;
-        if (logBuffer != null) {
-            logBuffer.append(txt).append("\n");
-            toMatch = logBuffer.toString();
-        } else {
-            toMatch = txt;
+        if (logger.isDebugEnabled()) {
+            logger.debug("LogWaitChecker: Trying to match '%s' [Pattern: %s] [thread: %d]",
+                         txt, matcher.getPatterns(), Thread.currentThread().getId());
         }
 
-        if (pattern.matcher(toMatch).find()) {
-            logger.debug("Found log-wait pattern in log output");
+        if (matcher.matches(txt)) {
+            logger.debug("Found log-wait pattern %s in log output", matcher.getMatchedPattern());
             callback.matched();
             throw new DoneException();
         }
@@ -0,0 +1,142 @@
+package io.fabric8.maven.docker.wait;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Streaming matcher for log output, fed line by line. Patterns compiled with DOTALL (e.g. with a leading
+ * <code>(?s)</code>) can span several lines and are matched against a sliding window of the latest lines.
+ * All other patterns are matched against each line on its own.
+ * <p>
+ * The window is bounded by a number of lines and a number of bytes, so that memory stays bounded and the cost
+ * per line doesn't grow with the log volume. The newest line is always kept, even if it alone exceeds the
+ * byte limit. This class is not thread-safe.
+ */
+class LogMatcher {
+
+    static final int DEFAULT_WINDOW_LINES = 1000;
+    static final int DEFAULT_WINDOW_BYTES = 256 * 1024;
+
+    private final List<Pattern> patterns = new ArrayList<>();
+    private final List<Matcher> lineMatchers = new ArrayList<>();
+    private final List<Matcher> windowMatchers = new ArrayList<>();
+
+    private final int windowLines;
+    private final int windowBytes;
+
+    // Window content starts at windowStart, older content is removed lazily
+    private final StringBuilder window;
+    private final Deque<int[]> windowEntries = new ArrayDeque<>();
+    private int windowStart;
+    private int windowSize;
+
+    private Pattern matched;
+
+    /**
+     * Create a matcher
+     *
+     * @param patterns alternative patterns, matching stops at the first one which matches
+     * @param windowLines maximum number of lines for patterns spanning several lines, default if not positive
+     * @param windowBytes maximum size of the lines for patterns spanning several lines in bytes (UTF-8),
+     *                    default if not positive
+     */
+    LogMatcher(List<String> patterns, int windowLines, int windowBytes) {
+        for (String pattern : patterns) {
+            Pattern compiled = Pattern.compile(pattern);
+            this.patterns.add(compiled);
+            Matcher matcher = compiled.matcher("");
+            if ((compiled.flags() & Pattern.DOTALL) != 0) {
+                windowMatchers.add(matcher);
+            } else {
+                lineMatchers.add(matcher);
+            }
+        }
+        this.windowLines = windowLines > 0 ? windowLines : DEFAULT_WINDOW_LINES;
+        this.windowBytes = windowBytes > 0 ? windowBytes : DEFAULT_WINDOW_BYTES;
+        this.window = windowMatchers.isEmpty() ? null : new StringBuilder();
+    }
+
+    /**
+     * Add the next line and check whether one of the patterns matches
+     *
+     * @param line log line without line separator
+     * @return true if a pattern matches
+     */
+    boolean matches(String line) {
+        for (Matcher matcher : lineMatchers) {
+            if (matcher.reset(line).find()) {
+                return matched(matcher);
+            }
+        }
+        if (window == null) {
+            return false;
+        }
+        append(line);
+        for (Matcher matcher : windowMatchers) {
+            // Anchoring bounds let '^' match at the start of the window
+            matcher.reset(window).region(windowStart, window.length());
+            if (matcher.find()) {
+                return matched(matcher);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the pattern which has matched or <code>null</code>
+     */
+    Pattern getMatchedPattern() {
+        return matched;
+    }
+
+    List<Pattern> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * @return number of characters currently held for patterns spanning several lines
+     */
+    int getWindowLength() {
+        return window != null ? window.length() - windowStart : 0;
+    }
+
+    private boolean matched(Matcher matcher) {
+        matched = matcher.pattern();
+        return true;
+    }
+
+    private void append(String line) {
+        int bytes = utf8Length(line) + 1;
+        windowEntries.addLast(new int[] { line.length() + 1, bytes });
+        windowSize += bytes;
+        window.append(line).append('\n');
+
+        while (windowEntries.size() > 1 && (windowEntries.size() > windowLines || windowSize > windowBytes)) {
+            int[] oldest = windowEntries.removeFirst();
+            windowStart += oldest[0];
+            windowSize -= oldest[1];
+        }
+        // Drop the content before the window once it makes up the larger part, so that each character
+        // is moved only a constant number of times
+        if (windowStart > window.length() - windowStart) {
+            window.delete(0, windowStart);
+            windowStart = 0;
+        }
+    }
+
+    private static int utf8Length(String text) {
+        int len = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                // Surrogate pairs count as 2 + 2 = 4 bytes
+                len += c >= 0x800 && !Character.isSurrogate(c) ? 2 : 1;
+            }
+        }
+        return len;
+    }
+}
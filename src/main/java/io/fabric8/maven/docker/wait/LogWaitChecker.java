@@ -1,5 +1,7 @@
 package io.fabric8.maven.docker.wait;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 
 import io.fabric8.maven.docker.access.DockerAccess;
@@ -20,12 +22,28 @@ public class LogWaitChecker implements WaitChecker, LogWaitCheckerCallback {
     private final LogGetHandle logHandle;
 
     public LogWaitChecker(final String logPattern, final DockerAccess dockerAccess, final String containerId, final Logger log) {
+        this(Collections.singletonList(logPattern), 0, 0, dockerAccess, containerId, log);
+    }
+
+    /**
+     * Wait until one of several patterns matches the log output
+     *
+     * @param logPatterns alternative patterns
+     * @param windowLines maximum number of lines kept for patterns spanning several lines, 0 for the default
+     * @param windowBytes maximum number of bytes kept for patterns spanning several lines, 0 for the default
+     * @param dockerAccess access for following the log
+     * @param containerId container to watch
+     * @param log logger
+     */
+    public LogWaitChecker(final List<String> logPatterns, final int windowLines, final int windowBytes,
+                          final DockerAccess dockerAccess, final String containerId, final Logger log) {
         this.containerId = containerId;
-        this.logPattern = logPattern;
+        this.logPattern = String.join("' or '", logPatterns);
         this.log = log;
 
         this.latch = new CountDownLatch(1);
-        this.logHandle = dockerAccess.getLogAsync(containerId, new LogMatchCallback(log, this, logPattern));
+        LogMatcher matcher = new LogMatcher(logPatterns, windowLines, windowBytes);
+        this.logHandle = dockerAccess.getLogAsync(containerId, new LogMatchCallback(log, this, matcher));
     }
 
     @Override
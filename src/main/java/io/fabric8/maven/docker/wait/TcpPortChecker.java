@@ -1,25 +1,54 @@
 package io.fabric8.maven.docker.wait;
 
-import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.net.Socket;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
 
 /**
- * Check whether a given TCP port is available
+ * Check whether the given TCP ports are available. All pending ports are probed at the same time with
+ * non-blocking connects, so a check takes at most the ping timeout regardless of the number of ports.
  */
 public class TcpPortChecker implements WaitChecker {
 
     private static final int TCP_PING_TIMEOUT = 500;
 
+    // An unanswered connect is retried by the kernel for about a minute, so a connection attempt is started
+    // anew when it didn't finish within this time
+    private static final int TCP_PROBE_TIMEOUT = 3000;
+
     private final List<Integer> ports;
 
     private final List<InetSocketAddress> pending;
 
+    private final TcpProber prober;
+
+    private final long timeout;
+
+    private final long probeTimeoutNanos;
+
+    private final LongSupplier nanoClock;
+
+    // Connection attempts which have not finished within a check are kept for the next check
+    private final Map<InetSocketAddress, Attempt> attempts = new HashMap<>();
+
     public TcpPortChecker(String host, List<Integer> ports) {
+        this(host, ports, TcpProber.getDefault(), TCP_PING_TIMEOUT, TCP_PROBE_TIMEOUT, System::nanoTime);
+    }
+
+    TcpPortChecker(String host, List<Integer> ports, TcpProber prober, long timeout, long probeTimeout, LongSupplier nanoClock) {
         this.ports = ports;
+        this.prober = prober;
+        this.timeout = timeout;
+        this.probeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(probeTimeout);
+        this.nanoClock = nanoClock;
 
         this.pending = new ArrayList<>();
         for (int port : ports) {
@@ -34,19 +63,38 @@ public class TcpPortChecker implements WaitChecker {
 
     @Override
     public boolean check() {
-        Iterator<InetSocketAddress> iter = pending.iterator();
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        long now = nanoClock.getAsLong();
+        for (InetSocketAddress address : pending) {
+            Attempt attempt = attempts.get(address);
+            if (attempt == null || attempt.isRefused()) {
+                // Ports isn't opened, yet. Can happen and is part of the flow, so try again
+                attempt = new Attempt(prober.probe(address), now);
+                attempts.put(address, attempt);
+            } else if (now - attempt.started >= probeTimeoutNanos && !attempt.probe.getResult().isDone()) {
+                // The connect might have been dropped, so don't wait for the retransmissions
+                attempt.probe.cancel();
+                attempt = new Attempt(prober.probe(address), now);
+                attempts.put(address, attempt);
+            }
+            results.add(attempt.probe.getResult());
+        }
 
+        // Returns as soon as the last port has accepted or has been refused
+        try {
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Some ports are not answering yet
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Iterator<InetSocketAddress> iter = pending.iterator();
         while (iter.hasNext()) {
             InetSocketAddress address = iter.next();
-
-            try {
-                Socket s = new Socket();
-                s.connect(address, TCP_PING_TIMEOUT);
-                s.close();
+            if (attempts.get(address).probe.isConnected()) {
+                attempts.remove(address);
                 iter.remove();
-            } catch (IOException e) {
-                // Ports isn't opened, yet. So don't remove from queue.
-                // Can happen and is part of the flow
             }
         }
         return pending.isEmpty();
@@ -54,11 +102,29 @@ public class TcpPortChecker implements WaitChecker {
 
     @Override
     public void cleanUp() {
-        // No cleanup required
+        for (Attempt attempt : attempts.values()) {
+            attempt.probe.cancel();
+        }
+        attempts.clear();
     }
 
     @Override
     public String getLogLabel() {
         return "on tcp port '" + pending + "'";
     }
+
+    private static class Attempt {
+
+        private final TcpProber.Probe probe;
+        private final long started;
+
+        private Attempt(TcpProber.Probe probe, long started) {
+            this.probe = probe;
+            this.started = started;
+        }
+
+        private boolean isRefused() {
+            return probe.getResult().isDone() && !probe.isConnected();
+        }
+    }
 }
@@ -0,0 +1,211 @@
+package io.fabric8.maven.docker.wait;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Probes TCP ports with non-blocking connects. The connects of all probes, also of different wait checkers,
+ * are completed by a single selector thread, so that many ports can be probed at the same time without
+ * a blocking socket per port.
+ * <p>
+ * The selector thread is started with the first probe and stops again when no probe is in flight.
+ */
+class TcpProber {
+
+    private static final TcpProber DEFAULT = new TcpProber();
+
+    private final Queue<Probe> queued = new ConcurrentLinkedQueue<>();
+
+    private Selector selector;
+    private int inFlight;
+
+    static TcpProber getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Start connecting to the given address
+     *
+     * @param address address to connect to
+     * @return probe, whose result is completed with <code>true</code> when the connection has been established
+     *         and with <code>false</code> if the connection has been refused or the probe has been cancelled
+     */
+    Probe probe(InetSocketAddress address) {
+        Probe probe = new Probe(this);
+        try {
+            SocketChannel channel = SocketChannel.open();
+            probe.channel = channel;
+            channel.configureBlocking(false);
+            if (channel.connect(address)) {
+                probe.complete(true);
+            } else {
+                enqueue(probe);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Refused right away or unresolved address
+            probe.complete(false);
+        }
+        return probe;
+    }
+
+    private synchronized void enqueue(Probe probe) throws IOException {
+        if (probe.completed.get()) {
+            // Cancelled in between
+            return;
+        }
+        if (selector == null) {
+            Selector sel = Selector.open();
+            selector = sel;
+            Thread thread = new Thread(() -> run(sel), "docker-tcp-probe");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        inFlight++;
+        probe.inFlight = true;
+        queued.add(probe);
+        selector.wakeup();
+    }
+
+    private void run(Selector sel) {
+        try {
+            while (!shallStop(sel)) {
+                registerQueued(sel);
+                sel.select();
+                for (SelectionKey key : sel.selectedKeys()) {
+                    key.cancel();
+                    ((Probe) key.attachment()).finishConnect();
+                }
+                sel.selectedKeys().clear();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            failAll(sel);
+        }
+    }
+
+    private void registerQueued(Selector sel) {
+        Probe probe;
+        while ((probe = queued.poll()) != null) {
+            try {
+                probe.channel.register(sel, SelectionKey.OP_CONNECT, probe);
+            } catch (IOException e) {
+                // Channel has been closed by cancelling the probe
+                probe.complete(false);
+            }
+        }
+    }
+
+    // Called once for each completed probe, wakes up the selector thread for stopping it when no probe is left
+    private synchronized void done(Probe probe) {
+        if (!probe.inFlight) {
+            return;
+        }
+        probe.inFlight = false;
+        inFlight--;
+        if (inFlight == 0 && selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private synchronized boolean shallStop(Selector sel) throws IOException {
+        if (inFlight == 0) {
+            // Deregister cancelled keys before closing
+            sel.selectNow();
+            sel.close();
+            selector = null;
+            return true;
+        }
+        return false;
+    }
+
+    // Each failed probe is counted down on its own, as probes might still be completed concurrently
+    private void failAll(Selector sel) {
+        Probe probe;
+        while ((probe = queued.poll()) != null) {
+            probe.complete(false);
+        }
+        try {
+            for (SelectionKey key : sel.keys()) {
+                ((Probe) key.attachment()).complete(false);
+            }
+            sel.close();
+        } catch (IOException | ClosedSelectorException e) {
+            // Selector is not used anymore
+        }
+        synchronized (this) {
+            if (selector == sel) {
+                selector = null;
+            }
+        }
+    }
+
+    /**
+     * A single connection attempt
+     */
+    static class Probe {
+
+        private final TcpProber prober;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile SocketChannel channel;
+        // Guarded by the prober
+        private boolean inFlight;
+
+        Probe(TcpProber prober) {
+            this.prober = prober;
+        }
+
+        CompletableFuture<Boolean> getResult() {
+            return result;
+        }
+
+        boolean isConnected() {
+            return result.getNow(false);
+        }
+
+        /**
+         * Stop the connection attempt if it is still in flight
+         */
+        void cancel() {
+            complete(false);
+        }
+
+        private void finishConnect() {
+            try {
+                complete(channel.finishConnect());
+            } catch (IOException e) {
+                // Connection refused
+                complete(false);
+            }
+        }
+
+        // The connection is not needed anymore once the result is known. The probe is counted down before
+        // the result is completed, so that a caller seeing the result also sees the probe as finished.
+        void complete(boolean connected) {
+            if (completed.getAndSet(true)) {
+                return;
+            }
+            SocketChannel toClose = channel;
+            if (toClose != null) {
+                try {
+                    toClose.close();
+                } catch (IOException e) {
+                    // Only used for probing
+                }
+            }
+            prober.done(this);
+            result.complete(connected);
+        }
+    }
+}
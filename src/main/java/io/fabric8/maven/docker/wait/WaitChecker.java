@@ -17,6 +17,16 @@ public interface WaitChecker {
      */
     void cleanUp();
 
+    /**
+     * Whether the result of this checker only changes when a change is reported by the
+     * {@link WaitUtil.ChangeNotifier} used for waiting, so that it doesn't need to be polled.
+     *
+     * @return true if the checker doesn't need to be polled
+     */
+    default boolean isEventDriven() {
+        return false;
+    }
+
     /**
      * Get the label to be used in the log
      * @return
@@ -14,7 +14,7 @@ public class WaitUtil {
     private static final long DEFAULT_MAX_WAIT = 10 * 1000L;
 
     // How long to wait between pings
-    private static final long WAIT_RETRY_WAIT = 500;
+    public static final long WAIT_RETRY_WAIT = 500;
 
 
     private WaitUtil() {}
@@ -41,6 +41,41 @@ public class WaitUtil {
     }
 
     public static long wait(Precondition precondition, int maxWait, Iterable<WaitChecker> checkers) throws WaitTimeoutException, PreconditionFailedException {
+        return wait(precondition, maxWait, checkers, null);
+    }
+
+    /**
+     * Wait until one of the checkers succeeds. Between two checks it is paused until the given notifier
+     * reports a change. If all checkers are event driven, there is no polling at all; otherwise the pause
+     * is ended at the latest after the usual retry interval.
+     *
+     * @param precondition precondition which must hold while waiting
+     * @param maxWait maximum time to wait in milliseconds
+     * @param checkers checkers to wait on
+     * @param notifier notifier for changes which might let a checker succeed. Can be null for polling only.
+     * @return the time waited in milliseconds
+     * @throws WaitTimeoutException if no checker succeeded within the given time
+     * @throws PreconditionFailedException if the precondition doesn't hold anymore
+     */
+    public static long wait(Precondition precondition, int maxWait, Iterable<WaitChecker> checkers, ChangeNotifier notifier)
+            throws WaitTimeoutException, PreconditionFailedException {
+        return wait(precondition, maxWait, checkers, notifier, WAIT_RETRY_WAIT);
+    }
+
+    /**
+     * Wait until one of the checkers succeeds, pausing at most the given interval between two checks.
+     *
+     * @param precondition precondition which must hold while waiting
+     * @param maxWait maximum time to wait in milliseconds
+     * @param checkers checkers to wait on
+     * @param notifier notifier for changes which might let a checker succeed. Can be null for polling only.
+     * @param interval maximum pause between two checks in milliseconds
+     * @return the time waited in milliseconds
+     * @throws WaitTimeoutException if no checker succeeded within the given time
+     * @throws PreconditionFailedException if the precondition doesn't hold anymore
+     */
+    public static long wait(Precondition precondition, int maxWait, Iterable<WaitChecker> checkers, ChangeNotifier notifier, long interval)
+            throws WaitTimeoutException, PreconditionFailedException {
         long max = maxWait > 0 ? maxWait : DEFAULT_MAX_WAIT;
         long now = System.currentTimeMillis();
         try {
@@ -56,7 +91,7 @@ public class WaitUtil {
                         return delta(now);
                     }
                 }
-                sleep(WAIT_RETRY_WAIT);
+                pause(notifier, checkers, interval, max - delta(now));
             } while (delta(now) < max);
             throw new WaitTimeoutException("No checker finished successfully", delta(now));
         } finally {
@@ -74,6 +109,25 @@ public class WaitUtil {
         return false;
     }
 
+    private static void pause(ChangeNotifier notifier, Iterable<WaitChecker> checkers, long interval, long remaining) {
+        if (notifier == null || !notifier.isActive()) {
+            sleep(Math.min(interval, Math.max(remaining, 0)));
+        } else if (isEventDriven(checkers)) {
+            notifier.awaitChange(remaining);
+        } else {
+            notifier.awaitChange(Math.min(interval, remaining));
+        }
+    }
+
+    private static boolean isEventDriven(Iterable<WaitChecker> checkers) {
+        for (WaitChecker checker : checkers) {
+            if (!checker.isEventDriven()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     // Give checkers a possibility to clean up
     private static void cleanup(Iterable<WaitChecker> checkers) {
         for (WaitChecker checker : checkers) {
@@ -109,4 +163,14 @@ public class WaitUtil {
         // cleanup which might be needed if the check is done.
         void cleanup();
     }
+
+    /**
+     * Source of notifications about changes which might influence the outcome of a check
+     */
+    public interface ChangeNotifier {
+        // true if changes are reported, false if waiting has to fall back to polling
+        boolean isActive();
+        // wait until a change has been reported since the last call or the given time has passed
+        void awaitChange(long millis);
+    }
 }
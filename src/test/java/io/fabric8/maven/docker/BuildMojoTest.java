@@ -96,6 +96,30 @@ class BuildMojoTest extends MojoTestBase {
         thenBuildRun();
     }
 
+    @Test
+    void skipWhenPomInParallel() throws IOException, MojoExecutionException {
+        givenMavenProject(buildMojo);
+        givenResolvedImages(buildMojo, Collections.singletonList(singleImageWithBuild()));
+        givenPackaging("pom");
+        givenSkipPom(true);
+        givenBuildParallel();
+
+        whenMojoExecutes();
+
+        thenBuildNotRun();
+    }
+
+    @Test
+    void buildInParallel() throws IOException, MojoExecutionException {
+        givenMavenProject(buildMojo);
+        givenResolvedImages(buildMojo, Collections.singletonList(singleImageWithBuild()));
+        givenBuildParallel();
+
+        whenMojoExecutes();
+
+        thenBuildRun();
+    }
+
     @Test
     void skipImageBuildWhenBuildArchiveOnlyPath() throws IOException, MojoExecutionException {
         givenMavenProject(buildMojo);
@@ -501,6 +525,10 @@ class BuildMojoTest extends MojoTestBase {
         buildMojo.skipPom = skipPom;
     }
 
+    private void givenBuildParallel() {
+        buildMojo.buildParallel = true;
+    }
+
     private void givenBuildArchiveOnly(String archiveOnly) {
         buildMojo.buildArchiveOnly = archiveOnly;
     }
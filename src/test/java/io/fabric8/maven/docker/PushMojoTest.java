@@ -84,7 +84,7 @@ class PushMojoTest extends MojoTestBase {
 
   private void verifyPush(int wantedNumberOfInvocations) throws DockerAccessException, MojoExecutionException {
     Mockito.verify(registryService, Mockito.times(wantedNumberOfInvocations))
-        .pushImages(any(ProjectPaths.class), Mockito.anyCollection(), Mockito.anyInt(), any(RegistryService.RegistryConfig.class), Mockito.anyBoolean(), any(BuildService.BuildContext.class));
+        .pushImages(any(ProjectPaths.class), Mockito.anyCollection(), Mockito.anyInt(), any(RegistryService.RegistryConfig.class), Mockito.anyBoolean(), any(BuildService.BuildContext.class), Mockito.anyInt());
   }
 
   private void whenMojoExecutes() throws IOException, MojoExecutionException {
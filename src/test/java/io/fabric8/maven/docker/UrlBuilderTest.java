@@ -75,6 +75,17 @@ class UrlBuilderTest {
 
     }
 
+    @Test
+    void containerEvents() throws UnsupportedEncodingException, URISyntaxException {
+        UrlBuilder builder = new UrlBuilder("", "1.0");
+        Assertions.assertEquals(new URI("/1.0/events?filters=" + URLEncoder.encode("{\"type\":[\"container\"],\"container\":[\"cid\"],\"event\":[\"start\",\"die\"]}", "UTF8")),
+            new URI(builder.containerEvents("cid", "start", "die")));
+        Assertions.assertEquals(new URI("/1.0/events?filters=" + URLEncoder.encode("{\"type\":[\"container\"],\"container\":[\"cid\"]}", "UTF8")),
+            new URI(builder.containerEvents("cid")));
+        Assertions.assertEquals(new URI("/1.0/events?filters=" + URLEncoder.encode("{\"type\":[\"container\"],\"event\":[\"start\"]}", "UTF8")),
+            new URI(builder.containerEvents(null, "start")));
+    }
+
     @Test
     void deleteImage() throws URISyntaxException {
         UrlBuilder builder = new UrlBuilder("", "1.0");
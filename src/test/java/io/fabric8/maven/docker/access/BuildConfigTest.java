@@ -116,4 +116,16 @@ class BuildConfigTest {
         opts.network("host");
         Assertions.assertEquals("host", opts.getOptions().get("networkmode"));
     }
+
+    @Test
+    void labels() {
+        BuildOptions opts = new BuildOptions().labels(Collections.singletonMap("dmp.build.digest", "sha256:abcd"));
+        Assertions.assertEquals("{\"dmp.build.digest\":\"sha256:abcd\"}", opts.getOptions().get("labels"));
+        opts = new BuildOptions(Collections.singletonMap("labels", "{\"version\":\"1.0\"}"))
+            .labels(Collections.singletonMap("dmp.build.digest", "sha256:abcd"));
+        Assertions.assertEquals(JsonFactory.newJsonObject("{\"version\":\"1.0\",\"dmp.build.digest\":\"sha256:abcd\"}"),
+                                JsonFactory.newJsonObject(opts.getOptions().get("labels")));
+        opts = new BuildOptions().labels(null);
+        Assertions.assertEquals(0, opts.getOptions().size());
+    }
 }
@@ -0,0 +1,125 @@
+package io.fabric8.maven.docker.access.chunked;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ProgressMessageTest {
+
+    @Test
+    void readProgress() throws IOException {
+        ProgressMessage message = read("{\"status\":\"Downloading\",\"progressDetail\":{\"current\":10,\"total\":100}," +
+                                       "\"progress\":\"[=>  ]\",\"id\":\"a1\"}");
+        Assertions.assertEquals("Downloading", message.getStatus());
+        Assertions.assertEquals("a1", message.getId());
+        Assertions.assertEquals("[=>  ]", message.getProgress());
+        Assertions.assertTrue(message.hasProgressDetail());
+        Assertions.assertEquals(10, message.getCurrent());
+        Assertions.assertEquals(100, message.getTotal());
+        Assertions.assertNull(message.getError());
+        Assertions.assertNull(message.getStream());
+    }
+
+    @Test
+    void readEmptyProgressDetail() throws IOException {
+        ProgressMessage message = read("{\"status\":\"Pull complete\",\"progressDetail\":{},\"id\":\"a1\"}");
+        Assertions.assertTrue(message.hasProgressDetail());
+        Assertions.assertEquals(-1, message.getCurrent());
+        Assertions.assertEquals(-1, message.getTotal());
+
+        Assertions.assertFalse(read("{\"status\":\"Pulling from library/alpine\",\"id\":\"3\"}").hasProgressDetail());
+    }
+
+    @Test
+    void layerDone() throws IOException {
+        Assertions.assertTrue(read("{\"status\":\"Pull complete\",\"progressDetail\":{},\"id\":\"a1\"}").isLayerDone());
+        Assertions.assertTrue(read("{\"status\":\"Layer already exists\",\"progressDetail\":{},\"id\":\"a1\"}").isLayerDone());
+        Assertions.assertFalse(read("{\"status\":\"Downloading\",\"progressDetail\":{},\"id\":\"a1\"}").isLayerDone());
+        Assertions.assertFalse(read("{\"stream\":\"Step 1/2\"}").isLayerDone());
+    }
+
+    @Test
+    void readError() throws IOException {
+        ProgressMessage message = read("{\"errorDetail\":{\"code\":1,\"message\":\"manifest unknown\"},\"error\":\"manifest unknown\"}");
+        Assertions.assertEquals("manifest unknown", message.getError());
+        Assertions.assertEquals("manifest unknown", message.getErrorDetail());
+    }
+
+    @Test
+    void readAuxAndOtherFields() throws IOException {
+        ProgressMessage message = read("{\"aux\":{\"ID\":\"sha256:1234\"},\"stream\":null,\"foo\":[1,{\"bar\":true}]}");
+        Assertions.assertEquals("sha256:1234", message.getAux().getAsJsonObject().get("ID").getAsString());
+        Assertions.assertNull(message.getStream());
+        Assertions.assertNull(message.getStatus());
+        Assertions.assertEquals(JsonParser.parseString("{\"aux\":{\"ID\":\"sha256:1234\"},\"foo\":[1,{\"bar\":true}]}"),
+                                message.toJson());
+    }
+
+    @Test
+    void readNonStringValues() throws IOException {
+        ProgressMessage message = read("{\"id\":42,\"status\":true,\"error\":{\"reason\":\"x\"}}");
+        Assertions.assertEquals("42", message.getId());
+        Assertions.assertEquals("true", message.getStatus());
+        Assertions.assertEquals("{\"reason\":\"x\"}", message.getError());
+    }
+
+    @Test
+    void sameAsFromJson() throws IOException {
+        String[] messages = {
+            "{\"status\":\"Downloading\",\"progressDetail\":{\"current\":10,\"total\":100},\"progress\":\"[=>  ]\",\"id\":\"a1\"}",
+            "{\"stream\":\"Step 1/2 : FROM alpine\\n\"}",
+            "{\"error\":\"failed\",\"errorDetail\":{\"message\":\"really failed\"}}",
+            "{\"aux\":{\"Tag\":\"latest\",\"Digest\":\"sha256:abcd\",\"Size\":528}}",
+            "{\"unknown\":\"field\"}"
+        };
+        for (String json : messages) {
+            JsonObject fromStream = read(json).toJson();
+            JsonObject fromTree = ProgressMessage.fromJson(JsonParser.parseString(json).getAsJsonObject()).toJson();
+            Assertions.assertEquals(fromTree, fromStream, json);
+        }
+    }
+
+    @Test
+    void streamOfMessagesIsPassedToHandler() throws IOException {
+        String stream = "{\"status\":\"Pulling from library/alpine\",\"id\":\"3\"}\r\n" +
+                        "{\"status\":\"Downloading\",\"progressDetail\":{},\"id\":\"a1\"}" +
+                        "{\"stream\":\"\u00e4\u20ac\"}\n";
+        List<ProgressMessage> received = new ArrayList<>();
+        List<String> lifecycle = new ArrayList<>();
+        EntityStreamReaderUtil.processJsonStream(new EntityStreamReaderUtil.ProgressMessageHandler() {
+            @Override
+            public void process(ProgressMessage message) {
+                received.add(message);
+            }
+
+            @Override
+            public void start() {
+                lifecycle.add("start");
+            }
+
+            @Override
+            public void stop() {
+                lifecycle.add("stop");
+            }
+        }, new ByteArrayInputStream(stream.getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertEquals(3, received.size());
+        Assertions.assertEquals("Pulling from library/alpine", received.get(0).getStatus());
+        Assertions.assertEquals("a1", received.get(1).getId());
+        Assertions.assertEquals("\u00e4\u20ac", received.get(2).getStream());
+        Assertions.assertEquals(2, lifecycle.size());
+    }
+
+    private static ProgressMessage read(String json) throws IOException {
+        return ProgressMessage.read(new JsonReader(new StringReader(json)));
+    }
+}
@@ -0,0 +1,93 @@
+package io.fabric8.maven.docker.access.chunked;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.util.Logger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PullOrPushResponseJsonHandlerTest {
+
+    @Mock
+    private Logger log;
+
+    @Test
+    void progressBarForSingleTransfer() throws Exception {
+        PullOrPushResponseJsonHandler handler = new PullOrPushResponseJsonHandler(log);
+
+        handler.start();
+        handler.process(json("{\"status\":\"Pulling from library/alpine\",\"id\":\"3\"}"));
+        handler.process(json("{\"status\":\"Downloading\",\"progressDetail\":{\"current\":10,\"total\":100},\"progress\":\"[=>  ]\",\"id\":\"a1\"}"));
+        handler.stop();
+
+        InOrder inOrder = Mockito.inOrder(log);
+        inOrder.verify(log).progressStart();
+        inOrder.verify(log).progressFinished();
+        inOrder.verify(log).info("%s", "Pulling from library/alpine");
+        inOrder.verify(log).progressStart();
+        inOrder.verify(log).progressUpdate("a1", "Downloading", "[=>  ]");
+        inOrder.verify(log).progressFinished();
+    }
+
+    @Test
+    void condensedOutputForInterleavedTransfers() throws Exception {
+        PullOrPushResponseJsonHandler handler = new PullOrPushResponseJsonHandler(log, "alpine:3", () -> true);
+
+        handler.start();
+        handler.process(json("{\"status\":\"Pulling from library/alpine\",\"id\":\"3\"}"));
+        handler.process(json("{\"status\":\"Downloading\",\"progressDetail\":{\"current\":10,\"total\":100},\"id\":\"a1\"}"));
+        handler.process(json("{\"status\":\"Downloading\",\"progressDetail\":{\"current\":10,\"total\":100},\"id\":\"b2\"}"));
+        handler.process(json("{\"status\":\"Pull complete\",\"progressDetail\":{},\"id\":\"a1\"}"));
+        handler.process(json("{\"status\":\"Pull complete\",\"progressDetail\":{},\"id\":\"a1\"}"));
+        handler.process(json("{\"status\":\"Already exists\",\"progressDetail\":{},\"id\":\"b2\"}"));
+        handler.stop();
+
+        Mockito.verify(log).info("%s: %s", "alpine:3", "Pulling from library/alpine");
+        Mockito.verify(log).info("%s: %s %s (%d/%d layers)", "alpine:3", "a1", "Pull complete", 1L, 2);
+        Mockito.verify(log).info("%s: %s %s (%d/%d layers)", "alpine:3", "b2", "Already exists", 2L, 2);
+        Mockito.verify(log, Mockito.never()).progressStart();
+        Mockito.verify(log, Mockito.never()).progressUpdate(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(log, Mockito.never()).progressFinished();
+    }
+
+    @Test
+    void progressBarIsClosedWhenTransfersStartToInterleave() throws Exception {
+        AtomicBoolean interleaved = new AtomicBoolean();
+        PullOrPushResponseJsonHandler handler = new PullOrPushResponseJsonHandler(log, "alpine:3", interleaved::get);
+
+        handler.start();
+        handler.process(json("{\"status\":\"Downloading\",\"progressDetail\":{},\"progress\":\"[=>  ]\",\"id\":\"a1\"}"));
+        interleaved.set(true);
+        handler.process(json("{\"status\":\"Pull complete\",\"progressDetail\":{},\"id\":\"a1\"}"));
+        handler.stop();
+
+        InOrder inOrder = Mockito.inOrder(log);
+        inOrder.verify(log).progressStart();
+        inOrder.verify(log).progressUpdate("a1", "Downloading", "[=>  ]");
+        inOrder.verify(log).progressFinished();
+        inOrder.verify(log).info("%s: %s %s (%d/%d layers)", "alpine:3", "a1", "Pull complete", 1L, 1);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void errorIsThrown() {
+        PullOrPushResponseJsonHandler handler = new PullOrPushResponseJsonHandler(log, "alpine:3", () -> true);
+
+        JsonObject error = json("{\"error\":\"manifest unknown\",\"errorDetail\":{\"message\":\"manifest unknown\"}}");
+        DockerAccessException exp = Assertions.assertThrows(DockerAccessException.class, () -> handler.process(error));
+        Assertions.assertTrue(exp.getMessage().contains("manifest unknown"));
+    }
+
+    private static JsonObject json(String json) {
+        return JsonParser.parseString(json).getAsJsonObject();
+    }
+}
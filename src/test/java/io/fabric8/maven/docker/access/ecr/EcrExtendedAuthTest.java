@@ -18,8 +18,16 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpServer;
 
 /**
  * Test exchange of local stored credentials for temporary ecr credentials
@@ -84,4 +92,44 @@ class EcrExtendedAuthTest {
         Mockito.verify(closeableHttpClient).close();
     }
 
+    @Test
+    void testTokenReusedUntilExpiry() throws IOException, MojoExecutionException {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            Assertions.assertEquals("AmazonEC2ContainerRegistry_V20150921.GetAuthorizationToken",
+                                    exchange.getRequestHeaders().getFirst("X-Amz-Target"));
+            byte[] body = ("{\"authorizationData\": [{"
+                           + "\"authorizationToken\": \"QVdTOnBhc3N3b3Jk\","
+                           + "\"expiresAt\": 1448878779.809,"
+                           + "\"proxyEndpoint\": \"https://123456789012.dkr.ecr.eu-west-1.amazonaws.com\"}]}")
+                .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            AtomicLong now = new AtomicLong(1448878779809L - 12 * 60 * 60 * 1000L);
+            EcrTokenCache cache = new EcrTokenCache(new ConcurrentHashMap<>(), null, logger, now::get);
+            String endpoint = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+            AuthConfig localCredentials = new AuthConfig("username", "password", null, null);
+
+            for (int i = 0; i < 3; i++) {
+                EcrExtendedAuth eea = new EcrExtendedAuth(logger, "123456789012.dkr.ecr.eu-west-1.amazonaws.com", cache, endpoint);
+                AuthConfig awsCredentials = eea.extendedAuth(localCredentials);
+                Assertions.assertEquals("AWS", awsCredentials.getUsername());
+                Assertions.assertEquals("password", awsCredentials.getPassword());
+            }
+            Assertions.assertEquals(1, requests.get());
+
+            // Token expires within the refresh margin
+            now.set(1448878779809L - EcrTokenCache.REFRESH_MARGIN_MILLIS);
+            new EcrExtendedAuth(logger, "123456789012.dkr.ecr.eu-west-1.amazonaws.com", cache, endpoint).extendedAuth(localCredentials);
+            Assertions.assertEquals(2, requests.get());
+        } finally {
+            server.stop(0);
+        }
+    }
 }
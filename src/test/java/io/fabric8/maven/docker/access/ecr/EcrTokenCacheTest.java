@@ -0,0 +1,153 @@
+package io.fabric8.maven.docker.access.ecr;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.fabric8.maven.docker.access.AuthConfig;
+import io.fabric8.maven.docker.util.Logger;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class EcrTokenCacheTest {
+
+    private static final String REGISTRY = "123456789012.dkr.ecr.eu-west-1.amazonaws.com";
+    private static final String ACCOUNT = "123456789012";
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    @Mock
+    private Logger log;
+
+    @TempDir
+    File tempDir;
+
+    private final AtomicLong now = new AtomicLong(1000000);
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    @Test
+    void cachedUntilShortlyBeforeExpiry() throws IOException, MojoExecutionException {
+        EcrTokenCache cache = newCache(null);
+        AuthConfig credentials = credentials("key", "secret");
+
+        EcrTokenCache.Token first = get(cache, credentials);
+        now.addAndGet(HOUR - EcrTokenCache.REFRESH_MARGIN_MILLIS - 1);
+        Assertions.assertSame(first, get(cache, credentials));
+        Assertions.assertEquals(1, lookups.get());
+
+        now.addAndGet(1);
+        Assertions.assertNotSame(first, get(cache, credentials));
+        Assertions.assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void keyedByRegistryAccountAndCredentials() throws IOException, MojoExecutionException {
+        EcrTokenCache cache = newCache(null);
+        cache.get(REGISTRY, ACCOUNT, credentials("key", "secret"), this::lookup);
+        cache.get(REGISTRY, ACCOUNT, credentials("key", "secret"), this::lookup);
+        cache.get(REGISTRY, ACCOUNT, credentials("key", "other"), this::lookup);
+        cache.get(REGISTRY, ACCOUNT, credentials("other", "secret"), this::lookup);
+        cache.get("210987654321.dkr.ecr.eu-west-1.amazonaws.com", "210987654321", credentials("key", "secret"), this::lookup);
+        Assertions.assertEquals(4, lookups.get());
+    }
+
+    @Test
+    void tokensWithoutExpiryAreNotCached() throws IOException, MojoExecutionException {
+        EcrTokenCache cache = newCache(null);
+        AuthConfig credentials = credentials("key", "secret");
+        EcrTokenCache.TokenLookup lookup = () -> new EcrTokenCache.Token("token" + lookups.incrementAndGet(), 0);
+
+        cache.get(REGISTRY, ACCOUNT, credentials, lookup);
+        cache.get(REGISTRY, ACCOUNT, credentials, lookup);
+        Assertions.assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void sharedBetweenViews() throws IOException, MojoExecutionException {
+        ConcurrentHashMap<String, EcrTokenCache.Token> tokens = new ConcurrentHashMap<>();
+        AuthConfig credentials = credentials("key", "secret");
+
+        EcrTokenCache.Token first = new EcrTokenCache(tokens, null, log, now::get).get(REGISTRY, ACCOUNT, credentials, this::lookup);
+        Assertions.assertSame(first, new EcrTokenCache(tokens, null, log, now::get).get(REGISTRY, ACCOUNT, credentials, this::lookup));
+        Assertions.assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void storedEncryptedInFile() throws IOException, MojoExecutionException {
+        File file = new File(tempDir, "cache/ecr-token-cache.json");
+        AuthConfig credentials = credentials("key", "secret");
+
+        EcrTokenCache.Token first = get(newCache(file), credentials);
+        Assertions.assertTrue(file.exists());
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        Assertions.assertFalse(content.contains(first.getAuthorizationToken()));
+        Assertions.assertFalse(content.contains("secret"));
+
+        // A later build starts with an empty memory cache
+        EcrTokenCache.Token second = get(newCache(file), credentials);
+        Assertions.assertEquals(first.getAuthorizationToken(), second.getAuthorizationToken());
+        Assertions.assertEquals(first.getExpiresAt(), second.getExpiresAt());
+        Assertions.assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void fileNotReadableWithOtherCredentials() throws IOException, MojoExecutionException {
+        File file = new File(tempDir, "ecr-token-cache.json");
+        get(newCache(file), credentials("key", "secret"));
+
+        get(newCache(file), credentials("key", "other"));
+        Assertions.assertEquals(2, lookups.get());
+
+        // Both tokens are kept in the file
+        get(newCache(file), credentials("key", "secret"));
+        get(newCache(file), credentials("key", "other"));
+        Assertions.assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void expiredTokenInFileIsRefreshed() throws IOException, MojoExecutionException {
+        File file = new File(tempDir, "ecr-token-cache.json");
+        AuthConfig credentials = credentials("key", "secret");
+        get(newCache(file), credentials);
+
+        now.addAndGet(HOUR);
+        get(newCache(file), credentials);
+        Assertions.assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void corruptFileIsIgnored() throws IOException, MojoExecutionException {
+        File file = new File(tempDir, "ecr-token-cache.json");
+        Files.write(file.toPath(), "no json {".getBytes(StandardCharsets.UTF_8));
+        AuthConfig credentials = credentials("key", "secret");
+
+        get(newCache(file), credentials);
+        get(newCache(file), credentials);
+        Assertions.assertEquals(1, lookups.get());
+    }
+
+    private EcrTokenCache newCache(File file) {
+        return new EcrTokenCache(new ConcurrentHashMap<>(), file, log, now::get);
+    }
+
+    private EcrTokenCache.Token get(EcrTokenCache cache, AuthConfig credentials) throws IOException, MojoExecutionException {
+        return cache.get(REGISTRY, ACCOUNT, credentials, this::lookup);
+    }
+
+    private EcrTokenCache.Token lookup() {
+        return new EcrTokenCache.Token("token" + lookups.incrementAndGet(), now.get() + HOUR);
+    }
+
+    private static AuthConfig credentials(String accessKeyId, String secretAccessKey) {
+        return new AuthConfig(accessKeyId, secretAccessKey, null, null);
+    }
+}
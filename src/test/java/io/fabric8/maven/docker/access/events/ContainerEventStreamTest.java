@@ -0,0 +1,112 @@
+package io.fabric8.maven.docker.access.events;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.model.ContainerEvent;
+import io.fabric8.maven.docker.util.JsonFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ContainerEventStreamTest {
+
+    @Mock
+    private EventCallback first;
+
+    @Mock
+    private EventCallback second;
+
+    private final List<EventCallback> opened = new ArrayList<>();
+    private final List<EventGetHandle> handles = new ArrayList<>();
+
+    private ContainerEventStream stream;
+
+    @BeforeEach
+    void setUp() {
+        stream = new ContainerEventStream(callback -> {
+            EventGetHandle handle = Mockito.mock(EventGetHandle.class);
+            opened.add(callback);
+            handles.add(handle);
+            return handle;
+        });
+    }
+
+    @Test
+    void oneStreamForAllContainers() throws DockerAccessException {
+        stream.subscribe("c1", first);
+        stream.subscribe("c2", second);
+
+        Assertions.assertEquals(1, opened.size());
+        Assertions.assertTrue(stream.isOpen());
+    }
+
+    @Test
+    void eventsAreDispatchedByContainer() throws DockerAccessException {
+        stream.subscribe("c1", first);
+        stream.subscribe("c2", second);
+
+        ContainerEvent event = event("c1", "start");
+        opened.get(0).event(event);
+        opened.get(0).event(event("c3", "die"));
+
+        Mockito.verify(first).event(event);
+        Mockito.verifyNoInteractions(second);
+    }
+
+    @Test
+    void streamIsClosedWithLastSubscriber() throws DockerAccessException {
+        EventGetHandle firstHandle = stream.subscribe("c1", first);
+        EventGetHandle secondHandle = stream.subscribe("c1", second);
+
+        firstHandle.finish();
+        Mockito.verify(handles.get(0), Mockito.never()).finish();
+        Assertions.assertTrue(stream.isOpen());
+
+        secondHandle.finish();
+        Mockito.verify(handles.get(0)).finish();
+        Assertions.assertFalse(stream.isOpen());
+
+        stream.subscribe("c1", first);
+        Assertions.assertEquals(2, opened.size());
+    }
+
+    @Test
+    void errorIsReportedToAllSubscribers() throws DockerAccessException {
+        EventGetHandle firstHandle = stream.subscribe("c1", first);
+        stream.subscribe("c2", second);
+
+        opened.get(0).error("Event stream closed by Docker daemon");
+
+        Mockito.verify(first).error("Event stream closed by Docker daemon");
+        Mockito.verify(second).error("Event stream closed by Docker daemon");
+        Assertions.assertTrue(firstHandle.isError());
+        Assertions.assertFalse(stream.isOpen());
+
+        // Finishing after the error doesn't touch a new stream
+        stream.subscribe("c3", first);
+        firstHandle.finish();
+        Assertions.assertTrue(stream.isOpen());
+        Mockito.verify(handles.get(1), Mockito.never()).finish();
+    }
+
+    @Test
+    void openFailureIsPassedOn() {
+        stream = new ContainerEventStream(callback -> {
+            throw new DockerAccessException("Unable to request events (404 Not Found)");
+        });
+
+        Assertions.assertThrows(DockerAccessException.class, () -> stream.subscribe("c1", first));
+        Assertions.assertFalse(stream.isOpen());
+    }
+
+    private static ContainerEvent event(String id, String action) {
+        return new ContainerEvent(JsonFactory.newJsonObject("{\"Type\":\"container\",\"Action\":\"" + action + "\",\"Actor\":{\"ID\":\"" + id + "\"}}"));
+    }
+}
@@ -0,0 +1,95 @@
+package io.fabric8.maven.docker.access.events;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.model.ContainerEvent;
+import org.apache.http.HttpEntity;
+import org.apache.http.StatusLine;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class EventRequestorTest {
+
+    private static final String URL = "http://localhost:2375/v1.40/events";
+
+    @Mock
+    CloseableHttpClient client;
+
+    @Mock
+    CloseableHttpResponse httpResponse;
+
+    @Mock
+    StatusLine statusLine;
+
+    @Mock
+    HttpEntity httpEntity;
+
+    @Mock
+    EventCallback callback;
+
+    @Test
+    void eventsAreDispatched() throws Exception {
+        givenResponse(200,
+                      "{\"Type\":\"container\",\"Action\":\"start\",\"Actor\":{\"ID\":\"c1\"}}\n" +
+                      "{\"Type\":\"container\",\"Action\":\"health_status: healthy\",\"Actor\":{\"ID\":\"c1\"}}\n" +
+                      "{\"Type\":\"container\",\"Action\":\"die\",\"Actor\":{\"ID\":\"c1\",\"Attributes\":{\"exitCode\":\"0\"}}}\n");
+
+        EventRequestor requestor = new EventRequestor(client, URL, callback);
+        requestor.connect();
+        requestor.run();
+
+        ArgumentCaptor<ContainerEvent> events = ArgumentCaptor.forClass(ContainerEvent.class);
+        Mockito.verify(callback, Mockito.times(3)).event(events.capture());
+        Assertions.assertEquals("start", events.getAllValues().get(0).getType());
+        Assertions.assertEquals("healthy", events.getAllValues().get(1).getHealthStatus());
+        Assertions.assertEquals(Integer.valueOf(0), events.getAllValues().get(2).getExitCode());
+        Assertions.assertEquals("c1", events.getAllValues().get(2).getId());
+
+        // Stream has ended without being finished
+        Mockito.verify(callback).error(Mockito.anyString());
+        Mockito.verify(client).close();
+    }
+
+    @Test
+    void missingEndpointIsReportedOnConnect() throws Exception {
+        Mockito.doReturn(httpResponse).when(client).execute(Mockito.any(HttpUriRequest.class));
+        Mockito.doReturn(statusLine).when(httpResponse).getStatusLine();
+        Mockito.doReturn(404).when(statusLine).getStatusCode();
+
+        EventRequestor requestor = new EventRequestor(client, URL, callback);
+        Assertions.assertThrows(DockerAccessException.class, requestor::connect);
+        Mockito.verify(client).close();
+    }
+
+    @Test
+    void noErrorAfterFinish() throws Exception {
+        givenResponse(200, "");
+
+        EventRequestor requestor = new EventRequestor(client, URL, callback);
+        requestor.connect();
+        requestor.finish();
+        requestor.run();
+
+        Mockito.verify(callback, Mockito.never()).error(Mockito.anyString());
+        Assertions.assertFalse(requestor.isError());
+    }
+
+    private void givenResponse(int status, String body) throws Exception {
+        Mockito.doReturn(httpResponse).when(client).execute(Mockito.any(HttpUriRequest.class));
+        Mockito.doReturn(statusLine).when(httpResponse).getStatusLine();
+        Mockito.doReturn(status).when(statusLine).getStatusCode();
+        Mockito.doReturn(httpEntity).when(httpResponse).getEntity();
+        Mockito.doReturn(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))).when(httpEntity).getContent();
+    }
+}
@@ -0,0 +1,120 @@
+package io.fabric8.maven.docker.access.hc;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.fabric8.maven.docker.access.BuildOptions;
+import io.fabric8.maven.docker.util.Logger;
+import org.apache.http.Header;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequest;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.bootstrap.HttpServer;
+import org.apache.http.impl.bootstrap.ServerBootstrap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+
+/**
+ * Sends build contexts to a local stand-in for the Docker daemon
+ */
+class BuildContextStreamingTest {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer daemon;
+    private DockerAccessWithHcClient client;
+
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicReference<String> transferEncoding = new AtomicReference<>();
+    private final AtomicReference<String> contentType = new AtomicReference<>();
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.shutdown();
+        }
+        if (daemon != null) {
+            daemon.shutdown(0, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void buildContextIsStreamedChunked() throws Exception {
+        givenDaemon();
+
+        byte[] context = new byte[3 * CHUNK_SIZE + 17];
+        Arrays.fill(context, (byte) 'x');
+        client.buildImage("test/image", out -> out.write(context), new BuildOptions());
+
+        Assertions.assertEquals(context.length, bytesReceived.get());
+        Assertions.assertEquals("chunked", transferEncoding.get());
+        Assertions.assertEquals("application/x-tar", contentType.get());
+    }
+
+    @Test
+    void buildContextFromFileIsSentWithLength() throws Exception {
+        givenDaemon();
+
+        File archive = tempDir.resolve("docker-build.tar").toFile();
+        Files.write(archive.toPath(), new byte[2 * CHUNK_SIZE]);
+        client.buildImage("test/image", archive, new BuildOptions());
+
+        Assertions.assertEquals(archive.length(), bytesReceived.get());
+        Assertions.assertNull(transferEncoding.get());
+    }
+
+    private void givenDaemon() throws IOException {
+        daemon = ServerBootstrap.bootstrap()
+            .setLocalAddress(InetAddress.getLoopbackAddress())
+            .registerHandler("*", (request, response, context) -> {
+                String uri = request.getRequestLine().getUri();
+                if (uri.endsWith("/version")) {
+                    response.setEntity(new StringEntity("{\"ApiVersion\":\"1.40\",\"Os\":\"linux\",\"Arch\":\"amd64\"}"));
+                } else if (uri.contains("/build")) {
+                    transferEncoding.set(headerValue(request, "Transfer-Encoding"));
+                    contentType.set(headerValue(request, "Content-Type"));
+                    bytesReceived.addAndGet(consume((HttpEntityEnclosingRequest) request));
+                    response.setEntity(new StringEntity("{\"stream\":\"Successfully built 0123456789ab\\n\"}"));
+                } else {
+                    response.setStatusCode(HTTP_NOT_FOUND);
+                }
+            })
+            .create();
+        daemon.start();
+        client = new DockerAccessWithHcClient("http://" + daemon.getInetAddress().getHostAddress() + ":" + daemon.getLocalPort(),
+                                              null, 2, Mockito.mock(Logger.class));
+    }
+
+    private static String headerValue(HttpRequest request, String name) {
+        Header header = request.getFirstHeader(name);
+        return header != null ? header.getValue() : null;
+    }
+
+    private static long consume(HttpEntityEnclosingRequest request) throws IOException {
+        byte[] buffer = new byte[CHUNK_SIZE];
+        long total = 0;
+        try (InputStream in = request.getEntity().getContent()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+            }
+        }
+        return total;
+    }
+}
@@ -28,9 +28,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static java.net.HttpURLConnection.*;
 
@@ -276,6 +283,95 @@ class DockerAccessWithHcClientTest {
         Assertions.assertTrue(imageTags.isEmpty());
     }
 
+    @Test
+    void testImageLabels() throws IOException {
+        String imageId = "123123";
+        ApacheHttpClientDelegate.HttpBodyAndStatus bodyAndStatus =
+            new ApacheHttpClientDelegate.HttpBodyAndStatus(HTTP_OK, "{\"Config\": {\"Labels\": {\"dmp.build.digest\": \"sha256:abcd\"}}}");
+
+        Mockito.doReturn(bodyAndStatus)
+                .when(mockDelegate)
+                .get(
+                        Mockito.eq(BASE_URL + "/v1.40/images/" + imageId + "/json"),
+                        Mockito.any(ApacheHttpClientDelegate.BodyAndStatusResponseHandler.class),
+                        Mockito.eq(HTTP_OK),
+                        Mockito.eq(HTTP_NOT_FOUND)
+                );
+
+        Map<String, String> labels = client.getImageLabels(imageId);
+        Assertions.assertEquals(Collections.singletonMap("dmp.build.digest", "sha256:abcd"), labels);
+    }
+
+    @Test
+    void testNoImageLabels() throws IOException {
+        Mockito.doReturn(new ApacheHttpClientDelegate.HttpBodyAndStatus(HTTP_OK, "{\"Config\": {\"Labels\": null}}"))
+                .when(mockDelegate)
+                .get(
+                        Mockito.eq(BASE_URL + "/v1.40/images/123123/json"),
+                        Mockito.any(ApacheHttpClientDelegate.BodyAndStatusResponseHandler.class),
+                        Mockito.eq(HTTP_OK),
+                        Mockito.eq(HTTP_NOT_FOUND)
+                );
+        Mockito.doReturn(new ApacheHttpClientDelegate.HttpBodyAndStatus(HTTP_NOT_FOUND, ""))
+                .when(mockDelegate)
+                .get(
+                        Mockito.eq(BASE_URL + "/v1.40/images/456456/json"),
+                        Mockito.any(ApacheHttpClientDelegate.BodyAndStatusResponseHandler.class),
+                        Mockito.eq(HTTP_OK),
+                        Mockito.eq(HTTP_NOT_FOUND)
+                );
+
+        Assertions.assertTrue(client.getImageLabels("123123").isEmpty());
+        Assertions.assertNull(client.getImageLabels("456456"));
+    }
+
+    @Test
+    void concurrentImageChecksShareOneRequest() throws Exception {
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            inFlight.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return HTTP_OK;
+        }).when(mockDelegate).get(Mockito.eq(BASE_URL + "/v1.40/images/busybox/json"),
+                                  Mockito.any(ApacheHttpClientDelegate.StatusCodeResponseHandler.class),
+                                  Mockito.eq(HTTP_OK), Mockito.eq(HTTP_NOT_FOUND));
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            results.add(executor.submit(() -> client.hasImage("busybox")));
+            Assertions.assertTrue(inFlight.await(10, TimeUnit.SECONDS));
+            results.add(executor.submit(() -> client.hasImage("busybox")));
+            results.add(executor.submit(() -> client.hasImage("busybox")));
+            waitForSavedRequests(2);
+            release.countDown();
+            for (Future<Boolean> result : results) {
+                Assertions.assertTrue(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Mockito.verify(mockDelegate).get(Mockito.eq(BASE_URL + "/v1.40/images/busybox/json"),
+                                         Mockito.any(ApacheHttpClientDelegate.StatusCodeResponseHandler.class),
+                                         Mockito.eq(HTTP_OK), Mockito.eq(HTTP_NOT_FOUND));
+        Assertions.assertEquals(2, client.getSavedRequests());
+
+        // A later check is a new request
+        release.countDown();
+        Assertions.assertTrue(client.hasImage("busybox"));
+        Assertions.assertEquals(2, client.getSavedRequests());
+    }
+
+    private void waitForSavedRequests(int count) throws InterruptedException {
+        long end = System.currentTimeMillis() + 10000;
+        while (client.getSavedRequests() < count) {
+            Assertions.assertTrue(System.currentTimeMillis() < end, "Timeout");
+            Thread.sleep(5);
+        }
+    }
+
     private void givenAnImageName(String imageName) {
         this.imageName = imageName;
     }
@@ -1,12 +1,15 @@
 package io.fabric8.maven.docker.access.hc;
 
+import com.google.gson.JsonSyntaxException;
 import io.fabric8.maven.docker.access.chunked.EntityStreamReaderUtil;
+import io.fabric8.maven.docker.access.chunked.ProgressMessage;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.message.BasicHeader;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,9 +20,11 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 
 @SuppressWarnings("unused")
 @ExtendWith(MockitoExtension.class)
@@ -42,8 +47,8 @@ class HcChunkedResponseHandlerWrapperTest {
         responseInputStream = new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8));
         entity = new InputStreamEntity(responseInputStream);
         hcChunkedResponseHandlerWrapper = new HcChunkedResponseHandlerWrapper(handler);
-        entityStreamReaderUtilMock = Mockito.mockStatic(EntityStreamReaderUtil.class);
-        entityStreamReaderUtilMock.when(() -> EntityStreamReaderUtil.processJsonStream(Mockito.any(), Mockito.any())).thenCallRealMethod();
+        // The calls are only recorded, the JSON stream is still processed for real
+        entityStreamReaderUtilMock = Mockito.mockStatic(EntityStreamReaderUtil.class, Mockito.CALLS_REAL_METHODS);
     }
 
     @AfterEach
@@ -70,10 +75,98 @@ class HcChunkedResponseHandlerWrapperTest {
     void handleResponseWithNoContentType() throws IOException {
         givenResponseHeaders();
         hcChunkedResponseHandlerWrapper.handleResponse(response);
-        // timesCalled is 1 here because without "Content-Type" handleResponse() tries to parse the body to
+        // timesCalled is 1 here because without "Content-Type" handleResponse() looks at the body to
         // detect if it is JSON or not. See HcChunkedResponseHandlerWrapper.handleResponse() for more details.
         verifyProcessJsonStream(1);
-        verifyResponseBuffered();
+        verifyResponseWrapped();
+    }
+
+    @Test
+    void handleResponseWithNoContentTypeAndTextBody() throws IOException {
+        responseInputStream = new ByteArrayInputStream("  Error: no such image".getBytes(StandardCharsets.UTF_8));
+        entity = new InputStreamEntity(responseInputStream);
+        givenResponseHeaders();
+        hcChunkedResponseHandlerWrapper.handleResponse(response);
+        verifyProcessJsonStream(0);
+    }
+
+    @Test
+    void handleResponseWithNoContentTypeIsStreamed() throws IOException {
+        // The stream fails after the first message, which must have been processed already
+        responseInputStream = new SequenceInputStream(
+            new ByteArrayInputStream("\n {\"status\":\"Pulling fs layer\",\"id\":\"a1\"}\n".getBytes(StandardCharsets.UTF_8)),
+            new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    throw new IOException("Connection reset");
+                }
+            });
+        entity = new InputStreamEntity(responseInputStream);
+        givenResponseHeaders();
+        Assertions.assertThrows(IOException.class, () -> hcChunkedResponseHandlerWrapper.handleResponse(response));
+        Mockito.verify(handler).process(Mockito.argThat(json -> json.get("id").getAsString().equals("a1")));
+        verifyProcessJsonStream(1);
+    }
+
+    @Test
+    void handleResponseWithNoContentTypeAndMalformedJson() throws IOException {
+        givenMalformedBody();
+        givenResponseHeaders();
+        hcChunkedResponseHandlerWrapper.handleResponse(response);
+        Mockito.verify(handler).process(Mockito.argThat(json -> json.get("id").getAsString().equals("a1")));
+        verifyProcessJsonStream(1);
+    }
+
+    @Test
+    void handleResponseWithNoContentTypeAndMalformedProgressMessages() throws IOException {
+        EntityStreamReaderUtil.ProgressMessageHandler progressHandler = Mockito.mock(EntityStreamReaderUtil.ProgressMessageHandler.class);
+        hcChunkedResponseHandlerWrapper = new HcChunkedResponseHandlerWrapper(progressHandler);
+        givenMalformedBody();
+        givenResponseHeaders();
+        hcChunkedResponseHandlerWrapper.handleResponse(response);
+        Mockito.verify(progressHandler).process(Mockito.<ProgressMessage>argThat(message -> message.getId().equals("a1")));
+        Mockito.verify(progressHandler).stop();
+    }
+
+    @Test
+    void handleResponseWithNoContentTypeAndTruncatedJson() throws IOException {
+        givenTruncatedBody();
+        givenResponseHeaders();
+        Assertions.assertThrows(EOFException.class, () -> hcChunkedResponseHandlerWrapper.handleResponse(response));
+        Mockito.verify(handler).process(Mockito.argThat(json -> json.get("id").getAsString().equals("a1")));
+        verifyProcessJsonStream(1);
+    }
+
+    @Test
+    void handleResponseWithNoContentTypeAndTruncatedProgressMessages() throws IOException {
+        EntityStreamReaderUtil.ProgressMessageHandler progressHandler = Mockito.mock(EntityStreamReaderUtil.ProgressMessageHandler.class);
+        hcChunkedResponseHandlerWrapper = new HcChunkedResponseHandlerWrapper(progressHandler);
+        givenTruncatedBody();
+        givenResponseHeaders();
+        Assertions.assertThrows(EOFException.class, () -> hcChunkedResponseHandlerWrapper.handleResponse(response));
+        Mockito.verify(progressHandler).process(Mockito.<ProgressMessage>argThat(message -> message.getId().equals("a1")));
+        Mockito.verify(progressHandler).stop();
+    }
+
+    @Test
+    void handleResponseWithJsonContentTypeAndMalformedJson() throws IOException {
+        givenMalformedBody();
+        givenResponseHeaders(new BasicHeader("Content-Type", "application/json"));
+        Assertions.assertThrows(JsonSyntaxException.class, () -> hcChunkedResponseHandlerWrapper.handleResponse(response));
+    }
+
+    // The first message is valid, the second one lacks a value
+    private void givenMalformedBody() {
+        responseInputStream = new ByteArrayInputStream(
+            "{\"status\":\"Pulling fs layer\",\"id\":\"a1\"}\n{\"status\":}".getBytes(StandardCharsets.UTF_8));
+        entity = new InputStreamEntity(responseInputStream);
+    }
+
+    // The second message ends in the middle
+    private void givenTruncatedBody() {
+        responseInputStream = new ByteArrayInputStream(
+            "{\"status\":\"Pulling fs layer\",\"id\":\"a1\"}\n{\"status\":\"Downloading\",".getBytes(StandardCharsets.UTF_8));
+        entity = new InputStreamEntity(responseInputStream);
     }
 
     private void givenResponseHeaders(Header... headers) throws IOException {
@@ -90,8 +183,8 @@ class HcChunkedResponseHandlerWrapperTest {
         entityStreamReaderUtilMock.verify(() -> EntityStreamReaderUtil.processJsonStream(Mockito.eq(handler), Mockito.eq(responseInputStream)));
     }
 
-    // Response is buffered when processJsonStream() not called on original stream
-    private void verifyResponseBuffered() {
+    // Response is wrapped for looking ahead when processJsonStream() not called on original stream
+    private void verifyResponseWrapped() {
         entityStreamReaderUtilMock.verify(() -> EntityStreamReaderUtil.processJsonStream(Mockito.eq(handler), AdditionalMatchers.not(Mockito.eq(responseInputStream))));
     }
 }
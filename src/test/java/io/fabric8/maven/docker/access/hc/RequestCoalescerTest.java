@@ -0,0 +1,174 @@
+package io.fabric8.maven.docker.access.hc;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.access.hc.ApacheHttpClientDelegate.HttpBodyAndStatus;
+import io.fabric8.maven.docker.access.hc.http.HttpRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RequestCoalescerTest {
+
+    private static final int CALLERS = 5;
+
+    private RequestCoalescer coalescer;
+    private ExecutorService executor;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new RequestCoalescer();
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalCallsShareOneCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<HttpBodyAndStatus>> results = submitConcurrently("GET /images/busybox/json", () -> {
+            calls.incrementAndGet();
+            await(release);
+            return response("busybox");
+        }, release);
+
+        for (Future<HttpBodyAndStatus> result : results) {
+            Assertions.assertEquals("busybox", result.get(10, TimeUnit.SECONDS).getBody());
+        }
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(CALLERS - 1, coalescer.getSavedCalls());
+    }
+
+    @Test
+    void exceptionIsSharedWithAllCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        DockerAccessException failure = new DockerAccessException("Unable to list networks");
+        List<Future<HttpBodyAndStatus>> results = submitConcurrently("GET /networks", () -> {
+            calls.incrementAndGet();
+            await(release);
+            throw failure;
+        }, release);
+
+        Set<Throwable> thrown = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Future<HttpBodyAndStatus> result : results) {
+            ExecutionException exp = Assertions.assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(exp.getCause() instanceof DockerAccessException);
+            Assertions.assertEquals("Unable to list networks", exp.getCause().getMessage());
+            Assertions.assertTrue(exp.getCause() == failure || exp.getCause().getSuppressed()[0] == failure);
+            thrown.add(exp.getCause());
+        }
+        // Each caller has its own exception
+        Assertions.assertEquals(CALLERS, thrown.size());
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    void exceptionTypeIsKeptForWaitingCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<HttpBodyAndStatus>> results = submitConcurrently("GET /images/busybox/json", () -> {
+            calls.incrementAndGet();
+            await(release);
+            throw new HttpRequestException("No such image (Not Found: 404)");
+        }, release);
+
+        for (Future<HttpBodyAndStatus> result : results) {
+            ExecutionException exp = Assertions.assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(exp.getCause() instanceof HttpRequestException);
+            Assertions.assertEquals("No such image (Not Found: 404)", exp.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void sequentialCallsAreNotShared() throws IOException {
+        coalescer.execute("GET /networks", () -> response("call " + calls.incrementAndGet()));
+        coalescer.execute("GET /networks", () -> response("call " + calls.incrementAndGet()));
+        Assertions.assertEquals(2, calls.get());
+        Assertions.assertEquals(0, coalescer.getSavedCalls());
+    }
+
+    @Test
+    void callIsRepeatedAfterFailure() throws IOException {
+        Assertions.assertThrows(DockerAccessException.class, () -> coalescer.execute("GET /networks", () -> {
+            throw new DockerAccessException("Unable to list networks");
+        }));
+        Assertions.assertEquals("ok", coalescer.execute("GET /networks", () -> response("ok")).getBody());
+    }
+
+    @Test
+    void differentKeysAreNotShared() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<HttpBodyAndStatus>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            String key = "GET /images/image" + i + "/json";
+            results.add(executor.submit(() -> coalescer.execute(key, () -> {
+                int call = calls.incrementAndGet();
+                await(release);
+                return response("call " + call);
+            })));
+        }
+        waitFor(() -> calls.get() == CALLERS);
+        release.countDown();
+        for (Future<HttpBodyAndStatus> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+        Assertions.assertEquals(0, coalescer.getSavedCalls());
+    }
+
+    // Starts one caller, waits until it is in flight and then starts the others which join it
+    private List<Future<HttpBodyAndStatus>> submitConcurrently(String key, RequestCoalescer.Call call, CountDownLatch release)
+        throws InterruptedException {
+        List<Future<HttpBodyAndStatus>> results = new ArrayList<>();
+        results.add(executor.submit(() -> coalescer.execute(key, call)));
+        waitFor(() -> calls.get() == 1);
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> coalescer.execute(key, call)));
+        }
+        waitFor(() -> coalescer.getSavedCalls() == CALLERS - 1);
+        release.countDown();
+        return results;
+    }
+
+    private static HttpBodyAndStatus response(String body) {
+        return new HttpBodyAndStatus(200, body);
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        long end = System.currentTimeMillis() + 10000;
+        while (!condition.isMet()) {
+            Assertions.assertTrue(System.currentTimeMillis() < end, "Timeout");
+            Thread.sleep(5);
+        }
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+}
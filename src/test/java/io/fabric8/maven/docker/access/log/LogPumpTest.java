@@ -0,0 +1,254 @@
+package io.fabric8.maven.docker.access.log;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.maven.docker.access.hc.http.TcpLogConnector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Follows logs from a local stand-in for the Docker daemon which answers each log request
+ * with a chunked response of log frames.
+ */
+class LogPumpTest {
+
+    private ServerSocket serverSocket;
+    private final List<Socket> connections = new CopyOnWriteArrayList<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private LogPump pump;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        pump = new LogPump(new TcpLogConnector(serverSocket.getInetAddress().getHostAddress(), serverSocket.getLocalPort()), 2);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        serverSocket.close();
+        for (Socket socket : connections) {
+            socket.close();
+        }
+    }
+
+    @Test
+    void manyContainersAreFollowedWithFewThreads() throws Exception {
+        int containers = 10;
+        TestCallback callback = new TestCallback(containers * 3, containers);
+        Thread daemon = serveLogs(containers, "200 OK", "first", "second line", "third");
+
+        List<LogGetHandle> handles = new ArrayList<>();
+        for (int i = 0; i < containers; i++) {
+            handles.add(pump.follow("container" + i, "http://localhost/v1.40/containers/container" + i + "/logs?follow=1", callback));
+        }
+        Assertions.assertTrue(callback.entries.await(10, TimeUnit.SECONDS));
+        daemon.join(10000);
+
+        Assertions.assertEquals(containers, requests.size());
+        Assertions.assertTrue(requests.get(0).startsWith("GET /v1.40/containers/container"));
+        Assertions.assertEquals(containers, Collections.frequency(callback.lines, "second line"));
+        Assertions.assertTrue(countPumpThreads() <= 2);
+
+        List<LogStreamStatistics> statistics = pump.getStatistics();
+        Assertions.assertEquals(containers, statistics.size());
+        for (LogStreamStatistics stats : statistics) {
+            Assertions.assertTrue(stats.getBytesRead() > 0);
+            Assertions.assertTrue(stats.getMaxLagMillis() >= stats.getLagMillis());
+        }
+
+        for (LogGetHandle handle : handles) {
+            handle.finish();
+            Assertions.assertFalse(handle.isError());
+        }
+        Assertions.assertTrue(callback.closed.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void errorStatusIsReported() throws Exception {
+        TestCallback callback = new TestCallback(0, 1);
+        Thread daemon = serveLogs(1, "404 Not Found");
+
+        LogGetHandle handle = pump.follow("unknown", "http://localhost/v1.40/containers/unknown/logs?follow=1", callback);
+        daemon.join(10000);
+        Assertions.assertTrue(callback.closed.await(10, TimeUnit.SECONDS));
+
+        Assertions.assertTrue(handle.isError());
+        Assertions.assertTrue(handle.getException().getMessage().contains("404"));
+        Assertions.assertTrue(callback.lines.isEmpty());
+    }
+
+    @Test
+    void refusedConnectionIsReported() throws Exception {
+        TestCallback callback = new TestCallback(0, 1);
+        serverSocket.close();
+
+        LogGetHandle handle = pump.follow("container", "http://localhost/v1.40/containers/container/logs?follow=1", callback);
+        Assertions.assertTrue(callback.closed.await(10, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(1, callback.errors.size());
+        Assertions.assertTrue(callback.errors.get(0).startsWith("IO Error while requesting logs"));
+        Assertions.assertTrue(callback.lines.isEmpty());
+        Assertions.assertTrue(handle.isError());
+    }
+
+    @Test
+    void truncatedFrameAtEndIsReported() throws Exception {
+        TestCallback callback = new TestCallback(1, 1);
+        byte[] complete = frames("first");
+        byte[] truncated = frames("second");
+        Thread daemon = serveBody(concat(complete, Arrays.copyOf(truncated, truncated.length - 3)));
+
+        LogGetHandle handle = pump.follow("container", "http://localhost/v1.40/containers/container/logs?follow=1", callback);
+        daemon.join(10000);
+        Assertions.assertTrue(callback.closed.await(10, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(Collections.singletonList("first"), callback.lines);
+        Assertions.assertEquals(1, callback.errors.size());
+        Assertions.assertTrue(callback.errors.get(0).startsWith("IO Error while requesting logs"));
+        Assertions.assertFalse(callback.errors.get(0).contains("docker-log-pump"));
+        Assertions.assertTrue(handle.isError());
+    }
+
+    // Answer the given number of requests, each frame split across chunk boundaries
+    private Thread serveLogs(int count, String status, String ... lines) {
+        Thread thread = new Thread(() -> {
+            try {
+                for (int i = 0; i < count; i++) {
+                    Socket socket = serverSocket.accept();
+                    connections.add(socket);
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+                    requests.add(reader.readLine());
+                    while (!reader.readLine().isEmpty()) {
+                        // Skip headers
+                    }
+                    OutputStream out = socket.getOutputStream();
+                    out.write(("HTTP/1.1 " + status + "\r\nContent-Type: application/vnd.docker.raw-stream\r\n" +
+                               "Transfer-Encoding: chunked\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                    byte[] frames = frames(lines);
+                    int half = frames.length / 2;
+                    writeChunk(out, frames, 0, half);
+                    out.flush();
+                    writeChunk(out, frames, half, frames.length - half);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // Server closed
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    // Answer a single request with the given body in one chunk and end the response
+    private Thread serveBody(byte[] body) {
+        Thread thread = new Thread(() -> {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.add(socket);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+                requests.add(reader.readLine());
+                while (!reader.readLine().isEmpty()) {
+                    // Skip headers
+                }
+                OutputStream out = socket.getOutputStream();
+                out.write(("HTTP/1.1 200 OK\r\nContent-Type: application/vnd.docker.raw-stream\r\n" +
+                           "Transfer-Encoding: chunked\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                writeChunk(out, body, 0, body.length);
+                out.write("0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+                out.flush();
+            } catch (IOException e) {
+                // Server closed
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void writeChunk(OutputStream out, byte[] data, int offset, int length) throws IOException {
+        if (length > 0) {
+            out.write((Integer.toHexString(length) + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            out.write(data, offset, length);
+            out.write("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    private static byte[] frames(String ... lines) {
+        ByteArrayOutputStream ret = new ByteArrayOutputStream();
+        for (String line : lines) {
+            byte[] message = (OffsetDateTime.now(ZoneOffset.UTC) + " " + line).getBytes(StandardCharsets.UTF_8);
+            ByteBuffer header = ByteBuffer.allocate(8);
+            header.put((byte) 1);
+            header.putInt(4, message.length);
+            ret.write(header.array(), 0, 8);
+            ret.write(message, 0, message.length);
+        }
+        return ret.toByteArray();
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] ret = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, ret, first.length, second.length);
+        return ret;
+    }
+
+    private static long countPumpThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                     .filter(t -> t.getName().startsWith("docker-log-pump-"))
+                     .count();
+    }
+
+    private static class TestCallback implements LogCallback {
+
+        private final List<String> lines = new CopyOnWriteArrayList<>();
+        private final List<String> errors = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entries;
+        private final CountDownLatch closed;
+
+        TestCallback(int expectedEntries, int expectedCloses) {
+            this.entries = new CountDownLatch(expectedEntries);
+            this.closed = new CountDownLatch(expectedCloses);
+        }
+
+        @Override
+        public void log(int type, ZonedDateTime timestamp, String txt) {
+            lines.add(txt);
+            entries.countDown();
+        }
+
+        @Override
+        public void error(String error) {
+            errors.add(error);
+        }
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+}
@@ -24,9 +24,9 @@ import java.nio.charset.CharsetEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
-import java.util.regex.Matcher;
 
 @ExtendWith(MockitoExtension.class)
 class LogRequestorTest {
@@ -206,14 +206,110 @@ class LogRequestorTest {
     }
 
     @Test
-    void checkMutlilinePattern() {
-        String line = "2016-07-15T20:34:06.024029849Z remote: Compressing objects:   4% (1/23)           \n" +
-                      "remote: Compressing objects:   8% (2/23)           \n";
-        String matched = "remote: Compressing objects:   4% (1/23)           \n" +
-                      "remote: Compressing objects:   8% (2/23)";
-        Matcher matcher = LogRequestor.LOG_LINE.matcher(line);
-        Assertions.assertTrue(matcher.matches());
-        Assertions.assertEquals(matched, matcher.group("entry"));
+    void testMultilineEntry() throws Exception {
+        final Streams type = Streams.STDOUT;
+        final ByteBuffer buf = frame(type, "2016-07-15T20:34:06.024029849Z remote: Compressing objects:   4% (1/23)           \n" +
+                                           "remote: Compressing objects:   8% (2/23)           \n");
+        setupMocks(new ByteArrayInputStream(buf.array()));
+
+        new LogRequestor(client, urlBuilder, containerId, callback).fetchLogs();
+
+        Mockito.verify(callback).log(type.type, ZonedDateTime.parse("2016-07-15T20:34:06.024Z"),
+                                     "remote: Compressing objects:   4% (1/23)           \n" +
+                                     "remote: Compressing objects:   8% (2/23)");
+    }
+
+    @Test
+    void testMultiByteCharacterSplitAcrossFrames() throws Exception {
+        final Streams type = Streams.STDOUT;
+        // The euro sign is encoded in three bytes, which are split between two frames. A frame of
+        // another stream comes in between.
+        final byte[] euro = "\u20ac".getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer body = combineBuffers(
+            frame(type, concat("2015-08-05T12:34:56Z price: 10".getBytes(StandardCharsets.UTF_8), Arrays.copyOf(euro, 1))),
+            messageToBuffer(Streams.STDERR, "other stream"),
+            frame(type, concat("2015-08-05T12:34:57Z ".getBytes(StandardCharsets.UTF_8), Arrays.copyOfRange(euro, 1, 3),
+                               " per month\n".getBytes(StandardCharsets.UTF_8))));
+        setupMocks(new ByteArrayInputStream(body.array()));
+
+        new LogRequestor(client, urlBuilder, containerId, callback).fetchLogs();
+
+        Mockito.verify(callback).log(Mockito.eq(type.type), Mockito.any(ZonedDateTime.class), Mockito.eq("price: 10"));
+        Mockito.verify(callback).log(Mockito.eq(type.type), Mockito.any(ZonedDateTime.class), Mockito.eq("\u20ac per month"));
+        Mockito.verify(callback).log(Mockito.eq(Streams.STDERR.type), Mockito.any(ZonedDateTime.class), Mockito.eq("other stream"));
+        Mockito.verify(callback, Mockito.never()).error(Mockito.anyString());
+    }
+
+    @Test
+    void testIncompleteCharacterAtEndIsPassedOn() throws Exception {
+        final Streams type = Streams.STDOUT;
+        final byte[] euro = "\u20ac".getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer body = frame(type, concat("2015-08-05T12:34:56Z price: 10".getBytes(StandardCharsets.UTF_8),
+                                                   Arrays.copyOf(euro, 2)));
+        setupMocks(new ByteArrayInputStream(body.array()));
+
+        new LogRequestor(client, urlBuilder, containerId, callback).fetchLogs();
+
+        ZonedDateTime timestamp = ZonedDateTime.parse("2015-08-05T12:34:56Z");
+        Mockito.verify(callback).log(type.type, timestamp, "price: 10");
+        Mockito.verify(callback).log(type.type, timestamp, "\ufffd");
+        Mockito.verify(callback, Mockito.never()).error(Mockito.anyString());
+    }
+
+    @Test
+    void testLineWithoutTimestampIsSkipped() throws Exception {
+        final Streams type = Streams.STDOUT;
+        final ByteBuffer body = combineBuffers(
+            messageToBuffer(type, "first"),
+            frame(type, "no-timestamp-here"),
+            messageToBuffer(type, "still logged"));
+        setupMocks(new ByteArrayInputStream(body.array()));
+
+        new LogRequestor(client, urlBuilder, containerId, callback).fetchLogs();
+
+        Mockito.verify(callback).log(type.type, ZonedDateTime.parse("2015-08-05T12:34:56Z"), "first");
+        Mockito.verify(callback).error("Invalid log format for 'no-timestamp-here' (expected: \"<timestamp> <txt>\")");
+        Mockito.verify(callback).log(type.type, ZonedDateTime.parse("2015-08-05T12:34:56Z"), "still logged");
+        Mockito.verify(callback, Mockito.times(2)).log(Mockito.anyInt(), Mockito.any(ZonedDateTime.class), Mockito.anyString());
+    }
+
+    @Test
+    void testInvalidTimestampIsSkipped() throws Exception {
+        final Streams type = Streams.STDOUT;
+        final ByteBuffer body = combineBuffers(
+            frame(type, "yesterday something happened"),
+            messageToBuffer(type, "still logged"),
+            frame(type, "[tomorrow] again"),
+            messageToBuffer(type, "last"));
+        setupMocks(new ByteArrayInputStream(body.array()));
+
+        new LogRequestor(client, urlBuilder, containerId, callback).fetchLogs();
+
+        Mockito.verify(callback).error("Invalid log format for 'yesterday something happened' (expected: \"<timestamp> <txt>\")");
+        Mockito.verify(callback).error("Invalid log format for '[tomorrow] again' (expected: \"<timestamp> <txt>\")");
+        Mockito.verify(callback).log(Mockito.eq(type.type), Mockito.any(ZonedDateTime.class), Mockito.eq("still logged"));
+        Mockito.verify(callback).log(Mockito.eq(type.type), Mockito.any(ZonedDateTime.class), Mockito.eq("last"));
+        Mockito.verify(callback, Mockito.times(2)).log(Mockito.anyInt(), Mockito.any(ZonedDateTime.class), Mockito.anyString());
+    }
+
+    @Test
+    void testFramesSplitAcrossReads() throws Exception {
+        final Streams type = Streams.STDERR;
+        final ByteBuffer body = responseContent(type, "first", "second \u00fc\u00f6\u00e4", "third");
+        // Deliver a single byte per read
+        final InputStream inputStream = new ByteArrayInputStream(body.array()) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+        setupMocks(inputStream);
+
+        new LogRequestor(client, urlBuilder, containerId, callback).fetchLogs();
+
+        Mockito.verify(callback).log(Mockito.eq(type.type), Mockito.any(ZonedDateTime.class), Mockito.eq("first"));
+        Mockito.verify(callback).log(Mockito.eq(type.type), Mockito.any(ZonedDateTime.class), Mockito.eq("second \u00fc\u00f6\u00e4"));
+        Mockito.verify(callback).log(Mockito.eq(type.type), Mockito.any(ZonedDateTime.class), Mockito.eq("third"));
     }
 
     @Test
@@ -336,6 +432,30 @@ class LogRequestorTest {
         return result;
     }
 
+    private static ByteBuffer frame(Streams stream, String payload) {
+        return frame(stream, payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Create a bytebuffer for a single frame with the given payload as it is.
+     */
+    private static ByteBuffer frame(Streams stream, byte[] payload) {
+        ByteBuffer result = ByteBuffer.allocate(payload.length + 8);
+        result.put((byte) stream.type);
+        result.position(result.position() + 3);
+        result.putInt(payload.length);
+        result.put(payload);
+        return result;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteBuffer result = ByteBuffer.allocate(Arrays.stream(parts).mapToInt(p -> p.length).sum());
+        for (byte[] part : parts) {
+            result.put(part);
+        }
+        return result.array();
+    }
+
     /**
      * Create a new string from message that has a timestamp prefix.
      */
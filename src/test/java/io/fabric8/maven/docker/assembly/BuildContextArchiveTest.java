@@ -0,0 +1,95 @@
+package io.fabric8.maven.docker.assembly;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.fabric8.maven.docker.config.ArchiveCompression;
+import org.codehaus.plexus.archiver.tar.TarArchiver;
+import org.codehaus.plexus.archiver.util.DefaultFileSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BuildContextArchiveTest {
+
+    @TempDir
+    private Path contextDir;
+
+    @Test
+    void digestFormat() throws IOException {
+        givenFile("Dockerfile", "FROM alpine");
+        String digest = digest(null);
+        Assertions.assertTrue(digest.matches("sha256:[0-9a-f]{64}"), digest);
+    }
+
+    @Test
+    void digestIgnoresModificationTime() throws IOException {
+        File dockerfile = givenFile("Dockerfile", "FROM alpine");
+        String digest = digest(null);
+        Assertions.assertTrue(dockerfile.setLastModified(dockerfile.lastModified() - 60_000));
+        Assertions.assertEquals(digest, digest(null));
+    }
+
+    @Test
+    void digestChangesWithContent() throws IOException {
+        givenFile("Dockerfile", "FROM alpine");
+        String digest = digest(null);
+        givenFile("Dockerfile", "FROM alpine:3");
+        Assertions.assertNotEquals(digest, digest(null));
+    }
+
+    @Test
+    void digestChangesWithAddedFile() throws IOException {
+        givenFile("Dockerfile", "FROM alpine");
+        String digest = digest(null);
+        givenFile("app.jar", "");
+        Assertions.assertNotEquals(digest, digest(null));
+    }
+
+    @Test
+    void digestChangesWithRules() throws IOException {
+        givenFile("Dockerfile", "FROM alpine");
+        String digest = digest(null);
+        givenFile(DockerAssemblyManager.DOCKER_IGNORE, "*.log");
+        String withRules = digest(null);
+        Assertions.assertNotEquals(digest, withRules);
+        givenFile(DockerAssemblyManager.DOCKER_IGNORE, "*.tmp");
+        Assertions.assertNotEquals(withRules, digest(null));
+    }
+
+    @Test
+    void digestChangesWithBuildInputs() throws IOException {
+        givenFile("Dockerfile", "FROM alpine");
+        Map<String, String> inputs = new HashMap<>();
+        inputs.put("option.buildargs", "{\"VERSION\":\"1\"}");
+        inputs.put("base.alpine", "sha256:1234");
+        String digest = digest(inputs);
+
+        Assertions.assertEquals(digest, digest(new TreeMap<>(inputs)));
+        Assertions.assertNotEquals(digest, digest(null));
+        Assertions.assertNotEquals(digest, digest(Collections.singletonMap("option.buildargs", "{\"VERSION\":\"1\"}")));
+
+        inputs.put("base.alpine", "sha256:5678");
+        Assertions.assertNotEquals(digest, digest(inputs));
+    }
+
+    private File givenFile(String name, String content) throws IOException {
+        return Files.write(contextDir.resolve(name), content.getBytes(StandardCharsets.UTF_8)).toFile();
+    }
+
+    private String digest(Map<String, String> buildInputs) throws IOException {
+        TarArchiver archiver = new TarArchiver();
+        DefaultFileSet fileSet = DefaultFileSet.fileSet(contextDir.toFile());
+        fileSet.setExcludes(new String[] { DockerAssemblyManager.DOCKER_IGNORE });
+        archiver.addFileSet(fileSet);
+        return new BuildContextArchive(archiver, ArchiveCompression.none, null, contextDir.toFile())
+            .digest(buildInputs);
+    }
+}
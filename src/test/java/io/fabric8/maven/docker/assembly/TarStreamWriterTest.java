@@ -0,0 +1,74 @@
+package io.fabric8.maven.docker.assembly;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.fabric8.maven.docker.config.ArchiveCompression;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.codehaus.plexus.archiver.tar.TarArchiver;
+import org.codehaus.plexus.archiver.util.DefaultFileSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TarStreamWriterTest {
+
+    @TempDir
+    private Path contextDir;
+
+    @TempDir
+    private Path archiveDir;
+
+    @Test
+    void streamedEntriesEqualArchivedEntries() throws IOException {
+        Files.write(contextDir.resolve("Dockerfile"), "FROM alpine".getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(contextDir.resolve("app"));
+        Files.write(contextDir.resolve("app/run.sh"), "#!/bin/sh".getBytes(StandardCharsets.UTF_8));
+
+        Path archive = archiveDir.resolve("docker-build.tar");
+        TarArchiver fileArchiver = createArchiver();
+        fileArchiver.setDestFile(archive.toFile());
+        fileArchiver.createArchive();
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        TarStreamWriter.write(createArchiver(), ArchiveCompression.none, streamed);
+
+        Map<String, String> archivedEntries;
+        try (InputStream in = Files.newInputStream(archive)) {
+            archivedEntries = readEntries(in);
+        }
+        Map<String, String> streamedEntries = readEntries(new ByteArrayInputStream(streamed.toByteArray()));
+
+        Assertions.assertEquals(archivedEntries, streamedEntries);
+        Assertions.assertTrue(streamedEntries.containsKey("app/run.sh"), streamedEntries.toString());
+    }
+
+    private TarArchiver createArchiver() {
+        TarArchiver archiver = new TarArchiver();
+        archiver.addFileSet(DefaultFileSet.fileSet(contextDir.toFile()));
+        return archiver;
+    }
+
+    // Entry name mapped to its type, size, mode and owner
+    private static Map<String, String> readEntries(InputStream in) throws IOException {
+        Map<String, String> entries = new TreeMap<>();
+        try (TarArchiveInputStream tarIn = new TarArchiveInputStream(in)) {
+            TarArchiveEntry entry;
+            while ((entry = tarIn.getNextTarEntry()) != null) {
+                entries.put(entry.getName(), String.format("dir=%s size=%d mode=%o user=%s group=%s uid=%d gid=%d",
+                                                           entry.isDirectory(), entry.getSize(), entry.getMode(),
+                                                           entry.getUserName(), entry.getGroupName(),
+                                                           entry.getLongUserId(), entry.getLongGroupId()));
+            }
+        }
+        return entries;
+    }
+}
@@ -1119,6 +1119,9 @@ class PropertyConfigHandlerTest extends AbstractConfigHandlerTest {
         WaitConfiguration wait = runConfig.getWaitConfiguration();
         Assertions.assertEquals("http://foo.com", wait.getUrl());
         Assertions.assertEquals("pattern", wait.getLog());
+        Assertions.assertEquals(Collections.singletonList("alternative"), wait.getLogPatterns());
+        Assertions.assertEquals(20, wait.getLogWindowLines().intValue());
+        Assertions.assertEquals(4096, wait.getLogWindowBytes().intValue());
         Assertions.assertEquals("post_start_command", wait.getExec().getPostStart());
         Assertions.assertEquals("pre_stop_command", wait.getExec().getPreStop());
         Assertions.assertTrue(wait.getExec().isBreakOnError());
@@ -1231,6 +1234,9 @@ class PropertyConfigHandlerTest extends AbstractConfigHandlerTest {
             k(ConfigKey.WAIT_EXEC_POST_START), "post_start_command",
             k(ConfigKey.WAIT_EXEC_BREAK_ON_ERROR), "true",
             k(ConfigKey.WAIT_LOG), "pattern",
+            k(ConfigKey.WAIT_LOG_PATTERNS) + ".1", "alternative",
+            k(ConfigKey.WAIT_LOG_WINDOW_LINES), "20",
+            k(ConfigKey.WAIT_LOG_WINDOW_BYTES), "4096",
             k(ConfigKey.WAIT_HEALTHY), "true",
             k(ConfigKey.WAIT_TIME), "5",
             k(ConfigKey.WAIT_EXIT), "0",
@@ -0,0 +1,110 @@
+package io.fabric8.maven.docker.log;
+
+import java.io.StringWriter;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AsyncLogWriterTest {
+
+    private static final ZonedDateTime TS = ZonedDateTime.parse("2016-12-21T15:09:00.999Z");
+
+    private final LogOutputSpec spec = new LogOutputSpec.Builder().prefix("test> ").build();
+
+    @Test
+    void writesInArrivalOrder() throws InterruptedException {
+        FlushCountingWriter out = new FlushCountingWriter();
+        AsyncLogWriter writer = new AsyncLogWriter(out, 0);
+        writer.add(spec, TS.plusSeconds(2), "line 1");
+        writer.add(spec, TS.plusSeconds(1), "line 2");
+        writer.add(null, null, "error");
+        writer.close();
+
+        Assertions.assertEquals(Arrays.asList("test> line 1", "test> line 2", "error"), out.lines());
+    }
+
+    @Test
+    void ordersByTimestampWithinWindow() throws InterruptedException {
+        FlushCountingWriter out = new FlushCountingWriter();
+        AsyncLogWriter writer = new AsyncLogWriter(out, TimeUnit.MINUTES.toMillis(1));
+        writer.add(spec, TS.plusSeconds(3), "line 3");
+        writer.add(spec, TS.plusSeconds(1), "line 1");
+        writer.add(spec, TS.plusSeconds(2), "line 2a");
+        writer.add(spec, TS.plusSeconds(2), "line 2b");
+        writer.close();
+
+        Assertions.assertEquals(Arrays.asList("test> line 1", "test> line 2a", "test> line 2b", "test> line 3"), out.lines());
+    }
+
+    @Test
+    void flushesAfterInterval() throws InterruptedException {
+        FlushCountingWriter out = new FlushCountingWriter();
+        AsyncLogWriter writer = new AsyncLogWriter(out, 0, AsyncLogWriter.FLUSH_SIZE, 50);
+        try {
+            writer.add(spec, TS, "line 1");
+            out.awaitContent("test> line 1");
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    void flushesWhenSizeIsReached() throws InterruptedException {
+        FlushCountingWriter out = new FlushCountingWriter();
+        AsyncLogWriter writer = new AsyncLogWriter(out, 0, 64, TimeUnit.HOURS.toMillis(1));
+        try {
+            for (int i = 0; i < 10; i++) {
+                writer.add(spec, TS, "line " + i);
+            }
+            out.awaitContent("test> line 0");
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    void ignoresEntriesAfterClose() throws InterruptedException {
+        FlushCountingWriter out = new FlushCountingWriter();
+        AsyncLogWriter writer = new AsyncLogWriter(out, 0);
+        writer.add(spec, TS, "line 1");
+        writer.close();
+        writer.add(spec, TS, "line 2");
+        writer.close();
+
+        Assertions.assertEquals(Arrays.asList("test> line 1"), out.lines());
+        Assertions.assertTrue(out.closed);
+    }
+
+    private static class FlushCountingWriter extends StringWriter {
+
+        private volatile String flushed = "";
+        private volatile boolean closed;
+
+        @Override
+        public synchronized void flush() {
+            super.flush();
+            flushed = toString();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        synchronized List<String> lines() {
+            return Arrays.asList(toString().split(System.lineSeparator()));
+        }
+
+        void awaitContent(String expected) throws InterruptedException {
+            long end = System.currentTimeMillis() + 10_000;
+            while (!flushed.contains(expected)) {
+                Assertions.assertTrue(System.currentTimeMillis() < end, "Content not flushed: " + expected);
+                Thread.sleep(10);
+            }
+        }
+    }
+}
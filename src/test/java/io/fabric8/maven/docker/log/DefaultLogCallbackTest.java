@@ -120,6 +120,54 @@ class DefaultLogCallbackTest {
             Arrays.asList(FileUtils.fileReadArray(file)));
     }
 
+    @Test
+    void shouldDropEntriesAfterClose() throws IOException, DoneException {
+        callback.log(1, ts, "line 1");
+        callback.close();
+        callback.log(1, ts, "line 2");
+        callback.error("error 3");
+
+        Assertions.assertEquals(
+            Arrays.asList("callback-test> line 1"),
+            Arrays.asList(FileUtils.fileReadArray(file)));
+    }
+
+    @Test
+    void shouldReopenFileAfterClose() throws IOException, DoneException {
+        callback.log(1, ts, "line 1");
+        callback.close();
+
+        DefaultLogCallback callback2 = new DefaultLogCallback(spec);
+        callback2.open();
+        callback2.log(1, ts, "line 2");
+        callback2.close();
+
+        Assertions.assertEquals(
+            Arrays.asList("callback-test> line 2"),
+            Arrays.asList(FileUtils.fileReadArray(file)));
+    }
+
+    @Test
+    void shouldMergeByTimestamp() throws IOException, DoneException {
+        callback.close();
+        LogOutputSpec.Builder builder = new LogOutputSpec.Builder().file(file.toString()).reorderWindow(60_000);
+        DefaultLogCallback callback1 = new DefaultLogCallback(builder.prefix("c1> ").build());
+        DefaultLogCallback callback2 = new DefaultLogCallback(builder.prefix("c2> ").build());
+        callback1.open();
+        callback2.open();
+
+        callback1.log(1, ts.plusSeconds(2), "line 3");
+        callback2.log(1, ts, "line 1");
+        callback1.log(2, ts.plusSeconds(1), "line 2");
+        callback2.log(1, ts.plusSeconds(3), "line 4");
+        callback1.close();
+        callback2.close();
+
+        Assertions.assertEquals(
+            Arrays.asList("c2> line 1", "c1> line 2", "c1> line 3", "c2> line 4"),
+            Arrays.asList(FileUtils.fileReadArray(file)));
+    }
+
     @Test
     void shouldLogInParallel() throws IOException, InterruptedException {
         DefaultLogCallback callback2 = new DefaultLogCallback(spec);
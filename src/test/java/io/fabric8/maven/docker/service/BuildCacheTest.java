@@ -0,0 +1,102 @@
+package io.fabric8.maven.docker.service;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import io.fabric8.maven.docker.access.DockerAccess;
+import io.fabric8.maven.docker.util.Logger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BuildCacheTest {
+
+    private static final String DIGEST = "sha256:1111";
+    private static final String OTHER_DIGEST = "sha256:2222";
+
+    @Mock
+    private DockerAccess docker;
+
+    @Mock
+    private Logger log;
+
+    @TempDir
+    private Path buildDir;
+
+    private BuildCache cache;
+
+    @BeforeEach
+    void setup() {
+        cache = new BuildCache(docker, log);
+    }
+
+    @Test
+    void hitWhenImageHasDigest() throws Exception {
+        givenImageDigest(DIGEST);
+        BuildCache.Result result = cache.check("test", DIGEST, buildDir.toFile(), false);
+        Assertions.assertTrue(result.isHit());
+        Assertions.assertNull(result.getReason());
+    }
+
+    @Test
+    void missWithoutImage() throws Exception {
+        Mockito.doReturn(null).when(docker).getImageLabels("test");
+        assertMiss("no local image test", cache.check("test", DIGEST, buildDir.toFile(), false));
+    }
+
+    @Test
+    void missWithoutLabel() throws Exception {
+        Mockito.doReturn(Collections.emptyMap()).when(docker).getImageLabels("test");
+        assertMiss("local image has no build context digest", cache.check("test", DIGEST, buildDir.toFile(), false));
+    }
+
+    @Test
+    void missWhenContextChanged() throws Exception {
+        givenImageDigest(OTHER_DIGEST);
+        cache.store(OTHER_DIGEST, buildDir.toFile());
+        assertMiss("build context changed since last build", cache.check("test", DIGEST, buildDir.toFile(), false));
+    }
+
+    @Test
+    void missWhenImageBuiltElsewhere() throws Exception {
+        givenImageDigest(OTHER_DIGEST);
+        assertMiss("local image was built from a different build context", cache.check("test", DIGEST, buildDir.toFile(), false));
+    }
+
+    @Test
+    void missWithNoCache() throws Exception {
+        assertMiss("noCache is set", cache.check("test", DIGEST, buildDir.toFile(), true));
+        Mockito.verifyNoInteractions(docker);
+    }
+
+    @Test
+    void storeDigest() throws Exception {
+        cache.store(DIGEST, buildDir.toFile());
+        File digestFile = buildDir.resolve(BuildCache.DIGEST_FILE).toFile();
+        Assertions.assertEquals(DIGEST, new String(Files.readAllBytes(digestFile.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void storeDigestFailureIsIgnored() {
+        cache.store(DIGEST, buildDir.resolve("missing").toFile());
+        Mockito.verify(log).warn(Mockito.anyString(), Mockito.any(), Mockito.any());
+    }
+
+    private void givenImageDigest(String digest) throws Exception {
+        Mockito.doReturn(Collections.singletonMap(BuildCache.DIGEST_LABEL, digest)).when(docker).getImageLabels("test");
+    }
+
+    private void assertMiss(String reason, BuildCache.Result result) {
+        Assertions.assertFalse(result.isHit());
+        Assertions.assertEquals(reason, result.getReason());
+    }
+}
@@ -23,9 +23,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import io.fabric8.maven.docker.access.BuildContextWriter;
 import io.fabric8.maven.docker.access.BuildOptions;
 import io.fabric8.maven.docker.access.DockerAccess;
 import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.assembly.BuildContextArchive;
+import io.fabric8.maven.docker.assembly.BuildDirs;
 import io.fabric8.maven.docker.assembly.DockerAssemblyManager;
 import io.fabric8.maven.docker.config.BuildImageConfiguration;
 import io.fabric8.maven.docker.config.CleanupMode;
@@ -76,12 +79,18 @@ class BuildServiceTest {
     @Mock
     private RegistryService registryService;
 
+    @Mock
+    private BuildContextArchive buildContextArchive;
+
+    @Mock
+    private BuildDirs buildDirs;
+
     @TempDir
     private Path tempDir;
 
     @BeforeEach
     void setup() throws Exception {
-        Mockito.doReturn(tempDir.resolve("docker-build.tar").toFile())
+        Mockito.lenient().doReturn(tempDir.resolve("docker-build.tar").toFile())
             .when(archiveService)
             .createArchive(Mockito.anyString(), Mockito.any(BuildImageConfiguration.class), Mockito.any(MojoParameters.class), Mockito.any(Logger.class));
     }
@@ -138,7 +147,7 @@ class BuildServiceTest {
             .buildConfig(buildConfig)
             .build();
 
-        final ImagePullManager pullManager = new ImagePullManager(null, null, null);
+        final ImagePullManager pullManager = new ImagePullManager(null, null);
         final BuildService.BuildContext buildContext = new BuildService.BuildContext.Builder()
             .mojoParameters(mojoParameters)
             .build();
@@ -181,7 +190,7 @@ class BuildServiceTest {
             .buildConfig(buildConfig)
             .build();
 
-        final ImagePullManager pullManager = new ImagePullManager(null, null, null);
+        final ImagePullManager pullManager = new ImagePullManager(null, null);
         final BuildService.BuildContext buildContext = new BuildService.BuildContext.Builder()
             .mojoParameters(mojoParameters)
             .build();
@@ -210,7 +219,7 @@ class BuildServiceTest {
             .buildConfig(buildConfig)
             .build();
 
-        final ImagePullManager pullManager = new ImagePullManager(null, null, null);
+        final ImagePullManager pullManager = new ImagePullManager(null, null);
         final BuildService.BuildContext buildContext = new BuildService.BuildContext.Builder()
             .mojoParameters(mojoParameters)
             .build();
@@ -244,7 +253,7 @@ class BuildServiceTest {
             .buildConfig(buildConfig)
             .build();
 
-        final ImagePullManager pullManager = new ImagePullManager(null, null, null);
+        final ImagePullManager pullManager = new ImagePullManager(null, null);
         final BuildService.BuildContext buildContext = new BuildService.BuildContext.Builder()
             .mojoParameters(mojoParameters)
             .build();
@@ -269,7 +278,7 @@ class BuildServiceTest {
             .buildConfig(buildConfig)
             .build();
 
-        final ImagePullManager pullManager = new ImagePullManager(null, null, null);
+        final ImagePullManager pullManager = new ImagePullManager(null, null);
         final BuildService.BuildContext buildContext = new BuildService.BuildContext.Builder()
             .mojoParameters(mojoParameters)
             .build();
@@ -399,9 +408,57 @@ class BuildServiceTest {
         }
     }
 
-    private void givenAnImageConfiguration(String cleanup) {
+    @Test
+    void buildImageIfChanged_whenDigestUnchanged_thenBuildSkippedAndImageTagged() throws Exception {
+        givenAnImageConfiguration(Boolean.FALSE.toString(), "1.1.0");
+        givenPreparedBuildContext("sha256:1234");
+        Mockito.doReturn(Collections.singletonMap(BuildCache.DIGEST_LABEL, "sha256:1234")).when(docker).getImageLabels("build-image");
+
+        boolean built = buildService.buildImageIfChanged(imageConfig, null, givenBuildContext(), false);
+        buildService.tagImage(imageConfig);
+
+        Assertions.assertFalse(built);
+        Mockito.verify(buildContextArchive, Mockito.never()).create();
+        Mockito.verify(buildContextArchive, Mockito.never()).stream();
+        Mockito.verify(docker, Mockito.never()).buildImage(Mockito.any(), Mockito.any(File.class), Mockito.any());
+        Mockito.verify(docker, Mockito.never()).buildImage(Mockito.any(), Mockito.any(BuildContextWriter.class), Mockito.any());
+        Mockito.verify(docker).tag("build-image", "build-image:1.1.0", true);
+    }
+
+    @Test
+    void buildImageIfChanged_whenDigestChanged_thenDigestLabelPassed() throws Exception {
+        givenAnImageConfiguration(Boolean.FALSE.toString());
+        givenPreparedBuildContext("sha256:5678");
+        File dockerArchive = tempDir.resolve("docker-build.tar").toFile();
+        Mockito.doReturn(dockerArchive).when(buildContextArchive).create();
+        Mockito.doReturn(Collections.singletonMap(BuildCache.DIGEST_LABEL, "sha256:1234")).when(docker).getImageLabels("build-image");
+
+        boolean built = buildService.buildImageIfChanged(imageConfig, null, givenBuildContext(), false);
+
+        Assertions.assertTrue(built);
+        Mockito.verify(docker).buildImage(Mockito.eq("build-image"), Mockito.eq(dockerArchive),
+            Mockito.argThat((BuildOptions options) -> options.getOptions().get("labels").equals("{\"" + BuildCache.DIGEST_LABEL + "\":\"sha256:5678\"}")));
+        Assertions.assertEquals("sha256:5678", new String(Files.readAllBytes(tempDir.resolve(BuildCache.DIGEST_FILE))));
+    }
+
+    private void givenPreparedBuildContext(String digest) throws Exception {
+        Mockito.doReturn(buildContextArchive).when(archiveService).prepareArchive(Mockito.eq("build-image"), Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.doReturn(digest).when(buildContextArchive).digest(Mockito.any());
+        Mockito.doReturn(buildDirs).when(buildContextArchive).getBuildDirs();
+        Mockito.doReturn(tempDir.toFile()).when(buildDirs).getTemporaryRootDirectory();
+    }
+
+    private BuildService.BuildContext givenBuildContext() {
+        mockMavenProject();
+        return new BuildService.BuildContext.Builder()
+            .mojoParameters(mojoParameters)
+            .build();
+    }
+
+    private void givenAnImageConfiguration(String cleanup, String... tags) {
         BuildImageConfiguration buildConfig = new BuildImageConfiguration.Builder()
             .cleanup(cleanup)
+            .tags(Arrays.asList(tags))
             .build();
 
         imageConfig = new ImageConfiguration.Builder()
@@ -0,0 +1,76 @@
+package io.fabric8.maven.docker.service;
+
+import io.fabric8.maven.docker.access.DockerAccess;
+import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.model.ContainerDetails;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ContainerSnapshotTest {
+
+    private static final String CONTAINER_ID = "1234";
+
+    @Mock
+    private DockerAccess docker;
+
+    @Mock
+    private ContainerDetails details;
+
+    private ContainerSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new ContainerSnapshot(docker, CONTAINER_ID);
+    }
+
+    @Test
+    void inspectedOnce() throws DockerAccessException {
+        Mockito.doReturn(details).when(docker).getContainer(CONTAINER_ID);
+
+        Assertions.assertSame(details, snapshot.get());
+        Assertions.assertSame(details, snapshot.getMandatory());
+        Assertions.assertSame(details, snapshot.get());
+
+        Mockito.verify(docker).getContainer(CONTAINER_ID);
+        Assertions.assertEquals(1, snapshot.getInspects());
+        Assertions.assertEquals(2, snapshot.getInspectsAvoided());
+    }
+
+    @Test
+    void inspectedAgainAfterRefresh() throws DockerAccessException {
+        Mockito.doReturn(details).when(docker).getContainer(CONTAINER_ID);
+
+        snapshot.get();
+        snapshot.refresh();
+        snapshot.get();
+
+        Mockito.verify(docker, Mockito.times(2)).getContainer(CONTAINER_ID);
+        Assertions.assertEquals(2, snapshot.getInspects());
+        Assertions.assertEquals(0, snapshot.getInspectsAvoided());
+    }
+
+    @Test
+    void updatedFromOtherInspect() throws DockerAccessException {
+        snapshot.update(details);
+
+        Assertions.assertSame(details, snapshot.get());
+        Mockito.verifyNoInteractions(docker);
+        Assertions.assertEquals(0, snapshot.getInspects());
+        Assertions.assertEquals(1, snapshot.getInspectsAvoided());
+    }
+
+    @Test
+    void missingContainerIsNotCached() throws DockerAccessException {
+        Assertions.assertNull(snapshot.get());
+        DockerAccessException exp = Assertions.assertThrows(DockerAccessException.class, () -> snapshot.getMandatory());
+        Assertions.assertTrue(exp.getMessage().contains(CONTAINER_ID));
+
+        Mockito.verify(docker, Mockito.times(2)).getContainer(CONTAINER_ID);
+    }
+}
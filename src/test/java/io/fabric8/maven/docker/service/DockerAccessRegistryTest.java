@@ -0,0 +1,144 @@
+package io.fabric8.maven.docker.service;
+
+import io.fabric8.maven.docker.access.DockerAccess;
+import io.fabric8.maven.docker.util.Logger;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DockerAccessRegistryTest {
+
+    @Mock
+    private MavenSession session;
+
+    @Mock
+    private ExecutionListener originalListener;
+
+    @Mock
+    private ExecutionEvent event;
+
+    private MavenExecutionRequest request;
+
+    @BeforeEach
+    void setUp() {
+        request = new DefaultMavenExecutionRequest();
+        request.setExecutionListener(originalListener);
+        Mockito.lenient().doReturn(new DefaultRepositorySystemSession()).when(session).getRepositorySession();
+        Mockito.lenient().doReturn(request).when(session).getRequest();
+    }
+
+    @Test
+    void sameRegistryForSession() {
+        DockerAccessRegistry registry = DockerAccessRegistry.forSession(session);
+
+        Assertions.assertNotNull(registry);
+        Assertions.assertSame(registry, DockerAccessRegistry.forSession(session));
+    }
+
+    @Test
+    void noRegistryWithoutSession() {
+        Assertions.assertNull(DockerAccessRegistry.forSession(null));
+    }
+
+    @Test
+    void accessIsCreatedOncePerKey() throws Exception {
+        DockerAccessRegistry registry = DockerAccessRegistry.forSession(session);
+        DockerAccess first = Mockito.mock(DockerAccess.class);
+        DockerAccess second = Mockito.mock(DockerAccess.class);
+
+        String key = DockerAccessRegistry.createKey("unix:///var/run/docker.sock", null, 100);
+        DockerAccess access1 = registry.getOrCreate(key, () -> first);
+        DockerAccess access2 = registry.getOrCreate(key, () -> second);
+
+        Assertions.assertSame(first, access1);
+        Assertions.assertSame(first, access2);
+        Assertions.assertTrue(registry.isShared(first));
+        Assertions.assertFalse(registry.isShared(second));
+    }
+
+    @Test
+    void differentConnectionParametersUseDifferentAccesses() throws Exception {
+        DockerAccessRegistry registry = DockerAccessRegistry.forSession(session);
+        DockerAccess first = Mockito.mock(DockerAccess.class);
+        DockerAccess second = Mockito.mock(DockerAccess.class);
+
+        DockerAccess access1 = registry.getOrCreate(DockerAccessRegistry.createKey("https://localhost:2376", "/certs", 100), () -> first);
+        DockerAccess access2 = registry.getOrCreate(DockerAccessRegistry.createKey("https://localhost:2376", "/other", 100), () -> second);
+
+        Assertions.assertSame(first, access1);
+        Assertions.assertSame(second, access2);
+    }
+
+    @Test
+    void accessesAreShutdownWhenSessionEnds() throws Exception {
+        DockerAccessRegistry registry = DockerAccessRegistry.forSession(session);
+        DockerAccess access = Mockito.mock(DockerAccess.class);
+        registry.getOrCreate(DockerAccessRegistry.createKey("tcp://localhost:2375", null, 100), () -> access);
+
+        request.getExecutionListener().mojoSucceeded(event);
+        Mockito.verify(access, Mockito.never()).shutdown();
+        Mockito.verify(originalListener).mojoSucceeded(event);
+
+        request.getExecutionListener().sessionEnded(event);
+        Mockito.verify(access).shutdown();
+        Mockito.verify(originalListener).sessionEnded(event);
+        Assertions.assertFalse(registry.isShared(access));
+    }
+
+    @Test
+    void sharedAccessLogsThroughBoundLogger(@Mock Logger firstLog, @Mock Logger secondLog) {
+        DockerAccessRegistry registry = DockerAccessRegistry.forSession(session);
+
+        Logger log = registry.bindLog(firstLog);
+        log.info("first");
+        registry.unbindLog();
+        registry.bindLog(secondLog);
+        log.info("second");
+        registry.unbindLog();
+
+        Mockito.verify(firstLog).info("first");
+        Mockito.verify(secondLog).info("second");
+        Mockito.verifyNoMoreInteractions(firstLog, secondLog);
+    }
+
+    @Test
+    void sharedAccessLogsThroughCreatingLoggerWhenNoneIsBound(@Mock Logger firstLog, @Mock Logger secondLog) {
+        DockerAccessRegistry registry = DockerAccessRegistry.forSession(session);
+
+        Logger log = registry.bindLog(firstLog);
+        registry.unbindLog();
+        registry.bindLog(secondLog);
+        registry.unbindLog();
+        log.info("unbound");
+
+        Mockito.verify(firstLog).info("unbound");
+        Mockito.verifyNoInteractions(secondLog);
+    }
+
+    @Test
+    void threadsCreatedByExecutionLogThroughItsLogger(@Mock Logger firstLog, @Mock Logger secondLog) throws InterruptedException {
+        DockerAccessRegistry registry = DockerAccessRegistry.forSession(session);
+
+        Logger log = registry.bindLog(firstLog);
+        registry.unbindLog();
+        registry.bindLog(secondLog);
+        Thread thread = new Thread(() -> log.info("child"));
+        thread.start();
+        thread.join();
+        registry.unbindLog();
+
+        Mockito.verify(secondLog).info("child");
+        Mockito.verifyNoInteractions(firstLog);
+    }
+}
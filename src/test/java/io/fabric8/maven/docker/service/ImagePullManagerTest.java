@@ -0,0 +1,127 @@
+package io.fabric8.maven.docker.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.config.ImagePullPolicy;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ImagePullManagerTest {
+
+    @Mock
+    private MavenSession session;
+
+    @Test
+    void pullPolicy() {
+        Assertions.assertEquals(ImagePullPolicy.IfNotPresent, new ImagePullManager(null, null).getImagePullPolicy());
+        Assertions.assertEquals(ImagePullPolicy.Always, new ImagePullManager(null, "always").getImagePullPolicy());
+        Assertions.assertEquals(ImagePullPolicy.Never, new ImagePullManager(null, "off").getImagePullPolicy());
+        Assertions.assertEquals(ImagePullPolicy.Never, new ImagePullManager("Never", "always").getImagePullPolicy());
+    }
+
+    @Test
+    void pulledOnlyOnce() throws Exception {
+        ImagePullManager pullManager = new ImagePullManager(null, null);
+        AtomicInteger pulls = new AtomicInteger();
+
+        Assertions.assertFalse(pullManager.hasAlreadyPulled("busybox"));
+        pullManager.pullOnce("busybox", () -> pulls.incrementAndGet() > 0);
+        pullManager.pullOnce("busybox", () -> pulls.incrementAndGet() > 0);
+        Assertions.assertTrue(pullManager.hasAlreadyPulled("busybox"));
+        Assertions.assertEquals(1, pulls.get());
+    }
+
+    @Test
+    void notMarkedWithoutPull() throws Exception {
+        ImagePullManager pullManager = new ImagePullManager(null, null);
+        AtomicInteger checks = new AtomicInteger();
+
+        pullManager.pullOnce("busybox", () -> checks.incrementAndGet() < 0);
+        pullManager.pullOnce("busybox", () -> checks.incrementAndGet() < 0);
+        Assertions.assertFalse(pullManager.hasAlreadyPulled("busybox"));
+        Assertions.assertEquals(2, checks.get());
+    }
+
+    @Test
+    void failedPullIsRetried() throws Exception {
+        ImagePullManager pullManager = new ImagePullManager(null, null);
+
+        Assertions.assertThrows(DockerAccessException.class, () -> pullManager.pullOnce("busybox", () -> {
+            throw new DockerAccessException("Unable to pull '%s'", "busybox");
+        }));
+        Assertions.assertFalse(pullManager.hasAlreadyPulled("busybox"));
+        pullManager.pullOnce("busybox", () -> true);
+        Assertions.assertTrue(pullManager.hasAlreadyPulled("busybox"));
+    }
+
+    @Test
+    void concurrentPullsOfSameImage() throws Exception {
+        ConcurrentHashMap<String, AtomicBoolean> pulledImages = new ConcurrentHashMap<>();
+        AtomicInteger pulls = new AtomicInteger();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                // Each module has its own pull manager
+                ImagePullManager pullManager = new ImagePullManager(pulledImages, null, null);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    pullManager.pullOnce("busybox", () -> {
+                        maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                        try {
+                            Thread.sleep(50);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        pulls.incrementAndGet();
+                        concurrent.decrementAndGet();
+                        return true;
+                    });
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(1, pulls.get());
+        Assertions.assertEquals(1, maxConcurrent.get());
+    }
+
+    @Test
+    void sharedForSession() throws Exception {
+        Mockito.doReturn(new DefaultRepositorySystemSession()).when(session).getRepositorySession();
+
+        ImagePullManager.forSession(session, null, null).pullOnce("busybox", () -> true);
+        Assertions.assertTrue(ImagePullManager.forSession(session, null, null).hasAlreadyPulled("busybox"));
+    }
+
+    @Test
+    void notSharedWithoutSession() throws Exception {
+        ImagePullManager.forSession(null, null, null).pullOnce("busybox", () -> true);
+        Assertions.assertFalse(ImagePullManager.forSession(null, null, null).hasAlreadyPulled("busybox"));
+    }
+}
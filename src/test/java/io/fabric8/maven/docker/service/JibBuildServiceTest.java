@@ -5,7 +5,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.google.cloud.tools.jib.api.Credential;
 
@@ -24,6 +26,8 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import io.fabric8.maven.docker.access.AuthConfig;
+import io.fabric8.maven.docker.assembly.BuildContextArchive;
+import io.fabric8.maven.docker.assembly.BuildDirs;
 import io.fabric8.maven.docker.assembly.DockerAssemblyManager;
 import io.fabric8.maven.docker.config.BuildImageConfiguration;
 import io.fabric8.maven.docker.config.ImageConfiguration;
@@ -60,6 +64,9 @@ class JibBuildServiceTest {
     @Mock
     private DockerAssemblyManager dockerAssemblyManager;
 
+    @Mock
+    private BuildContextArchive buildContextArchive;
+
     @Test
     @SuppressWarnings("squid:S00112")
     void testGetRegistryCredentialsForPush() throws MojoExecutionException {
@@ -118,19 +125,29 @@ class JibBuildServiceTest {
 
 
     @Test
-    void testGetAssemblyTarArchive() throws IOException, MojoExecutionException {
+    void testPrepareAssembly() throws IOException, MojoExecutionException {
         // Given
         Path projectBaseDir = Files.createTempDirectory("test");
         ImageConfiguration imageConfiguration = getImageConfiguration();
+        setupServiceHubExpectations(projectBaseDir.toFile());
         setupDockerAssemblyExpectations(projectBaseDir);
 
         // When
-        File tarArchive = JibBuildService.getAssemblyTarArchive(imageConfiguration, serviceHub, params, logger);
+        BuildDirs buildDirs = JibBuildService.prepareAssembly(imageConfiguration, serviceHub, params, logger);
 
         // Then
-        Assertions.assertNotNull(tarArchive);
-        assertEquals(new File("/target/test/testimage/0.0.1/tmp/docker-build.tar").getPath(),
-                tarArchive.getAbsolutePath().substring(projectBaseDir.toString().length()));
+        Assertions.assertNotNull(buildDirs);
+        assertEquals(new File("/target/test/testimage/0.0.1/build").getPath(),
+                buildDirs.getOutputDirectory().getAbsolutePath().substring(projectBaseDir.toString().length()));
+        Mockito.verify(buildContextArchive, Mockito.never()).create();
+    }
+
+    @Test
+    void testGetBuildTarget() throws MojoExecutionException {
+        assertEquals(JibBuildService.BuildTarget.tar, JibBuildService.getBuildTarget(null));
+        assertEquals(JibBuildService.BuildTarget.registry, JibBuildService.getBuildTarget("registry"));
+        assertEquals(JibBuildService.BuildTarget.docker, JibBuildService.getBuildTarget(" Docker "));
+        Assertions.assertThrows(MojoExecutionException.class, () -> JibBuildService.getBuildTarget("daemon"));
     }
 
     @Test
@@ -182,6 +199,197 @@ class JibBuildServiceTest {
         }
     }
 
+    @Test
+    void testBuildToRegistry(@TempDir Path tmpDir) throws Exception {
+        // ARRANGE
+        setupServiceHubExpectations(tmpDir.toFile());
+        setupDockerAssemblyExpectations(tmpDir);
+        final RegistryService.RegistryConfig registryConfig = new RegistryService.RegistryConfig.Builder()
+                .authConfigFactory(authConfigFactory)
+                .build();
+        mockAuthConfigFactory(true, registryConfig);
+
+        JibBuildService jibBuildService = new JibBuildService(serviceHub, params, logger);
+        ImageConfiguration imageConfiguration = getImageConfiguration();
+
+        try (MockedStatic<JibServiceUtil> jibServiceUtilMock = mockStatic(JibServiceUtil.class)) {
+            jibServiceUtilMock.when(() -> JibServiceUtil.getBaseImage(imageConfiguration)).thenCallRealMethod();
+            // ACT
+            jibBuildService.build("docker", "registry", imageConfiguration, registryConfig);
+
+            // ASSERT
+            jibServiceUtilMock.verify(() -> JibServiceUtil.buildContainerToRegistry(Mockito.any(), Mockito.eq(imageConfiguration),
+                    Mockito.eq(Credential.from("testuserpush", "testpass")), Mockito.eq(false), Mockito.eq(logger)), Mockito.times(1));
+            jibServiceUtilMock.verify(() -> JibServiceUtil.buildContainer(Mockito.any(), Mockito.any(), Mockito.any()), Mockito.never());
+            Mockito.verify(buildContextArchive, Mockito.never()).create();
+        }
+    }
+
+    @Test
+    void testBuildToRegistryWithSkipPushBuildsTarball(@TempDir Path tmpDir) throws Exception {
+        // ARRANGE
+        setupServiceHubExpectations(tmpDir.toFile());
+        setupDockerAssemblyExpectations(tmpDir);
+        final RegistryService.RegistryConfig registryConfig = new RegistryService.RegistryConfig.Builder()
+                .authConfigFactory(authConfigFactory)
+                .build();
+        mockAuthConfigFactory(false, registryConfig);
+
+        JibBuildService jibBuildService = new JibBuildService(serviceHub, params, logger);
+        ImageConfiguration imageConfiguration = getImageConfiguration();
+
+        try (MockedStatic<JibServiceUtil> jibServiceUtilMock = mockStatic(JibServiceUtil.class)) {
+            jibServiceUtilMock.when(() -> JibServiceUtil.getBaseImage(imageConfiguration)).thenCallRealMethod();
+            // ACT
+            jibBuildService.build("docker", "registry", imageConfiguration, registryConfig, true, false);
+
+            // ASSERT
+            jibServiceUtilMock.verify(() -> JibServiceUtil.buildContainer(Mockito.any(), Mockito.any(), Mockito.eq(logger)), Mockito.times(1));
+            jibServiceUtilMock.verify(() -> JibServiceUtil.buildContainerToRegistry(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyBoolean(), Mockito.any()),
+                    Mockito.never());
+        }
+    }
+
+    @Test
+    void testBuildToRegistryWithSkipTag(@TempDir Path tmpDir) throws Exception {
+        // ARRANGE
+        setupServiceHubExpectations(tmpDir.toFile());
+        setupDockerAssemblyExpectations(tmpDir);
+        final RegistryService.RegistryConfig registryConfig = new RegistryService.RegistryConfig.Builder()
+                .authConfigFactory(authConfigFactory)
+                .build();
+        mockAuthConfigFactory(true, registryConfig);
+
+        JibBuildService jibBuildService = new JibBuildService(serviceHub, params, logger);
+        ImageConfiguration imageConfiguration = getImageConfiguration();
+
+        try (MockedStatic<JibServiceUtil> jibServiceUtilMock = mockStatic(JibServiceUtil.class)) {
+            jibServiceUtilMock.when(() -> JibServiceUtil.getBaseImage(imageConfiguration)).thenCallRealMethod();
+            // ACT
+            jibBuildService.build("docker", "registry", imageConfiguration, registryConfig, false, true);
+
+            // ASSERT
+            jibServiceUtilMock.verify(() -> JibServiceUtil.buildContainerToRegistry(Mockito.any(), Mockito.eq(imageConfiguration),
+                    Mockito.eq(Credential.from("testuserpush", "testpass")), Mockito.eq(true), Mockito.eq(logger)), Mockito.times(1));
+        }
+    }
+
+    @Test
+    void testBuildToDockerWithDockerEnvironment(@TempDir Path tmpDir) throws Exception {
+        // ARRANGE
+        setupServiceHubExpectations(tmpDir.toFile());
+        setupDockerAssemblyExpectations(tmpDir);
+        final RegistryService.RegistryConfig registryConfig = new RegistryService.RegistryConfig.Builder()
+                .authConfigFactory(authConfigFactory)
+                .build();
+        mockAuthConfigFactory(false, registryConfig);
+
+        Map<String, String> dockerEnvironment = JibBuildService.getDockerEnvironment("tcp://docker.example.com:2376", "/certs");
+        JibBuildService jibBuildService = new JibBuildService(serviceHub, params, logger, dockerEnvironment);
+        ImageConfiguration imageConfiguration = getImageConfiguration();
+
+        try (MockedStatic<JibServiceUtil> jibServiceUtilMock = mockStatic(JibServiceUtil.class)) {
+            jibServiceUtilMock.when(() -> JibServiceUtil.getBaseImage(imageConfiguration)).thenCallRealMethod();
+            // ACT
+            jibBuildService.build("docker", "docker", imageConfiguration, registryConfig);
+
+            // ASSERT
+            jibServiceUtilMock.verify(() -> JibServiceUtil.buildContainerToDocker(Mockito.any(), Mockito.eq(imageConfiguration),
+                    Mockito.eq(dockerEnvironment), Mockito.eq(false), Mockito.eq(logger)), Mockito.times(1));
+        }
+    }
+
+    @Test
+    void testGetDockerEnvironment() {
+        Map<String, String> expected = new HashMap<>();
+        expected.put("DOCKER_HOST", "tcp://docker.example.com:2376");
+        expected.put("DOCKER_CERT_PATH", "/certs");
+        expected.put("DOCKER_TLS_VERIFY", "1");
+        assertEquals(expected, JibBuildService.getDockerEnvironment("https://docker.example.com:2376", "/certs"));
+        assertEquals(Collections.singletonMap("DOCKER_HOST", "unix:///var/run/docker.sock"),
+                JibBuildService.getDockerEnvironment("unix:///var/run/docker.sock", null));
+        Assertions.assertTrue(JibBuildService.getDockerEnvironment(null, null).isEmpty());
+    }
+
+    @Test
+    void testPushAfterBuildToRegistry(@TempDir Path tmpDir) throws MojoExecutionException {
+        setupServiceHubExpectations(tmpDir.toFile());
+        try (MockedStatic<JibServiceUtil> jibServiceUtilMock = mockStatic(JibServiceUtil.class)) {
+            // When
+            new JibBuildService(serviceHub, params, logger)
+                .push(Collections.singletonList(getImageConfiguration()), "registry", 1, new RegistryService.RegistryConfig(), false);
+
+            // Then
+            jibServiceUtilMock.verifyNoInteractions();
+        }
+    }
+
+    @Test
+    void testPushAfterBuildToRegistryWithSkippedPush(@TempDir Path tmpDir) throws Exception {
+        try (MockedStatic<JibServiceUtil> jibServiceUtilMock = mockStatic(JibServiceUtil.class)) {
+            // Given
+            setupServiceHubExpectations(tmpDir.toFile());
+            final ImageConfiguration imageConfiguration = getImageConfiguration();
+            final RegistryService.RegistryConfig registryConfig = new RegistryService.RegistryConfig.Builder()
+                .authConfigFactory(authConfigFactory)
+                .build();
+            mockAuthConfigFactory(true, registryConfig);
+            File tarArchive = JibBuildService.getBuildTarArchive(imageConfiguration, params);
+            Files.createDirectories(tarArchive.toPath().getParent());
+            Files.createFile(tarArchive.toPath());
+
+            // When
+            new JibBuildService(serviceHub, params, logger).push(Collections.singletonList(imageConfiguration), "registry", 1, registryConfig, false);
+
+            // Then
+            jibServiceUtilMock.verify(() -> JibServiceUtil.jibPush(
+                Mockito.eq(imageConfiguration),
+                Mockito.eq(Credential.from("testuserpush", "testpass")),
+                Mockito.eq(tarArchive),
+                Mockito.eq(logger)));
+        }
+    }
+
+    @Test
+    void testPushSkipsImageWithSkipPush() throws MojoExecutionException {
+        try (MockedStatic<JibServiceUtil> jibServiceUtilMock = mockStatic(JibServiceUtil.class)) {
+            // Given
+            ImageConfiguration imageConfiguration = new ImageConfiguration.Builder()
+                .name("test/testimage:0.0.1")
+                .buildConfig(new BuildImageConfiguration.Builder().from("busybox").skipPush(true).build())
+                .build();
+
+            // When
+            new JibBuildService(serviceHub, params, logger)
+                .push(Collections.singletonList(imageConfiguration), "tar", 1, new RegistryService.RegistryConfig(), false);
+
+            // Then
+            jibServiceUtilMock.verifyNoInteractions();
+        }
+    }
+
+    @Test
+    void testPushAfterBuildToDocker() throws MojoExecutionException {
+        try (MockedStatic<JibServiceUtil> jibServiceUtilMock = mockStatic(JibServiceUtil.class)) {
+            // Given
+            final ImageConfiguration imageConfiguration = getImageConfiguration();
+            final RegistryService.RegistryConfig registryConfig = new RegistryService.RegistryConfig.Builder()
+                .authConfigFactory(authConfigFactory)
+                .build();
+            mockAuthConfigFactory(true, registryConfig);
+
+            // When
+            new JibBuildService(serviceHub, params, logger).push(Collections.singletonList(imageConfiguration), "docker", 1, registryConfig, false);
+
+            // Then
+            jibServiceUtilMock.verify(() -> JibServiceUtil.jibPushFromDocker(
+                Mockito.eq(imageConfiguration),
+                Mockito.eq(Credential.from("testuserpush", "testpass")),
+                Mockito.eq(Collections.emptyMap()),
+                Mockito.eq(logger)));
+        }
+    }
+
     @Test
     @Disabled("Cannot intercept JibServiceUtil.pushImage() to prevent actual image creation")
     void testPushWithConfiguration(@TempDir Path tmpDir) throws Exception {
@@ -239,12 +447,11 @@ class JibBuildServiceTest {
     }
 
     private void setupDockerAssemblyExpectations(Path projectBaseDir) throws MojoExecutionException, IOException {
-        Path dockerTar = projectBaseDir.resolve("target/test/testimage/0.0.1/tmp/docker-build.tar");
-        Files.createDirectories(dockerTar.getParent());
-        Files.createFile(dockerTar);
-        Mockito.doReturn(dockerTar.toFile())
+        Files.createDirectories(projectBaseDir.resolve("target/test/testimage/0.0.1/build"));
+        Mockito.doReturn(new BuildDirs("test/testimage:0.0.1", params)).when(buildContextArchive).getBuildDirs();
+        Mockito.doReturn(buildContextArchive)
             .when(dockerAssemblyManager)
-            .createDockerTarArchive(Mockito.anyString(), Mockito.eq(params), Mockito.any(BuildImageConfiguration.class), Mockito.eq(logger), Mockito.isNull());
+            .prepareDockerTarArchive(Mockito.anyString(), Mockito.eq(params), Mockito.any(BuildImageConfiguration.class), Mockito.eq(logger), Mockito.isNull());
 
         Mockito.doReturn(dockerAssemblyManager).when(serviceHub).getDockerAssemblyManager();
     }
@@ -9,6 +9,7 @@ import io.fabric8.maven.docker.config.BuildImageConfiguration;
 import io.fabric8.maven.docker.config.BuildXConfiguration;
 import io.fabric8.maven.docker.config.ImageConfiguration;
 import io.fabric8.maven.docker.config.ImagePullPolicy;
+import io.fabric8.maven.docker.util.AuthConfigCache;
 import io.fabric8.maven.docker.util.AuthConfigFactory;
 import io.fabric8.maven.docker.util.AutoPullMode;
 import io.fabric8.maven.docker.util.ImageName;
@@ -41,10 +42,17 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.mockito.Mockito.when;
 
@@ -62,7 +70,7 @@ class RegistryServiceTest {
     // pull
     private String imageName;
     private ImagePullPolicy imagePullPolicy;
-    private TestCacheStore cacheStore;
+    private ConcurrentHashMap<String, AtomicBoolean> pulledImages;
     private AutoPullMode autoPullMode;
     private RegistryService registryService;
     private Map<String, String> authConfig;
@@ -105,7 +113,7 @@ class RegistryServiceTest {
     void setup() {
         BuildXService buildXService = new BuildXService(docker, dockerAssemblyManager, logger, exec);
         registryService = new RegistryService(docker, queryService, buildXService, logger);
-        cacheStore = new TestCacheStore();
+        pulledImages = new ConcurrentHashMap<>();
         authConfig = new HashMap<>();
         properties = new Properties();
 
@@ -355,6 +363,119 @@ class RegistryServiceTest {
         thenNoExceptionThrown();
     }
 
+    @Test
+    void pushImagesInParallel() throws Exception {
+        givenBuildContext();
+        RegistryStandIn registry = new RegistryStandIn();
+        // Both images and both tags of the first image must be pushed at the same time to pass the barriers
+        registry.together("user/a:1.0", "user/b:1.0");
+        registry.together("user/a:t1", "user/a:t2");
+        registry.attach(docker);
+
+        whenPushImages(4, image("user/a:1.0", "t1", "t2"), image("user/b:1.0", "t1"));
+
+        thenNoExceptionThrown();
+        Assertions.assertEquals(5, registry.pushed.size());
+        Assertions.assertTrue(registry.violations.isEmpty(), registry.violations.toString());
+    }
+
+    @Test
+    void pushImagesWithThreadLimit() throws Exception {
+        givenBuildContext();
+        RegistryStandIn registry = new RegistryStandIn();
+        registry.attach(docker);
+
+        whenPushImages(2, image("user/a:1.0"), image("user/b:1.0"), image("user/c:1.0"), image("user/d:1.0"));
+
+        thenNoExceptionThrown();
+        Assertions.assertEquals(4, registry.pushed.size());
+        Assertions.assertTrue(registry.maxConcurrent.get() <= 2);
+    }
+
+    @Test
+    void pushImagesInParallelWithFailure() throws Exception {
+        givenBuildContext();
+        RegistryStandIn registry = new RegistryStandIn();
+        registry.failing.add("user/a:1.0");
+        registry.attach(docker);
+
+        whenPushImages(4, image("user/a:1.0", "t1"), image("user/b:1.0"));
+
+        Assertions.assertTrue(actualException instanceof DockerAccessException);
+        Assertions.assertFalse(registry.pushed.contains("user/a:t1"));
+    }
+
+    @Test
+    void pushTagsAfterImageSequentially() throws Exception {
+        givenBuildContext();
+        RegistryStandIn registry = new RegistryStandIn();
+        registry.attach(docker);
+
+        whenPushImages(1, image("user/a:1.0", "t1", "t2"));
+
+        thenNoExceptionThrown();
+        Assertions.assertEquals(Arrays.asList("user/a:1.0", "user/a:t1", "user/a:t2"), registry.pushed);
+        Assertions.assertEquals(1, registry.maxConcurrent.get());
+    }
+
+    @Test
+    void pushWithRejectedCredentialsInvalidatesCachedCredentials() throws Exception {
+        givenBuildContext();
+        Mockito.doReturn(new AuthConfig("user", "secret", null, null)).when(authConfigFactory)
+            .createAuthConfig(Mockito.anyBoolean(), Mockito.anyBoolean(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.doThrow(new DockerAccessException("unauthorized: authentication required"))
+            .when(docker).pushImage(Mockito.eq("user/a:1.0"), Mockito.any(), Mockito.any(), Mockito.anyInt());
+        RegistryService.RegistryConfig registryConfig = new RegistryService.RegistryConfig.Builder()
+            .authConfigFactory(authConfigFactory)
+            .authConfig(authConfig)
+            .authConfigCache(new AuthConfigCache(60000))
+            .build();
+        ProjectPaths projectPaths = new ProjectPaths(projectBaseDir, "target/docker");
+        List<ImageConfiguration> images = Collections.singletonList(image("user/a:1.0"));
+
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThrows(DockerAccessException.class,
+                () -> registryService.pushImages(projectPaths, images, 0, registryConfig, false, buildContext));
+        }
+
+        // Credentials are looked up once per push, the second lookup of a push is served from the cache
+        Mockito.verify(authConfigFactory, Mockito.times(2))
+            .createAuthConfig(Mockito.anyBoolean(), Mockito.anyBoolean(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void pushWithOtherFailureKeepsCachedCredentials() throws Exception {
+        givenBuildContext();
+        Mockito.doReturn(new AuthConfig("user", "secret", null, null)).when(authConfigFactory)
+            .createAuthConfig(Mockito.anyBoolean(), Mockito.anyBoolean(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.doThrow(new DockerAccessException("connection refused"))
+            .when(docker).pushImage(Mockito.eq("user/a:1.0"), Mockito.any(), Mockito.any(), Mockito.anyInt());
+        RegistryService.RegistryConfig registryConfig = new RegistryService.RegistryConfig.Builder()
+            .authConfigFactory(authConfigFactory)
+            .authConfig(authConfig)
+            .authConfigCache(new AuthConfigCache(60000))
+            .build();
+        ProjectPaths projectPaths = new ProjectPaths(projectBaseDir, "target/docker");
+        List<ImageConfiguration> images = Collections.singletonList(image("user/a:1.0"));
+
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThrows(DockerAccessException.class,
+                () -> registryService.pushImages(projectPaths, images, 0, registryConfig, false, buildContext));
+        }
+
+        Mockito.verify(authConfigFactory)
+            .createAuthConfig(Mockito.anyBoolean(), Mockito.anyBoolean(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void isAuthFailure() {
+        Assertions.assertTrue(RegistryService.isAuthFailure(
+            new DockerAccessException(new IOException("unauthorized: authentication required"), "Unable to push 'a'")));
+        Assertions.assertTrue(RegistryService.isAuthFailure(
+            new DockerAccessException("denied: requested access to the resource is denied ")));
+        Assertions.assertFalse(RegistryService.isAuthFailure(new DockerAccessException("manifest unknown")));
+    }
+
     @Nested
     @DisplayName("buildx")
     class BuildX {
@@ -523,7 +644,7 @@ class RegistryServiceTest {
 
     private void thenImageHasBeenPulledWithRegistry(final String registry) throws DockerAccessException {
         Mockito.verify(docker).pullImage(Mockito.eq(imageName), Mockito.any(), Mockito.eq(registry), Mockito.any(CreateImageOptions.class));
-        Assertions.assertNotNull(cacheStore.get(imageName));
+        Assertions.assertTrue(pulledImages.get(imageName).get());
     }
 
     private void givenBuildContext() {
@@ -539,7 +660,7 @@ class RegistryServiceTest {
         try {
             String iPolicyS = imagePullPolicy != null ? imagePullPolicy.toString() : null;
             String autoPullModeS = autoPullMode != null ? autoPullMode.toString() : null;
-            ImagePullManager pullManager = new ImagePullManager(cacheStore, iPolicyS, autoPullModeS);
+            ImagePullManager pullManager = new ImagePullManager(pulledImages, iPolicyS, autoPullModeS);
             RegistryService.RegistryConfig.Builder registryConfigBuilder =
                 new RegistryService.RegistryConfig.Builder()
                     .authConfigFactory(authConfigFactory)
@@ -570,6 +691,27 @@ class RegistryServiceTest {
         }
     }
 
+    private void whenPushImages(int pushThreads, ImageConfiguration... imageConfigs) {
+        try {
+            ProjectPaths projectPaths = new ProjectPaths(projectBaseDir, "target/docker");
+
+            RegistryService.RegistryConfig registryConfig =
+                new RegistryService.RegistryConfig.Builder()
+                    .authConfigFactory(authConfigFactory)
+                    .authConfig(authConfig)
+                    .build();
+            registryService.pushImages(projectPaths, Arrays.asList(imageConfigs), 0, registryConfig, false, buildContext, pushThreads);
+        } catch (Exception e) {
+            this.actualException = e;
+        }
+    }
+
+    private ImageConfiguration image(String name, String... tags) {
+        BuildImageConfiguration buildImageConfiguration = new BuildImageConfiguration.Builder().tags(Arrays.asList(tags)).build();
+        buildImageConfiguration.initAndValidate(logger);
+        return new ImageConfiguration.Builder().name(name).buildConfig(buildImageConfiguration).build();
+    }
+
     private void givenImagePullPolicy(ImagePullPolicy policy) {
         this.imagePullPolicy = policy;
     }
@@ -580,7 +722,9 @@ class RegistryServiceTest {
 
 
     private void givenPreviousPulled(boolean pulled) {
-        this.cacheStore.put("dummyKey", pulled ? "{ '" + imageName + "': true}" : null);
+        if (pulled) {
+            pulledImages.put(imageName, new AtomicBoolean(true));
+        }
     }
 
     private void givenAnImage() {
@@ -637,18 +781,51 @@ class RegistryServiceTest {
         imageConfiguration = new ImageConfiguration.Builder(imageConfiguration).buildConfig(buildImageConfiguration).build();
     }
 
-    private static class TestCacheStore implements ImagePullManager.CacheStore {
+    // Stands in for a registry behind the Docker daemon. Each push takes a moment and is checked for tags being pushed
+    // before their image.
+    private static class RegistryStandIn {
 
-        String cache;
+        private final List<String> pushed = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> violations = Collections.synchronizedList(new ArrayList<>());
+        private final Set<String> failing = new HashSet<>();
+        private final Map<String, CyclicBarrier> barriers = new HashMap<>();
+        private final AtomicInteger concurrent = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
 
-        @Override
-        public String get(String key) {
-            return cache;
+        void together(String... images) {
+            CyclicBarrier barrier = new CyclicBarrier(images.length);
+            for (String image : images) {
+                barriers.put(image, barrier);
+            }
+        }
+
+        void attach(DockerAccess docker) throws DockerAccessException {
+            Mockito.doAnswer(invocation -> {
+                push(invocation.getArgument(0));
+                return null;
+            }).when(docker).pushImage(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anyInt());
         }
 
-        @Override
-        public void put(String key, String value) {
-            cache = value;
+        private void push(String image) throws Exception {
+            int running = concurrent.incrementAndGet();
+            maxConcurrent.accumulateAndGet(running, Math::max);
+            try {
+                ImageName name = new ImageName(image);
+                if (!name.getTag().equals("1.0") && !pushed.contains(name.getNameWithoutTag() + ":1.0")) {
+                    violations.add(image + " pushed before its image");
+                }
+                CyclicBarrier barrier = barriers.get(image);
+                if (barrier != null) {
+                    barrier.await(10, TimeUnit.SECONDS);
+                }
+                Thread.sleep(20);
+                if (failing.contains(image)) {
+                    throw new DockerAccessException("Unable to push '%s'", image);
+                }
+                pushed.add(image);
+            } finally {
+                concurrent.decrementAndGet();
+            }
         }
     }
 }
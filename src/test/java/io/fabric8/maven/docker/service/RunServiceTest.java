@@ -13,6 +13,7 @@ import io.fabric8.maven.docker.config.*;
 import io.fabric8.maven.docker.log.LogOutputSpec;
 import io.fabric8.maven.docker.log.LogOutputSpecFactory;
 import io.fabric8.maven.docker.model.Container;
+import io.fabric8.maven.docker.model.ContainerDetails;
 import io.fabric8.maven.docker.model.ExecDetails;
 import io.fabric8.maven.docker.model.PortBindingException;
 import io.fabric8.maven.docker.util.GavLabel;
@@ -41,6 +42,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This test need to be refactored. In fact, testing Mojos must be setup correctly at all. Blame on me that there are so
@@ -249,6 +256,119 @@ class RunServiceTest {
         Assertions.assertEquals("(TEST two,TEST one)", thrownException.getLocalizedMessage());
     }
 
+    @Test
+    void parallelStopHonoursDependencies() throws Exception {
+        GavLabel testLabel = new GavLabel("Im:A:Test");
+        registerContainer("db-container-id", "db", SHUTDOWN_WAIT, testLabel);
+        registerContainer("other-container-id", "other", SHUTDOWN_WAIT, testLabel);
+        registerContainer("app-container-id", "app", SHUTDOWN_WAIT, testLabel, "db");
+
+        List<String> events = new CopyOnWriteArrayList<>();
+        // The app and the other container are only both stopped if they are stopped at the same time
+        CountDownLatch concurrentStops = new CountDownLatch(2);
+        Map<String, Boolean> stoppedConcurrently = new ConcurrentHashMap<>();
+        Mockito.doAnswer(invocation -> {
+            String id = invocation.getArgument(0);
+            events.add("stop " + id);
+            if (!id.equals("db-container-id")) {
+                concurrentStops.countDown();
+                stoppedConcurrently.put(id, concurrentStops.await(10, TimeUnit.SECONDS));
+            }
+            events.add("stopped " + id);
+            return null;
+        }).when(docker).stopContainer(Mockito.anyString(), Mockito.eq(0));
+        Mockito.doAnswer(invocation -> events.add("removed " + invocation.getArgument(0)))
+               .when(docker).removeContainer(Mockito.anyString(), Mockito.eq(false));
+
+        runService.stopStartedContainersInParallel(false, false, false, testLabel, 0);
+
+        // The database is stopped and removed after the app, which depends on it, the other container independently
+        Assertions.assertTrue(events.indexOf("stop db-container-id") > events.indexOf("stopped app-container-id"));
+        Assertions.assertTrue(events.indexOf("removed db-container-id") > events.indexOf("removed app-container-id"));
+        Assertions.assertEquals(Boolean.TRUE, stoppedConcurrently.get("app-container-id"));
+        Assertions.assertEquals(Boolean.TRUE, stoppedConcurrently.get("other-container-id"));
+        Assertions.assertEquals(3, events.stream().filter(event -> event.startsWith("removed ")).count());
+        Assertions.assertTrue(tracker.getShutdownDescriptors(testLabel).isEmpty());
+    }
+
+    @Test
+    void parallelStopWaitsForAllGracePeriodsAtOnce() throws Exception {
+        GavLabel testLabel = new GavLabel("Im:A:Test");
+        int containers = 12;
+        for (int i = 0; i < containers; i++) {
+            registerContainer("container-" + i, "c" + i, SHUTDOWN_WAIT, testLabel);
+        }
+        // Each stop blocks until all containers are being stopped
+        CountDownLatch concurrentStops = new CountDownLatch(containers);
+        AtomicInteger stoppedConcurrently = new AtomicInteger();
+        Mockito.doAnswer(invocation -> {
+            concurrentStops.countDown();
+            if (concurrentStops.await(10, TimeUnit.SECONDS)) {
+                stoppedConcurrently.incrementAndGet();
+            }
+            return null;
+        }).when(docker).stopContainer(Mockito.anyString(), Mockito.eq(0));
+
+        runService.stopStartedContainersInParallel(false, false, false, testLabel, 0);
+
+        Assertions.assertEquals(containers, stoppedConcurrently.get());
+    }
+
+    @Test
+    void parallelStopKillsRemainingContainersAfterTimeout() throws Exception {
+        GavLabel testLabel = new GavLabel("Im:A:Test");
+        registerContainer("db-container-id", "db", 5000, testLabel);
+        registerContainer("app-container-id", "app", 5000, testLabel, "db");
+        // The stop of the app only returns after the database has been stopped without waiting for it
+        CountDownLatch dbStopped = new CountDownLatch(1);
+        AtomicBoolean appStopReturned = new AtomicBoolean();
+        Mockito.doAnswer(invocation -> {
+            appStopReturned.set(dbStopped.await(10, TimeUnit.SECONDS));
+            return null;
+        }).when(docker).stopContainer("app-container-id", 0);
+        Mockito.doAnswer(invocation -> {
+            dbStopped.countDown();
+            return null;
+        }).when(docker).stopContainer("db-container-id", 0);
+
+        runService.stopStartedContainersInParallel(false, false, false, testLabel, 200);
+
+        Assertions.assertTrue(appStopReturned.get());
+        Mockito.verify(docker).removeContainer("db-container-id", false);
+        Mockito.verify(docker).removeContainer("app-container-id", false);
+        // No shutdown grace period is waited for after the timeout
+        Mockito.verify(log, Mockito.never()).debug(Mockito.eq("Shutdown: Wait %d ms before removing container"), Mockito.any());
+    }
+
+    @Test
+    void parallelStopCollectsExceptions() throws DockerAccessException {
+        GavLabel testLabel = new GavLabel("Im:A:Test");
+        registerContainer("first-container", "first", 0, testLabel);
+        registerContainer("second-container", "second", 0, testLabel);
+
+        Mockito.doThrow(new DockerAccessException("TEST one")).when(docker).stopContainer("first-container", 0);
+
+        Exception thrownException = Assertions.assertThrows(DockerAccessException.class,
+            () -> runService.stopStartedContainersInParallel(false, false, false, testLabel, 0));
+        Assertions.assertEquals("(TEST one)", thrownException.getLocalizedMessage());
+        Mockito.verify(docker).removeContainer("second-container", false);
+        Mockito.verify(docker, Mockito.never()).removeContainer("first-container", false);
+    }
+
+    private void registerContainer(String containerId, String alias, int shutdownWait, GavLabel gavLabel, String... dependsOn) {
+        ImageConfiguration imageConfig = new ImageConfiguration.Builder()
+            .name(alias + ":latest")
+            .alias(alias)
+            .runConfig(new RunImageConfiguration.Builder()
+                .dependsOn(Arrays.asList(dependsOn))
+                .wait(new WaitConfiguration.Builder()
+                    .shutdown(shutdownWait)
+                    .build())
+                .build())
+            .build();
+        tracker.registerContainer(containerId, imageConfig, gavLabel);
+    }
+
     @Test
     void testVolumesDuringStart() throws DockerAccessException {
         ServiceHub hub = new ServiceHubFactory().createServiceHub(project, session, docker, log, new LogOutputSpecFactory(true, true, null));
@@ -274,7 +394,7 @@ class RunServiceTest {
 
     @Test
     void retryIfInsufficientPortBindingInformation(
-        @Mock Container container,
+        @Mock ContainerDetails container,
         @Mock ImageConfiguration imageConfiguration,
         @Mock PortMapping portMapping
     ) throws DockerAccessException {
@@ -283,7 +403,7 @@ class RunServiceTest {
             .when(docker).createContainer(Mockito.any(ContainerCreateConfig.class), Mockito.anyString());
 
         Mockito.doReturn(true).when(portMapping).needsPropertiesUpdate();
-        Mockito.doReturn(container).when(queryService).getMandatoryContainer("containerId");
+        Mockito.doReturn(container).when(docker).getContainer("containerId");
         Mockito.doReturn(true).when(container).isRunning();
         Mockito.doReturn(new RunImageConfiguration()).when(imageConfiguration).getRunConfiguration();
 
@@ -291,13 +411,16 @@ class RunServiceTest {
             .doReturn(ImmutableMap.of("5432/tcp", new Container.PortBinding(56741, "0.0.0.0")))
             .when(container).getPortBindings();
 
-        String containerId = runService.createAndStartContainer(imageConfiguration, portMapping, new GavLabel("Im:A:Test"), properties, getBaseDirectory(), "blah", new Date());
-        Assertions.assertEquals("containerId", containerId);
+        ContainerSnapshot snapshot = runService.createAndStart(imageConfiguration, portMapping, new GavLabel("Im:A:Test"), properties, getBaseDirectory(), "blah", new Date());
+        Assertions.assertEquals("containerId", snapshot.getContainerId());
+        // Inspected again after the failed attempt only
+        Mockito.verify(docker, Mockito.times(2)).getContainer("containerId");
+        Assertions.assertEquals(2, snapshot.getInspects());
     }
 
     @Test
     void failAfterRetryingIfInsufficientPortBindingInformation(
-        @Mock Container container,
+        @Mock ContainerDetails container,
         @Mock ImageConfiguration imageConfiguration,
         @Mock PortMapping portMapping
     ) throws DockerAccessException {
@@ -306,7 +429,7 @@ class RunServiceTest {
             .when(docker).createContainer(Mockito.any(ContainerCreateConfig.class), Mockito.anyString());
 
         Mockito.doReturn(true).when(portMapping).needsPropertiesUpdate();
-        Mockito.doReturn(container).when(queryService).getMandatoryContainer("containerId");
+        Mockito.doReturn(container).when(docker).getContainer("containerId");
         Mockito.doReturn(true).when(container).isRunning();
         Mockito.doReturn(new RunImageConfiguration()).when(imageConfiguration).getRunConfiguration();
         Mockito.doThrow(new PortBindingException("5432/tcp", new Gson().fromJson("{\"5432/tcp\": []}", JsonObject.class)))
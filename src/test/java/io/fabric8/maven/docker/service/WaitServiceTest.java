@@ -0,0 +1,70 @@
+package io.fabric8.maven.docker.service;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import io.fabric8.maven.docker.access.DockerAccess;
+import io.fabric8.maven.docker.access.events.EventCallback;
+import io.fabric8.maven.docker.access.events.EventGetHandle;
+import io.fabric8.maven.docker.config.ImageConfiguration;
+import io.fabric8.maven.docker.config.RunImageConfiguration;
+import io.fabric8.maven.docker.config.WaitConfiguration;
+import io.fabric8.maven.docker.model.ContainerDetails;
+import io.fabric8.maven.docker.util.Logger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class WaitServiceTest {
+
+    private static final String CONTAINER_ID = "1234";
+
+    @Mock
+    private DockerAccess docker;
+
+    @Mock
+    private Logger log;
+
+    @Test
+    void pauseOnlyWithoutCheckers() throws IOException {
+        wait(new WaitConfiguration.Builder().time(1).build());
+
+        Mockito.verifyNoInteractions(docker);
+    }
+
+    @Test
+    void eventsFollowedForExitCode(@Mock ContainerDetails container) throws IOException {
+        Mockito.doReturn(container).when(docker).getContainer(CONTAINER_ID);
+        Mockito.doReturn(0).when(container).getExitCode();
+
+        wait(new WaitConfiguration.Builder().exit(0).build());
+
+        Mockito.verify(docker).getContainerEventsAsync(Mockito.eq(CONTAINER_ID), Mockito.any(EventCallback.class), Mockito.any());
+    }
+
+    @Test
+    void runningPreconditionUsesEventsForUrlWait(@Mock ContainerDetails container, @Mock EventGetHandle handle) throws IOException {
+        Mockito.doReturn(handle).when(docker)
+            .getContainerEventsAsync(Mockito.eq(CONTAINER_ID), Mockito.any(EventCallback.class), Mockito.any());
+        Mockito.doReturn(container).when(docker).getContainer(CONTAINER_ID);
+
+        WaitConfiguration waitConfig = new WaitConfiguration.Builder().url("http://127.0.0.1:1/").time(300).interval(20).build();
+        Assertions.assertThrows(IOException.class, () -> wait(waitConfig));
+
+        // Only the inspect of the watcher when it starts, the state while waiting is taken from the events
+        Mockito.verify(docker).getContainer(CONTAINER_ID);
+        Mockito.verify(handle).finish();
+    }
+
+    private void wait(WaitConfiguration waitConfig) throws IOException {
+        ImageConfiguration imageConfig = new ImageConfiguration.Builder()
+            .name("test")
+            .runConfig(new RunImageConfiguration.Builder().wait(waitConfig).build())
+            .build();
+        new WaitService(docker, log).wait(imageConfig, new Properties(), CONTAINER_ID);
+    }
+}
@@ -9,6 +9,7 @@ import io.fabric8.maven.docker.config.LogConfiguration;
 import io.fabric8.maven.docker.config.RunImageConfiguration;
 import io.fabric8.maven.docker.log.LogOutputSpecFactory;
 import io.fabric8.maven.docker.model.ContainerDetails;
+import io.fabric8.maven.docker.service.ContainerSnapshot;
 import io.fabric8.maven.docker.service.ContainerTracker;
 import io.fabric8.maven.docker.service.QueryService;
 import io.fabric8.maven.docker.service.RunService;
@@ -260,7 +261,6 @@ class StartContainerExecutorTest {
         QueryService queryService = new QueryService(dockerAccess);
         RunService runService = new RunService(dockerAccess, queryService, containerTracker, new LogOutputSpecFactory(true, true, null), log);
 
-        Mockito.doReturn(queryService).when(hub).getQueryService();
         Mockito.doReturn(runService).when(hub).getRunService();
 
         Properties projectProps = new Properties();
@@ -273,6 +273,7 @@ class StartContainerExecutorTest {
             .containerNamePattern("test-")
             .buildTimestamp(new Date())
             .exposeContainerProps("docker.container")
+            .log(log)
             .imageConfig(new ImageConfiguration.Builder()
                 .name("name")
                 .alias("alias")
@@ -287,5 +288,8 @@ class StartContainerExecutorTest {
         Assertions.assertEquals("container-name", containerId);
         Assertions.assertEquals("container-name", projectProps.getProperty("docker.container.alias.id"));
         Assertions.assertEquals("192.168.1.2", projectProps.getProperty("docker.container.alias.ip"));
+        Mockito.verify(waitService).wait(Mockito.any(ImageConfiguration.class), Mockito.eq(projectProps), Mockito.any(ContainerSnapshot.class));
+        // All steps share one inspect of the started container
+        Mockito.verify(dockerAccess).getContainer("container-name");
     }
 }
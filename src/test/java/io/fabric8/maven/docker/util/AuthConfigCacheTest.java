@@ -0,0 +1,202 @@
+package io.fabric8.maven.docker.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.fabric8.maven.docker.access.AuthConfig;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AuthConfigCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1000);
+    private final AtomicInteger lookups = new AtomicInteger();
+    private AuthConfigCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AuthConfigCache(new ConcurrentHashMap<>(), 5000, now::get);
+    }
+
+    @Test
+    void cachedWithinTtl() throws MojoExecutionException {
+        AuthConfig first = get(true, "user", "registry.example.com");
+        now.addAndGet(4999);
+        Assertions.assertSame(first, get(true, "user", "registry.example.com"));
+        Assertions.assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void expiredAfterTtl() throws MojoExecutionException {
+        AuthConfig first = get(true, "user", "registry.example.com");
+        now.addAndGet(5000);
+        Assertions.assertNotSame(first, get(true, "user", "registry.example.com"));
+        Assertions.assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void keyedByDirectionUserAndRegistry() throws MojoExecutionException {
+        get(true, "user", "registry.example.com");
+        get(false, "user", "registry.example.com");
+        get(true, null, "registry.example.com");
+        get(true, "user", "other.example.com");
+        get(true, "user", null);
+        Assertions.assertEquals(5, lookups.get());
+        Assertions.assertEquals(5, cache.size());
+    }
+
+    @Test
+    void keyedByAuthConfiguration() throws MojoExecutionException {
+        cache.get(true, false, Collections.singletonMap("username", "a"), null, null, this::lookup);
+        cache.get(true, false, Collections.singletonMap("username", "a"), null, null, this::lookup);
+        cache.get(true, false, Collections.singletonMap("username", "b"), null, null, this::lookup);
+        cache.get(true, true, Collections.singletonMap("username", "b"), null, null, this::lookup);
+        Assertions.assertEquals(3, lookups.get());
+    }
+
+    @Test
+    void missingCredentialsAreCached() throws MojoExecutionException {
+        Assertions.assertNull(cache.get(false, false, null, null, "registry.example.com", () -> {
+            lookups.incrementAndGet();
+            return null;
+        }));
+        Assertions.assertNull(get(false, null, "registry.example.com"));
+        Assertions.assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void invalidateRegistry() throws MojoExecutionException {
+        get(true, "user", "registry.example.com");
+        get(false, null, "registry.example.com");
+        get(true, "user", "other.example.com");
+        get(true, "user", null);
+
+        cache.invalidate("registry.example.com");
+        Assertions.assertEquals(2, cache.size());
+        cache.invalidate(null);
+        Assertions.assertEquals(1, cache.size());
+
+        get(true, "user", "registry.example.com");
+        Assertions.assertEquals(5, lookups.get());
+    }
+
+    @Test
+    void sharedEntriesWithOwnTtl() throws MojoExecutionException {
+        ConcurrentHashMap<AuthConfigCache.Key, AuthConfigCache.Entry> entries = new ConcurrentHashMap<>();
+        AuthConfigCache longLived = new AuthConfigCache(entries, 10000, now::get);
+        AuthConfigCache shortLived = new AuthConfigCache(entries, 1000, now::get);
+
+        AuthConfig first = longLived.get(true, false, null, null, null, this::lookup);
+        now.addAndGet(2000);
+        Assertions.assertSame(first, longLived.get(true, false, null, null, null, this::lookup));
+        Assertions.assertNotSame(first, shortLived.get(true, false, null, null, null, this::lookup));
+        Assertions.assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void concurrentCallersShareOneLookup() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AuthConfigCache.Lookup slowLookup = () -> {
+            await(entered, release);
+            return lookup();
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<AuthConfig>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get(true, false, null, "user", "registry.example.com", slowLookup)));
+            Assertions.assertTrue(entered.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> cache.get(true, false, null, "user", "registry.example.com", slowLookup)));
+            }
+            // Give the other callers time to find the lookup in progress
+            Thread.sleep(100);
+            release.countDown();
+
+            AuthConfig first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<AuthConfig> result : results) {
+                Assertions.assertSame(first, result.get(10, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(1, lookups.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedLookupIsNotCached() throws MojoExecutionException {
+        MojoExecutionException thrown = Assertions.assertThrows(MojoExecutionException.class, () ->
+            cache.get(true, false, null, "user", "registry.example.com", () -> {
+                throw new MojoExecutionException("Credential helper failed");
+            }));
+        Assertions.assertEquals("Credential helper failed", thrown.getMessage());
+        Assertions.assertEquals(0, cache.size());
+
+        get(true, "user", "registry.example.com");
+        Assertions.assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void waitingCallerGetsOwnException() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MojoExecutionException failure = new MojoExecutionException("Credential helper failed");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<AuthConfig> looking = executor.submit(() -> cache.get(true, false, null, "user", "registry.example.com", () -> {
+                await(entered, release);
+                throw failure;
+            }));
+            Assertions.assertTrue(entered.await(10, TimeUnit.SECONDS));
+            AtomicReference<Thread> waitingThread = new AtomicReference<>();
+            Future<AuthConfig> waiting = executor.submit(() -> {
+                waitingThread.set(Thread.currentThread());
+                return get(true, "user", "registry.example.com");
+            });
+            // Release the lookup only when the second caller waits for it
+            while (waitingThread.get() == null || waitingThread.get().getState() != Thread.State.WAITING) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            ExecutionException lookingFailure = Assertions.assertThrows(ExecutionException.class, () -> looking.get(10, TimeUnit.SECONDS));
+            Assertions.assertSame(failure, lookingFailure.getCause());
+            ExecutionException waitingFailure = Assertions.assertThrows(ExecutionException.class, () -> waiting.get(10, TimeUnit.SECONDS));
+            Assertions.assertNotSame(failure, waitingFailure.getCause());
+            Assertions.assertSame(failure, waitingFailure.getCause().getCause());
+            Assertions.assertEquals(0, lookups.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch entered, CountDownLatch release) throws MojoExecutionException {
+        entered.countDown();
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new MojoExecutionException("Interrupted", e);
+        }
+    }
+
+    private AuthConfig get(boolean isPush, String user, String registry) throws MojoExecutionException {
+        return cache.get(isPush, false, null, user, registry, this::lookup);
+    }
+
+    private AuthConfig lookup() {
+        return new AuthConfig("user" + lookups.incrementAndGet(), "secret", null, null);
+    }
+}
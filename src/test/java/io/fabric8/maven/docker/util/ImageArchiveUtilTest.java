@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.UUID;
@@ -213,6 +214,125 @@ class ImageArchiveUtilTest {
         Assertions.assertEquals(Collections.singletonList("layer-id-sha256/layer.tar"), entry.getLayers());
     }
 
+    @Test
+    void readManifestStopsWhenManifestAndConfigsAreFound() throws IOException {
+        byte[] archiveBytes;
+
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            TarArchiveOutputStream tarOutput = new TarArchiveOutputStream(baos)) {
+            addEntry(tarOutput, "layer-id-sha256/layer.tar", new byte[8192]);
+            addEntry(tarOutput, "image-id-sha256.json", "{\"os\":\"linux\"}".getBytes(StandardCharsets.UTF_8));
+            addEntry(tarOutput, ImageArchiveUtil.MANIFEST_JSON, new Gson().toJson(createBasicManifestJson()).getBytes(StandardCharsets.UTF_8));
+            addEntry(tarOutput, "repositories", new byte[8192]);
+            tarOutput.finish();
+            archiveBytes = baos.toByteArray();
+        }
+
+        // Cut off the archive within the entry following the manifest, which must not be read anymore
+        int repositories = new String(archiveBytes, StandardCharsets.ISO_8859_1).indexOf("repositories");
+        byte[] truncated = Arrays.copyOf(archiveBytes, repositories + 1024);
+        ImageArchiveManifest manifest = ImageArchiveUtil.readManifest(new ByteArrayInputStream(truncated));
+
+        Assertions.assertNotNull(manifest);
+        ImageArchiveManifestEntry entry = manifest.getEntries().get(0);
+        Assertions.assertEquals(Collections.singletonList("test/image:latest"), entry.getRepoTags());
+        Assertions.assertEquals("linux", manifest.getConfig(entry.getConfig()).get("os").getAsString());
+    }
+
+    @Test
+    void readValidArchiveFromFile(@TempDir Path temporaryFolder) throws IOException {
+        File temporaryTar = temporaryFolder.resolve("image.tar").toFile();
+
+        try (FileOutputStream fileOutput = new FileOutputStream(temporaryTar);
+            TarArchiveOutputStream tarOutput = new TarArchiveOutputStream(fileOutput)) {
+            addEntry(tarOutput, "./layer-id-sha256/layer.tar", new byte[8192]);
+            addEntry(tarOutput, "./image-id-sha256.json", "{\"os\":\"linux\"}".getBytes(StandardCharsets.UTF_8));
+            addEntry(tarOutput, "./" + ImageArchiveUtil.MANIFEST_JSON, new Gson().toJson(createBasicManifestJson()).getBytes(StandardCharsets.UTF_8));
+            tarOutput.finish();
+        }
+
+        ImageArchiveManifest manifest = ImageArchiveUtil.readManifest(temporaryTar);
+
+        Assertions.assertNotNull(manifest);
+        ImageArchiveManifestEntry entry = manifest.getEntries().get(0);
+        Assertions.assertEquals(Collections.singletonList("test/image:latest"), entry.getRepoTags());
+        Assertions.assertEquals(Collections.singletonList("layer-id-sha256/layer.tar"), entry.getLayers());
+        Assertions.assertEquals("linux", manifest.getConfig(entry.getConfig()).get("os").getAsString());
+    }
+
+    @Test
+    void readOciLayout(@TempDir Path temporaryFolder) throws IOException {
+        byte[] archiveBytes;
+
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            TarArchiveOutputStream tarOutput = new TarArchiveOutputStream(baos)) {
+            addEntry(tarOutput, "blobs/sha256/layer", new byte[8192]);
+            addEntry(tarOutput, "blobs/sha256/config", "{\"os\":\"linux\"}".getBytes(StandardCharsets.UTF_8));
+            addEntry(tarOutput, "blobs/sha256/manifest",
+                ("{\"config\":{\"digest\":\"sha256:config\"},\"layers\":[{\"digest\":\"sha256:layer\"}]}").getBytes(StandardCharsets.UTF_8));
+            addEntry(tarOutput, ImageArchiveUtil.INDEX_JSON,
+                ("{\"manifests\":[{\"digest\":\"sha256:manifest\",\"annotations\":" +
+                 "{\"io.containerd.image.name\":\"docker.io/test/image:latest\",\"org.opencontainers.image.ref.name\":\"latest\"}}]}")
+                    .getBytes(StandardCharsets.UTF_8));
+            addEntry(tarOutput, "oci-layout", "{\"imageLayoutVersion\":\"1.0.0\"}".getBytes(StandardCharsets.UTF_8));
+            tarOutput.finish();
+            archiveBytes = baos.toByteArray();
+        }
+
+        File temporaryTar = temporaryFolder.resolve("oci.tar").toFile();
+        try (FileOutputStream fileOutput = new FileOutputStream(temporaryTar)) {
+            fileOutput.write(archiveBytes);
+        }
+
+        for (ImageArchiveManifest manifest : new ImageArchiveManifest[] {
+            ImageArchiveUtil.readManifest(new ByteArrayInputStream(archiveBytes)),
+            ImageArchiveUtil.readManifest(temporaryTar)
+        }) {
+            Assertions.assertNotNull(manifest);
+            Assertions.assertEquals(1, manifest.getEntries().size());
+            ImageArchiveManifestEntry entry = manifest.getEntries().get(0);
+            Assertions.assertEquals(Collections.singletonList("docker.io/test/image:latest"), entry.getRepoTags());
+            Assertions.assertEquals("blobs/sha256/config", entry.getConfig());
+            Assertions.assertEquals(Collections.singletonList("blobs/sha256/layer"), entry.getLayers());
+            Assertions.assertEquals("linux", manifest.getConfig(entry.getConfig()).get("os").getAsString());
+        }
+    }
+
+    @Test
+    void readStreamWithBlobsBeforeManifest() throws IOException {
+        byte[] archiveBytes;
+
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            TarArchiveOutputStream tarOutput = new TarArchiveOutputStream(baos)) {
+            addEntry(tarOutput, "blobs/sha256/layer", new byte[8192]);
+            addEntry(tarOutput, "blobs/sha256/config", "{\"os\":\"linux\"}".getBytes(StandardCharsets.UTF_8));
+            addEntry(tarOutput, ImageArchiveUtil.MANIFEST_JSON,
+                "[{\"Config\":\"blobs/sha256/config\",\"RepoTags\":[\"test/image:latest\"],\"Layers\":[\"blobs/sha256/layer\"]}]"
+                    .getBytes(StandardCharsets.UTF_8));
+            tarOutput.finish();
+            archiveBytes = baos.toByteArray();
+        }
+
+        ImageArchiveManifest manifest = ImageArchiveUtil.readManifest(new ByteArrayInputStream(archiveBytes));
+
+        Assertions.assertNotNull(manifest);
+        ImageArchiveManifestEntry entry = manifest.getEntries().get(0);
+        Assertions.assertEquals(Collections.singletonList("test/image:latest"), entry.getRepoTags());
+        Assertions.assertEquals("linux", manifest.getConfig(entry.getConfig()).get("os").getAsString());
+        // Blobs read before the manifest are kept in temporary files which are removed afterwards
+        File[] spilled = new File(System.getProperty("java.io.tmpdir"))
+            .listFiles((dir, name) -> name.startsWith(ImageArchiveUtil.SPILL_DIRECTORY_PREFIX));
+        Assertions.assertEquals(0, spilled != null ? spilled.length : 0);
+    }
+
+    private static void addEntry(TarArchiveOutputStream tarOutput, String name, byte[] data) throws IOException {
+        TarArchiveEntry tarEntry = new TarArchiveEntry(name);
+        tarEntry.setSize(data.length);
+        tarOutput.putArchiveEntry(tarEntry);
+        tarOutput.write(data);
+        tarOutput.closeArchiveEntry();
+    }
+
     @Test
     void findByRepoTagEmptyManifest() {
         ImageArchiveManifest empty = new ImageArchiveManifestAdapter(new JsonArray());
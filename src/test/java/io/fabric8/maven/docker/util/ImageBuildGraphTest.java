@@ -0,0 +1,118 @@
+package io.fabric8.maven.docker.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import io.fabric8.maven.docker.config.BuildImageConfiguration;
+import io.fabric8.maven.docker.config.ImageConfiguration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ImageBuildGraphTest {
+
+    private final Map<String, List<String>> baseImages = new HashMap<>();
+
+    @Test
+    void independentImagesKeepConfiguredOrder() {
+        ImageConfiguration first = image("first", "alpine:3");
+        ImageConfiguration second = image("second", "busybox");
+
+        ImageBuildGraph graph = create(first, second);
+
+        Assertions.assertEquals(Arrays.asList(first, second), graph.getImages());
+        Assertions.assertTrue(graph.getDependencies(first).isEmpty());
+        Assertions.assertTrue(graph.getDependencies(second).isEmpty());
+    }
+
+    @Test
+    void imagesAreSortedAfterTheirBaseImage() {
+        ImageConfiguration app = image("acme/app:1.0", "acme/base:1.0");
+        ImageConfiguration base = image("acme/base:1.0", "alpine:3");
+        ImageConfiguration other = image("acme/other", "alpine:3");
+
+        ImageBuildGraph graph = create(app, base, other);
+
+        Assertions.assertEquals(Arrays.asList(base, app, other), graph.getImages());
+        Assertions.assertEquals(Collections.singletonList(base), graph.getDependencies(app));
+        Assertions.assertTrue(graph.getDependencies(other).isEmpty());
+    }
+
+    @Test
+    void baseImageMatchesWithDefaultTagAndAdditionalTags() {
+        ImageConfiguration base = image("acme/base", Collections.singletonList("stable"), "alpine:3");
+        ImageConfiguration latest = image("acme/latest", "acme/base:latest");
+        ImageConfiguration stable = image("acme/stable", "acme/base:stable");
+        ImageConfiguration external = image("acme/external", "acme/base:1.0");
+
+        ImageBuildGraph graph = create(base, latest, stable, external);
+
+        Assertions.assertEquals(Collections.singletonList(base), graph.getDependencies(latest));
+        Assertions.assertEquals(Collections.singletonList(base), graph.getDependencies(stable));
+        Assertions.assertTrue(graph.getDependencies(external).isEmpty());
+    }
+
+    @Test
+    void invalidBaseImageIsIgnored() {
+        ImageConfiguration app = image("acme/app", "${base.image}", "scratch");
+
+        ImageBuildGraph graph = create(app);
+
+        Assertions.assertTrue(graph.getDependencies(app).isEmpty());
+    }
+
+    @Test
+    void cycleIsDetected() {
+        ImageConfiguration first = image("acme/first", "acme/second");
+        ImageConfiguration second = image("acme/second", "acme/first");
+
+        IllegalStateException exp = Assertions.assertThrows(IllegalStateException.class, () -> create(first, second));
+        Assertions.assertTrue(exp.getMessage().contains("acme/first -> acme/second -> acme/first"));
+    }
+
+    @Test
+    void criticalPathFollowsLongestChain() {
+        ImageConfiguration base = image("acme/base", "alpine:3");
+        ImageConfiguration fast = image("acme/fast", "acme/base");
+        ImageConfiguration slow = image("acme/slow", "acme/base");
+        ImageConfiguration app = image("acme/app", "acme/fast");
+        ImageConfiguration standalone = image("acme/standalone", "alpine:3");
+
+        ImageBuildGraph graph = create(base, fast, slow, app, standalone);
+
+        Map<String, Long> durations = new HashMap<>();
+        durations.put("acme/base", 10L);
+        durations.put("acme/fast", 5L);
+        durations.put("acme/slow", 30L);
+        durations.put("acme/app", 20L);
+        durations.put("acme/standalone", 35L);
+
+        Assertions.assertEquals(Arrays.asList("acme/base", "acme/slow"), names(graph.getCriticalPath(durations)));
+
+        durations.put("acme/standalone", 50L);
+        Assertions.assertEquals(Collections.singletonList("acme/standalone"), names(graph.getCriticalPath(durations)));
+    }
+
+    private ImageBuildGraph create(ImageConfiguration... images) {
+        return ImageBuildGraph.create(Arrays.asList(images), image -> baseImages.get(image.getName()));
+    }
+
+    private ImageConfiguration image(String name, String... from) {
+        return image(name, null, from);
+    }
+
+    private ImageConfiguration image(String name, List<String> tags, String... from) {
+        baseImages.put(name, Arrays.asList(from));
+        return new ImageConfiguration.Builder()
+            .name(name)
+            .buildConfig(new BuildImageConfiguration.Builder().from(from[0]).tags(tags).build())
+            .build();
+    }
+
+    private static List<String> names(List<ImageConfiguration> images) {
+        return images.stream().map(ImageConfiguration::getName).collect(Collectors.toList());
+    }
+}
@@ -110,6 +110,28 @@ class JibServiceUtilTest {
         Assertions.assertArrayEquals(new String[]{"0.0.1-SNAPSHOT", "0.0.1", "latest"}, result.toArray());
     }
 
+    @Test
+    void testGetPushTagsStartsWithTagOfImageName() {
+        // Given
+        ImageConfiguration imageConfiguration = new ImageConfiguration.Builder()
+                .name("test/test-project:1.0")
+                .buildConfig(new BuildImageConfiguration.Builder()
+                        .tags(Arrays.asList("latest", "1.0", "0.9", null))
+                        .build())
+                .build();
+
+        // When
+        List<String> result = JibServiceUtil.getPushTags(imageConfiguration);
+
+        // Then
+        Assertions.assertEquals(Arrays.asList("1.0", "0.9", "latest"), result);
+    }
+
+    @Test
+    void testGetPushTagsWithoutAdditionalTags() {
+        Assertions.assertEquals(Collections.singletonList("latest"), JibServiceUtil.getPushTags(getSampleImageConfiguration()));
+    }
+
     @Test
     void testGetFullImageNameWithDefaultTag() {
         Assertions.assertEquals("test/test-project:latest", JibServiceUtil.getFullImageName(getSampleImageConfiguration(), null));
@@ -15,6 +15,7 @@ package io.fabric8.maven.docker.util;/*
  * limitations under the License.
  */
 
+import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.HashSet;
@@ -104,4 +105,50 @@ class TimestampFactoryTest {
     void testInvalidNanos() {
         Assertions.assertThrows(DateTimeParseException.class, () -> TimestampFactory.createTimestamp("2014-11-24T12:00:00.abzeZ"));
     }
+
+    @Test
+    void testParseTimestampFromBytes() {
+        String[] specs = {
+            "2014-11-24T22:34:00.761764812Z",
+            "2014-11-24T12:00:00Z",
+            "2016-03-16T17:06:30.714387000+05:30",
+            "2016-03-16T17:06:30.7-04:00",
+            "2024-02-29T23:59:59.999999999Z"
+        };
+        for (String spec : specs) {
+            Assertions.assertEquals(TimestampFactory.createTimestamp(spec), parse(spec), spec);
+        }
+        Assertions.assertEquals(ref, parse("2014-11-24t22:34:00.761764812z"));
+    }
+
+    @Test
+    void testParseTimestampWithinBuffer() {
+        byte[] line = "[2014-11-24T22:34:00.761764812Z] hello".getBytes(StandardCharsets.US_ASCII);
+        Assertions.assertEquals(ref, TimestampFactory.parseTimestamp(line, 1, 30));
+    }
+
+    @Test
+    void testParseInvalidTimestamp() {
+        String[] specs = {
+            "",
+            "hello world",
+            "2014-11-24T12:00:00",
+            "2014-11-24T12:00:00.abzeZ",
+            "2014-11-24T12:00:00.Z",
+            "2014-13-24T12:00:00Z",
+            "2014-02-30T12:00:00Z",
+            "2014-11-24 12:00:00Z",
+            "2014-11-24T12:00:00+0100",
+            "2014-11-24T12:00:00+25:00",
+            "2014-11-24T12:00:00ZZ"
+        };
+        for (String spec : specs) {
+            Assertions.assertNull(parse(spec), spec);
+        }
+    }
+
+    private static ZonedDateTime parse(String spec) {
+        byte[] data = spec.getBytes(StandardCharsets.US_ASCII);
+        return TimestampFactory.parseTimestamp(data, 0, data.length);
+    }
 }
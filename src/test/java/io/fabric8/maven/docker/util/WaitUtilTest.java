@@ -123,6 +123,25 @@ class WaitUtilTest {
         }
     }
 
+    @Test
+    void eventDrivenWaitEndsOnChange() throws Exception {
+        TestChangeNotifier notifier = new TestChangeNotifier();
+        StubWaitChecker checker = new StubWaitChecker(false) {
+            @Override
+            public boolean check() {
+                return notifier.changes > 0;
+            }
+
+            @Override
+            public boolean isEventDriven() {
+                return true;
+            }
+        };
+        long waited = WaitUtil.wait(new TestWaitPrecondition(-1), 5000, Collections.singletonList(checker), notifier);
+        Assertions.assertTrue(waited < 1000, "Waited less than 1000ms: " + waited);
+        Assertions.assertEquals(1, notifier.changes);
+    }
+
     @Test
     void waitOnCallable() throws Exception {
         long waited = waitOnCallable(500);
@@ -227,6 +246,27 @@ class WaitUtilTest {
         return false;
     }
 
+    // Reports a change after a delay for every wait
+    private static class TestChangeNotifier implements WaitUtil.ChangeNotifier {
+        private long delay = 100;
+        private int changes;
+
+        @Override
+        public boolean isActive() {
+            return true;
+        }
+
+        @Override
+        public void awaitChange(long millis) {
+            if (delay <= millis) {
+                WaitUtil.sleep(delay);
+                changes++;
+            } else {
+                WaitUtil.sleep(millis);
+            }
+        }
+    }
+
     private static class TestWaitPrecondition implements WaitUtil.Precondition {
         private int nrFailAfter;
 
@@ -0,0 +1,166 @@
+package io.fabric8.maven.docker.wait;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonObject;
+import io.fabric8.maven.docker.access.DockerAccess;
+import io.fabric8.maven.docker.access.DockerAccessException;
+import io.fabric8.maven.docker.access.events.EventCallback;
+import io.fabric8.maven.docker.access.events.EventGetHandle;
+import io.fabric8.maven.docker.model.ContainerDetails;
+import io.fabric8.maven.docker.model.ContainerEvent;
+import io.fabric8.maven.docker.util.JsonFactory;
+import io.fabric8.maven.docker.util.Logger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ContainerEventWatcherTest {
+
+    private static final String CONTAINER_ID = "1234";
+
+    @Mock
+    private DockerAccess docker;
+
+    @Mock
+    private EventGetHandle handle;
+
+    @Mock
+    private Logger log;
+
+    private final ArgumentCaptor<EventCallback> callback = ArgumentCaptor.forClass(EventCallback.class);
+
+    @BeforeEach
+    void setUp() throws DockerAccessException {
+        Mockito.lenient().doReturn(handle).when(docker)
+            .getContainerEventsAsync(ArgumentMatchers.eq(CONTAINER_ID), callback.capture(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void stateIsTakenFromInitialInspection() throws DockerAccessException {
+        givenContainer(true, "starting");
+
+        ContainerEventWatcher watcher = ContainerEventWatcher.start(docker, CONTAINER_ID, log);
+
+        Assertions.assertTrue(watcher.isActive());
+        Assertions.assertFalse(watcher.isDead());
+        Assertions.assertFalse(watcher.isHealthy());
+        Mockito.verify(docker, Mockito.times(1)).getContainer(CONTAINER_ID);
+    }
+
+    @Test
+    void healthStatusEventMarksContainerHealthy() throws DockerAccessException {
+        givenContainer(true, "starting");
+        ContainerEventWatcher watcher = ContainerEventWatcher.start(docker, CONTAINER_ID, log);
+
+        callback.getValue().event(event("{\"Type\":\"container\",\"Action\":\"health_status: healthy\",\"Actor\":{\"ID\":\"1234\"}}"));
+
+        Assertions.assertTrue(watcher.isHealthy());
+    }
+
+    @Test
+    void dieEventProvidesExitCode() throws DockerAccessException {
+        givenContainer(true, null);
+        ContainerEventWatcher watcher = ContainerEventWatcher.start(docker, CONTAINER_ID, log);
+
+        callback.getValue().event(event("{\"Type\":\"container\",\"Action\":\"die\",\"Actor\":{\"ID\":\"1234\",\"Attributes\":{\"exitCode\":\"3\"}}}"));
+
+        Assertions.assertTrue(watcher.isDead());
+        Assertions.assertEquals(Integer.valueOf(3), watcher.getExitCode());
+    }
+
+    @Test
+    void awaitChangeReturnsWhenEventArrives() throws DockerAccessException {
+        givenContainer(true, "starting");
+        ContainerEventWatcher watcher = ContainerEventWatcher.start(docker, CONTAINER_ID, log);
+
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            executor.schedule(() -> callback.getValue().event(event("{\"status\":\"health_status: healthy\",\"id\":\"1234\"}")),
+                              100, TimeUnit.MILLISECONDS);
+            long start = System.currentTimeMillis();
+            watcher.awaitChange(10000);
+            Assertions.assertTrue(System.currentTimeMillis() - start < 5000);
+            Assertions.assertTrue(watcher.isHealthy());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void inactiveWhenEventsAreNotSupported() throws DockerAccessException {
+        Mockito.doThrow(new DockerAccessException("Unable to request events (404 Not Found)"))
+            .when(docker).getContainerEventsAsync(ArgumentMatchers.eq(CONTAINER_ID), ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        ContainerEventWatcher watcher = ContainerEventWatcher.start(docker, CONTAINER_ID, log);
+
+        Assertions.assertFalse(watcher.isActive());
+        Mockito.verify(docker, Mockito.never()).getContainer(CONTAINER_ID);
+    }
+
+    @Test
+    void inactiveAfterStreamError() throws DockerAccessException {
+        givenContainer(true, "starting");
+        ContainerEventWatcher watcher = ContainerEventWatcher.start(docker, CONTAINER_ID, log);
+
+        callback.getValue().error("Event stream closed by Docker daemon");
+
+        Assertions.assertFalse(watcher.isActive());
+    }
+
+    @Test
+    void stopFinishesSubscription() throws DockerAccessException {
+        givenContainer(true, null);
+        ContainerEventWatcher watcher = ContainerEventWatcher.start(docker, CONTAINER_ID, log);
+
+        watcher.stop();
+
+        Assertions.assertFalse(watcher.isActive());
+        Mockito.verify(handle).finish();
+    }
+
+    @Test
+    void eventDrivenHealthCheck() throws DockerAccessException {
+        givenContainer(true, "starting");
+        ContainerEventWatcher watcher = ContainerEventWatcher.start(docker, CONTAINER_ID, log);
+        HealthCheckChecker checker = new HealthCheckChecker(docker, CONTAINER_ID, "test", log, watcher);
+
+        Assertions.assertTrue(checker.isEventDriven());
+        Assertions.assertFalse(checker.check());
+        Assertions.assertFalse(checker.check());
+        callback.getValue().event(event("{\"Action\":\"health_status: healthy\",\"Actor\":{\"ID\":\"1234\"}}"));
+        Assertions.assertTrue(checker.check());
+
+        // Only the initial inspection of the watcher
+        Mockito.verify(docker, Mockito.times(1)).getContainer(CONTAINER_ID);
+    }
+
+    private void givenContainer(boolean running, String healthStatus) throws DockerAccessException {
+        JsonObject state = new JsonObject();
+        state.addProperty("Running", running);
+        state.addProperty("ExitCode", 0);
+        if (healthStatus != null) {
+            JsonObject health = new JsonObject();
+            health.addProperty("Status", healthStatus);
+            state.add("Health", health);
+        }
+        JsonObject config = JsonFactory.newJsonObject("{\"Healthcheck\":{\"Test\":[\"CMD\",\"true\"]}}");
+        JsonObject json = new JsonObject();
+        json.add("State", state);
+        json.add("Config", config);
+        Mockito.doReturn(new ContainerDetails(json)).when(docker).getContainer(CONTAINER_ID);
+    }
+
+    private static ContainerEvent event(String json) {
+        return new ContainerEvent(JsonFactory.newJsonObject(json));
+    }
+}
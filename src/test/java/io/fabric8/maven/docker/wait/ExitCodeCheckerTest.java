@@ -1,7 +1,9 @@
 package io.fabric8.maven.docker.wait;
 
+import io.fabric8.maven.docker.access.DockerAccess;
 import io.fabric8.maven.docker.access.DockerAccessException;
-import io.fabric8.maven.docker.model.Container;
+import io.fabric8.maven.docker.model.ContainerDetails;
+import io.fabric8.maven.docker.service.ContainerSnapshot;
 import io.fabric8.maven.docker.service.QueryService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -16,48 +18,83 @@ class ExitCodeCheckerTest {
     private static final String CONTAINER_ID = "1234";
 
     @Mock
-    private QueryService queryService;
+    private DockerAccess docker;
 
     @Mock
-    private Container container;
+    private ContainerDetails container;
 
     @Test
     void checkReturnsFalseIfContainerDoesNotExist() throws DockerAccessException {
 
-        Mockito.doThrow(new DockerAccessException("Cannot find container %s", CONTAINER_ID))
-            .when(queryService).getMandatoryContainer(CONTAINER_ID);
+        Mockito.doReturn(null).when(docker).getContainer(CONTAINER_ID);
 
-        ExitCodeChecker checker = new ExitCodeChecker(0, queryService, CONTAINER_ID);
+        ExitCodeChecker checker = new ExitCodeChecker(0, new QueryService(docker), CONTAINER_ID);
+        Assertions.assertFalse(checker.check());
+    }
+
+    @Test
+    void checkReturnsFalseIfInspectFails() throws DockerAccessException {
+
+        Mockito.doThrow(new DockerAccessException("Cannot inspect container %s", CONTAINER_ID))
+            .when(docker).getContainer(CONTAINER_ID);
+
+        ExitCodeChecker checker = new ExitCodeChecker(0, new QueryService(docker), CONTAINER_ID);
         Assertions.assertFalse(checker.check());
     }
 
     @Test
     void checkReturnsFalseIfContainerIsStillRunning() throws DockerAccessException {
 
-        Mockito.doReturn(container).when(queryService).getMandatoryContainer(CONTAINER_ID);
+        Mockito.doReturn(container).when(docker).getContainer(CONTAINER_ID);
         Mockito.doReturn(null).when(container).getExitCode();
 
-        ExitCodeChecker checker = new ExitCodeChecker(0, queryService, CONTAINER_ID);
+        ExitCodeChecker checker = new ExitCodeChecker(0, new QueryService(docker), CONTAINER_ID);
         Assertions.assertFalse(checker.check());
     }
 
     @Test
     void checkReturnsFalseIfActualExitCodeDoesNotMatchExpectedExitCode() throws DockerAccessException {
 
-        Mockito.doReturn(container).when(queryService).getMandatoryContainer(CONTAINER_ID);
+        Mockito.doReturn(container).when(docker).getContainer(CONTAINER_ID);
         Mockito.doReturn(1).when(container).getExitCode();
 
-        ExitCodeChecker checker = new ExitCodeChecker(0, queryService, CONTAINER_ID);
+        ExitCodeChecker checker = new ExitCodeChecker(0, new QueryService(docker), CONTAINER_ID);
         Assertions.assertFalse(checker.check());
     }
 
     @Test
     void checkReturnsTrueIfActualExitCodeMatchesExpectedExitCode() throws DockerAccessException {
 
-        Mockito.doReturn(container).when(queryService).getMandatoryContainer(CONTAINER_ID);
+        Mockito.doReturn(container).when(docker).getContainer(CONTAINER_ID);
+        Mockito.doReturn(0).when(container).getExitCode();
+
+        ExitCodeChecker checker = new ExitCodeChecker(0, new QueryService(docker), CONTAINER_ID);
+        Assertions.assertTrue(checker.check());
+    }
+
+    @Test
+    void checkInspectsContainerOnEveryCheckWithoutSharedSnapshot() throws DockerAccessException {
+
+        Mockito.doReturn(container).when(docker).getContainer(CONTAINER_ID);
+        Mockito.doReturn(null, 0).when(container).getExitCode();
+
+        ExitCodeChecker checker = new ExitCodeChecker(0, new QueryService(docker), CONTAINER_ID);
+        Assertions.assertFalse(checker.check());
+        Assertions.assertTrue(checker.check());
+        Mockito.verify(docker, Mockito.times(2)).getContainer(CONTAINER_ID);
+    }
+
+    @Test
+    void checkUsesContainerSnapshot() throws DockerAccessException {
+
+        Mockito.doReturn(container).when(docker).getContainer(CONTAINER_ID);
         Mockito.doReturn(0).when(container).getExitCode();
 
-        ExitCodeChecker checker = new ExitCodeChecker(0, queryService, CONTAINER_ID);
+        ContainerSnapshot snapshot = new ContainerSnapshot(docker, CONTAINER_ID);
+        snapshot.get();
+        ExitCodeChecker checker = new ExitCodeChecker(0, snapshot, null);
         Assertions.assertTrue(checker.check());
+        Mockito.verify(docker).getContainer(CONTAINER_ID);
+        Assertions.assertEquals(1, snapshot.getInspectsAvoided());
     }
 }
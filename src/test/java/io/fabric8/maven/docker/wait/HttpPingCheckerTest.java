@@ -1,7 +1,13 @@
 package io.fabric8.maven.docker.wait;
 
 import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.sun.net.httpserver.HttpServer;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -9,7 +15,9 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.RETURNS_SELF;
 import static org.mockito.Mockito.mock;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -92,4 +100,56 @@ class HttpPingCheckerTest {
             verify(logger).debug(any(), eq(message), any());
         }
     }
+
+    @Test
+    void clientIsCreatedOnceAndClosedOnCleanUp() throws IOException {
+        try (MockedStatic<HttpClientBuilder> mockedStatic = mockStatic(HttpClientBuilder.class)) {
+            final CloseableHttpClient httpClient = mock(CloseableHttpClient.class);
+            final HttpClientBuilder httpClientBuilder = mock(HttpClientBuilder.class, RETURNS_SELF);
+            when(httpClientBuilder.build()).thenReturn(httpClient);
+            mockedStatic.when(HttpClientBuilder::create).thenReturn(httpClientBuilder);
+
+            final CloseableHttpResponse response = mock(CloseableHttpResponse.class);
+            when(httpClient.execute(any())).thenReturn(response);
+
+            final StatusLine statusLine = mock(StatusLine.class);
+            when(statusLine.getStatusCode()).thenReturn(500);
+            when(response.getStatusLine()).thenReturn(statusLine);
+
+            for (int i = 0; i < 3; i++) {
+                assertFalse(httpPingChecker.check());
+            }
+            httpPingChecker.cleanUp();
+
+            mockedStatic.verify(HttpClientBuilder::create, times(1));
+            verify(httpClient, times(3)).execute(any());
+            verify(response, times(3)).close();
+            verify(httpClient).close();
+        }
+    }
+
+    @Test
+    void connectionIsKeptAliveBetweenChecks() throws IOException {
+        Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "starting".getBytes();
+            exchange.sendResponseHeaders(503, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            HttpPingChecker checker = new HttpPingChecker("http://127.0.0.1:" + server.getAddress().getPort() + "/",
+                                                          "GET", "200", false, 2000, logger);
+            for (int i = 0; i < 5; i++) {
+                assertFalse(checker.check());
+            }
+            checker.cleanUp();
+            assertEquals(1, clientPorts.size());
+        } finally {
+            server.stop(0);
+        }
+    }
 }
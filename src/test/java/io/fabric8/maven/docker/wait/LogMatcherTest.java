@@ -0,0 +1,84 @@
+package io.fabric8.maven.docker.wait;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LogMatcherTest {
+
+    @Test
+    void singleLinePatternDoesNotSpanLines() {
+        LogMatcher matcher = new LogMatcher(Collections.singletonList("ready.*connections"), 0, 0);
+        Assertions.assertFalse(matcher.matches("ready"));
+        Assertions.assertFalse(matcher.matches("to accept connections"));
+        Assertions.assertTrue(matcher.matches("ready to accept connections"));
+        Assertions.assertEquals(0, matcher.getWindowLength());
+    }
+
+    @Test
+    void multiLinePatternWithinWindow() {
+        LogMatcher matcher = new LogMatcher(Collections.singletonList("(?s)first.*last"), 4, 0);
+        Assertions.assertFalse(matcher.matches("first"));
+        Assertions.assertFalse(matcher.matches("middle"));
+        Assertions.assertFalse(matcher.matches("middle"));
+        Assertions.assertTrue(matcher.matches("last"));
+    }
+
+    @Test
+    void linesOutsideOfWindowAreDropped() {
+        LogMatcher matcher = new LogMatcher(Collections.singletonList("(?s)first.*last"), 3, 0);
+        Assertions.assertFalse(matcher.matches("first"));
+        Assertions.assertFalse(matcher.matches("middle"));
+        Assertions.assertFalse(matcher.matches("middle"));
+        Assertions.assertFalse(matcher.matches("last"));
+        Assertions.assertEquals("middle\nmiddle\nlast\n".length(), matcher.getWindowLength());
+    }
+
+    @Test
+    void windowIsLimitedInBytes() {
+        // "first\n" takes 6 bytes, two euro signs with the line separator 7 bytes
+        LogMatcher matcher = new LogMatcher(Collections.singletonList("(?s)first.*last"), 0, 17);
+        Assertions.assertFalse(matcher.matches("first"));
+        Assertions.assertFalse(matcher.matches("\u20ac\u20ac"));
+        Assertions.assertFalse(matcher.matches("last"));
+
+        matcher = new LogMatcher(Collections.singletonList("(?s)first.*last"), 0, 18);
+        Assertions.assertFalse(matcher.matches("first"));
+        Assertions.assertFalse(matcher.matches("\u20ac\u20ac"));
+        Assertions.assertTrue(matcher.matches("last"));
+    }
+
+    @Test
+    void newestLineIsKeptWhenLargerThanWindow() {
+        LogMatcher matcher = new LogMatcher(Collections.singletonList("(?s)^x+done$"), 0, 8);
+        Assertions.assertFalse(matcher.matches("first"));
+        Assertions.assertTrue(matcher.matches("xxxxxxxxxxxxxxxxdone"));
+    }
+
+    @Test
+    void firstMatchingAlternativeWins() {
+        LogMatcher matcher = new LogMatcher(Arrays.asList("started on port \\d+", "(?s)ready\n.*ready", "failed"), 0, 0);
+        Assertions.assertFalse(matcher.matches("ready"));
+        Assertions.assertNull(matcher.getMatchedPattern());
+        Assertions.assertTrue(matcher.matches("ready again"));
+        Assertions.assertEquals("(?s)ready\n.*ready", matcher.getMatchedPattern().pattern());
+
+        matcher = new LogMatcher(Arrays.asList("started on port \\d+", "(?s)ready\n.*ready", "failed"), 0, 0);
+        Assertions.assertTrue(matcher.matches("started on port 8080"));
+        Assertions.assertEquals("started on port \\d+", matcher.getMatchedPattern().pattern());
+    }
+
+    @Test
+    void windowStaysBoundedForLongLogs() {
+        LogMatcher matcher = new LogMatcher(Collections.singletonList("(?s)begin\n.*\nend"), 10, 0);
+        for (int i = 0; i < 100_000; i++) {
+            Assertions.assertFalse(matcher.matches("line " + i));
+            Assertions.assertTrue(matcher.getWindowLength() <= 10 * "line 100000\n".length());
+        }
+        Assertions.assertFalse(matcher.matches("begin"));
+        Assertions.assertFalse(matcher.matches("some output"));
+        Assertions.assertTrue(matcher.matches("end"));
+    }
+}
@@ -0,0 +1,224 @@
+package io.fabric8.maven.docker.wait;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TcpPortCheckerTest {
+
+    private static final InetAddress LOOPBACK = InetAddress.getLoopbackAddress();
+
+    private static final long PROBE_TIMEOUT = 3000;
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    private final FakeProber prober = new FakeProber();
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+    }
+
+    @Test
+    void allPortsOpen() throws IOException {
+        List<Integer> ports = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ports.add(register(new ServerSocket(0, 50, LOOPBACK)).getLocalPort());
+        }
+        TcpPortChecker checker = new TcpPortChecker(LOOPBACK.getHostAddress(), ports);
+        Assertions.assertTrue(checker.check());
+        checker.cleanUp();
+    }
+
+    @Test
+    void closedPortIsPending() throws IOException {
+        int open = register(new ServerSocket(0, 50, LOOPBACK)).getLocalPort();
+        int closed = freePort();
+        TcpPortChecker checker = new TcpPortChecker(LOOPBACK.getHostAddress(), ports(open, closed));
+        Assertions.assertFalse(checker.check());
+        Assertions.assertTrue(checker.getLogLabel().contains(":" + closed));
+        Assertions.assertFalse(checker.getLogLabel().contains(":" + open));
+        checker.cleanUp();
+    }
+
+    @Test
+    void readyRightAfterDelayedPortListens() throws Exception {
+        int open = register(new ServerSocket(0, 50, LOOPBACK)).getLocalPort();
+        int delayed = freePort();
+        ServerSocket delayedSocket = register(new ServerSocket());
+        TcpPortChecker checker = new TcpPortChecker(LOOPBACK.getHostAddress(), ports(open, delayed));
+
+        Assertions.assertFalse(checker.check());
+        Assertions.assertTrue(checker.getLogLabel().contains(":" + delayed));
+
+        // Set before binding, so a connect can't succeed before it is set
+        AtomicLong listening = new AtomicLong();
+        Thread starter = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+                listening.set(System.nanoTime());
+                delayedSocket.bind(new InetSocketAddress(LOOPBACK, delayed), 50);
+            } catch (IOException | InterruptedException e) {
+                // Checked below as the port never opens
+            }
+        });
+        starter.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        boolean ready = false;
+        while (!ready && System.nanoTime() < deadline) {
+            ready = checker.check();
+            if (!ready) {
+                Thread.sleep(20);
+            }
+        }
+        long readyAt = System.nanoTime();
+        starter.join();
+
+        Assertions.assertTrue(ready);
+        Assertions.assertTrue(listening.get() > 0);
+        Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(readyAt - listening.get()) < 1000);
+        checker.cleanUp();
+    }
+
+    @Test
+    void refusedProbeIsCountedDownOnce() throws IOException {
+        TcpProber tcpProber = new TcpProber();
+        TcpProber.Probe probe = tcpProber.probe(new InetSocketAddress(LOOPBACK, freePort()));
+
+        Assertions.assertFalse(probe.getResult().join());
+        Assertions.assertEquals(0, tcpProber.getInFlight());
+        probe.cancel();
+        Assertions.assertEquals(0, tcpProber.getInFlight());
+    }
+
+    @Test
+    void pendingPortsAreProbedConcurrently() {
+        TcpPortChecker checker = checker(1, 2, 3, 4, 5, 6);
+
+        Assertions.assertFalse(checker.check());
+
+        // All probes are started before waiting for any of them
+        Assertions.assertEquals(6, prober.probes.size());
+        checker.cleanUp();
+    }
+
+    @Test
+    void probeInFlightIsKeptForNextCheck() {
+        TcpPortChecker checker = checker(1);
+        Assertions.assertFalse(checker.check());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(PROBE_TIMEOUT - 1));
+        Assertions.assertFalse(checker.check());
+        Assertions.assertEquals(1, prober.probes.size());
+
+        prober.probes.get(0).complete(true);
+        Assertions.assertTrue(checker.check());
+        Assertions.assertEquals(1, prober.probes.size());
+    }
+
+    @Test
+    void expiredProbeIsStartedAgain() {
+        TcpPortChecker checker = checker(1);
+        Assertions.assertFalse(checker.check());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(PROBE_TIMEOUT));
+        Assertions.assertFalse(checker.check());
+
+        Assertions.assertEquals(2, prober.probes.size());
+        Assertions.assertTrue(prober.probes.get(0).getResult().isDone());
+        Assertions.assertFalse(prober.probes.get(0).isConnected());
+        Assertions.assertFalse(prober.probes.get(1).getResult().isDone());
+        checker.cleanUp();
+    }
+
+    @Test
+    void refusedProbeIsStartedAgain() {
+        TcpPortChecker checker = checker(1);
+        Assertions.assertFalse(checker.check());
+
+        prober.probes.get(0).complete(false);
+        Assertions.assertFalse(checker.check());
+        Assertions.assertEquals(2, prober.probes.size());
+
+        prober.probes.get(1).complete(true);
+        Assertions.assertTrue(checker.check());
+    }
+
+    @Test
+    void readyWhenLastPortOpens() {
+        TcpPortChecker checker = checker(1, 2);
+        Assertions.assertFalse(checker.check());
+
+        prober.probes.get(0).complete(true);
+        Assertions.assertFalse(checker.check());
+        Assertions.assertEquals(2, prober.probes.size());
+        Assertions.assertTrue(checker.getLogLabel().contains(":2"));
+        Assertions.assertFalse(checker.getLogLabel().contains(":1"));
+
+        prober.probes.get(1).complete(true);
+        Assertions.assertTrue(checker.check());
+    }
+
+    @Test
+    void cleanUpCancelsProbesInFlight() {
+        TcpPortChecker checker = checker(1, 2);
+        Assertions.assertFalse(checker.check());
+
+        checker.cleanUp();
+        for (TcpProber.Probe probe : prober.probes) {
+            Assertions.assertTrue(probe.getResult().isDone());
+            Assertions.assertFalse(probe.isConnected());
+        }
+    }
+
+    // Doesn't wait within a check, as the probes are completed by the test only
+    private TcpPortChecker checker(int... ports) {
+        return new TcpPortChecker(LOOPBACK.getHostAddress(), ports(ports), prober, 0, PROBE_TIMEOUT, clock::get);
+    }
+
+    private <T extends AutoCloseable> T register(T resource) {
+        resources.add(resource);
+        return resource;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 50, LOOPBACK)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static List<Integer> ports(int... ports) {
+        List<Integer> ret = new ArrayList<>();
+        for (int port : ports) {
+            ret.add(port);
+        }
+        return ret;
+    }
+
+    // Hands out probes which are only completed by the test
+    private static class FakeProber extends TcpProber {
+
+        private final List<Probe> probes = new ArrayList<>();
+
+        @Override
+        Probe probe(InetSocketAddress address) {
+            Probe probe = new Probe(this);
+            probes.add(probe);
+            return probe;
+        }
+    }
+}